@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.api;
+
+import java.io.Serializable;
+import java.util.List;
+
+import javax.batch.api.partition.PartitionAnalyzer;
+
+/**
+ * Container extension to {@link PartitionAnalyzer} which is given the collector data that has
+ * built up from the partitions since it was last called all at once, rather than one item at a time.
+ * 
+ * The items are in the order they were sent, and {@link #analyzeStatus(javax.batch.runtime.BatchStatus, String)} 
+ * is still called for each partition after any data that partition sent before ending, so 
+ * {@link #analyzeCollectorData(Serializable)} is never called for an analyzer implementing this.
+ */
+public interface BatchingPartitionAnalyzer extends PartitionAnalyzer {
+
+	/**
+	 * @param data the collector data, oldest first, never empty.
+	 * @throws Exception is thrown if an error occurs.
+	 */
+	public void analyzeCollectorData(List<Serializable> data) throws Exception;
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.api;
+
+import java.util.List;
+
+import javax.batch.api.chunk.ItemProcessor;
+
+/**
+ * Container extension to {@link ItemProcessor} which processes all the items read 
+ * for a chunk in one call.
+ * 
+ * The container only uses processItems() when the step runs with the default 'serial' 
+ * processing mode and has no ItemProcessListener configured.  Otherwise, and while retrying 
+ * a chunk one item at a time after a rollback, it falls back to {@link #processItem(Object)}.
+ * 
+ * If processItems() throws an exception the container processes the same items again 
+ * through processItem(), one at a time, so that skip and retry are applied per item.  That 
+ * includes any processItems() had already got through before it failed, so processing an
+ * item must be idempotent: whatever it changes outside the item, e.g. a cache or a counter, 
+ * it must be safe to change again for the same item.
+ */
+public interface BulkItemProcessor extends ItemProcessor {
+
+	/**
+	 * Process a list of items.
+	 * 
+	 * @param items the items read, in read order.
+	 * @return a list of the same size, where the element at each index is the result of 
+	 * processing the item at that index, or null if the item is to be filtered.
+	 * @throws Exception is thrown for any errors, after which every one of the items is 
+	 * processed again by {@link #processItem(Object)}.
+	 */
+	public List<Object> processItems(List<Object> items) throws Exception;
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.api;
+
+import java.util.List;
+
+import javax.batch.api.chunk.ItemReader;
+
+/**
+ * Container extension to {@link ItemReader} for readers of many small items, 
+ * allowing the container to read several items of a chunk in one call.
+ * 
+ * The container only uses readItems() when the step runs with the default 'serial' 
+ * processing mode and has no ItemReadListener configured.  Otherwise, and while retrying 
+ * a chunk one item at a time after a rollback, it falls back to {@link #readItem()}, 
+ * so both must be implemented consistently.
+ * 
+ * An exception thrown from readItems() is subject to the chunk's skip and retry 
+ * configuration as if it had been thrown from a single readItem().
+ */
+public interface BulkItemReader extends ItemReader {
+
+	/**
+	 * Read up to maxItems items.
+	 * 
+	 * @param maxItems the number of items which still fit in the current chunk, at least 1.
+	 * @return the next items, in order, without any null elements.   An empty list (or null) 
+	 * indicates there are no more items, just as a null from readItem() does.
+	 * @throws Exception is thrown for any errors.
+	 */
+	public List<Object> readItems(int maxItems) throws Exception;
+}
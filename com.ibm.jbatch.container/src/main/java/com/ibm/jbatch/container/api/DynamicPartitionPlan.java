@@ -0,0 +1,50 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.api;
+
+import java.util.List;
+
+import javax.batch.api.partition.PartitionPlan;
+
+/**
+ * Container extension to {@link PartitionPlan} which, rather than fixing the work of each 
+ * partition up front, publishes the step's input as a list of splittable {@link WorkRange}s.
+ * 
+ * When a PartitionMapper returns a DynamicPartitionPlan, the partitions pull ranges from a queue 
+ * shared by the step, and a partition which runs out of ranges splits the remainder of the 
+ * largest range still in progress, taking its second half.  So the number of partitions is 
+ * just the number of workers, and one slow range no longer holds up the whole step.
+ * 
+ * Only partitions whose reader implements {@link WorkRangeItemReader} take part.
+ * 
+ * Which parts of the ranges have been committed is tracked across executions.  On a normal 
+ * restart the partitions pick up the ranges left over from the previous execution, and the 
+ * ranges returned by the mapper are only used for a fresh start (including a restart with 
+ * partitionsOverride=true, or after the step completed).
+ */
+public interface DynamicPartitionPlan extends PartitionPlan {
+
+	/**
+	 * @return the ranges making up the step's input.
+	 */
+	public List<WorkRange> getWorkRanges();
+
+	/**
+	 * @return the smallest range a split may leave behind or take away, at least 1.
+	 */
+	public long getMinimumSplitSize();
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.api;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.batch.api.partition.PartitionPlanImpl;
+
+/**
+ * The basic implementation of {@link DynamicPartitionPlan}.
+ */
+public class DynamicPartitionPlanImpl extends PartitionPlanImpl implements DynamicPartitionPlan {
+
+	private List<WorkRange> workRanges = new ArrayList<WorkRange>();
+	private long minimumSplitSize = 1;
+
+	@Override
+	public List<WorkRange> getWorkRanges() {
+		return workRanges;
+	}
+
+	public void setWorkRanges(List<WorkRange> workRanges) {
+		this.workRanges = workRanges;
+	}
+
+	@Override
+	public long getMinimumSplitSize() {
+		return minimumSplitSize;
+	}
+
+	public void setMinimumSplitSize(long minimumSplitSize) {
+		if (minimumSplitSize < 1) {
+			throw new IllegalArgumentException("Minimum split size must be 1 or greater, not: " + minimumSplitSize);
+		}
+		this.minimumSplitSize = minimumSplitSize;
+	}
+}
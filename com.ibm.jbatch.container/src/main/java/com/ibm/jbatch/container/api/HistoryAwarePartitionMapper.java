@@ -0,0 +1,37 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.api;
+
+import javax.batch.api.partition.PartitionMapper;
+
+/**
+ * Container extension to {@link PartitionMapper} for mappers which plan the partitions, or the 
+ * threads to run them on, using how the partitions of previous runs of the step went.
+ * 
+ * Partition durations and item counts are recorded for steps with such a mapper, or with the 
+ * {@value com.ibm.jbatch.container.impl.PartitionHelper#SCHEDULE_PROPERTY} step property set to 
+ * {@value com.ibm.jbatch.container.impl.PartitionHelper#LONGEST_FIRST}, by job name and step id.
+ */
+public interface HistoryAwarePartitionMapper extends PartitionMapper {
+
+	/**
+	 * Called before mapPartitions().
+	 * 
+	 * @param statistics the statistics of the step's partitions so far
+	 */
+	public void setPartitionStatistics(PartitionStatistics statistics);
+}
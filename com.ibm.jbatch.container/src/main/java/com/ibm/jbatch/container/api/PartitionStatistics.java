@@ -0,0 +1,47 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.api;
+
+/**
+ * What the previous runs of a partitioned step say about its partitions, for a 
+ * {@link HistoryAwarePartitionMapper} to plan with.
+ */
+public interface PartitionStatistics {
+
+	/**
+	 * @param partition the partition number
+	 * @return how long the partition is expected to run for, in milliseconds, or -1 if it has no history.
+	 */
+	public long getExpectedDuration(int partition);
+
+	/**
+	 * @param partition the partition number
+	 * @return how many items the partition is expected to read, or -1 if it has no history.
+	 */
+	public long getExpectedItemCount(int partition);
+
+	/**
+	 * Suggest how many threads to run the partitions on.  This is no more than the number of 
+	 * partitions or of available processors, and no more than it takes for the longest partition 
+	 * to be the one which determines how long the step takes, with the partitions started 
+	 * longest first.
+	 * 
+	 * @param partitions the number of partitions
+	 * @return the suggested number of threads, at least 1.
+	 */
+	public int getSuggestedThreads(int partitions);
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.api;
+
+import java.io.Serializable;
+
+/**
+ * A range of positions [start, end) of some splittable input, e.g. a range of keys 
+ * or of byte offsets into a file, as published by a {@link DynamicPartitionPlan}.
+ */
+public class WorkRange implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final long start;
+	private final long end;
+
+	public WorkRange(long start, long end) {
+		if (end < start) {
+			throw new IllegalArgumentException("Range end: " + end + " is before its start: " + start);
+		}
+		this.start = start;
+		this.end = end;
+	}
+
+	/**
+	 * @return the first position in the range
+	 */
+	public long getStart() {
+		return start;
+	}
+
+	/**
+	 * @return the position just after the range
+	 */
+	public long getEnd() {
+		return end;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof WorkRange)) {
+			return false;
+		}
+		WorkRange other = (WorkRange) obj;
+		return start == other.start && end == other.end;
+	}
+
+	@Override
+	public int hashCode() {
+		return (int) (start ^ (start >>> 32)) * 31 + (int) (end ^ (end >>> 32));
+	}
+
+	@Override
+	public String toString() {
+		return "[" + start + ", " + end + ")";
+	}
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.api;
+
+import javax.batch.api.chunk.ItemReader;
+
+/**
+ * Container extension to {@link ItemReader} for the partitions of a step whose mapper 
+ * returns a {@link DynamicPartitionPlan}.
+ * 
+ * The reader reads the ranges it claims from the queue, one after another, and returns 
+ * null from readItem() once {@link WorkRangeQueue#claim()} does.  The container commits 
+ * the progress reported through {@link WorkRangeTracker#tryClaim(long)} with each chunk. 
+ * After a rollback the reader is reopened, and claiming again resumes the same ranges from 
+ * the last commit, so the reader's own checkpoint isn't needed to reposition it.
+ */
+public interface WorkRangeItemReader extends ItemReader {
+
+	/**
+	 * Called before the reader is first opened, with the queue to claim ranges from.
+	 * 
+	 * @param queue the queue of this partition.
+	 */
+	public void setWorkRangeQueue(WorkRangeQueue queue);
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.api;
+
+/**
+ * A partition's view of the {@link WorkRange}s of a {@link DynamicPartitionPlan}.
+ */
+public interface WorkRangeQueue {
+
+	/**
+	 * Claim a range to read.  This is, in order of preference, a range of this partition 
+	 * to resume after a rollback, a range nobody has started on yet, or the second half 
+	 * split off the largest range another partition is working on.
+	 * 
+	 * @return the range to read, or null if there's no work left for this partition.
+	 */
+	public WorkRangeTracker claim();
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.api;
+
+/**
+ * A range claimed from a {@link WorkRangeQueue}, through which the reader reports its 
+ * progress.  The end of the range moves back if another partition splits it.
+ * 
+ * A range owns the items which start at positions in it, so a reader resuming at a 
+ * position in the middle of an item (e.g. a byte offset inside a record) should skip to 
+ * the start of the next item.
+ */
+public interface WorkRangeTracker {
+
+	/**
+	 * @return the position to start reading from, which is after the last committed 
+	 * item if the range is being resumed.
+	 */
+	public long getStart();
+
+	/**
+	 * @return the current end of the range.
+	 */
+	public long getEnd();
+
+	/**
+	 * Claim the item at the given position, before returning it from readItem().
+	 * 
+	 * @param position the position of the item, not before those claimed previously.
+	 * @return true if the item belongs to the range, or false if the position is at or 
+	 * past its end, in which case the reader should move on to the next claimed range.
+	 */
+	public boolean tryClaim(long position);
+}
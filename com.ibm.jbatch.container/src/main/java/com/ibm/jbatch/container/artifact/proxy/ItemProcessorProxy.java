@@ -16,8 +16,12 @@
  */
 package com.ibm.jbatch.container.artifact.proxy;
 
+import java.util.List;
+
 import javax.batch.api.chunk.ItemProcessor;
 
+import com.ibm.jbatch.container.api.BulkItemProcessor;
+
 public class ItemProcessorProxy  extends AbstractProxy<ItemProcessor> implements ItemProcessor {
 
 	ItemProcessorProxy(ItemProcessor delegate) { 
@@ -34,4 +38,16 @@ public class ItemProcessorProxy  extends AbstractProxy<ItemProcessor> implements
 		return this.delegate.processItem(item);
 	}
 
+	public boolean isBulkItemProcessor() {
+		return this.delegate instanceof BulkItemProcessor;
+	}
+
+	/*
+	 * As with processItem(), exceptions are thrown as-is.
+	 * @see com.ibm.jbatch.container.api.BulkItemProcessor#processItems(List)
+	 */
+	public List<Object> processItems(List<Object> items) throws Exception {
+		return ((BulkItemProcessor) this.delegate).processItems(items);
+	}
+
 }
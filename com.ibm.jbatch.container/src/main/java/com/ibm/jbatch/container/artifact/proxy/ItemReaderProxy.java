@@ -17,9 +17,13 @@
 package com.ibm.jbatch.container.artifact.proxy;
 
 import java.io.Serializable;
+import java.util.List;
 
 import javax.batch.api.chunk.ItemReader;
 
+import com.ibm.jbatch.container.api.BulkItemReader;
+import com.ibm.jbatch.container.api.WorkRangeItemReader;
+import com.ibm.jbatch.container.api.WorkRangeQueue;
 import com.ibm.jbatch.container.exception.BatchContainerRuntimeException;
 
 public class ItemReaderProxy extends AbstractProxy<ItemReader> implements ItemReader {
@@ -68,4 +72,29 @@ public class ItemReaderProxy extends AbstractProxy<ItemReader> implements ItemRe
 		return this.delegate.readItem();
     }
 
+    public boolean isBulkItemReader() {
+    	return this.delegate instanceof BulkItemReader;
+    }
+
+    /*
+     * As with readItem(), exceptions are thrown as-is.
+     * @see com.ibm.jbatch.container.api.BulkItemReader#readItems(int)
+     */
+    public List<Object> readItems(int maxItems) throws Exception {
+    	return ((BulkItemReader) this.delegate).readItems(maxItems);
+    }
+
+    public boolean isWorkRangeItemReader() {
+    	return this.delegate instanceof WorkRangeItemReader;
+    }
+
+    public void setWorkRangeQueue(WorkRangeQueue queue) {
+        try {
+        	((WorkRangeItemReader) this.delegate).setWorkRangeQueue(queue);
+        } catch (Exception e) {
+        	this.stepContext.setException(e);
+            throw new BatchContainerRuntimeException(e);
+        }
+    }
+
 }
@@ -17,10 +17,12 @@
 package com.ibm.jbatch.container.artifact.proxy;
 
 import java.io.Serializable;
+import java.util.List;
 
 import javax.batch.api.partition.PartitionAnalyzer;
 import javax.batch.runtime.BatchStatus;
 
+import com.ibm.jbatch.container.api.BatchingPartitionAnalyzer;
 import com.ibm.jbatch.container.exception.BatchContainerRuntimeException;
 
 public class PartitionAnalyzerProxy extends AbstractProxy<PartitionAnalyzer> implements PartitionAnalyzer {
@@ -41,6 +43,20 @@ public class PartitionAnalyzerProxy extends AbstractProxy<PartitionAnalyzer> imp
         }
     }
 
+    public boolean isBatching() {
+    	return this.delegate instanceof BatchingPartitionAnalyzer;
+    }
+
+    public synchronized void analyzeCollectorData(List<Serializable> data) {
+        
+        try {
+            ((BatchingPartitionAnalyzer) this.delegate).analyzeCollectorData(data);
+        } catch (Exception e) {
+        	this.stepContext.setException(e);
+            throw new BatchContainerRuntimeException(e);
+        }
+    }
+
     @Override
     public synchronized void analyzeStatus(BatchStatus batchStatus, String exitStatus) {
         
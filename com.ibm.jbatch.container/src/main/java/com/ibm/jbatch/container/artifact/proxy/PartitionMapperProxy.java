@@ -19,6 +19,8 @@ package com.ibm.jbatch.container.artifact.proxy;
 import javax.batch.api.partition.PartitionMapper;
 import javax.batch.api.partition.PartitionPlan;
 
+import com.ibm.jbatch.container.api.HistoryAwarePartitionMapper;
+import com.ibm.jbatch.container.api.PartitionStatistics;
 import com.ibm.jbatch.container.exception.BatchContainerRuntimeException;
 
 public class PartitionMapperProxy extends AbstractProxy<PartitionMapper> implements PartitionMapper {
@@ -40,4 +42,17 @@ public class PartitionMapperProxy extends AbstractProxy<PartitionMapper> impleme
         }
     }
 
+    public boolean isHistoryAware() {
+    	return this.delegate instanceof HistoryAwarePartitionMapper;
+    }
+
+    public void setPartitionStatistics(PartitionStatistics statistics) {
+        try {
+        	((HistoryAwarePartitionMapper) this.delegate).setPartitionStatistics(statistics);
+        } catch (Exception e) {
+        	this.stepContext.setException(e);
+            throw new BatchContainerRuntimeException(e);
+        }
+    }
+
 }
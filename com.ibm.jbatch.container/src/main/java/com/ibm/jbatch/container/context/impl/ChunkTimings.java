@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.context.impl;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.ibm.jbatch.spi.ChunkPhase;
+
+/**
+ * Time spent in each phase of a chunk step's read-process-write loop, across all chunks 
+ * run so far (including any rolled back) and for the chunk in progress.
+ * 
+ * For each phase we keep a count, the total and the maximum of the recorded times, and a 
+ * histogram with power of two buckets, i.e. bucket <code>i</code> counts the times of 
+ * between <code>2^(i-1)</code> and <code>2^i - 1</code> nanoseconds (bucket 0 counts zeroes).
+ * 
+ * Recorded on the step thread, but may be read from any thread.
+ */
+public class ChunkTimings {
+
+	public static final int NUM_BUCKETS = 64;
+
+	private static final ChunkPhase[] PHASES = ChunkPhase.values();
+
+	private final long[] counts = new long[PHASES.length];
+	private final long[] totalNanos = new long[PHASES.length];
+	private final long[] maxNanos = new long[PHASES.length];
+	private final long[][] histograms = new long[PHASES.length][NUM_BUCKETS];
+
+	private final long[] currentChunkNanos = new long[PHASES.length];
+
+	public synchronized void record(ChunkPhase phase, long nanos) {
+		int i = phase.ordinal();
+		counts[i]++;
+		totalNanos[i] += nanos;
+		if (nanos > maxNanos[i]) {
+			maxNanos[i] = nanos;
+		}
+		histograms[i][bucketOf(nanos)]++;
+		currentChunkNanos[i] += nanos;
+	}
+
+	/**
+	 * Start accumulating the times for a new chunk.
+	 */
+	public synchronized void beginChunk() {
+		for (int i = 0; i < currentChunkNanos.length; i++) {
+			currentChunkNanos[i] = 0;
+		}
+	}
+
+	/**
+	 * @return the nanoseconds spent in each phase since the last {@link #beginChunk()}.
+	 */
+	public synchronized Map<ChunkPhase, Long> getCurrentChunkNanos() {
+		Map<ChunkPhase, Long> chunkNanos = new EnumMap<ChunkPhase, Long>(ChunkPhase.class);
+		for (ChunkPhase phase : PHASES) {
+			chunkNanos.put(phase, currentChunkNanos[phase.ordinal()]);
+		}
+		return Collections.unmodifiableMap(chunkNanos);
+	}
+
+	public synchronized long getCount(ChunkPhase phase) {
+		return counts[phase.ordinal()];
+	}
+
+	public synchronized long getTotalNanos(ChunkPhase phase) {
+		return totalNanos[phase.ordinal()];
+	}
+
+	public synchronized long getMaxNanos(ChunkPhase phase) {
+		return maxNanos[phase.ordinal()];
+	}
+
+	/**
+	 * @return a copy of the phase's histogram, see the class description for the buckets. 
+	 */
+	public synchronized long[] getHistogram(ChunkPhase phase) {
+		return histograms[phase.ordinal()].clone();
+	}
+
+	static int bucketOf(long nanos) {
+		return nanos <= 0 ? 0 : Math.min(NUM_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+	}
+
+	@Override
+	public synchronized String toString() {
+		StringBuilder buf = new StringBuilder("ChunkTimings[");
+		for (ChunkPhase phase : PHASES) {
+			int i = phase.ordinal();
+			buf.append(phase).append(": count=").append(counts[i]);
+			buf.append(", totalMillis=").append(totalNanos[i] / 1000000);
+			buf.append(", maxMillis=").append(maxNanos[i] / 1000000);
+			buf.append(i < PHASES.length - 1 ? "; " : "]");
+		}
+		return buf.toString();
+	}
+}
@@ -51,11 +51,16 @@ public class StepContextImpl implements StepContext {
     private Properties properties = new Properties(); 
 
     private String batchletProcessRetVal = null;
+
+    // Differs from the step id only for a lightweight partition
+    private String persistentStepName = null;
     
 	public final static String TOP_LEVEL_STEP_EXECUTION_ID_PROP = "com.ibm.jbatch.container.context.impl.StepContextImpl#getExecutionId";
 
 	private ConcurrentHashMap<String, Metric> metrics = new ConcurrentHashMap<String, Metric>();
 
+	private volatile ChunkTimings chunkTimings = null;
+
     public StepContextImpl(String stepId) {
         this.stepId = stepId;        
     }
@@ -85,6 +90,17 @@ public class StepContextImpl implements StepContext {
         return stepId;
     }
 
+    /**
+     * @return the step name the step execution is persisted under
+     */
+    public String getPersistentStepName() {
+        return persistentStepName == null ? stepId : persistentStepName;
+    }
+
+    public void setPersistentStepName(String persistentStepName) {
+        this.persistentStepName = persistentStepName;
+    }
+
     @Override
     public Metric[] getMetrics() {
         return metrics.values().toArray(new Metric[0]);
@@ -98,6 +114,18 @@ public class StepContextImpl implements StepContext {
     	metrics.putIfAbsent(metricType.name(), new MetricImpl(metricType, value));
     }
 
+    /**
+     * @return the time spent in each phase of a chunk step, or null if the step isn't 
+     * a chunk step or isn't timing its chunks.
+     */
+    public ChunkTimings getChunkTimings() {
+    	return chunkTimings;
+    }
+
+    public void setChunkTimings(ChunkTimings chunkTimings) {
+    	this.chunkTimings = chunkTimings;
+    }
+
     @Override
     public Serializable getPersistentUserData() {
         return persistentUserData;
@@ -41,6 +41,7 @@ import com.ibm.jbatch.container.context.impl.StepContextImpl;
 import com.ibm.jbatch.container.exception.BatchContainerRuntimeException;
 import com.ibm.jbatch.container.exception.BatchContainerServiceException;
 import com.ibm.jbatch.container.jobinstance.RuntimeJobExecution;
+import com.ibm.jbatch.container.jobinstance.RuntimePartitionExecution;
 import com.ibm.jbatch.container.jobinstance.StepExecutionImpl;
 import com.ibm.jbatch.container.persistence.PersistentDataWrapper;
 import com.ibm.jbatch.container.services.IBatchKernelService;
@@ -84,7 +85,7 @@ public abstract class BaseStepControllerImpl implements IExecutionElementControl
 
 	protected static IPersistenceManagerService _persistenceManagementService = ServicesManagerImpl.getInstance().getPersistenceManagerService();
 
-	private static IJobStatusManagerService _jobStatusService = (IJobStatusManagerService) ServicesManagerImpl.getInstance().getJobStatusManagerService();
+	protected static IJobStatusManagerService _jobStatusService = (IJobStatusManagerService) ServicesManagerImpl.getInstance().getJobStatusManagerService();
 
 	protected BaseStepControllerImpl(RuntimeJobExecution jobExecution, Step step, StepContextImpl stepContext, long rootJobExecutionId) {
 		this.jobExecutionImpl = jobExecution;
@@ -296,7 +297,14 @@ public abstract class BaseStepControllerImpl implements IExecutionElementControl
 			logger.finer("In shouldStepBeExecuted() with stepContext =  " + this.stepContext);
 		}
 
-		this.stepStatus = _jobStatusService.getStepStatus(jobInstance.getInstanceId(), step.getId());
+		if (isLightweightPartition()) {
+			// Already looked up by the partitioned step, if this is a restart
+			RuntimePartitionExecution partitionExecution = (RuntimePartitionExecution) jobExecutionImpl;
+			stepContext.setPersistentStepName(partitionExecution.getPartitionStepName());
+			this.stepStatus = partitionExecution.getStepStatus();
+		} else {
+			this.stepStatus = _jobStatusService.getStepStatus(jobInstance.getInstanceId(), step.getId());
+		}
 		if (stepStatus == null) {
 			logger.finer("No existing step status found.  Create new step execution and proceed to execution.");
 			// create new step execution
@@ -304,6 +312,9 @@ public abstract class BaseStepControllerImpl implements IExecutionElementControl
 			// create new step status for this run
 			stepStatus = _jobStatusService.createStepStatus(stepExecution.getStepExecutionId());
 			((StepContextImpl) stepContext).setStepExecutionId(stepExecution.getStepExecutionId());
+			if (isLightweightPartition()) {
+				((RuntimePartitionExecution) jobExecutionImpl).setStepStatus(stepStatus);
+			}
 			return true;
 		} else {
 			logger.finer("Existing step status found.");
@@ -372,10 +383,33 @@ public abstract class BaseStepControllerImpl implements IExecutionElementControl
 	protected boolean isRestartExecution() {
 		return stepStatus.getStartCount() > 1;
 	}
+
+	/**
+	 * @return true if this step is a lightweight partition, with no job instance of its own.
+	 */
+	protected boolean isLightweightPartition() {
+		return jobExecutionImpl instanceof RuntimePartitionExecution;
+	}
+
+	/**
+	 * @return the step name checkpoints are keyed by, along with the job instance id.  A lightweight
+	 * partition's are also keyed by its step status, so that a partition starting from scratch
+	 * doesn't pick up the checkpoints of a previous set of partitions. 
+	 */
+	protected String getCheckpointStepName() {
+		if (isLightweightPartition()) {
+			return stepContext.getPersistentStepName() + PartitionedStepBuilder.JOB_ID_SEPARATOR + stepStatus.getStepExecutionId();
+		} else {
+			return step.getId();
+		}
+	}
 	
 	protected void statusStarting() {
 		stepStatus.setBatchStatus(BatchStatus.STARTING);
-		_jobStatusService.updateJobCurrentStep(jobInstance.getInstanceId(), step.getId());
+		if (!isLightweightPartition()) {
+			// A lightweight partition shares the job status of the partitioned step
+			_jobStatusService.updateJobCurrentStep(jobInstance.getInstanceId(), step.getId());
+		}
 		_jobStatusService.updateStepStatus(stepStatus.getStepExecutionId(), stepStatus);
 		stepContext.setBatchStatus(BatchStatus.STARTING);
 	}
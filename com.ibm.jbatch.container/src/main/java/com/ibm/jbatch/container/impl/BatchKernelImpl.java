@@ -33,6 +33,7 @@ import javax.batch.operations.JobExecutionNotRunningException;
 import javax.batch.operations.JobRestartException;
 import javax.batch.operations.JobStartException;
 import javax.batch.operations.NoSuchJobExecutionException;
+import javax.batch.runtime.BatchStatus;
 import javax.batch.runtime.JobInstance;
 
 import com.ibm.jbatch.container.IThreadRootController;
@@ -43,11 +44,13 @@ import com.ibm.jbatch.container.jobinstance.RuntimeFlowInSplitExecution;
 import com.ibm.jbatch.container.jobinstance.RuntimeJobExecution;
 import com.ibm.jbatch.container.services.IBatchKernelService;
 import com.ibm.jbatch.container.services.IJobExecution;
+import com.ibm.jbatch.container.services.IJobStatusManagerService;
 import com.ibm.jbatch.container.services.IPersistenceManagerService;
 import com.ibm.jbatch.container.services.impl.NoOpBatchSecurityHelper;
 import com.ibm.jbatch.container.services.impl.RuntimeBatchJobUtil;
 import com.ibm.jbatch.container.servicesmanager.ServicesManager;
 import com.ibm.jbatch.container.servicesmanager.ServicesManagerImpl;
+import com.ibm.jbatch.container.status.StepStatus;
 import com.ibm.jbatch.container.util.BatchFlowInSplitWorkUnit;
 import com.ibm.jbatch.container.util.BatchPartitionWorkUnit;
 import com.ibm.jbatch.container.util.BatchWorkUnit;
@@ -77,6 +80,8 @@ public class BatchKernelImpl implements IBatchKernelService {
 
 	private IPersistenceManagerService persistenceService = null;
 
+	private IJobStatusManagerService jobStatusService = null;
+
 	private BatchSecurityHelper batchSecurity = null;
 
 	private BatchJobUtil batchJobUtil = null;
@@ -85,6 +90,7 @@ public class BatchKernelImpl implements IBatchKernelService {
 		executorService = servicesManager.getThreadPoolService();
 		callbackService = servicesManager.getJobCallbackService();
 		persistenceService = servicesManager.getPersistenceManagerService();
+		jobStatusService = servicesManager.getJobStatusManagerService();
 
 		// registering our implementation of the util class used to purge by apptag
 		batchJobUtil = new RuntimeBatchJobUtil();
@@ -203,6 +209,9 @@ public class BatchKernelImpl implements IBatchKernelService {
 			logger.fine("JobExecution done with batchStatus: " + jobExecution.getBatchStatus() + " , getting ready to invoke callbacks for JobExecution: " + jobExecution.getExecutionId());
 		}
 
+		// Drops the job status cached for the execution
+		jobStatusService.jobExecutionDone(jobExecution.getInstanceId());
+
 		callbackService.done(jobExecution.getExecutionId());
 
 		if (logger.isLoggable(Level.FINE)) {
@@ -269,6 +278,10 @@ public class BatchKernelImpl implements IBatchKernelService {
 	public List<BatchPartitionWorkUnit> buildNewParallelPartitions(PartitionsBuilderConfig config) 
 			throws JobRestartException, JobStartException {
 
+		if (config.isLightweight()) {
+			return buildLightweightPartitions(config);
+		}
+
 		List<JSLJob> jobModels = config.getJobModels();
 		Properties[] partitionPropertiesArray = config.getPartitionProperties();
 
@@ -304,6 +317,10 @@ public class BatchKernelImpl implements IBatchKernelService {
 	@Override
 	public List<BatchPartitionWorkUnit> buildOnRestartParallelPartitions(PartitionsBuilderConfig config) throws JobRestartException, JobExecutionAlreadyCompleteException, JobExecutionNotMostRecentException {
 
+		if (config.isLightweight()) {
+			return buildLightweightPartitions(config);
+		}
+
 		List<JSLJob> jobModels = config.getJobModels();
 		Properties[] partitionProperties = config.getPartitionProperties();
 
@@ -347,6 +364,42 @@ public class BatchKernelImpl implements IBatchKernelService {
 		return batchWorkUnits;
 	}
 
+	/*
+	 * Lightweight partitions run as part of the parent job execution, so they aren't registered as 
+	 * executions in their own right.  A partition is skipped if its step status from a previous 
+	 * execution shows it already completed.
+	 */
+	private List<BatchPartitionWorkUnit> buildLightweightPartitions(PartitionsBuilderConfig config) {
+
+		List<JSLJob> jobModels = config.getJobModels();
+		Properties[] partitionPropertiesArray = config.getPartitionProperties();
+		StepStatus[] partitionStepStatuses = config.getPartitionStepStatuses();
+
+		List<BatchPartitionWorkUnit> batchWorkUnits = new ArrayList<BatchPartitionWorkUnit>(jobModels.size());
+
+		int instance = 0;
+		for (JSLJob parallelJob  : jobModels){
+			Properties partitionProps = (partitionPropertiesArray == null) ? null : partitionPropertiesArray[instance];
+			StepStatus stepStatus = (partitionStepStatuses == null) ? null : partitionStepStatuses[instance];
+
+			if (stepStatus != null && BatchStatus.COMPLETED.equals(stepStatus.getBatchStatus())) {
+				logger.fine("This partition already completed: " + parallelJob.getId());
+			} else {
+				String partitionStepName = PartitionedStepBuilder.generatePartitionStepName(config.getStepId(), instance);
+				RuntimeJobExecution jobExecution = JobExecutionHelper.startLightweightPartition(parallelJob, partitionProps, 
+						config.getParentJobExecution(), instance, partitionStepName, stepStatus);
+
+				if (logger.isLoggable(Level.FINE)) {
+					logger.fine("JobExecution constructed: " + jobExecution);
+				}
+				batchWorkUnits.add(new BatchPartitionWorkUnit(this, jobExecution, config));
+			}
+			instance++;
+		}
+
+		return batchWorkUnits;
+	}
+
 	@Override
 	public void  restartGeneratedJob(BatchWorkUnit batchWork) throws JobRestartException {
 		String method = "restartGeneratedJob";
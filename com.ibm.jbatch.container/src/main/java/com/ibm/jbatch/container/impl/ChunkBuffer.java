@@ -0,0 +1,296 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ibm.jbatch.container.exception.BatchContainerRuntimeException;
+import com.ibm.jbatch.container.util.TCCLObjectInputStream;
+
+/**
+ * Holds the processed items of a chunk until they're written, keeping track of roughly how
+ * much memory they take up.
+ * 
+ * The size is estimated from the serialized size of every SAMPLE_INTERVAL-th item.  Once the 
+ * estimate reaches the configured limit the buffer reports itself full, and, if spilling, 
+ * serializes each further item to a temporary file instead of holding on to it.  Spilled items 
+ * are read back from a memory mapping of the file, one at a time, as the writer asks for them.
+ * Items which aren't Serializable are always held in memory.
+ * 
+ * Since a spilled item isn't held on to, each get() of it returns a new copy, and a change to 
+ * that copy is lost unless it's put back with set().  The list can be changed with set(), add() 
+ * and remove(), and replacing a spilled item spills the new one too.
+ *  
+ * {@link #close()} must be called once the chunk is done with, to delete the file.
+ */
+class ChunkBuffer extends AbstractList<Object> {
+
+	private final static String sourceClass = ChunkBuffer.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	private static final int SAMPLE_INTERVAL = 16;
+
+	// The most of the spill file mapped at once
+	private static final long MAX_MAPPING_BYTES = 64 * 1024 * 1024;
+
+	/**
+	 * Stands in for an item written to the spill file.
+	 */
+	private static class SpilledItem {
+		final long offset;
+		final int length;
+
+		SpilledItem(long offset, int length) {
+			this.offset = offset;
+			this.length = length;
+		}
+	}
+
+	private final String stepId;
+	private final long maxBytes;
+	private final boolean spill;
+
+	// Either an item, or a SpilledItem
+	private final List<Object> entries = new ArrayList<Object>();
+
+	private int inMemoryCount = 0;
+	private int sampledCount = 0;
+	private long sampledBytes = 0;
+
+	private File spillFile = null;
+	private OutputStream spillOut = null;
+	private long spillLength = 0;
+	private MappedByteBuffer spillMapping = null;
+	private long spillMappingOffset = 0;
+
+	ChunkBuffer(String stepId, long maxBytes, boolean spill) {
+		this.stepId = stepId;
+		this.maxBytes = maxBytes;
+		this.spill = spill;
+	}
+
+	/**
+	 * @return true if the items held in memory are estimated to have reached the limit.
+	 */
+	boolean isFull() {
+		return getEstimatedBytes() >= maxBytes;
+	}
+
+	long getEstimatedBytes() {
+		return sampledCount == 0 ? 0 : (sampledBytes / sampledCount) * inMemoryCount;
+	}
+
+	int getSpilledCount() {
+		return entries.size() - inMemoryCount;
+	}
+
+	@Override
+	public void add(int index, Object item) {
+		entries.add(index, toEntry(item));
+		modCount++;
+	}
+
+	@Override
+	public Object get(int index) {
+		return fromEntry(entries.get(index));
+	}
+
+	@Override
+	public Object set(int index, Object item) {
+		Object previous = fromEntry(entries.get(index));
+		if (!(entries.get(index) instanceof SpilledItem)) {
+			inMemoryCount--;
+		}
+		entries.set(index, toEntry(item));
+		return previous;
+	}
+
+	@Override
+	public Object remove(int index) {
+		Object entry = entries.remove(index);
+		if (!(entry instanceof SpilledItem)) {
+			inMemoryCount--;
+		}
+		modCount++;
+		return fromEntry(entry);
+	}
+
+	@Override
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Delete the spill file, if any.  The buffer can't be used afterwards. 
+	 */
+	void close() {
+		spillMapping = null;
+		if (spillFile != null) {
+			closeSpillOut();
+			if (!spillFile.delete()) {
+				// e.g. on Windows, until the mapping is garbage collected
+				spillFile.deleteOnExit();
+			}
+			spillFile = null;
+		}
+	}
+
+	/**
+	 * @return the item, or a SpilledItem standing in for it
+	 */
+	private Object toEntry(Object item) {
+		if (spill && item instanceof Serializable && isFull()) {
+			return spillItem(item);
+		}
+		if (inMemoryCount % SAMPLE_INTERVAL == 0 && item instanceof Serializable) {
+			sampleItem(item);
+		}
+		inMemoryCount++;
+		return item;
+	}
+
+	private Object fromEntry(Object entry) {
+		if (entry instanceof SpilledItem) {
+			return readSpilledItem((SpilledItem) entry);
+		}
+		return entry;
+	}
+
+	private void sampleItem(Object item) {
+		try {
+			sampledBytes += serialize(item).length;
+			sampledCount++;
+		} catch (IOException e) {
+			logger.logp(Level.FINE, sourceClass, "sampleItem", "Couldn't serialize item to sample its size", e);
+		}
+	}
+
+	private SpilledItem spillItem(Object item) {
+		try {
+			if (spillFile == null) {
+				spillFile = File.createTempFile("jbatch-" + stepId + "-", ".spill");
+				spillOut = new BufferedOutputStream(new FileOutputStream(spillFile));
+				if (logger.isLoggable(Level.FINE)) {
+					logger.fine("For step: " + stepId + ", spilling items to: " + spillFile + " after an estimated " + getEstimatedBytes() + " bytes");
+				}
+			}
+			byte[] bytes = serialize(item);
+			spillOut.write(bytes);
+			SpilledItem spilled = new SpilledItem(spillLength, bytes.length);
+			spillLength += bytes.length;
+			return spilled;
+		} catch (IOException e) {
+			throw new BatchContainerRuntimeException("Failed to spill item to " + spillFile + " for step: " + stepId, e);
+		}
+	}
+
+	private Object readSpilledItem(SpilledItem spilled) {
+		try {
+			// A mapping can't be over 2GB, so map a window of the file starting at the item
+			if (spillMapping == null || spilled.offset < spillMappingOffset 
+					|| spilled.offset + spilled.length > spillMappingOffset + spillMapping.capacity()) {
+				spillOut.flush();
+				long size = Math.max(spilled.length, Math.min(spillLength - spilled.offset, MAX_MAPPING_BYTES));
+				RandomAccessFile file = new RandomAccessFile(spillFile, "r");
+				try {
+					spillMapping = file.getChannel().map(FileChannel.MapMode.READ_ONLY, spilled.offset, size);
+					spillMappingOffset = spilled.offset;
+				} finally {
+					file.close();
+				}
+			}
+
+			ByteBuffer bytes = spillMapping.duplicate();
+			int position = (int) (spilled.offset - spillMappingOffset);
+			bytes.position(position);
+			bytes.limit(position + spilled.length);
+
+			TCCLObjectInputStream ois = new TCCLObjectInputStream(new ByteBufferInputStream(bytes));
+			try {
+				return ois.readObject();
+			} finally {
+				ois.close();
+			}
+		} catch (IOException e) {
+			throw new BatchContainerRuntimeException("Failed to read spilled item from " + spillFile + " for step: " + stepId, e);
+		} catch (ClassNotFoundException e) {
+			throw new BatchContainerRuntimeException("Failed to read spilled item from " + spillFile + " for step: " + stepId, e);
+		}
+	}
+
+	private void closeSpillOut() {
+		try {
+			spillOut.close();
+		} catch (IOException e) {
+			logger.logp(Level.FINE, sourceClass, "closeSpillOut", "Couldn't close spill file: " + spillFile, e);
+		}
+	}
+
+	private static byte[] serialize(Object item) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream oos = new ObjectOutputStream(bytes);
+		oos.writeObject(item);
+		oos.close();
+		return bytes.toByteArray();
+	}
+
+	private static class ByteBufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+
+		ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? (buffer.get() & 0xff) : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (!buffer.hasRemaining()) {
+				return -1;
+			}
+			int n = Math.min(len, buffer.remaining());
+			buffer.get(b, off, n);
+			return n;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+	}
+}
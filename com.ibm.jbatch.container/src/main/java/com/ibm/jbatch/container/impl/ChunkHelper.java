@@ -16,10 +16,78 @@
 */
 package com.ibm.jbatch.container.impl;
 
+import java.util.Properties;
+
 import com.ibm.jbatch.jsl.model.Chunk;
 
 public class ChunkHelper {
 
+	/**
+	 * Step property selecting how items are handed to the ItemProcessor.  One of 
+	 * 'serial' (the default, and the only spec-defined behavior), 'pipelined' (each item
+	 * is processed on another thread while the next is read) or 'parallel' (the whole chunk
+	 * is read and then its items are processed across several threads).
+	 */
+	public static final String PROCESSING_MODE_PROPERTY = "com.ibm.jbatch.container.chunk.processing";
+
+	/**
+	 * Step property giving the number of processor threads used when the processing mode is
+	 * not 'serial'.  Defaults to the number of available processors.
+	 */
+	public static final String PROCESSOR_THREADS_PROPERTY = "com.ibm.jbatch.container.chunk.processorThreads";
+
+	/**
+	 * Step property bounding the number of items read but not yet processed in 'pipelined' mode.
+	 * The reader blocks once this many items are waiting on the processor threads.
+	 */
+	public static final String PIPELINE_DEPTH_PROPERTY = "com.ibm.jbatch.container.chunk.pipelineDepth";
+
+	public enum ProcessingMode { SERIAL, PIPELINED, PARALLEL };
+
+	/**
+	 * Step properties tuning checkpoint-policy="adaptive".  The item-count is the starting point.
+	 */
+	public static final String ADAPTIVE_TARGET_MILLIS_PROPERTY = "com.ibm.jbatch.container.chunk.adaptive.targetMillis";
+	public static final String ADAPTIVE_MIN_ITEMS_PROPERTY = "com.ibm.jbatch.container.chunk.adaptive.minItems";
+	public static final String ADAPTIVE_MAX_ITEMS_PROPERTY = "com.ibm.jbatch.container.chunk.adaptive.maxItems";
+	public static final String ADAPTIVE_MAX_CHUNK_BYTES_PROPERTY = "com.ibm.jbatch.container.chunk.adaptive.maxChunkBytes";
+
+	/**
+	 * Step property selecting how a chunk is retried after a retryable exception causes it to be
+	 * rolled back.  One of 'oneByOne' (the default, and the spec-defined behavior) where each item
+	 * of the failed chunk is retried in its own transaction, or 'bisect' where the failed chunk is
+	 * retried in halves, and any half which fails again is itself split in half, down to single items.
+	 */
+	public static final String RETRY_ROLLBACK_MODE_PROPERTY = "com.ibm.jbatch.container.chunk.retryRollbackMode";
+
+	public enum RetryRollbackMode { ONE_BY_ONE, BISECT };
+
+	/**
+	 * Step property which, if 'true', times each phase of the chunk loop, making the times
+	 * available from StepContextImpl.getChunkTimings().  Registering a ChunkMetricsSink through 
+	 * the BatchSPIManager also turns this on, for every chunk step.
+	 */
+	public static final String TIMINGS_PROPERTY = "com.ibm.jbatch.container.chunk.timings";
+
+	/**
+	 * Step property bounding the approximate size, in bytes, of the processed items held in memory
+	 * waiting to be written.  Defaults to 0, meaning no limit.  The size of the items is estimated 
+	 * by serializing a sample of them.
+	 */
+	public static final String CHUNK_BUFFER_MAX_BYTES_PROPERTY = "com.ibm.jbatch.container.chunk.buffer.maxBytes";
+
+	/**
+	 * Step property selecting what happens once the processed items reach the maxBytes limit.  One of 
+	 * 'checkpoint' (the default) which ends the chunk early, or 'spill' which serializes any further
+	 * items to a temporary file, from which they're read back when the chunk is written.
+	 */
+	public static final String CHUNK_BUFFER_OVERFLOW_PROPERTY = "com.ibm.jbatch.container.chunk.buffer.overflow";
+
+	public enum BufferOverflow { CHECKPOINT, SPILL };
+
+	private static final int DEFAULT_ADAPTIVE_TARGET_MILLIS = 1000;
+	private static final int DEFAULT_ADAPTIVE_MAX_ITEMS_FACTOR = 10;
+
 	public static int getItemCount(Chunk chunk) {
 		String chunkSizeStr = chunk.getItemCount();
 		int size = 10;
@@ -52,13 +120,79 @@ public class ChunkHelper {
 				return false;
 			} else if (checkpointPolicy.equals("custom")) {
 				return true;
+			} else if (checkpointPolicy.equals("adaptive")) {
+				return false;
 			} else {
-				throw new IllegalArgumentException("The only supported attributed values for 'checkpoint-policy' are 'item' and 'custom'.");				
+				throw new IllegalArgumentException("The only supported attributed values for 'checkpoint-policy' are 'item', 'custom' and 'adaptive'.");				
 			}
 		} else {
 			return false;
 		}
     }
+
+    /**
+     * The implementation-specific 'adaptive' policy is a variant of the 'item' policy where the 
+     * item-count is only the starting point.
+     */
+    public static boolean isAdaptiveCheckpointPolicy(Chunk chunk) {
+    	return "adaptive".equals(chunk.getCheckpointPolicy());
+    }
+
+    public static int getAdaptiveTargetMillis(Properties stepProps) {
+    	return getPositiveIntProperty(stepProps, ADAPTIVE_TARGET_MILLIS_PROPERTY, DEFAULT_ADAPTIVE_TARGET_MILLIS);
+    }
+
+    public static int getAdaptiveMinItems(Properties stepProps) {
+    	return getPositiveIntProperty(stepProps, ADAPTIVE_MIN_ITEMS_PROPERTY, 1);
+    }
+
+    public static int getAdaptiveMaxItems(Properties stepProps, int itemCount) {
+    	return getPositiveIntProperty(stepProps, ADAPTIVE_MAX_ITEMS_PROPERTY, DEFAULT_ADAPTIVE_MAX_ITEMS_FACTOR * itemCount);
+    }
+
+    /**
+     * @return the maximum bytes of items to hold in a chunk, or 0 for no limit.
+     */
+    public static long getAdaptiveMaxChunkBytes(Properties stepProps) {
+    	return getNonNegativeLongProperty(stepProps, ADAPTIVE_MAX_CHUNK_BYTES_PROPERTY);
+    }
+
+    /**
+     * @return the approximate maximum bytes of processed items to hold in memory, or 0 for no limit.
+     */
+    public static long getChunkBufferMaxBytes(Properties stepProps) {
+    	return getNonNegativeLongProperty(stepProps, CHUNK_BUFFER_MAX_BYTES_PROPERTY);
+    }
+
+    public static BufferOverflow getChunkBufferOverflow(Properties stepProps) {
+    	String overflow = stepProps == null ? null : stepProps.getProperty(CHUNK_BUFFER_OVERFLOW_PROPERTY);
+
+    	if (overflow == null || overflow.trim().isEmpty() || overflow.trim().equals("checkpoint")) {
+    		return BufferOverflow.CHECKPOINT;
+    	} else if (overflow.trim().equals("spill")) {
+    		return BufferOverflow.SPILL;
+    	} else {
+    		throw new IllegalArgumentException("The only supported values for step property '" + CHUNK_BUFFER_OVERFLOW_PROPERTY + 
+    				"' are 'checkpoint' and 'spill', found: " + overflow);
+    	}
+    }
+
+    private static long getNonNegativeLongProperty(Properties stepProps, String propName) {
+    	String valueStr = stepProps == null ? null : stepProps.getProperty(propName);
+    	long value = 0;
+
+    	if (valueStr != null && !valueStr.trim().isEmpty()) {
+    		try {
+    			value = Long.parseLong(valueStr.trim());
+    		} catch (NumberFormatException e) {
+    			throw new IllegalArgumentException("Could not parse step property '" + propName + "' with value: " + valueStr, e);
+    		}
+    		if (value < 0) {
+    			throw new IllegalArgumentException("Step property '" + propName + "' cannot be negative, found: " + value);
+    		}
+    	}
+    	return value;
+    }
     
     public static int getSkipLimit(Chunk chunk) {
     	return Integer.valueOf(chunk.getSkipLimit());
@@ -68,4 +202,61 @@ public class ChunkHelper {
     	return Integer.valueOf(chunk.getRetryLimit());
     }
     
+    public static ProcessingMode getProcessingMode(Properties stepProps) {
+    	String mode = stepProps == null ? null : stepProps.getProperty(PROCESSING_MODE_PROPERTY);
+
+    	if (mode == null || mode.trim().isEmpty() || mode.trim().equals("serial")) {
+    		return ProcessingMode.SERIAL;
+    	} else if (mode.trim().equals("pipelined")) {
+    		return ProcessingMode.PIPELINED;
+    	} else if (mode.trim().equals("parallel")) {
+    		return ProcessingMode.PARALLEL;
+    	} else {
+    		throw new IllegalArgumentException("The only supported values for step property '" + PROCESSING_MODE_PROPERTY + 
+    				"' are 'serial', 'pipelined' and 'parallel', found: " + mode);
+    	}
+    }
+
+    public static RetryRollbackMode getRetryRollbackMode(Properties stepProps) {
+    	String mode = stepProps == null ? null : stepProps.getProperty(RETRY_ROLLBACK_MODE_PROPERTY);
+
+    	if (mode == null || mode.trim().isEmpty() || mode.trim().equals("oneByOne")) {
+    		return RetryRollbackMode.ONE_BY_ONE;
+    	} else if (mode.trim().equals("bisect")) {
+    		return RetryRollbackMode.BISECT;
+    	} else {
+    		throw new IllegalArgumentException("The only supported values for step property '" + RETRY_ROLLBACK_MODE_PROPERTY + 
+    				"' are 'oneByOne' and 'bisect', found: " + mode);
+    	}
+    }
+
+    public static boolean isChunkTimingEnabled(Properties stepProps) {
+    	return stepProps != null && Boolean.parseBoolean(stepProps.getProperty(TIMINGS_PROPERTY));
+    }
+
+    public static int getProcessorThreads(Properties stepProps) {
+    	return getPositiveIntProperty(stepProps, PROCESSOR_THREADS_PROPERTY, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static int getPipelineDepth(Properties stepProps, int processorThreads) {
+    	return getPositiveIntProperty(stepProps, PIPELINE_DEPTH_PROPERTY, 2 * processorThreads);
+    }
+
+    private static int getPositiveIntProperty(Properties stepProps, String name, int defaultValue) {
+    	String valueStr = stepProps == null ? null : stepProps.getProperty(name);
+    	int value = defaultValue;
+
+    	if (valueStr != null && !valueStr.trim().isEmpty()) {
+    		try {
+    			value = Integer.parseInt(valueStr.trim());
+    		} catch (NumberFormatException e) {
+    			throw new IllegalArgumentException("Could not parse step property '" + name + "' with value: " + valueStr, e);
+    		}
+    		if (value < 1) {
+    			throw new IllegalArgumentException("Step property '" + name + "' must be 1 or greater, found: " + value);
+    		}
+    	}
+    	return value;
+    }
+    
 }
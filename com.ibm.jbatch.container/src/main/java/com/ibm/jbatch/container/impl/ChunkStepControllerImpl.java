@@ -21,6 +21,7 @@ import java.io.PrintWriter;
 import java.io.Serializable;
 import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.BlockingQueue;
@@ -30,6 +31,7 @@ import java.util.logging.Logger;
 import javax.batch.api.chunk.CheckpointAlgorithm;
 import javax.batch.runtime.BatchStatus;
 
+import com.ibm.jbatch.container.api.WorkRangeItemReader;
 import com.ibm.jbatch.container.artifact.proxy.CheckpointAlgorithmProxy;
 import com.ibm.jbatch.container.artifact.proxy.ChunkListenerProxy;
 import com.ibm.jbatch.container.artifact.proxy.InjectionReferences;
@@ -46,12 +48,18 @@ import com.ibm.jbatch.container.artifact.proxy.RetryWriteListenerProxy;
 import com.ibm.jbatch.container.artifact.proxy.SkipProcessListenerProxy;
 import com.ibm.jbatch.container.artifact.proxy.SkipReadListenerProxy;
 import com.ibm.jbatch.container.artifact.proxy.SkipWriteListenerProxy;
+import com.ibm.jbatch.container.context.impl.ChunkTimings;
 import com.ibm.jbatch.container.context.impl.MetricImpl;
 import com.ibm.jbatch.container.context.impl.StepContextImpl;
 import com.ibm.jbatch.container.exception.BatchContainerRuntimeException;
 import com.ibm.jbatch.container.exception.BatchContainerServiceException;
 import com.ibm.jbatch.container.exception.TransactionManagementException;
+import com.ibm.jbatch.container.impl.ChunkHelper.BufferOverflow;
+import com.ibm.jbatch.container.impl.ChunkHelper.ProcessingMode;
+import com.ibm.jbatch.container.impl.ChunkHelper.RetryRollbackMode;
+import com.ibm.jbatch.container.impl.ItemProcessingExecutor.ProcessedItem;
 import com.ibm.jbatch.container.jobinstance.RuntimeJobExecution;
+import com.ibm.jbatch.container.persistence.AdaptiveCheckpointAlgorithm;
 import com.ibm.jbatch.container.persistence.CheckpointData;
 import com.ibm.jbatch.container.persistence.CheckpointDataKey;
 import com.ibm.jbatch.container.persistence.CheckpointManager;
@@ -68,6 +76,9 @@ import com.ibm.jbatch.jsl.model.ItemReader;
 import com.ibm.jbatch.jsl.model.ItemWriter;
 import com.ibm.jbatch.jsl.model.Property;
 import com.ibm.jbatch.jsl.model.Step;
+import com.ibm.jbatch.spi.BatchSPIManager;
+import com.ibm.jbatch.spi.ChunkMetricsSink;
+import com.ibm.jbatch.spi.ChunkPhase;
 
 public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 
@@ -99,6 +110,32 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 	List<ItemWriteListenerProxy> itemWriteListeners = null;
 	private RetryHandler retryHandler;
 
+	// Only set when the step opts into a non-serial processing mode.
+	private ProcessingMode processingMode = ProcessingMode.SERIAL;
+	private ItemProcessingExecutor processingExecutor = null;
+
+	// Set when the reader or processor implement the bulk extensions and the step 
+	// has nothing configured which needs them to be called item by item.
+	private boolean useBulkRead = false;
+	private boolean useBulkProcess = false;
+
+	private RetryRollbackMode retryRollbackMode = RetryRollbackMode.ONE_BY_ONE;
+
+	// Only set when bounding the memory held by a chunk's processed items
+	private long chunkBufferMaxBytes = 0;
+	private BufferOverflow chunkBufferOverflow = BufferOverflow.CHECKPOINT;
+	private ChunkBuffer chunkBuffer = null;
+
+	// Only set when timing the chunk phases
+	private ChunkTimings chunkTimings = null;
+	private ChunkMetricsSink chunkMetricsSink = null;
+
+	// Only set for a partition of a step with a dynamic partition plan, whose reader takes part
+	private WorkRangePool.PartitionQueue workRangeQueue = null;
+
+	// Only set for a partition of a step in elastic mode
+	private ElasticConcurrency elasticConcurrency = null;
+
 	// metrics
 	long readCount = 0;
 	long writeCount = 0;
@@ -153,7 +190,8 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 	 * 
 	 * One key usage is to maintain the state reflecting the sequence in which
 	 * we catch a retryable exception, rollback the previous chunk, process 1-item-at-a-time
-	 * until we reach "where we left off", then revert to normal chunk processing.
+	 * (or in ever smaller halves, when bisecting) until we reach "where we left off", then 
+	 * revert to normal chunk processing.
 	 * 
 	 * Another usage is simply to communicate that the reader readItem() returned 'null', so
 	 * we're done the chunk.
@@ -214,6 +252,10 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 			this.itemsTouchedInCurrentChunk++;
 		}
 
+		public void incrementItemsTouchedInCurrentChunk(int numItems) {
+			this.itemsTouchedInCurrentChunk += numItems;
+		}
+
 		public int getItemsToProcessOneByOneAfterRollback() {
 			return itemsToProcessOneByOneAfterRollback;
 		}
@@ -223,6 +265,31 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 			this.itemsToProcessOneByOneAfterRollback = itemsToProcessOneByOneAfterRollback;
 		}
 
+		/**
+		 * @return the sizes of the retry chunks still to run when bisecting, starting with this one.
+		 */
+		public LinkedList<Integer> getRetryChunkSizes() {
+			return retryChunkSizes;
+		}
+
+		public void setRetryChunkSizes(LinkedList<Integer> retryChunkSizes) {
+			this.retryChunkSizes = retryChunkSizes;
+		}
+
+		/**
+		 * @return the number of items to read in this retry after rollback chunk.
+		 */
+		public int getRetryChunkSize() {
+			return retryChunkSizes == null ? 1 : retryChunkSizes.getFirst();
+		}
+
+		/**
+		 * @return true if this is a retry after rollback chunk which could be split further.
+		 */
+		public boolean canBisect() {
+			return isRetryingAfterRollback() && getRetryChunkSize() > 1;
+		}
+
 		private boolean readNull = false;
 
 		private boolean stopping = false;
@@ -232,6 +299,7 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 		private boolean markedForRollbackWithRetry = false;
 		private int itemsTouchedInCurrentChunk = 0;
 		private int itemsToProcessOneByOneAfterRollback = 0; // For retry with rollback
+		private LinkedList<Integer> retryChunkSizes = null; // For retry with rollback, when bisecting
 	}
 
 	/**
@@ -245,7 +313,20 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 	private List<Object> readAndProcess() {
 		logger.entering(sourceClass, "readAndProcess");
 
-		List<Object> chunkToWrite = new ArrayList<Object>();
+		// One-at-a-time processing after rollback gains nothing from the processor threads.
+		if (processingExecutor != null && !currentChunkStatus.isRetryingAfterRollback()) {
+			List<Object> chunkToWrite = readAndProcessConcurrently();
+			logger.exiting(sourceClass, "readAndProcess", chunkToWrite);
+			return chunkToWrite;
+		}
+
+		if ((useBulkRead || useBulkProcess) && !currentChunkStatus.isRetryingAfterRollback()) {
+			List<Object> chunkToWrite = readAndProcessBulk();
+			logger.exiting(sourceClass, "readAndProcess", chunkToWrite);
+			return chunkToWrite;
+		}
+
+		List<Object> chunkToWrite = newChunkToWrite(true);
 		Object itemRead = null;
 		Object itemProcessed = null;
 
@@ -270,11 +351,16 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 				}
 			}
 
-			// Break out of the loop to deliver one-at-a-time processing after rollback.
-			// No point calling isReadyToCheckpoint(), we know we're done.  Let's not
-			// complicate the checkpoint algorithm to hold this logic, just break right here.
+			// Break out of the loop to deliver one-at-a-time (or one-part-at-a-time when 
+			// bisecting) processing after rollback. No point calling isReadyToCheckpoint(), 
+			// we know when we're done.  Let's not complicate the checkpoint algorithm to hold 
+			// this logic, just break right here.
 			if (currentChunkStatus.isRetryingAfterRollback()) {
-				break;
+				if (currentChunkStatus.hasReadNull() || 
+						currentChunkStatus.getItemsTouchedInCurrentChunk() >= currentChunkStatus.getRetryChunkSize()) {
+					break;
+				}
+				continue;
 			}
 
 			// This will force the current item to finish processing on a stop request
@@ -283,6 +369,11 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 				break;
 			}
 
+			// End the chunk early rather than hold any more items in memory.
+			if (isChunkBufferFull(chunkToWrite)) {
+				break;
+			}
+
 			// The spec, in Sec. 11.10, Chunk with Custom Checkpoint Processing, clearly
 			// outlines that this gets called even when we've already read a null (which
 			// arguably is pointless).   But we'll follow the spec.
@@ -300,6 +391,217 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 		return chunkToWrite;
 	}
 
+	/**
+	 * @param canEndEarly
+	 *            false if the chunk will be read before it's processed, in which case it's 
+	 *            too late to end the chunk early once the processed items fill the buffer, 
+	 *            so they are spilled instead.
+	 * @return the list to collect the processed items of a chunk in
+	 */
+	private List<Object> newChunkToWrite(boolean canEndEarly) {
+		if (chunkBufferMaxBytes > 0) {
+			boolean spill = !canEndEarly || chunkBufferOverflow == BufferOverflow.SPILL;
+			chunkBuffer = new ChunkBuffer(step.getId(), chunkBufferMaxBytes, spill);
+			return chunkBuffer;
+		}
+		return new ArrayList<Object>();
+	}
+
+	private boolean isChunkBufferFull(List<Object> chunkToWrite) {
+		return chunkBufferOverflow == BufferOverflow.CHECKPOINT && chunkToWrite == chunkBuffer && chunkBuffer.isFull();
+	}
+
+	private void closeChunkBuffer() {
+		if (chunkBuffer != null) {
+			chunkBuffer.close();
+			chunkBuffer = null;
+		}
+	}
+
+	/**
+	 * Variant of readAndProcess() using the processor threads.  In pipelined mode items are 
+	 * handed off as they are read, so that reading the next item overlaps with processing the 
+	 * previous ones.  In parallel mode the whole chunk is read first and then processed at once.  
+	 * Either way, once the chunk is processed we apply the usual filter, skip and retry logic 
+	 * to each item, in read order.
+	 * 
+	 * @return an array list of objects to write
+	 */
+	private List<Object> readAndProcessConcurrently() {
+
+		List<Object> chunkToWrite = newChunkToWrite(false);
+		List<Object> itemsToProcess = new ArrayList<Object>();
+		Object itemRead = null;
+		Object itemProcessed = null;
+
+		while (true) {
+			currentItemStatus = new SingleItemStatus();
+
+			itemRead = readItem();
+
+			if (currentChunkStatus.wasMarkedForRollbackWithRetry()) {
+				processingExecutor.discard();
+				return chunkToWrite;
+			}
+
+			if (!currentItemStatus.isSkipped() && !currentChunkStatus.hasReadNull()) {
+				if (processingMode == ProcessingMode.PIPELINED) {
+					processingExecutor.submit(itemRead);
+				} else {
+					itemsToProcess.add(itemRead);
+				}
+			}
+
+			// This will force the current item to finish processing on a stop request
+			if (stepContext.getBatchStatus().equals(BatchStatus.STOPPING)) {
+				currentChunkStatus.markStopping();
+				break;
+			}
+
+			if (checkpointManager.isReadyToCheckpoint()) {
+				break;
+			}
+
+			if (currentChunkStatus.hasReadNull()) {
+				break;
+			}
+		}
+
+		// Only the wait for the processor threads counts against the step
+		List<ProcessedItem> processedItems = null;
+		long startNanos = startTiming();
+		if (processingMode == ProcessingMode.PIPELINED) {
+			processedItems = processingExecutor.drain();
+		} else {
+			processedItems = processingExecutor.processAll(itemsToProcess);
+		}
+		stopTiming(ChunkPhase.PROCESS, startNanos);
+
+		for (ProcessedItem processed : processedItems) {
+			currentItemStatus = new SingleItemStatus();
+
+			itemProcessed = completeProcessItem(processed);
+
+			if (currentChunkStatus.wasMarkedForRollbackWithRetry()) {
+				break;
+			}
+
+			if (!currentItemStatus.isSkipped() && !currentItemStatus.isFiltered()) {
+				chunkToWrite.add(itemProcessed);
+			}
+		}
+
+		return chunkToWrite;
+	}
+
+	/**
+	 * Variant of readAndProcess() for bulk readers and/or processors.  The whole chunk is read 
+	 * (as many items at a time as the checkpoint algorithm allows, if the reader supports it) 
+	 * and then processed (in one call, if the processor supports it).
+	 * 
+	 * @return an array list of objects to write
+	 */
+	private List<Object> readAndProcessBulk() {
+
+		List<Object> chunkToWrite = newChunkToWrite(false);
+		List<Object> itemsToProcess = new ArrayList<Object>();
+		int numRead = 0;
+
+		while (true) {
+			currentItemStatus = new SingleItemStatus();
+
+			if (useBulkRead) {
+				List<Object> itemsRead = readItems(checkpointManager.getItemsUntilCheckpoint());
+				itemsToProcess.addAll(itemsRead);
+				numRead = itemsRead.size();
+			} else {
+				Object itemRead = readItem();
+				if (!currentItemStatus.isSkipped() && !currentChunkStatus.hasReadNull()) {
+					itemsToProcess.add(itemRead);
+				}
+				numRead = 1;
+			}
+
+			if (currentChunkStatus.wasMarkedForRollbackWithRetry()) {
+				return chunkToWrite;
+			}
+
+			if (stepContext.getBatchStatus().equals(BatchStatus.STOPPING)) {
+				currentChunkStatus.markStopping();
+				break;
+			}
+
+			// A skipped or null read still counts as one, as in readAndProcess()
+			if (checkpointManager.isReadyToCheckpoint(Math.max(numRead, 1))) {
+				break;
+			}
+
+			if (currentChunkStatus.hasReadNull()) {
+				break;
+			}
+		}
+
+		if (useBulkProcess && processItems(itemsToProcess, chunkToWrite)) {
+			return chunkToWrite;
+		}
+
+		for (Object itemRead : itemsToProcess) {
+			currentItemStatus = new SingleItemStatus();
+
+			Object itemProcessed = processItem(itemRead);
+
+			if (currentChunkStatus.wasMarkedForRollbackWithRetry()) {
+				break;
+			}
+
+			if (!currentItemStatus.isSkipped() && !currentItemStatus.isFiltered()) {
+				chunkToWrite.add(itemProcessed);
+			}
+		}
+
+		return chunkToWrite;
+	}
+
+	/**
+	 * Process items with a bulk processor, adding those not filtered to chunkToWrite.
+	 * 
+	 * @return false if the processor failed, in which case nothing was added and the items
+	 * should be processed one at a time so skip and retry can be applied to each.  Those it 
+	 * got through before failing are processed again, as BulkItemProcessor warns.
+	 */
+	private boolean processItems(List<Object> itemsRead, List<Object> chunkToWrite) {
+		logger.entering(sourceClass, "processItems", itemsRead.size());
+
+		if (itemsRead.isEmpty()) {
+			return true;
+		}
+
+		List<Object> itemsProcessed = null;
+		long startNanos = startTiming();
+		try {
+			itemsProcessed = processorProxy.processItems(itemsRead);
+		} catch (Exception e) {
+			logger.fine("Caught exception from processItems(), reprocessing " + itemsRead.size() + " items one at a time: " + e);
+			return false;
+		} finally {
+			stopTiming(ChunkPhase.PROCESS, startNanos);
+		}
+
+		if (itemsProcessed == null || itemsProcessed.size() != itemsRead.size()) {
+			throw new BatchContainerRuntimeException("BulkItemProcessor.processItems() must return one result per item, for " + itemsRead.size() 
+					+ " items returned: " + (itemsProcessed == null ? "<null>" : itemsProcessed.size()));
+		}
+
+		for (Object itemProcessed : itemsProcessed) {
+			if (itemProcessed != null) {
+				chunkToWrite.add(itemProcessed);
+			}
+		}
+
+		logger.exiting(sourceClass, "processItems", chunkToWrite.size());
+		return true;
+	}
+
 	/**
 	 * Reads an item from the reader
 	 * 
@@ -314,15 +616,22 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 			currentChunkStatus.incrementItemsTouchedInCurrentChunk();
 
 			// call read listeners before and after the actual read
+			long startNanos = startTiming();
 			for (ItemReadListenerProxy readListenerProxy : itemReadListeners) {
 				readListenerProxy.beforeRead();
 			}
+			startNanos = stopTiming(ChunkPhase.LISTENER, startNanos);
 
-			itemRead = readerProxy.readItem();
+			try {
+				itemRead = readerProxy.readItem();
+			} finally {
+				startNanos = stopTiming(ChunkPhase.READ, startNanos);
+			}
 
 			for (ItemReadListenerProxy readListenerProxy : itemReadListeners) {
 				readListenerProxy.afterRead(itemRead);
 			}
+			stopTiming(ChunkPhase.LISTENER, startNanos);
 
 			// itemRead == null means we reached the end of
 			// the readerProxy "resultset"
@@ -331,57 +640,109 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 				currentChunkStatus.decrementItemsTouchedInCurrentChunk();
 			}
 		} catch (Exception e) {
-			stepContext.setException(e);
-			for (ItemReadListenerProxy readListenerProxy : itemReadListeners) {
-				readListenerProxy.onReadError(e);
+			if (handleReadException(e)) {
+				// retry without rollback
+				itemRead = readItem();
 			}
-			if(!currentChunkStatus.isRetryingAfterRollback()) {
-				if (retryReadException(e)) {
-					if (!retryHandler.isRollbackException(e)) {
-						// retry without rollback
-						itemRead = readItem();
-					} else {
-						// retry with rollback
-						currentChunkStatus.markForRollbackWithRetry(e);
-					}
-				}
-				else if(skipReadException(e)) {
-					currentItemStatus.setSkipped(true);
-					stepContext.getMetric(MetricImpl.MetricType.READ_SKIP_COUNT).incValue();
+		} catch (Throwable e) {
+			throw new BatchContainerRuntimeException(e);
+		}
 
-				}
-				else {
-					throw new BatchContainerRuntimeException(e);
+		logger.exiting(sourceClass, "readItem", itemRead==null ? "<null>" : itemRead);
+		return itemRead;
+	}
+
+	/**
+	 * Reads up to maxItems items from a bulk reader
+	 * 
+	 * @return the items read, empty once the reader is exhausted (or the read was skipped)
+	 */
+	private List<Object> readItems(int maxItems) {
+		logger.entering(sourceClass, "readItems", maxItems);
+		List<Object> itemsRead = null;
+
+		try {
+			long startNanos = startTiming();
+			try {
+				itemsRead = readerProxy.readItems(maxItems);
+			} finally {
+				stopTiming(ChunkPhase.READ, startNanos);
+			}
+
+			if (itemsRead == null || itemsRead.isEmpty()) {
+				itemsRead = new ArrayList<Object>(0);
+				currentChunkStatus.markReadNull();
+			} else {
+				currentChunkStatus.incrementItemsTouchedInCurrentChunk(itemsRead.size());
+			}
+		} catch (Exception e) {
+			// Count it as we would a single failed readItem()
+			currentChunkStatus.incrementItemsTouchedInCurrentChunk();
+			if (handleReadException(e)) {
+				// retry without rollback
+				itemsRead = readItems(maxItems);
+			} else {
+				itemsRead = new ArrayList<Object>(0);
+			}
+		} catch (Throwable e) {
+			throw new BatchContainerRuntimeException(e);
+		}
+
+		logger.exiting(sourceClass, "readItems", itemsRead.size());
+		return itemsRead;
+	}
+
+	/**
+	 * Call the read error listeners and then skip, mark for retry with rollback, or rethrow.
+	 * 
+	 * @return true if the read should be retried without rollback.
+	 */
+	private boolean handleReadException(Exception e) {
+		stepContext.setException(e);
+		for (ItemReadListenerProxy readListenerProxy : itemReadListeners) {
+			readListenerProxy.onReadError(e);
+		}
+		if(!currentChunkStatus.isRetryingAfterRollback()) {
+			if (retryReadException(e)) {
+				if (!retryHandler.isRollbackException(e)) {
+					// retry without rollback
+					return true;
+				} else {
+					// retry with rollback
+					currentChunkStatus.markForRollbackWithRetry(e);
 				}
 			}
+			else if(skipReadException(e)) {
+				currentItemStatus.setSkipped(true);
+				stepContext.getMetric(MetricImpl.MetricType.READ_SKIP_COUNT).incValue();
+
+			}
 			else {
-				// coming from a rollback retry
-				if(skipReadException(e)) {
-					currentItemStatus.setSkipped(true);
-					stepContext.getMetric(MetricImpl.MetricType.READ_SKIP_COUNT).incValue();
+				throw new BatchContainerRuntimeException(e);
+			}
+		}
+		else {
+			// coming from a rollback retry
+			if(skipReadException(e)) {
+				currentItemStatus.setSkipped(true);
+				stepContext.getMetric(MetricImpl.MetricType.READ_SKIP_COUNT).incValue();
 
-				}
-				else if (retryReadException(e)) {
-					if (!retryHandler.isRollbackException(e)) {
-						// retry without rollback
-						itemRead = readItem();
-					}
-					else {
-						// retry with rollback
-						currentChunkStatus.markForRollbackWithRetry(e);
-					}
+			}
+			else if (retryReadException(e)) {
+				if (!retryHandler.isRollbackException(e)) {
+					// retry without rollback
+					return true;
 				}
 				else {
-					throw new BatchContainerRuntimeException(e);
+					// retry with rollback
+					currentChunkStatus.markForRollbackWithRetry(e);
 				}
 			}
-
-		} catch (Throwable e) {
-			throw new BatchContainerRuntimeException(e);
+			else {
+				throw new BatchContainerRuntimeException(e);
+			}
 		}
-
-		logger.exiting(sourceClass, "readItem", itemRead==null ? "<null>" : itemRead);
-		return itemRead;
+		return false;
 	}
 
 	/**
@@ -403,11 +764,17 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 		try {
 
 			// call process listeners before and after the actual process call
+			long startNanos = startTiming();
 			for (ItemProcessListenerProxy processListenerProxy : itemProcessListeners) {
 				processListenerProxy.beforeProcess(itemRead);
 			}
+			startNanos = stopTiming(ChunkPhase.LISTENER, startNanos);
 
-			processedItem = processorProxy.processItem(itemRead);
+			try {
+				processedItem = processorProxy.processItem(itemRead);
+			} finally {
+				startNanos = stopTiming(ChunkPhase.PROCESS, startNanos);
+			}
 
 			if (processedItem == null) {
 				currentItemStatus.setFiltered(true);
@@ -416,49 +783,83 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 			for (ItemProcessListenerProxy processListenerProxy : itemProcessListeners) {
 				processListenerProxy.afterProcess(itemRead, processedItem);
 			}
+			stopTiming(ChunkPhase.LISTENER, startNanos);
 		} catch (Exception e) {
-			for (ItemProcessListenerProxy processListenerProxy : itemProcessListeners) {
-				processListenerProxy.onProcessError(itemRead, e);
+			processedItem = handleProcessException(e, itemRead);
+		} catch (Throwable e) {
+			throw new BatchContainerRuntimeException(e);
+		}
+
+		logger.exiting(sourceClass, "processItem", processedItem==null ? "<null>" : processedItem);
+		return processedItem;
+	}
+
+	/**
+	 * Finish up an item processed on one of the processor threads, on this thread.
+	 * 
+	 * @param processed
+	 *            the outcome from the processor thread
+	 * @return the processed item
+	 */
+	private Object completeProcessItem(ProcessedItem processed) {
+		Throwable failure = processed.getFailure();
+
+		if (failure == null) {
+			if (processed.getItemProcessed() == null) {
+				currentItemStatus.setFiltered(true);
 			}
-			if(!currentChunkStatus.isRetryingAfterRollback()) {
-				if (retryProcessException(e, itemRead)) {
-					if (!retryHandler.isRollbackException(e)) {
-						processedItem = processItem(itemRead);
-					} else {
-						currentChunkStatus.markForRollbackWithRetry(e);
-					}
-				}
-				else if (skipProcessException(e, itemRead)) {
-					currentItemStatus.setSkipped(true);
-					stepContext.getMetric(MetricImpl.MetricType.PROCESS_SKIP_COUNT).incValue();
-				}
-				else {
-					throw new BatchContainerRuntimeException(e);
+			return processed.getItemProcessed();
+		} else if (failure instanceof Exception) {
+			return handleProcessException((Exception) failure, processed.getItemRead());
+		} else {
+			throw new BatchContainerRuntimeException(failure);
+		}
+	}
+
+	/**
+	 * Call the process error listeners and then skip, retry or rethrow.
+	 * 
+	 * @return the processed item, if retried without rollback.
+	 */
+	private Object handleProcessException(Exception e, Object itemRead) {
+		Object processedItem = null;
+
+		for (ItemProcessListenerProxy processListenerProxy : itemProcessListeners) {
+			processListenerProxy.onProcessError(itemRead, e);
+		}
+		if(!currentChunkStatus.isRetryingAfterRollback()) {
+			if (retryProcessException(e, itemRead)) {
+				if (!retryHandler.isRollbackException(e)) {
+					processedItem = processItem(itemRead);
+				} else {
+					currentChunkStatus.markForRollbackWithRetry(e);
 				}
 			}
+			else if (skipProcessException(e, itemRead)) {
+				currentItemStatus.setSkipped(true);
+				stepContext.getMetric(MetricImpl.MetricType.PROCESS_SKIP_COUNT).incValue();
+			}
 			else {
-				if (skipProcessException(e, itemRead)) {
-					currentItemStatus.setSkipped(true);
-					stepContext.getMetric(MetricImpl.MetricType.PROCESS_SKIP_COUNT).incValue();
-				} else if (retryProcessException(e, itemRead)) {
-
-					if (!retryHandler.isRollbackException(e)) {
-						// retry without rollback
-						processedItem = processItem(itemRead);
-					} else {
-						// retry with rollback
-						currentChunkStatus.markForRollbackWithRetry(e);
-					}
+				throw new BatchContainerRuntimeException(e);
+			}
+		}
+		else {
+			if (skipProcessException(e, itemRead)) {
+				currentItemStatus.setSkipped(true);
+				stepContext.getMetric(MetricImpl.MetricType.PROCESS_SKIP_COUNT).incValue();
+			} else if (retryProcessException(e, itemRead)) {
+
+				if (!retryHandler.isRollbackException(e)) {
+					// retry without rollback
+					processedItem = processItem(itemRead);
 				} else {
-					throw new BatchContainerRuntimeException(e);
+					// retry with rollback
+					currentChunkStatus.markForRollbackWithRetry(e);
 				}
+			} else {
+				throw new BatchContainerRuntimeException(e);
 			}
-
-		} catch (Throwable e) {
-			throw new BatchContainerRuntimeException(e);
 		}
-
-		logger.exiting(sourceClass, "processItem", processedItem==null ? "<null>" : processedItem);
 		return processedItem;
 	}
 
@@ -474,15 +875,22 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 			try {
 
 				// call read listeners before and after the actual read
+				long startNanos = startTiming();
 				for (ItemWriteListenerProxy writeListenerProxy : itemWriteListeners) {
 					writeListenerProxy.beforeWrite(theChunk);
 				}
+				startNanos = stopTiming(ChunkPhase.LISTENER, startNanos);
 
-				writerProxy.writeItems(theChunk);
+				try {
+					writerProxy.writeItems(theChunk);
+				} finally {
+					startNanos = stopTiming(ChunkPhase.WRITE, startNanos);
+				}
 
 				for (ItemWriteListenerProxy writeListenerProxy : itemWriteListeners) {
 					writeListenerProxy.afterWrite(theChunk);
 				}
+				stopTiming(ChunkPhase.LISTENER, startNanos);
 			} catch (Exception e) {
 				this.stepContext.setException(e);
 				for (ItemWriteListenerProxy writeListenerProxy : itemWriteListeners) {
@@ -506,7 +914,10 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 
 				}
 				else {
-					if (skipWriteException(e, theChunk)) {
+					if (currentChunkStatus.canBisect() && skipHandler.wouldSkip(e)) {
+						// Narrow down to the item at fault rather than skipping the whole part.
+						currentChunkStatus.markForRollbackWithRetry(e);
+					} else if (skipWriteException(e, theChunk)) {
 						stepContext.getMetric(MetricImpl.MetricType.WRITE_SKIP_COUNT).incValueBy(1);
 					} else if (retryWriteException(e, theChunk)) {
 						if (!retryHandler.isRollbackException(e)) {
@@ -553,6 +964,11 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 			transactionManager.commit();
 
 			nextChunkStatus = new ChunkStatus(ChunkStatusType.RETRY_AFTER_ROLLBACK);
+
+			if (retryRollbackMode == RetryRollbackMode.BISECT) {
+				nextChunkStatus.setRetryChunkSizes(bisectFailedChunk());
+				return nextChunkStatus;
+			}
 			
 			// What happens if we get a retry-with-rollback on a single item that we were processing
 			// after a prior retry with rollback?   We don't want to revert to normal processing
@@ -567,6 +983,16 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 				// "Normal" (i.e. the first) retry after rollback.
 				nextChunkStatus.setItemsToProcessOneByOneAfterRollback(currentChunkStatus.getItemsTouchedInCurrentChunk());
 			}
+		} else if (currentChunkStatus.isRetryingAfterRollback() && retryRollbackMode == RetryRollbackMode.BISECT) {
+			// The last part succeeded, so move on to the next one, if any.
+			LinkedList<Integer> retryChunkSizes = new LinkedList<Integer>(currentChunkStatus.getRetryChunkSizes());
+			retryChunkSizes.removeFirst();
+			if (retryChunkSizes.isEmpty()) {
+				nextChunkStatus = new ChunkStatus();
+			} else {
+				nextChunkStatus = new ChunkStatus(ChunkStatusType.RETRY_AFTER_ROLLBACK);
+				nextChunkStatus.setRetryChunkSizes(retryChunkSizes);
+			}
 		} else if (currentChunkStatus.isRetryingAfterRollback()) {
 			// In this case the 'current' (actually the last) chunk was a single-item retry after rollback chunk,
 			// so we have to see if it's time to revert to normal processing.
@@ -585,6 +1011,36 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 		return nextChunkStatus;
 	}
 
+	/**
+	 * Split the chunk which just rolled back in two, ahead of any parts of an earlier failed 
+	 * chunk still to be retried.  A failed single item is simply retried again.
+	 * 
+	 * @return the sizes of the retry chunks to run next
+	 */
+	private LinkedList<Integer> bisectFailedChunk() {
+		LinkedList<Integer> retryChunkSizes = new LinkedList<Integer>();
+		int failedChunkSize = 0;
+
+		if (currentChunkStatus.isRetryingAfterRollback()) {
+			retryChunkSizes.addAll(currentChunkStatus.getRetryChunkSizes());
+			failedChunkSize = retryChunkSizes.removeFirst();
+		} else {
+			failedChunkSize = Math.max(currentChunkStatus.getItemsTouchedInCurrentChunk(), 1);
+		}
+
+		if (failedChunkSize > 1) {
+			retryChunkSizes.addFirst(failedChunkSize / 2);
+			retryChunkSizes.addFirst(failedChunkSize - failedChunkSize / 2);
+		} else {
+			retryChunkSizes.addFirst(failedChunkSize);
+		}
+
+		if (logger.isLoggable(Level.FINE)) {
+			logger.fine("Retrying chunk of " + failedChunkSize + " items after rollback, next retry chunk sizes: " + retryChunkSizes);
+		}
+		return retryChunkSizes;
+	}
+
 	/**
 	 * Main Read-Process-Write loop
 	 * 
@@ -605,6 +1061,9 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 				// Done with the previous chunk status so advance reference to next one.
 				currentChunkStatus = getNextChunkStatusBasedOnPrevious();
 
+				// ... and the previous chunk's items.
+				closeChunkBuffer();
+
 				// Sequence surrounding beginCheckpoint() updated per MR
 				// https://java.net/bugzilla/show_bug.cgi?id=5873
 				setNextChunkTransactionTimeout();
@@ -615,9 +1074,15 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 
 				transactionManager.begin();
 
+				if (chunkTimings != null) {
+					chunkTimings.beginChunk();
+				}
+
+				long startNanos = startTiming();
 				for (ChunkListenerProxy chunkProxy : chunkListeners) {
 					chunkProxy.beforeChunk();
 				}
+				stopTiming(ChunkPhase.LISTENER, startNanos);
 
 				chunkToWrite = readAndProcess();
 
@@ -626,6 +1091,8 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 					continue;
 				}
 
+				checkpointManager.sampleItemSize(chunkToWrite);
+
 				// MR 1.0 Rev A clarified we'd only write a chunk with at least one item.
 				// See, e.g. Sec 11.6 of Spec
 				if (chunkToWrite.size() > 0) {
@@ -637,18 +1104,34 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 					continue;
 				}
 
+				startNanos = startTiming();
 				for (ChunkListenerProxy chunkProxy : chunkListeners) {
 					chunkProxy.afterChunk();
 				}
+				startNanos = stopTiming(ChunkPhase.LISTENER, startNanos);
+				long commitStartNanos = elasticConcurrency == null ? 0 : System.nanoTime();
 
 				checkpointManager.checkpoint();
 
 				this.persistUserData();
+				startNanos = stopTiming(ChunkPhase.CHECKPOINT, startNanos);
 
 				transactionManager.commit();
+				stopTiming(ChunkPhase.COMMIT, startNanos);
+
+				if (elasticConcurrency != null) {
+					elasticConcurrency.recordCommit(currentChunkStatus.getItemsTouchedInCurrentChunk(), System.nanoTime() - commitStartNanos);
+				}
+
+				// The ranges were checkpointed with the chunk, so only now move them on
+				if (workRangeQueue != null) {
+					workRangeQueue.commit();
+				}
 
 				checkpointManager.endCheckpoint();
 
+				reportChunkTimings();
+
 				invokeCollectorIfPresent();
 
 				updateNormalMetrics(chunkToWrite.size());
@@ -664,7 +1147,11 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 					break;
 				}
 			}
+
+			closeChunkBuffer();
 		} catch (Throwable t) {		
+			closeChunkBuffer();
+
 			// Note we've already carefully handled skippable and retryable exceptions.  Anything surfacing to this
 			// level does not need to be considered as either.
 			try {
@@ -689,6 +1176,39 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 		logger.exiting(sourceClass, "invokeChunk");
 	}
 	
+	/**
+	 * @return the time to pass to stopTiming(), if timing the chunk phases.
+	 */
+	private long startTiming() {
+		return chunkTimings == null ? 0 : System.nanoTime();
+	}
+
+	/**
+	 * Record the time since startNanos against the given phase, if timing the chunk phases.
+	 * 
+	 * @return the current time, to start timing the next phase
+	 */
+	private long stopTiming(ChunkPhase phase, long startNanos) {
+		if (chunkTimings == null) {
+			return 0;
+		}
+		long now = System.nanoTime();
+		chunkTimings.record(phase, now - startNanos);
+		return now;
+	}
+
+	private void reportChunkTimings() {
+		if (chunkMetricsSink != null) {
+			try {
+				chunkMetricsSink.chunkCompleted(rootJobExecutionId, stepContext.getStepExecutionId(), 
+						step.getId(), chunkTimings.getCurrentChunkNanos());
+			} catch (Throwable t) {
+				// The chunk has already committed, so don't fail the step over it.
+				logWarning("Secondary throwable reporting chunk timings to " + chunkMetricsSink + ".  Swallow throwable and continue.", t);
+			}
+		}
+	}
+
 	private void updateNormalMetrics(int writeCount) {
 
 		int readCount = currentChunkStatus.getItemsTouchedInCurrentChunk();
@@ -725,6 +1245,10 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 		callChunkListenerOnError(currentChunkStatus.getRetryableException());
 		transactionManager.rollback();
 
+		if (workRangeQueue != null) {
+			workRangeQueue.rollback();
+		}
+
 		stepContext.getMetric(MetricImpl.MetricType.ROLLBACK_COUNT).incValue();
 	}
 	
@@ -759,8 +1283,90 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 		initializeChunkArtifacts();
 		
 		initializeCheckpointManager();
-		
-		invokeChunk();
+
+		initializeWorkRanges();
+
+		elasticConcurrency = jobExecutionImpl.getElasticConcurrency();
+
+		initializeProcessingExecutor();
+
+		initializeBulkExtensions();
+
+		retryRollbackMode = ChunkHelper.getRetryRollbackMode(stepContext.getProperties());
+
+		chunkBufferMaxBytes = ChunkHelper.getChunkBufferMaxBytes(stepContext.getProperties());
+		chunkBufferOverflow = ChunkHelper.getChunkBufferOverflow(stepContext.getProperties());
+
+		initializeChunkTimings();
+
+		try {
+			invokeChunk();
+		} finally {
+			if (processingExecutor != null) {
+				processingExecutor.shutdown();
+			}
+			if (workRangeQueue != null) {
+				// Whatever this partition didn't get to is left for the others
+				workRangeQueue.release();
+			}
+			if (chunkTimings != null && logger.isLoggable(Level.FINE)) {
+				logger.fine("For step: " + step.getId() + ", " + chunkTimings);
+			}
+		}
+	}
+
+	private void initializeChunkTimings() {
+		chunkMetricsSink = BatchSPIManager.getInstance().getChunkMetricsSink();
+
+		if (chunkMetricsSink != null || ChunkHelper.isChunkTimingEnabled(stepContext.getProperties())) {
+			chunkTimings = new ChunkTimings();
+			stepContext.setChunkTimings(chunkTimings);
+		}
+	}
+
+	private void initializeWorkRanges() {
+		WorkRangePool.PartitionQueue queue = jobExecutionImpl.getWorkRangeQueue();
+		if (queue == null) {
+			return;
+		} else if (!readerProxy.isWorkRangeItemReader()) {
+			logger.warning("The reader of step: " + step.getId() + " doesn't implement " + WorkRangeItemReader.class.getName() 
+					+ ", so this partition can't take part in the dynamic partition plan.");
+			return;
+		}
+		workRangeQueue = queue;
+		readerProxy.setWorkRangeQueue(workRangeQueue);
+		checkpointManager.setWorkRangeQueue(workRangeQueue);
+	}
+
+	private void initializeBulkExtensions() {
+		// The bulk calls skip the per-item machinery entirely, so they can't be used alongside it. 
+		if (processingExecutor != null) {
+			return;
+		}
+
+		useBulkRead = readerProxy.isBulkItemReader() && itemReadListeners.isEmpty();
+		useBulkProcess = processorProxy != null && processorProxy.isBulkItemProcessor() && itemProcessListeners.isEmpty();
+
+		if (logger.isLoggable(Level.FINE)) {
+			logger.fine("For step: " + step.getId() + ", bulk read = " + useBulkRead + ", bulk process = " + useBulkProcess);
+		}
+	}
+
+	private void initializeProcessingExecutor() {
+		Properties stepProps = stepContext.getProperties();
+		ProcessingMode mode = ChunkHelper.getProcessingMode(stepProps);
+
+		if (mode == ProcessingMode.SERIAL) {
+			return;
+		} else if (processorProxy == null) {
+			logger.fine("Processing mode " + mode + " configured for step: " + step.getId() + " but there is no processor, so ignoring.");
+			return;
+		}
+
+		int threads = ChunkHelper.getProcessorThreads(stepProps);
+		int depth = ChunkHelper.getPipelineDepth(stepProps, threads);
+		processingExecutor = new ItemProcessingExecutor(step.getId(), threads, depth, processorProxy, itemProcessListeners);
+		processingMode = mode;
 	}
 
 	private void initializeCheckpointManager() {
@@ -771,7 +1377,20 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 		int timeLimitSeconds = ChunkHelper.getTimeLimit(chunk);
 		customCheckpointPolicy = ChunkHelper.isCustomCheckpointPolicy(chunk);  // Supplies default if needed
 
-		if (!customCheckpointPolicy) {
+		if (ChunkHelper.isAdaptiveCheckpointPolicy(chunk)) {
+
+			Properties stepProps = stepContext.getProperties();
+			AdaptiveCheckpointAlgorithm aca = new AdaptiveCheckpointAlgorithm(checkpointAtThisItemCount, 
+					ChunkHelper.getAdaptiveMinItems(stepProps), 
+					ChunkHelper.getAdaptiveMaxItems(stepProps, checkpointAtThisItemCount), 
+					ChunkHelper.getAdaptiveTargetMillis(stepProps), 
+					ChunkHelper.getAdaptiveMaxChunkBytes(stepProps), 
+					timeLimitSeconds);
+			logger.fine("Initialize checkpoint manager with adaptive policy starting from item-count=" + checkpointAtThisItemCount + 
+					", and time limit = " + timeLimitSeconds + " seconds.");
+			checkpointAlgorithm = aca;
+
+		} else if (!customCheckpointPolicy) {
 
 			ItemCheckpointAlgorithm ica = new ItemCheckpointAlgorithm();
 			ica.setItemCount(checkpointAtThisItemCount);
@@ -806,7 +1425,7 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 		
 		// Finally, for both policies now
 		checkpointManager = new CheckpointManager(readerProxy, writerProxy, checkpointAlgorithm, jobExecutionImpl.getExecutionId(), jobExecutionImpl
-					.getJobInstance().getInstanceId(), step.getId());
+					.getJobInstance().getInstanceId(), getCheckpointStepName());
 		
 		// A related piece of data we'll calculate here is the tran timeout.   Though we won't include
 		// it in the checkpoint manager since we'll set it directly on the tran mgr before each chunk.
@@ -910,7 +1529,7 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 			logger.entering(sourceClass, sourceMethod);
 
 		_persistenceManagerService = servicesManager.getPersistenceManagerService();
-		readerChkptDK = new CheckpointDataKey(jobExecutionImpl.getJobInstance().getInstanceId(), step.getId(), "READER");
+		readerChkptDK = new CheckpointDataKey(jobExecutionImpl.getJobInstance().getInstanceId(), getCheckpointStepName(), "READER");
 		CheckpointData readerChkptData = _persistenceManagerService.getCheckpointData(readerChkptDK);
 		try {
 
@@ -938,7 +1557,7 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 			throw new IllegalStateException("Expected CheckpointData but found" + readerChkptData );
 		}
 
-		writerChkptDK = new CheckpointDataKey(jobExecutionImpl.getJobInstance().getInstanceId(), step.getId(), "WRITER");
+		writerChkptDK = new CheckpointDataKey(jobExecutionImpl.getJobInstance().getInstanceId(), getCheckpointStepName(), "WRITER");
 		CheckpointData writerChkptData = _persistenceManagerService.getCheckpointData(writerChkptDK);
 
 		try {
@@ -1102,7 +1721,7 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 
 	private void positionReaderAtCheckpoint() {
 		_persistenceManagerService = servicesManager.getPersistenceManagerService();
-		readerChkptDK = new CheckpointDataKey(jobExecutionImpl.getJobInstance().getInstanceId(), step.getId(), "READER");
+		readerChkptDK = new CheckpointDataKey(jobExecutionImpl.getJobInstance().getInstanceId(), getCheckpointStepName(), "READER");
 
 		CheckpointData readerData = _persistenceManagerService.getCheckpointData(readerChkptDK);
 		try {
@@ -1131,7 +1750,7 @@ public class ChunkStepControllerImpl extends SingleThreadedStepControllerImpl {
 
 	private void positionWriterAtCheckpoint() {
 		_persistenceManagerService = servicesManager.getPersistenceManagerService();
-		writerChkptDK = new CheckpointDataKey(jobExecutionImpl.getJobInstance().getInstanceId(), step.getId(), "WRITER");
+		writerChkptDK = new CheckpointDataKey(jobExecutionImpl.getJobInstance().getInstanceId(), getCheckpointStepName(), "WRITER");
 
 		CheckpointData writerData =  _persistenceManagerService.getCheckpointData(writerChkptDK);
 
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.impl;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * How many partitions of a partitioned step in elastic mode may run at once, adjusted between a 
+ * minimum and a maximum from what the partitions report about their chunks as they commit.
+ * 
+ * Every interval, the limit backs off if the system is overloaded: the load average per processor 
+ * is over the maximum, or chunks are taking much longer to commit than they have been, which usually 
+ * means a shared database is saturated.  Otherwise it goes up by one, and keeps going up for as long as 
+ * throughput in items per second does.  When an increase makes throughput drop, it steps back and 
+ * holds there for a while before trying again.
+ * 
+ * An interval in which no chunk commits, say because chunks take longer than that, says nothing about
+ * throughput.  The limit holds, unless the processors are overloaded, and the sample runs on until a
+ * chunk does commit.
+ * 
+ * Lowering the limit doesn't stop any running partitions, it only holds back starting more of them.
+ */
+public class ElasticConcurrency {
+
+	private final static String sourceClass = ElasticConcurrency.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	// A commit taking this many times longer than the quickest recently counts as overloaded
+	private static final double LATENCY_FACTOR = 2.0;
+
+	// Commits quicker than this never count as overloaded, however they compare
+	private static final long MIN_OVERLOADED_LATENCY_NANOS = 1000000;
+
+	// How far the quickest commit time is let drift up each interval, so one fast interval isn't the baseline forever
+	private static final double LATENCY_BASELINE_DRIFT = 1.1;
+
+	// Changes in throughput smaller than this are noise
+	private static final double THROUGHPUT_TOLERANCE = 0.05;
+
+	// Intervals to hold at a limit after stepping back from an increase which didn't pay off
+	private static final int HOLD_INTERVALS = 5;
+
+	private static final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+
+	private final int minThreads;
+	private final int maxThreads;
+	private final long intervalMillis;
+	private final double maxCpuLoad;
+
+	// Reported by the partitions since the last sample
+	private final AtomicLong items = new AtomicLong();
+	private final AtomicLong commits = new AtomicLong();
+	private final AtomicLong commitNanos = new AtomicLong();
+
+	// Only used by the thread adjusting the limit
+	private volatile int limit;
+	private long lastSampleMillis;
+	private double lastThroughput = -1;
+	private double baselineLatency = -1;
+	private boolean increased = false;
+	private int holdIntervals = 0;
+
+	/**
+	 * @param initialThreads the limit to start with, clamped to the minimum and maximum
+	 * @param minThreads the least the limit goes down to
+	 * @param maxThreads the most the limit goes up to
+	 * @param intervalMillis how often to adjust the limit
+	 * @param maxCpuLoad the system load average per processor above which to back off, 
+	 * ignored if the load average isn't available
+	 */
+	public ElasticConcurrency(int initialThreads, int minThreads, int maxThreads, long intervalMillis, double maxCpuLoad) {
+		this.minThreads = Math.max(1, minThreads);
+		this.maxThreads = Math.max(this.minThreads, maxThreads);
+		this.intervalMillis = Math.max(1, intervalMillis);
+		this.maxCpuLoad = maxCpuLoad;
+		this.limit = Math.min(this.maxThreads, Math.max(this.minThreads, initialThreads));
+		this.lastSampleMillis = System.currentTimeMillis();
+	}
+
+	/**
+	 * Called by a partition after it commits a chunk.
+	 * 
+	 * @param itemCount the number of items read in the chunk
+	 * @param nanos how long the chunk took to checkpoint and commit
+	 */
+	public void recordCommit(int itemCount, long nanos) {
+		items.addAndGet(itemCount);
+		commits.incrementAndGet();
+		commitNanos.addAndGet(nanos);
+	}
+
+	public int getLimit() {
+		return limit;
+	}
+
+	public long getIntervalMillis() {
+		return intervalMillis;
+	}
+
+	/**
+	 * @return the limit, adjusted first if the interval has passed since it last was
+	 */
+	public int adjust() {
+		double cpuLoad = os.getSystemLoadAverage();
+		return adjust(System.currentTimeMillis(), cpuLoad < 0 ? -1 : cpuLoad / os.getAvailableProcessors());
+	}
+
+	/**
+	 * @param nowMillis the current time
+	 * @param cpuLoad the load average per processor, or -1 if it isn't available
+	 * @return the limit, adjusted first if the interval has passed since it last was
+	 */
+	public int adjust(long nowMillis, double cpuLoad) {
+		long elapsed = nowMillis - lastSampleMillis;
+		if (elapsed < intervalMillis) {
+			return limit;
+		}
+		boolean cpuHigh = cpuLoad >= 0 && cpuLoad > maxCpuLoad;
+		if (commits.get() == 0 && !cpuHigh) {
+			logger.finer("No chunks committed yet, holding at " + limit);
+			return limit;
+		}
+		lastSampleMillis = nowMillis;
+
+		long sampleItems = items.getAndSet(0);
+		long sampleCommits = commits.getAndSet(0);
+		long sampleNanos = commitNanos.getAndSet(0);
+
+		double throughput = sampleItems * 1000.0 / elapsed;
+		double latency = sampleCommits == 0 ? -1 : (double) sampleNanos / sampleCommits;
+		boolean latencyHigh = false;
+		if (latency >= 0) {
+			latencyHigh = baselineLatency > 0 && latency > LATENCY_FACTOR * baselineLatency && latency > MIN_OVERLOADED_LATENCY_NANOS;
+			baselineLatency = baselineLatency < 0 ? latency : Math.min(latency, baselineLatency * LATENCY_BASELINE_DRIFT);
+		}
+
+		int previous = limit;
+		if (cpuHigh || latencyHigh) {
+			limit = Math.max(minThreads, limit - Math.max(1, limit / 4));
+			increased = false;
+		} else if (increased && lastThroughput > 0 && throughput < lastThroughput * (1 - THROUGHPUT_TOLERANCE)) {
+			limit = Math.max(minThreads, limit - 1);
+			increased = false;
+			holdIntervals = HOLD_INTERVALS;
+		} else if (holdIntervals > 0) {
+			holdIntervals--;
+			increased = false;
+		} else if (limit < maxThreads && throughput > 0) {
+			limit++;
+			increased = true;
+		} else {
+			increased = false;
+		}
+		lastThroughput = throughput;
+
+		if (logger.isLoggable(Level.FINE)) {
+			logger.fine("Throughput: " + throughput + " items/s, commit latency: " + (latency < 0 ? "n/a" : (latency / 1000000) + "ms") 
+					+ ", baseline: " + (baselineLatency < 0 ? "n/a" : (baselineLatency / 1000000) + "ms") + ", cpu load: " + cpuLoad 
+					+ "; limit " + previous + " -> " + limit);
+		}
+		return limit;
+	}
+
+	@Override
+	public String toString() {
+		return "Elastic concurrency, limit: " + limit + " (" + minThreads + "-" + maxThreads + "), interval: " + intervalMillis + "ms";
+	}
+}
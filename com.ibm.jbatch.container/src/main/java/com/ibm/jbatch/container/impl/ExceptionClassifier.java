@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Matches exceptions against one of a chunk's include/exclude exception class lists 
+ * (e.g. skippable-exception-classes).
+ * 
+ * An exception matches if it is an instance of some included class and not an instance of 
+ * any excluded class, however much nearer to it an included class is.  The class names are 
+ * loaded once, when the classifier is created, and the result is remembered per concrete 
+ * exception class, so a step which hits the same exception over and over doesn't keep going 
+ * back to the class loader.
+ */
+class ExceptionClassifier {
+
+	private static final String className = ExceptionClassifier.class.getName();
+	private static Logger logger = Logger.getLogger(ExceptionClassifier.class.getPackage().getName());
+
+	private final List<Class<?>> includes;
+	private final List<Class<?>> excludes;
+
+	private final ConcurrentMap<Class<?>, Boolean> results = new ConcurrentHashMap<Class<?>, Boolean>();
+
+	/**
+	 * Load the exception classes using the thread context class loader, ignoring any 
+	 * which can't be found.
+	 */
+	ExceptionClassifier(Set<String> includeClassNames, Set<String> excludeClassNames) {
+		ClassLoader tccl = Thread.currentThread().getContextClassLoader();
+		includes = loadClasses(tccl, includeClassNames);
+		excludes = loadClasses(tccl, excludeClassNames);
+	}
+
+	boolean matches(Exception e) {
+		Class<?> exClass = e.getClass();
+		Boolean result = results.get(exClass);
+
+		if (result == null) {
+			result = isInstanceOfAny(includes, exClass) && !isInstanceOfAny(excludes, exClass);
+			results.put(exClass, result);
+
+			if (logger.isLoggable(Level.FINE)) 
+				logger.logp(Level.FINE, className, "matches", "matches: " + result + ": " + exClass.getName());
+		}
+
+		return result;
+	}
+
+	private static boolean isInstanceOfAny(List<Class<?>> classes, Class<?> exClass) {
+		for (Class<?> clazz : classes) {
+			if (clazz.isAssignableFrom(exClass)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static List<Class<?>> loadClasses(ClassLoader tccl, Set<String> classNames) {
+		List<Class<?>> classes = new ArrayList<Class<?>>(classNames.size());
+
+		for (String exClassName : classNames) {
+			try {
+				classes.add(tccl.loadClass(exClassName));
+			} catch (ClassNotFoundException cnf) {
+				logger.logp(Level.FINE, className, "loadClasses", cnf.getLocalizedMessage());
+			}
+		}
+		return classes;
+	}
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ibm.jbatch.container.artifact.proxy.ItemProcessListenerProxy;
+import com.ibm.jbatch.container.artifact.proxy.ItemProcessorProxy;
+import com.ibm.jbatch.container.exception.BatchContainerRuntimeException;
+
+/**
+ * Runs ItemProcessor.processItem(), along with the surrounding beforeProcess() and
+ * afterProcess() listener calls, on a set of worker threads owned by a single chunk step.
+ *
+ * Items are either handed off one at a time as they are read ({@link #submit(Object)} and 
+ * {@link #drain()}), or all at once after the chunk has been read ({@link #processAll(List)}).
+ * 
+ * Only the processing itself happens off the step thread.  An exception thrown by the
+ * processor or a listener is captured in the {@link ProcessedItem} so that onProcessError(),
+ * skip and retry handling still happen on the step thread, one item at a time, in read order.
+ *
+ * Note the processor runs outside of the chunk transaction.
+ */
+class ItemProcessingExecutor {
+
+	private final static String sourceClass = ItemProcessingExecutor.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	/**
+	 * The outcome of processing one item on a worker thread.
+	 */
+	static class ProcessedItem {
+
+		private final Object itemRead;
+		private Object itemProcessed = null;
+		private Throwable failure = null;
+
+		ProcessedItem(Object itemRead) {
+			this.itemRead = itemRead;
+		}
+
+		public Object getItemRead() {
+			return itemRead;
+		}
+
+		public Object getItemProcessed() {
+			return itemProcessed;
+		}
+
+		public Throwable getFailure() {
+			return failure;
+		}
+	}
+
+	private final ItemProcessorProxy processorProxy;
+	private final List<ItemProcessListenerProxy> itemProcessListeners;
+	private final ExecutorService workers;
+	private final int threads;
+
+	// Bounds the number of items handed off but not yet processed.
+	private final Semaphore slots;
+
+	// In read order
+	private final LinkedList<ProcessTask> pending = new LinkedList<ProcessTask>();
+
+	ItemProcessingExecutor(String stepId, int threads, int depth, ItemProcessorProxy processorProxy,
+			List<ItemProcessListenerProxy> itemProcessListeners) {
+		this.processorProxy = processorProxy;
+		this.itemProcessListeners = itemProcessListeners;
+		this.threads = threads;
+		this.slots = new Semaphore(threads + depth);
+		this.workers = Executors.newFixedThreadPool(threads, new ProcessorThreadFactory(stepId));
+
+		if (logger.isLoggable(Level.FINE)) {
+			logger.fine("Created processor threads for step: " + stepId + ", with threads = " + threads + ", depth = " + depth);
+		}
+	}
+
+	/**
+	 * Hand off an item to the processor threads, blocking while the pipeline is full.
+	 */
+	void submit(Object itemRead) {
+		try {
+			slots.acquire();
+		} catch (InterruptedException e) {
+			throw new BatchContainerRuntimeException("Interrupted waiting to hand off item to processor threads", e);
+		}
+		ProcessTask task = new ProcessTask(itemRead);
+		task.future = workers.submit(task);
+		pending.add(task);
+	}
+
+	/**
+	 * Wait for every item submitted since the last drain.
+	 *
+	 * @return the processed items, in the order they were submitted.
+	 */
+	List<ProcessedItem> drain() {
+		List<ProcessedItem> processed = new ArrayList<ProcessedItem>(pending.size());
+		try {
+			while (!pending.isEmpty()) {
+				processed.add(pending.removeFirst().future.get());
+			}
+		} catch (InterruptedException e) {
+			discard();
+			throw new BatchContainerRuntimeException("Interrupted waiting for processor threads", e);
+		} catch (ExecutionException e) {
+			// Not expected since ProcessTask captures any Throwable.
+			discard();
+			throw new BatchContainerRuntimeException("Unexpected failure on processor thread", e.getCause());
+		}
+		return processed;
+	}
+
+	/**
+	 * Process a whole chunk's worth of items at once, fanned out across the processor threads.
+	 * Each thread repeatedly claims the next unprocessed item, so a slow item only holds up 
+	 * one thread.
+	 * 
+	 * @return the processed items, in the same order as itemsRead.
+	 */
+	List<ProcessedItem> processAll(final List<Object> itemsRead) {
+		if (itemsRead.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		final ProcessedItem[] processed = new ProcessedItem[itemsRead.size()];
+		final AtomicInteger nextIndex = new AtomicInteger();
+
+		Runnable claimAndProcess = new Runnable() {
+			@Override
+			public void run() {
+				for (int i = nextIndex.getAndIncrement(); i < processed.length; i = nextIndex.getAndIncrement()) {
+					processed[i] = process(itemsRead.get(i));
+				}
+			}
+		};
+
+		int numTasks = Math.min(threads, itemsRead.size());
+		List<Future<?>> tasks = new ArrayList<Future<?>>(numTasks);
+		for (int i = 0; i < numTasks; i++) {
+			tasks.add(workers.submit(claimAndProcess));
+		}
+
+		try {
+			for (Future<?> task : tasks) {
+				task.get();
+			}
+		} catch (InterruptedException e) {
+			// Stop the remaining tasks from claiming any more items
+			nextIndex.set(processed.length);
+			awaitQuietly(tasks);
+			throw new BatchContainerRuntimeException("Interrupted waiting for processor threads", e);
+		} catch (ExecutionException e) {
+			// Not expected since process() captures any Throwable.
+			nextIndex.set(processed.length);
+			awaitQuietly(tasks);
+			throw new BatchContainerRuntimeException("Unexpected failure on processor thread", e.getCause());
+		}
+
+		return Arrays.asList(processed);
+	}
+
+	/**
+	 * Throw away any outstanding work, e.g. on rollback.  Items not yet started never will be,
+	 * and those already being processed are waited for, so none is still being processed when 
+	 * the chunk is retried.  Their results are ignored.
+	 */
+	void discard() {
+		List<Future<?>> started = new ArrayList<Future<?>>(pending.size());
+		for (ProcessTask task : pending) {
+			if (task.claim()) {
+				// Won't run, so won't release its own slot
+				slots.release();
+			} else {
+				started.add(task.future);
+			}
+		}
+		awaitQuietly(started);
+		pending.clear();
+	}
+
+	/*
+	 * Wait for the tasks whatever their outcome, putting off an interrupt until they're done.
+	 */
+	private static void awaitQuietly(List<? extends Future<?>> tasks) {
+		boolean interrupted = false;
+		for (Future<?> task : tasks) {
+			while (true) {
+				try {
+					task.get();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				} catch (ExecutionException e) {
+					break;
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	void shutdown() {
+		discard();
+		workers.shutdown();
+	}
+
+	/**
+	 * Runs on a processor thread.
+	 */
+	private ProcessedItem process(Object itemRead) {
+		ProcessedItem result = new ProcessedItem(itemRead);
+		try {
+			for (ItemProcessListenerProxy processListenerProxy : itemProcessListeners) {
+				processListenerProxy.beforeProcess(itemRead);
+			}
+
+			result.itemProcessed = processorProxy.processItem(itemRead);
+
+			for (ItemProcessListenerProxy processListenerProxy : itemProcessListeners) {
+				processListenerProxy.afterProcess(itemRead, result.itemProcessed);
+			}
+		} catch (Throwable t) {
+			result.failure = t;
+		}
+		return result;
+	}
+
+	private class ProcessTask implements Callable<ProcessedItem> {
+
+		private final Object itemRead;
+		private final AtomicBoolean claimed = new AtomicBoolean();
+		private Future<ProcessedItem> future;
+
+		ProcessTask(Object itemRead) {
+			this.itemRead = itemRead;
+		}
+
+		/*
+		 * Either the processor thread or discard() gets the item, never both.  Unlike 
+		 * Future.cancel(), this tells a task which has started apart from one which hasn't.
+		 */
+		boolean claim() {
+			return claimed.compareAndSet(false, true);
+		}
+
+		@Override
+		public ProcessedItem call() {
+			if (!claim()) {
+				return null;
+			}
+			try {
+				return process(itemRead);
+			} finally {
+				slots.release();
+			}
+		}
+	}
+
+	/**
+	 * Daemon threads, named after the step, which load classes the same way the step thread does.
+	 */
+	private static class ProcessorThreadFactory implements ThreadFactory {
+
+		private final String stepId;
+		private final ClassLoader tccl;
+		private final AtomicInteger count = new AtomicInteger();
+
+		ProcessorThreadFactory(String stepId) {
+			this.stepId = stepId;
+			this.tccl = Thread.currentThread().getContextClassLoader();
+		}
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread t = new Thread(r, "jbatch-processor-" + stepId + "-" + count.incrementAndGet());
+			t.setDaemon(true);
+			t.setContextClassLoader(tccl);
+			return t;
+		}
+	}
+}
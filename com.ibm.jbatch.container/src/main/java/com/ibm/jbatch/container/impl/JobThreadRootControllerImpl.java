@@ -201,7 +201,7 @@ public abstract class JobThreadRootControllerImpl implements IThreadRootControll
 
 	}
 
-	private void persistJobBatchAndExitStatus() {
+	protected void persistJobBatchAndExitStatus() {
 		BatchStatus batchStatus = jobContext.getBatchStatus();
 
 		// Take a current timestamp for last updated no matter what the status.
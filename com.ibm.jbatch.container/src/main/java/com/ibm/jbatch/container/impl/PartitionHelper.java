@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.impl;
+
+import java.util.Properties;
+
+public class PartitionHelper {
+
+	/**
+	 * Step property which, if 'true', runs the partitions of a partitioned step as lightweight
+	 * partitions.  Rather than each partition being a "subjob" with its own job instance, job
+	 * execution and job status, a lightweight partition runs as part of the job execution of the
+	 * partitioned step, and only its step executions, step status and checkpoints are persisted.
+	 *
+	 * These are stored under the partitioned step's job execution with a step name of the form
+	 * ":<step id>:<partition>", see {@link PartitionedStepBuilder#generatePartitionStepName(String, int)}.
+	 */
+	public static final String LIGHTWEIGHT_PROPERTY = "com.ibm.jbatch.container.partition.lightweight";
+
+	/**
+	 * Step property for the order in which the partitions of a partitioned step are started, when there 
+	 * are fewer threads than partitions: by partition number (the default) or {@value #LONGEST_FIRST}.
+	 */
+	public static final String SCHEDULE_PROPERTY = "com.ibm.jbatch.container.partition.schedule";
+
+	/**
+	 * Start the partitions which took longest on previous runs first, so the long ones overlap rather 
+	 * than one of them being left to run on its own at the end.  Partitions with no history yet count 
+	 * as taking the average time.
+	 */
+	public static final String LONGEST_FIRST = "longestFirst";
+
+	/**
+	 * Step property for how much collector data and partition status can be waiting for the analyzer 
+	 * of a partitioned step before the partitions sending more have to wait for it to catch up.
+	 */
+	public static final String ANALYZER_QUEUE_CAPACITY_PROPERTY = "com.ibm.jbatch.container.partition.analyzerQueueCapacity";
+
+	public static final int DEFAULT_ANALYZER_QUEUE_CAPACITY = 1000;
+
+	/**
+	 * Step property which, if 'true', lets the number of partitions running at once go up and down 
+	 * with the throughput and load, starting from the plan's threads, see {@link ElasticConcurrency}.
+	 */
+	public static final String ELASTIC_PROPERTY = "com.ibm.jbatch.container.partition.elastic";
+
+	/**
+	 * Step properties for the least and most partitions to run at once in elastic mode, by default 
+	 * 1 and the number of partitions.
+	 */
+	public static final String ELASTIC_MIN_THREADS_PROPERTY = "com.ibm.jbatch.container.partition.elastic.minThreads";
+	public static final String ELASTIC_MAX_THREADS_PROPERTY = "com.ibm.jbatch.container.partition.elastic.maxThreads";
+
+	/**
+	 * Step property for how often, in milliseconds, to adjust the number of partitions in elastic mode.
+	 */
+	public static final String ELASTIC_INTERVAL_PROPERTY = "com.ibm.jbatch.container.partition.elastic.intervalMillis";
+
+	public static final int DEFAULT_ELASTIC_INTERVAL = 1000;
+
+	/**
+	 * Step property for the system load average per processor above which elastic mode runs fewer partitions.
+	 */
+	public static final String ELASTIC_MAX_CPU_LOAD_PROPERTY = "com.ibm.jbatch.container.partition.elastic.maxCpuLoad";
+
+	public static final double DEFAULT_ELASTIC_MAX_CPU_LOAD = 0.9;
+
+	public static boolean isLightweight(Properties stepProps) {
+		return stepProps != null && Boolean.parseBoolean(stepProps.getProperty(LIGHTWEIGHT_PROPERTY));
+	}
+
+	public static boolean isLongestFirst(Properties stepProps) {
+		return stepProps != null && LONGEST_FIRST.equalsIgnoreCase(stepProps.getProperty(SCHEDULE_PROPERTY));
+	}
+
+	public static int getAnalyzerQueueCapacity(Properties stepProps) {
+		return getPositiveInt(stepProps, ANALYZER_QUEUE_CAPACITY_PROPERTY, DEFAULT_ANALYZER_QUEUE_CAPACITY);
+	}
+
+	/**
+	 * @return the elastic concurrency of the step's partitions, or null if the step isn't in elastic mode
+	 */
+	public static ElasticConcurrency getElasticConcurrency(Properties stepProps, int partitions, int threads) {
+		if (stepProps == null || !Boolean.parseBoolean(stepProps.getProperty(ELASTIC_PROPERTY))) {
+			return null;
+		}
+		int minThreads = getPositiveInt(stepProps, ELASTIC_MIN_THREADS_PROPERTY, 1);
+		int maxThreads = getPositiveInt(stepProps, ELASTIC_MAX_THREADS_PROPERTY, partitions);
+		int interval = getPositiveInt(stepProps, ELASTIC_INTERVAL_PROPERTY, DEFAULT_ELASTIC_INTERVAL);
+
+		double maxCpuLoad = DEFAULT_ELASTIC_MAX_CPU_LOAD;
+		String maxCpuLoadValue = stepProps.getProperty(ELASTIC_MAX_CPU_LOAD_PROPERTY);
+		if (maxCpuLoadValue != null) {
+			try {
+				maxCpuLoad = Double.parseDouble(maxCpuLoadValue.trim());
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Could not parse step property " + ELASTIC_MAX_CPU_LOAD_PROPERTY + "=" + maxCpuLoadValue, e);
+			}
+		}
+		return new ElasticConcurrency(threads, minThreads, maxThreads, interval, maxCpuLoad);
+	}
+
+	private static int getPositiveInt(Properties stepProps, String name, int defaultValue) {
+		String value = stepProps == null ? null : stepProps.getProperty(name);
+		if (value == null) {
+			return defaultValue;
+		}
+		int intValue;
+		try {
+			intValue = Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Could not parse step property " + name + "=" + value, e);
+		}
+		if (intValue < 1) {
+			throw new IllegalArgumentException("Step property " + name + " must be 1 or greater, with " + name + "=" + value);
+		}
+		return intValue;
+	}
+}
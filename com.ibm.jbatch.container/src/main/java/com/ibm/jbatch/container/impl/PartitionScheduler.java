@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.impl;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import com.ibm.jbatch.container.api.PartitionStatistics;
+import com.ibm.jbatch.container.persistence.PartitionHistory;
+import com.ibm.jbatch.container.util.BatchPartitionWorkUnit;
+
+/**
+ * Orders the partitions of a step by how long they took on previous runs.
+ */
+public class PartitionScheduler implements PartitionStatistics {
+
+	private final Map<Integer, PartitionHistory> history;
+	private final int availableProcessors;
+
+	// What to expect of a partition with no history
+	private final long averageDuration;
+
+	/**
+	 * @param history by partition number, the history of the step's partitions
+	 * @param availableProcessors the number of processors to suggest threads for
+	 */
+	public PartitionScheduler(Map<Integer, PartitionHistory> history, int availableProcessors) {
+		this.history = history;
+		this.availableProcessors = Math.max(1, availableProcessors);
+
+		long total = 0;
+		for (PartitionHistory partitionHistory : history.values()) {
+			total += partitionHistory.getDurationMillis();
+		}
+		this.averageDuration = history.isEmpty() ? 0 : total / history.size();
+	}
+
+	@Override
+	public long getExpectedDuration(int partition) {
+		PartitionHistory partitionHistory = history.get(partition);
+		return partitionHistory == null ? -1 : partitionHistory.getDurationMillis();
+	}
+
+	@Override
+	public long getExpectedItemCount(int partition) {
+		PartitionHistory partitionHistory = history.get(partition);
+		return partitionHistory == null ? -1 : partitionHistory.getItemCount();
+	}
+
+	@Override
+	public int getSuggestedThreads(int partitions) {
+		int threads = Math.min(Math.max(1, partitions), availableProcessors);
+
+		long total = 0;
+		long longest = 0;
+		for (int i = 0; i < partitions; i++) {
+			long duration = getDurationOrAverage(i);
+			total += duration;
+			longest = Math.max(longest, duration);
+		}
+		if (longest > 0) {
+			// Beyond this many threads, the step still takes as long as its longest partition
+			long enough = (total + longest - 1) / longest;
+			threads = (int) Math.min(threads, Math.max(1, enough));
+		}
+		return threads;
+	}
+
+	/**
+	 * Sort the partitions longest expected duration first, otherwise keeping them in order.
+	 */
+	public void sortLongestFirst(List<BatchPartitionWorkUnit> partitions) {
+		Collections.sort(partitions, new Comparator<BatchPartitionWorkUnit>() {
+			@Override
+			public int compare(BatchPartitionWorkUnit o1, BatchPartitionWorkUnit o2) {
+				long d1 = getDurationOrAverage(o1.getJobExecutionImpl().getPartitionInstance());
+				long d2 = getDurationOrAverage(o2.getJobExecutionImpl().getPartitionInstance());
+				return d1 > d2 ? -1 : (d1 == d2 ? 0 : 1);
+			}
+		});
+	}
+
+	private long getDurationOrAverage(int partition) {
+		long duration = getExpectedDuration(partition);
+		return duration < 0 ? averageDuration : duration;
+	}
+
+	@Override
+	public String toString() {
+		return "Partition history: " + history;
+	}
+}
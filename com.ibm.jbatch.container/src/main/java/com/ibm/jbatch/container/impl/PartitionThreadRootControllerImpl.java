@@ -16,19 +16,70 @@
  */
 package com.ibm.jbatch.container.impl;
 
+import java.sql.Timestamp;
+
+import javax.batch.runtime.BatchStatus;
+
 import com.ibm.jbatch.container.jobinstance.RuntimeJobExecution;
 import com.ibm.jbatch.container.util.PartitionsBuilderConfig;
 
 /**
- * Currently there's no special function on top of the subjob required of the partition.
- *
+ * Runs the subjob of a partition.  
+ * 
+ * A lightweight partition has no job instance, execution or status of its own to persist, 
+ * so its job-level batch status and timestamps are only tracked in memory.
  */
 public class PartitionThreadRootControllerImpl extends JobThreadRootControllerImpl {
 
 	private final static String CLASSNAME = PartitionThreadRootControllerImpl.class.getName();
 	
+	private final boolean lightweight;
+
 	public PartitionThreadRootControllerImpl(RuntimeJobExecution jobExecution, PartitionsBuilderConfig config) {
 		super(jobExecution, config.getAnalyzerQueue());
+		this.lightweight = config.isLightweight();
+	}
+
+	@Override
+	protected void markJobStarted() {
+		if (lightweight) {
+			updateJobBatchStatus(BatchStatus.STARTED);
+			Timestamp timestamp = new Timestamp(System.currentTimeMillis());
+			jobExecution.setLastUpdateTime(timestamp);
+			jobExecution.setStartTime(timestamp);
+		} else {
+			super.markJobStarted();
+		}
+	}
+
+	@Override
+	protected void jslStop() {
+		if (lightweight) {
+			batchStatusStopping();
+		} else {
+			super.jslStop();
+		}
+	}
+
+	@Override
+	protected void batchStatusStopping() {
+		if (lightweight) {
+			updateJobBatchStatus(BatchStatus.STOPPING);
+			jobExecution.setLastUpdateTime(new Timestamp(System.currentTimeMillis()));
+		} else {
+			super.batchStatusStopping();
+		}
+	}
+
+	@Override
+	protected void persistJobBatchAndExitStatus() {
+		if (lightweight) {
+			Timestamp timestamp = new Timestamp(System.currentTimeMillis());
+			jobExecution.setLastUpdateTime(timestamp);
+			jobExecution.setEndTime(timestamp);
+		} else {
+			super.persistJobBatchAndExitStatus();
+		}
 	}
 
 }
@@ -208,6 +208,24 @@ public class PartitionedStepBuilder {
 
         return strBuilder.toString();
     }
+
+    /**
+     * @param stepId
+     *            the id of the partitioned step
+     * @param partitionInstance
+     *            the instance number of the partition
+     * @return the step name a lightweight partition's step executions are stored under, 
+     *         a String of the form :<stepId>:<partitionInstance>
+     */
+    public static String generatePartitionStepName(String stepId, int partitionInstance) {
+
+        StringBuilder strBuilder = new StringBuilder(JOB_ID_SEPARATOR);
+        strBuilder.append(stepId);
+        strBuilder.append(JOB_ID_SEPARATOR);
+        strBuilder.append(partitionInstance);
+
+        return strBuilder.toString();
+    }
     
     
 
@@ -17,10 +17,15 @@
 package com.ibm.jbatch.container.impl;
 
 import java.util.ArrayList;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -32,7 +37,10 @@ import javax.batch.operations.JobExecutionNotRunningException;
 import javax.batch.operations.JobRestartException;
 import javax.batch.operations.JobStartException;
 import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.Metric;
+import javax.batch.runtime.StepExecution;
 
+import com.ibm.jbatch.container.api.DynamicPartitionPlan;
 import com.ibm.jbatch.container.artifact.proxy.InjectionReferences;
 import com.ibm.jbatch.container.artifact.proxy.PartitionAnalyzerProxy;
 import com.ibm.jbatch.container.artifact.proxy.PartitionMapperProxy;
@@ -42,8 +50,12 @@ import com.ibm.jbatch.container.artifact.proxy.StepListenerProxy;
 import com.ibm.jbatch.container.context.impl.StepContextImpl;
 import com.ibm.jbatch.container.exception.BatchContainerRuntimeException;
 import com.ibm.jbatch.container.exception.BatchContainerServiceException;
+import com.ibm.jbatch.container.exception.PersistenceException;
 import com.ibm.jbatch.container.jobinstance.RuntimeJobExecution;
+import com.ibm.jbatch.container.jobinstance.RuntimePartitionExecution;
 import com.ibm.jbatch.container.jsl.CloneUtility;
+import com.ibm.jbatch.container.persistence.PartitionHistory;
+import com.ibm.jbatch.container.status.StepStatus;
 import com.ibm.jbatch.container.util.BatchPartitionPlan;
 import com.ibm.jbatch.container.util.BatchPartitionWorkUnit;
 import com.ibm.jbatch.container.util.BatchWorkUnit;
@@ -69,11 +81,24 @@ public class PartitionedStepControllerImpl extends BaseStepControllerImpl {
 
 	private PartitionPlan plan = null;
 
+	// Only set if the mapper returned a dynamic plan
+	private DynamicPartitionPlan dynamicPlan = null;
+
 	private int partitions = DEFAULT_PARTITION_INSTANCES;
 	private int threads = DEFAULT_THREADS;
 
 	private Properties[] partitionProperties = null;
 
+	// The step statuses the lightweight partitions of this execution restart from, if any.
+	private StepStatus[] partitionStepStatuses = null;
+
+	// Set when the partitions are scheduled by their history, or the mapper asks for it
+	private PartitionScheduler scheduler = null;
+	private Map<Integer, PartitionHistory> partitionHistory = null;
+
+	// Only set when the step is in elastic mode
+	private ElasticConcurrency elasticConcurrency = null;
+
 	private volatile List<BatchPartitionWorkUnit> parallelBatchWorkUnits;
 
 	private PartitionReducerProxy partitionReducerProxy = null;
@@ -93,6 +118,13 @@ public class PartitionedStepControllerImpl extends BaseStepControllerImpl {
 	
 	BlockingQueue<BatchPartitionWorkUnit> finishedWorkQueue = null;
 
+	// How long to wait on the analyzer queue at a time while waiting for the partitions to end after an error
+	private static final long DRAIN_WAIT_MILLIS = 100;
+
+	// Partitions of this execution started and ended so far, kept up to date even if we leave the loop on an exception
+	private int numCurrentSubmitted = 0;
+	private int numCurrentCompleted = 0;
+
 	protected PartitionedStepControllerImpl(final RuntimeJobExecution jobExecutionImpl, final Step step, StepContextImpl stepContext, long rootJobExecutionId) {
 		super(jobExecutionImpl, step, stepContext, rootJobExecutionId);
 	}
@@ -111,7 +143,12 @@ public class PartitionedStepControllerImpl extends BaseStepControllerImpl {
 					long jobExecutionId = -1;
 					try {
 						jobExecutionId = subJob.getJobExecutionImpl().getExecutionId();
-						batchKernel.stopJob(jobExecutionId);
+						if (subJob.getJobExecutionImpl() instanceof RuntimePartitionExecution) {
+							// A lightweight partition shares our execution id, so it isn't known to the kernel by it.
+							subJob.getController().stop();
+						} else {
+							batchKernel.stopJob(jobExecutionId);
+						}
 					} catch (JobExecutionNotRunningException e) {
 						logger.fine("Caught exception trying to stop subjob: " + jobExecutionId + ", which was not running.");
 						// We want to stop all running sub steps. 
@@ -161,6 +198,10 @@ public class PartitionedStepControllerImpl extends BaseStepControllerImpl {
 			}
 
 
+			if (partitionMapperProxy.isHistoryAware()) {
+				partitionMapperProxy.setPartitionStatistics(getScheduler());
+			}
+
 			PartitionPlan mapperPlan = partitionMapperProxy.mapPartitions();
 
 			//Set up the new partition plan
@@ -182,6 +223,10 @@ public class PartitionedStepControllerImpl extends BaseStepControllerImpl {
 			}
 
 			plan.setPartitionProperties(mapperPlan.getPartitionProperties());
+
+			if (mapperPlan instanceof DynamicPartitionPlan) {
+				dynamicPlan = (DynamicPartitionPlan) mapperPlan;
+			}
 			
 			if (logger.isLoggable(Level.FINE)) {
 				logger.fine("Partition plan defined by partition mapper: " + plan);
@@ -323,15 +368,34 @@ public class PartitionedStepControllerImpl extends BaseStepControllerImpl {
 
 		//Set up a blocking queue to pick up collector data from a partitioned thread
 		if (this.analyzerProxy != null) {
-			this.analyzerStatusQueue =  new LinkedBlockingQueue<PartitionDataWrapper>();
+			// Bounded, so partitions sending collector data faster than the analyzer takes it have to wait for it
+			this.analyzerStatusQueue =  new LinkedBlockingQueue<PartitionDataWrapper>(
+					PartitionHelper.getAnalyzerQueueCapacity(stepContext.getJSLProperties()));
 		}
 		this.finishedWorkQueue = new LinkedBlockingQueue<BatchPartitionWorkUnit>();
 
+		if (PartitionHelper.isLongestFirst(stepContext.getJSLProperties())) {
+			getScheduler();
+			if (logger.isLoggable(Level.FINE)) {
+				logger.fine("Running " + partitions + " partitions on " + threads + " threads; suggested threads: " 
+						+ scheduler.getSuggestedThreads(partitions));
+			}
+		}
+
 		// Build all sub jobs from partitioned step
 		buildSubJobBatchWorkUnits();
 
 		// kick off the threads
-		executeAndWaitForCompletion();
+		try {
+			executeAndWaitForCompletion();
+		} finally {
+			if (analyzerProxy != null && numCurrentCompleted < numCurrentSubmitted) {
+				// We've stopped taking from the bounded analyzer queue, so the partitions still running would block on it
+				waitForPartitionsAfterError();
+			}
+		}
+
+		recordPartitionHistory();
 
 		// Deal with the results.
 		checkFinishedPartitions();
@@ -355,6 +419,28 @@ public class PartitionedStepControllerImpl extends BaseStepControllerImpl {
 			}
 
 			PartitionsBuilderConfig config = new PartitionsBuilderConfig(subJobs, partitionProperties, analyzerStatusQueue, finishedWorkQueue, jobExecutionImpl.getExecutionId());
+			if (PartitionHelper.isLightweight(stepContext.getJSLProperties())) {
+				// Only a normal restart picks up where the previous partitions left off; otherwise
+				// every partition starts from scratch, with a new step status.
+				partitionStepStatuses = new StepStatus[partitions];
+				if (executionType == ExecutionType.RESTART_NORMAL) {
+					for (int instance = 0; instance < partitions; instance++) {
+						partitionStepStatuses[instance] = _jobStatusService.getStepStatus(jobExecutionImpl.getInstanceId(), 
+								PartitionedStepBuilder.generatePartitionStepName(step.getId(), instance));
+					}
+				}
+				config.setLightweight(jobExecutionImpl, step.getId(), partitionStepStatuses);
+			}
+			elasticConcurrency = PartitionHelper.getElasticConcurrency(stepContext.getJSLProperties(), partitions, threads);
+			if (elasticConcurrency != null) {
+				logger.fine(elasticConcurrency.toString());
+				config.setElasticConcurrency(elasticConcurrency);
+			}
+			if (dynamicPlan != null) {
+				// As with the partitions themselves, only a normal restart carries on where the previous execution left off
+				config.setWorkRangePool(new WorkRangePool(jobExecutionImpl.getInstanceId(), step.getId(), dynamicPlan, 
+						executionType == ExecutionType.RESTART_NORMAL));
+			}
 			// Then build all the subjobs but do not start them yet
 			if (executionType == ExecutionType.RESTART_NORMAL) {				
 				parallelBatchWorkUnits = batchKernel.buildOnRestartParallelPartitions(config);
@@ -368,9 +454,79 @@ public class PartitionedStepControllerImpl extends BaseStepControllerImpl {
 			}
 
 			// NOTE:  At this point I might not have as many work units as I had partitions, since some may have already completed.
+
+			if (scheduler != null && PartitionHelper.isLongestFirst(stepContext.getJSLProperties())) {
+				scheduler.sortLongestFirst(parallelBatchWorkUnits);
+			}
 		}
 	}
 
+	private PartitionScheduler getScheduler() {
+		if (scheduler == null) {
+			String jobName = _persistenceManagementService.jobOperatorGetJobExecution(rootJobExecutionId).getJobName();
+			partitionHistory = _persistenceManagementService.getPartitionHistory(jobName, step.getId());
+			scheduler = new PartitionScheduler(partitionHistory, Runtime.getRuntime().availableProcessors());
+			logger.fine(scheduler.toString());
+		}
+		return scheduler;
+	}
+
+	/*
+	 * Add the partitions which completed on this execution to the history, taking their duration and
+	 * read count from their step executions.  A normal restart only runs what was left of each partition, 
+	 * so it isn't recorded.
+	 */
+	private void recordPartitionHistory() {
+		if (scheduler == null || executionType == ExecutionType.RESTART_NORMAL) {
+			return;
+		}
+
+		try {
+			Map<Integer, PartitionHistory> updates = new HashMap<Integer, PartitionHistory>();
+			for (BatchPartitionWorkUnit work : finishedWork) {
+				RuntimeJobExecution partitionExecution = work.getJobExecutionImpl();
+				if (!BatchStatus.COMPLETED.equals(partitionExecution.getJobContext().getBatchStatus())) {
+					continue;
+				}
+				StepExecution partitionStepExecution = getPartitionStepExecution(partitionExecution);
+				if (partitionStepExecution == null || partitionStepExecution.getStartTime() == null 
+						|| partitionStepExecution.getEndTime() == null) {
+					continue;
+				}
+
+				long duration = partitionStepExecution.getEndTime().getTime() - partitionStepExecution.getStartTime().getTime();
+				long items = 0;
+				for (Metric metric : partitionStepExecution.getMetrics()) {
+					if (metric.getType() == Metric.MetricType.READ_COUNT) {
+						items = metric.getValue();
+					}
+				}
+
+				int partition = partitionExecution.getPartitionInstance();
+				PartitionHistory previous = partitionHistory.get(partition);
+				updates.put(partition, previous == null ? new PartitionHistory(duration, items, 1) : previous.add(duration, items));
+			}
+
+			if (!updates.isEmpty()) {
+				String jobName = _persistenceManagementService.jobOperatorGetJobExecution(rootJobExecutionId).getJobName();
+				_persistenceManagementService.updatePartitionHistory(jobName, step.getId(), updates);
+			}
+		} catch (PersistenceException e) {
+			// The history only affects the order of later executions, so it isn't worth failing the step for
+			logger.log(Level.WARNING, "Could not record the partition history of step " + step.getId(), e);
+		}
+	}
+
+	private StepExecution getPartitionStepExecution(RuntimeJobExecution partitionExecution) {
+		if (partitionExecution instanceof RuntimePartitionExecution) {
+			StepStatus partitionStepStatus = ((RuntimePartitionExecution) partitionExecution).getStepStatus();
+			return partitionStepStatus == null ? null 
+					: _persistenceManagementService.getStepExecutionByStepExecutionId(partitionStepStatus.getLastRunStepExecutionId());
+		}
+		List<StepExecution> stepExecutions = _persistenceManagementService.getStepExecutionsForJobExecution(partitionExecution.getExecutionId());
+		return stepExecutions.isEmpty() ? null : stepExecutions.get(0);
+	}
+
 	private void executeAndWaitForCompletion() throws JobRestartException {
 		
 		if (jobExecutionImpl.getJobContext().getBatchStatus().equals(BatchStatus.STOPPING)){
@@ -380,8 +536,8 @@ public class PartitionedStepControllerImpl extends BaseStepControllerImpl {
 		
 		int numTotalForThisExecution = parallelBatchWorkUnits.size();
 		this.numPreviouslyCompleted = partitions - numTotalForThisExecution; 
-		int numCurrentCompleted = 0;
-		int numCurrentSubmitted = 0;
+		numCurrentCompleted = 0;
+		numCurrentSubmitted = 0;
 
 		logger.fine("Calculated that " + numPreviouslyCompleted + " partitions are already complete out of total # = " 
 				+ partitions + ", with # remaining =" + numTotalForThisExecution);
@@ -392,32 +548,64 @@ public class PartitionedStepControllerImpl extends BaseStepControllerImpl {
 		}
 
 		//Start up to to the max num we are allowed from the num threads attribute
-		for (int i=0; i < this.threads && i < numTotalForThisExecution; i++, numCurrentSubmitted++) {
+		int initialThreads = elasticConcurrency == null ? this.threads : elasticConcurrency.getLimit();
+		for (int i=0; i < initialThreads && i < numTotalForThisExecution; i++) {
 			if (stepStatus.getStartCount() > 1 && !plan.getPartitionsOverride()) {
 				batchKernel.restartGeneratedJob(parallelBatchWorkUnits.get(i));
 			} else {
 				batchKernel.startGeneratedJob(parallelBatchWorkUnits.get(i));
 			}
+			numCurrentSubmitted++;
 		}
 
 		boolean readyToSubmitAnother = false;
 		boolean exceptionThrownAnalyzingCollectorData = false;
 		boolean exceptionThrownAnalyzingStatus = false;
 
+		// Whatever was waiting on the analyzer queue as of the last take, drained all at once
+		LinkedList<PartitionDataWrapper> pending = new LinkedList<PartitionDataWrapper>();
 
 		while (true) {
 			logger.finer("Begin main loop in waitForQueueCompletion(), readyToSubmitAnother = " + readyToSubmitAnother);
+			if (elasticConcurrency != null) {
+				// Whatever woke us, so the limit keeps up even while collector data is flowing
+				submitUpToLimit(numTotalForThisExecution);
+			}
 			try {
 				if (analyzerProxy != null) {
 					logger.fine("Found analyzer, proceeding on analyzerQueue path");
-					PartitionDataWrapper dataWrapper = analyzerStatusQueue.take();
+					if (pending.isEmpty()) {
+						PartitionDataWrapper next = waitFor(analyzerStatusQueue);
+						if (next == null) {
+							continue;
+						}
+						pending.add(next);
+						analyzerStatusQueue.drainTo(pending);
+					}
+					PartitionDataWrapper dataWrapper = pending.removeFirst();
 					if (PartitionEventType.ANALYZE_COLLECTOR_DATA.equals(dataWrapper.getEventType())) {
-						logger.finer("Analyze collector data: " + dataWrapper.getCollectorData());
-						try {
-							analyzerProxy.analyzeCollectorData(dataWrapper.getCollectorData());
-						} catch (Throwable t) {
-							exceptionThrownAnalyzingCollectorData = true;
-							logger.warning("Caught exception calling analyzeCollectorData(), catching and continuing.");
+						if (analyzerProxy.isBatching()) {
+							// Up to the next status, so the analyzer sees everything in the order it was sent
+							List<Serializable> batch = new ArrayList<Serializable>();
+							batch.add(dataWrapper.getCollectorData());
+							while (!pending.isEmpty() && PartitionEventType.ANALYZE_COLLECTOR_DATA.equals(pending.getFirst().getEventType())) {
+								batch.add(pending.removeFirst().getCollectorData());
+							}
+							logger.finer("Analyze collector data, batch of " + batch.size());
+							try {
+								analyzerProxy.analyzeCollectorData(batch);
+							} catch (Throwable t) {
+								exceptionThrownAnalyzingCollectorData = true;
+								logger.warning("Caught exception calling analyzeCollectorData(), catching and continuing.");
+							}
+						} else {
+							logger.finer("Analyze collector data: " + dataWrapper.getCollectorData());
+							try {
+								analyzerProxy.analyzeCollectorData(dataWrapper.getCollectorData());
+							} catch (Throwable t) {
+								exceptionThrownAnalyzingCollectorData = true;
+								logger.warning("Caught exception calling analyzeCollectorData(), catching and continuing.");
+							}
 						}
 						continue; // without being ready to submit another
 					} else if (PartitionEventType.ANALYZE_STATUS.equals(dataWrapper.getEventType())) {
@@ -441,7 +629,11 @@ public class PartitionedStepControllerImpl extends BaseStepControllerImpl {
 					logger.fine("No analyzer, proceeding on finishedWorkQueue path");
 					// block until at least one thread has finished to
 					// submit more batch work. hold on to the finished work to look at later
-					finishedWork.add(finishedWorkQueue.take());
+					BatchPartitionWorkUnit work = waitFor(finishedWorkQueue);
+					if (work == null) {
+						continue;
+					}
+					finishedWork.add(work);
 					readyToSubmitAnother = true;
 				}
 			} catch (InterruptedException e) {
@@ -453,15 +645,8 @@ public class PartitionedStepControllerImpl extends BaseStepControllerImpl {
 				numCurrentCompleted++;
 				logger.fine("Ready to submit another (if there is another left to submit); numCurrentCompleted = " + numCurrentCompleted);
 				if (numCurrentCompleted < numTotalForThisExecution) {
-					if (numCurrentSubmitted < numTotalForThisExecution) {
-						logger.fine("Submitting # " + numCurrentSubmitted + " out of " + numTotalForThisExecution + " total for this execution");
-						if (stepStatus.getStartCount() > 1) {
-							batchKernel.restartGeneratedJob(parallelBatchWorkUnits.get(numCurrentSubmitted++));
-						} else {
-							batchKernel.startGeneratedJob(parallelBatchWorkUnits.get(numCurrentSubmitted++));
-						}
-						readyToSubmitAnother = false;
-					}
+					submitUpToLimit(numTotalForThisExecution);
+					readyToSubmitAnother = false;
 				} else {
 					logger.fine("Finished... breaking out of loop");
 					break;
@@ -480,6 +665,54 @@ public class PartitionedStepControllerImpl extends BaseStepControllerImpl {
 		}
 	}        
 
+	/*
+	 * In elastic mode, wait no longer than the interval, so the limit is adjusted even while no partitions finish.
+	 * 
+	 * @return the next element, or null if the interval passed first
+	 */
+	private <T> T waitFor(BlockingQueue<T> queue) throws InterruptedException {
+		if (elasticConcurrency == null) {
+			return queue.take();
+		}
+		return queue.poll(elasticConcurrency.getIntervalMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/*
+	 * Having stopped analyzing, wait for the partitions still running to end, throwing away whatever they send 
+	 * the analyzer so none of them waits on a full analyzer queue.  Each partition is on the finished work queue 
+	 * only once it has sent everything it is going to.
+	 */
+	private void waitForPartitionsAfterError() {
+		logger.fine("Waiting for " + (numCurrentSubmitted - numCurrentCompleted) + " partitions to end, discarding their collector data and status");
+		while (numCurrentCompleted < numCurrentSubmitted) {
+			try {
+				if (finishedWorkQueue.poll() != null) {
+					numCurrentCompleted++;
+				} else {
+					analyzerStatusQueue.poll(DRAIN_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+				}
+			} catch (InterruptedException e) {
+				logger.fine("Interrupted waiting for partitions to end, still waiting for " + (numCurrentSubmitted - numCurrentCompleted));
+			}
+		}
+	}
+
+	/*
+	 * Submit partitions until as many are running as the threads, or in elastic mode its current limit, allow.
+	 */
+	private void submitUpToLimit(int numTotalForThisExecution) throws JobRestartException {
+		int limit = elasticConcurrency == null ? this.threads : elasticConcurrency.adjust();
+		while (numCurrentSubmitted < numTotalForThisExecution && numCurrentSubmitted - numCurrentCompleted < limit) {
+			logger.fine("Submitting # " + numCurrentSubmitted + " out of " + numTotalForThisExecution + " total for this execution");
+			if (stepStatus.getStartCount() > 1) {
+				batchKernel.restartGeneratedJob(parallelBatchWorkUnits.get(numCurrentSubmitted));
+			} else {
+				batchKernel.startGeneratedJob(parallelBatchWorkUnits.get(numCurrentSubmitted));
+			}
+			numCurrentSubmitted++;
+		}
+	}
+
 	private void checkFinishedPartitions() {
 
 		/**
@@ -620,6 +853,31 @@ public class PartitionedStepControllerImpl extends BaseStepControllerImpl {
 	@Override
 	protected void persistStepExecution() {
 		// Call special aggregating method
-		_persistenceManagementService.updateWithFinalPartitionAggregateStepExecution(rootJobExecutionId, stepContext);
+		if (partitionStepStatuses != null) {
+			_persistenceManagementService.updateWithFinalLightweightPartitionAggregateStepExecution(jobExecutionImpl.getInstanceId(), 
+					getFirstPartitionStepExecutionId(), stepContext);
+		} else {
+			_persistenceManagementService.updateWithFinalPartitionAggregateStepExecution(rootJobExecutionId, stepContext);
+		}
+	}
+
+	/*
+	 * The step status of a lightweight partition is keyed by the id of its first step execution, so the
+	 * lowest of these over the current set of partitions is where that set's step executions begin.
+	 */
+	private long getFirstPartitionStepExecutionId() {
+		long first = Long.MAX_VALUE;
+		for (StepStatus partitionStepStatus : partitionStepStatuses) {
+			if (partitionStepStatus != null) {
+				first = Math.min(first, partitionStepStatus.getStepExecutionId());
+			}
+		}
+		for (BatchPartitionWorkUnit work : finishedWork) {
+			StepStatus partitionStepStatus = ((RuntimePartitionExecution) work.getJobExecutionImpl()).getStepStatus();
+			if (partitionStepStatus != null) {
+				first = Math.min(first, partitionStepStatus.getStepExecutionId());
+			}
+		}
+		return first;
 	}
 }
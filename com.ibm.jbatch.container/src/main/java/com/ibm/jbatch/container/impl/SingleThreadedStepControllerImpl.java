@@ -28,6 +28,7 @@ import com.ibm.jbatch.container.artifact.proxy.PartitionCollectorProxy;
 import com.ibm.jbatch.container.artifact.proxy.ProxyFactory;
 import com.ibm.jbatch.container.artifact.proxy.StepListenerProxy;
 import com.ibm.jbatch.container.context.impl.StepContextImpl;
+import com.ibm.jbatch.container.exception.BatchContainerRuntimeException;
 import com.ibm.jbatch.container.exception.BatchContainerServiceException;
 import com.ibm.jbatch.container.jobinstance.RuntimeJobExecution;
 import com.ibm.jbatch.container.util.PartitionDataWrapper;
@@ -124,7 +125,7 @@ public abstract class SingleThreadedStepControllerImpl extends BaseStepControlle
 			PartitionDataWrapper dataWrapper = new PartitionDataWrapper();
 			dataWrapper.setCollectorData(data);
 			dataWrapper.setEventType(PartitionEventType.ANALYZE_COLLECTOR_DATA);
-			analyzerStatusQueue.add(dataWrapper);
+			putOnAnalyzerQueue(dataWrapper);
 		} else {
 			logger.fine("Analyzer not configured.");
 		}
@@ -139,9 +140,19 @@ public abstract class SingleThreadedStepControllerImpl extends BaseStepControlle
 			dataWrapper.setBatchStatus(stepStatus.getBatchStatus());
 			dataWrapper.setExitStatus(stepStatus.getExitStatus());
 			dataWrapper.setEventType(PartitionEventType.ANALYZE_STATUS);
-			analyzerStatusQueue.add(dataWrapper);
+			putOnAnalyzerQueue(dataWrapper);
 		} else {
 			logger.fine("Analyzer not configured.");
 		}
 	}
+
+	// The queue is bounded, so wait for the analyzer to catch up if it's full.  The parent keeps taking 
+	// from it until every partition has ended, even if it fails part way, so this doesn't wait forever.
+	private void putOnAnalyzerQueue(PartitionDataWrapper dataWrapper) {
+		try {
+			analyzerStatusQueue.put(dataWrapper);
+		} catch (InterruptedException e) {
+			throw new BatchContainerRuntimeException(e);
+		}
+	}
 }
@@ -18,7 +18,6 @@ package com.ibm.jbatch.container.impl;
 
 import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.logging.Level;
@@ -55,6 +54,7 @@ public class SkipHandler {
 	  private String _stepId = null;
 	  private Set<String> _skipIncludeExceptions = null;
 	  private Set<String> _skipExcludeExceptions = null;
+	  private ExceptionClassifier _skipClassifier = null;
 	  private int _skipLimit = Integer.MIN_VALUE;
 	  private long _skipCount = 0;
 
@@ -163,6 +163,8 @@ public class SkipHandler {
 
         if (logger.isLoggable(Level.FINE))
             logger.logp(Level.FINE, className, mName, "added include exception " + includeEx + "; added exclude exception " + excludeEx);
+
+        _skipClassifier = new ExceptionClassifier(_skipIncludeExceptions, _skipExcludeExceptions);
 	        
 	    if(logger.isLoggable(Level.FINER)) 
 	      logger.exiting(className, mName, this.toString());
@@ -266,6 +268,15 @@ public class SkipHandler {
 	  }
 
 
+	  /**
+	   * Check whether the given Exception would be skipped, without counting
+	   * the skip or calling the SkipListeners.
+	   */
+	  public boolean wouldSkip(Exception e)
+	  {
+	    return !isSkipLimitReached() && isSkippable(e);
+	  }
+
 	  /**
 	   * Check the skipCount and skippable exception lists to determine whether
 	   * the given Exception is skippable.
@@ -276,7 +287,7 @@ public class SkipHandler {
 
 	    String exClassName = e.getClass().getName();
 
-	    boolean retVal = containsSkippable(_skipIncludeExceptions, e) && !containsSkippable(_skipExcludeExceptions, e);
+	    boolean retVal = _skipClassifier.matches(e);
 
 	    if(logger.isLoggable(Level.FINE)) 
 	      logger.logp(Level.FINE, className, mName, mName + ": " + retVal + ": " + exClassName);
@@ -284,32 +295,6 @@ public class SkipHandler {
 	    return retVal;
 	  }
 
-	  /**
-	   * Check whether given exception is in skippable exception list 
-	   */
-	  private boolean containsSkippable(Set<String> skipList, Exception e)
-	  {
-	    final String mName = "containsSkippable";
-	    boolean retVal = false;
-
-	    for ( Iterator it = skipList.iterator(); it.hasNext(); ) {
-	        String exClassName = (String) it.next();   
-	        try {
-	            ClassLoader tccl = Thread.currentThread().getContextClassLoader();	            
-	        	if (retVal = tccl.loadClass(exClassName).isInstance(e))
-	        		break;
-	        } catch (ClassNotFoundException cnf) {
-	        	logger.logp(Level.FINE, className, mName, cnf.getLocalizedMessage());
-	        }
-	    }
-
-	    if(logger.isLoggable(Level.FINE)) 
-	      logger.logp(Level.FINE, className, mName, mName + ": " + retVal );
-
-	    return retVal;
-	  }
-	  
-
     /**
      * Check if the skip limit has been reached.
      * 
@@ -0,0 +1,451 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ibm.jbatch.container.api.DynamicPartitionPlan;
+import com.ibm.jbatch.container.api.WorkRange;
+import com.ibm.jbatch.container.api.WorkRangeQueue;
+import com.ibm.jbatch.container.api.WorkRangeTracker;
+import com.ibm.jbatch.container.exception.BatchContainerServiceException;
+import com.ibm.jbatch.container.persistence.CheckpointData;
+import com.ibm.jbatch.container.persistence.CheckpointDataKey;
+import com.ibm.jbatch.container.services.IPersistenceManagerService;
+import com.ibm.jbatch.container.servicesmanager.ServicesManagerImpl;
+import com.ibm.jbatch.container.util.TCCLObjectInputStream;
+
+/**
+ * The work ranges of a partitioned step with a {@link DynamicPartitionPlan}, shared by its partitions.
+ * 
+ * Each range tracks the position its partition has claimed up to and the position it has committed 
+ * up to.  The ranges the step starts with are persisted as a checkpoint of the partitioned step, and 
+ * each partition records the progress on the ranges it has claimed in a checkpoint of its own, written 
+ * with its chunk checkpoints in the chunk's transaction.  A normal restart carries on from there.
+ * 
+ * A range split off another is only recorded by the partition which took it, along with where it was 
+ * split off, while the range it came from keeps recording the end it started with.  So until the new 
+ * range's first commit a restart gives all of it back to the original range, and after that it cuts 
+ * the original range short at the split.
+ */
+public class WorkRangePool {
+
+	private final static String sourceClass = WorkRangePool.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	private static final String WORK_RANGES = "WORK_RANGES";
+
+	private final IPersistenceManagerService persistenceService = ServicesManagerImpl.getInstance().getPersistenceManagerService();
+
+	private final long jobInstanceId;
+	private final String stepId;
+	private final long minimumSplitSize;
+
+	// Guarded by 'this'; a range's positions are guarded by the range, locked after 'this'.
+	private final List<Range> ranges = new ArrayList<Range>();
+	private int partitionQueues = 0;
+
+	// How many partitions of the previous execution recorded their ranges, their records now emptied
+	private final int previousPartitionQueues;
+
+	/**
+	 * @param jobInstanceId the job instance of the partitioned step
+	 * @param stepId the id of the partitioned step
+	 * @param plan the plan returned by the step's mapper
+	 * @param resume whether to carry on with the ranges left over from the previous execution, if any, 
+	 * rather than start over with those of the plan
+	 */
+	public WorkRangePool(long jobInstanceId, String stepId, DynamicPartitionPlan plan, boolean resume) {
+		this.jobInstanceId = jobInstanceId;
+		this.stepId = stepId;
+		this.minimumSplitSize = Math.max(1, plan.getMinimumSplitSize());
+
+		List<WorkRange> initialRanges = readCheckpoint(WORK_RANGES);
+		List<List<RangeState>> recorded = new ArrayList<List<RangeState>>();
+		List<RangeState> states;
+		while ((states = readCheckpoint(getPartitionCheckpointName(recorded.size()))) != null) {
+			recorded.add(states);
+		}
+		previousPartitionQueues = recorded.size();
+
+		List<WorkRange> workRanges = resume && initialRanges != null ? resumeWorkRanges(initialRanges, recorded) : plan.getWorkRanges();
+		if (logger.isLoggable(Level.FINE)) {
+			logger.fine("Work ranges for step: " + stepId + " (resumed = " + resume + "): " + workRanges);
+		}
+
+		ArrayList<WorkRange> startingRanges = new ArrayList<WorkRange>();
+		for (WorkRange workRange : workRanges) {
+			if (workRange.getEnd() > workRange.getStart()) {
+				ranges.add(new Range(workRange.getStart(), workRange.getStart(), workRange.getEnd()));
+				startingRanges.add(workRange);
+			}
+		}
+
+		// What the step starts from now, so what the previous execution's partitions recorded goes
+		Map<CheckpointDataKey, CheckpointData> checkpoints = new LinkedHashMap<CheckpointDataKey, CheckpointData>();
+		putCheckpoint(checkpoints, WORK_RANGES, startingRanges);
+		for (int i = 0; i < previousPartitionQueues; i++) {
+			putCheckpoint(checkpoints, getPartitionCheckpointName(i), new ArrayList<RangeState>());
+		}
+		persistenceService.updateCheckpointData(checkpoints);
+	}
+
+	/**
+	 * @return a new queue for a partition to claim ranges from.
+	 */
+	public PartitionQueue newPartitionQueue() {
+		PartitionQueue queue;
+		synchronized (this) {
+			queue = new PartitionQueue(partitionQueues++);
+		}
+		// A restart reads the partitions' records in order up to the first missing, so there has 
+		// to be one even if this partition never gets as far as a commit
+		if (queue.index >= previousPartitionQueues) {
+			Map<CheckpointDataKey, CheckpointData> checkpoints = new LinkedHashMap<CheckpointDataKey, CheckpointData>();
+			putCheckpoint(checkpoints, getPartitionCheckpointName(queue.index), new ArrayList<RangeState>());
+			persistenceService.updateCheckpointData(checkpoints);
+		}
+		return queue;
+	}
+
+	/**
+	 * @return what's left of the ranges, as of the last commit.
+	 */
+	public synchronized List<WorkRange> getRemainingWorkRanges() {
+		List<WorkRange> remaining = new ArrayList<WorkRange>(ranges.size());
+		for (Range range : ranges) {
+			synchronized (range) {
+				if (range.committed < range.end) {
+					remaining.add(new WorkRange(range.committed, range.end));
+				}
+			}
+		}
+		return remaining;
+	}
+
+	/*
+	 * Pieces together what's left from the ranges the previous execution started with and what its 
+	 * partitions recorded.
+	 */
+	private static List<WorkRange> resumeWorkRanges(List<WorkRange> initialRanges, List<List<RangeState>> recorded) {
+		// Grouped by the starting range they were split off, directly or not, and ordered by where they start
+		Map<Long, TreeMap<Long, RangeState>> byRoot = new LinkedHashMap<Long, TreeMap<Long, RangeState>>();
+		for (WorkRange workRange : initialRanges) {
+			TreeMap<Long, RangeState> family = new TreeMap<Long, RangeState>();
+			family.put(workRange.getStart(), new RangeState(workRange.getStart(), workRange.getStart(), workRange.getStart(), workRange.getEnd()));
+			byRoot.put(workRange.getStart(), family);
+		}
+		for (List<RangeState> states : recorded) {
+			for (RangeState state : states) {
+				TreeMap<Long, RangeState> family = byRoot.get(state.root);
+				if (family == null) {
+					continue;
+				}
+				RangeState known = family.get(state.origin);
+				// A range one partition gave up and another claimed is recorded by both
+				if (known == null || state.committed > known.committed) {
+					family.put(state.origin, state);
+				}
+			}
+		}
+
+		// Splits only ever take the end of a range, so each range stops where the next one starts
+		List<WorkRange> remaining = new ArrayList<WorkRange>();
+		for (TreeMap<Long, RangeState> family : byRoot.values()) {
+			RangeState previous = null;
+			for (RangeState state : family.values()) {
+				if (previous != null) {
+					addRemaining(remaining, previous, state.origin);
+				}
+				previous = state;
+			}
+			addRemaining(remaining, previous, previous.end);
+		}
+		return remaining;
+	}
+
+	private static void addRemaining(List<WorkRange> remaining, RangeState state, long nextOrigin) {
+		long end = Math.min(state.end, nextOrigin);
+		if (state.committed < end) {
+			remaining.add(new WorkRange(state.committed, end));
+		}
+	}
+
+	private synchronized Range claim(PartitionQueue owner) {
+		Range unowned = null;
+		Range largest = null;
+		long largestRemaining = 0;
+
+		for (Range range : ranges) {
+			synchronized (range) {
+				if (range.owner == owner && !range.finished) {
+					return range;
+				} else if (range.owner == null) {
+					if (unowned == null) {
+						unowned = range;
+					}
+				} else if (!range.finished && range.end - range.next > largestRemaining) {
+					largest = range;
+					largestRemaining = range.end - range.next;
+				}
+			}
+		}
+
+		if (unowned != null) {
+			unowned.owner = owner;
+			if (!owner.claimed.contains(unowned)) {
+				owner.claimed.add(unowned);
+			}
+			return unowned;
+		}
+
+		// Both halves have to be worth it
+		if (largest != null && largestRemaining >= 2 * minimumSplitSize) {
+			Range stolen;
+			synchronized (largest) {
+				long remaining = largest.end - largest.next;
+				if (largest.finished || remaining < 2 * minimumSplitSize) {
+					return null;
+				}
+				long split = largest.next + remaining / 2;
+				stolen = new Range(largest.root, split, largest.end);
+				largest.end = split;
+			}
+			stolen.owner = owner;
+			ranges.add(stolen);
+			owner.claimed.add(stolen);
+			if (logger.isLoggable(Level.FINE)) {
+				logger.fine("Split range: " + largest + " to give: " + stolen);
+			}
+			return stolen;
+		}
+		return null;
+	}
+
+	/*
+	 * The progress on the ranges the partition has claimed, as it will be once its current chunk commits.
+	 */
+	private synchronized ArrayList<RangeState> getRangeStates(PartitionQueue owner) {
+		ArrayList<RangeState> states = new ArrayList<RangeState>(owner.claimed.size());
+		for (Range range : owner.claimed) {
+			synchronized (range) {
+				long committed = range.committed;
+				if (range.owner == owner) {
+					committed = range.finished ? range.end : range.next;
+				}
+				states.add(new RangeState(range.root, range.origin, committed, range.initialEnd));
+			}
+		}
+		return states;
+	}
+
+	private synchronized void commit(PartitionQueue owner) {
+		for (Range range : owner.claimed) {
+			synchronized (range) {
+				if (range.owner == owner) {
+					range.committed = range.finished ? range.end : range.next;
+					if (range.finished) {
+						ranges.remove(range);
+					}
+				}
+			}
+		}
+	}
+
+	private synchronized void rollback(PartitionQueue owner, boolean release) {
+		for (Range range : ranges) {
+			synchronized (range) {
+				if (range.owner == owner) {
+					range.next = range.committed;
+					range.finished = false;
+					if (release) {
+						range.owner = null;
+					}
+				}
+			}
+		}
+	}
+
+	private String getPartitionCheckpointName(int index) {
+		return WORK_RANGES + "_" + index;
+	}
+
+	private void putCheckpoint(Map<CheckpointDataKey, CheckpointData> checkpoints, String name, Serializable value) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try {
+			ObjectOutputStream oos = new ObjectOutputStream(bytes);
+			oos.writeObject(value);
+			oos.close();
+		} catch (IOException e) {
+			throw new BatchContainerServiceException("Cannot persist the work ranges for [" + stepId + "]", e);
+		}
+		CheckpointData data = new CheckpointData(jobInstanceId, stepId, name);
+		data.setRestartToken(bytes.toByteArray());
+		checkpoints.put(new CheckpointDataKey(jobInstanceId, stepId, name), data);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> List<T> readCheckpoint(String name) {
+		CheckpointData data = persistenceService.getCheckpointData(new CheckpointDataKey(jobInstanceId, stepId, name));
+		if (data == null) {
+			return null;
+		}
+		try {
+			TCCLObjectInputStream ois = new TCCLObjectInputStream(new ByteArrayInputStream(data.getRestartToken()));
+			try {
+				return (List<T>) ois.readObject();
+			} finally {
+				ois.close();
+			}
+		} catch (Exception e) {
+			throw new BatchContainerServiceException("Cannot read the work ranges for [" + stepId + "]", e);
+		}
+	}
+
+	/**
+	 * A range as recorded by a partition.
+	 */
+	private static class RangeState implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		// Where the starting range it was split off began, where it began itself, and the end it began with
+		final long root;
+		final long origin;
+		final long committed;
+		final long end;
+
+		RangeState(long root, long origin, long committed, long end) {
+			this.root = root;
+			this.origin = origin;
+			this.committed = committed;
+			this.end = end;
+		}
+	}
+
+	private class Range implements WorkRangeTracker {
+
+		final long root;
+		final long origin;
+		final long initialEnd;
+
+		// The positions before 'next' have been claimed, those before 'committed' committed too.
+		long committed;
+		long next;
+		long end;
+
+		// Set once a claim at or past the end fails, so the range is done as of the next commit.
+		boolean finished = false;
+
+		PartitionQueue owner = null;
+
+		Range(long root, long start, long end) {
+			this.root = root;
+			this.origin = start;
+			this.initialEnd = end;
+			this.committed = start;
+			this.next = start;
+			this.end = end;
+		}
+
+		@Override
+		public synchronized long getStart() {
+			return committed;
+		}
+
+		@Override
+		public synchronized long getEnd() {
+			return end;
+		}
+
+		@Override
+		public synchronized boolean tryClaim(long position) {
+			if (position >= end) {
+				finished = true;
+				return false;
+			}
+			next = Math.max(next, position + 1);
+			return true;
+		}
+
+		@Override
+		public synchronized String toString() {
+			return "[" + committed + ", " + end + "), claimed up to " + next;
+		}
+	}
+
+	/**
+	 * The queue of one partition, whose claims are committed or rolled back with its chunks.
+	 */
+	public class PartitionQueue implements WorkRangeQueue {
+
+		private final int index;
+
+		// Every range this partition has claimed, guarded by the pool
+		private final List<Range> claimed = new ArrayList<Range>();
+
+		private PartitionQueue(int index) {
+			this.index = index;
+		}
+
+		@Override
+		public WorkRangeTracker claim() {
+			return WorkRangePool.this.claim(this);
+		}
+
+		/**
+		 * Add the progress on this partition's ranges, as it will be once the current chunk commits, 
+		 * to the checkpoints written in the chunk's transaction.
+		 */
+		public void addCheckpoint(Map<CheckpointDataKey, CheckpointData> checkpoints) {
+			putCheckpoint(checkpoints, getPartitionCheckpointName(index), getRangeStates(this));
+		}
+
+		/**
+		 * Commit the progress made on this partition's ranges, and finish those it has read to the end of, 
+		 * once the chunk's transaction has committed.
+		 */
+		public void commit() {
+			WorkRangePool.this.commit(this);
+		}
+
+		/**
+		 * Go back to the last commit, for the ranges to be claimed and read again.
+		 */
+		public void rollback() {
+			WorkRangePool.this.rollback(this, false);
+		}
+
+		/**
+		 * Go back to the last commit, and give up this partition's ranges for others to claim.
+		 */
+		public void release() {
+			WorkRangePool.this.rollback(this, true);
+		}
+	}
+}
@@ -41,6 +41,7 @@ import com.ibm.jbatch.container.services.IPersistenceManagerService;
 import com.ibm.jbatch.container.servicesmanager.ServicesManager;
 import com.ibm.jbatch.container.servicesmanager.ServicesManagerImpl;
 import com.ibm.jbatch.container.status.JobStatus;
+import com.ibm.jbatch.container.status.StepStatus;
 import com.ibm.jbatch.jsl.model.JSLJob;
 import com.ibm.jbatch.jsl.model.JSLProperties;
 
@@ -171,6 +172,33 @@ public class JobExecutionHelper {
 		logger.exiting(CLASSNAME, "startPartition", executionHelper);
 		return executionHelper;
 	}
+
+	/*
+	 * Unlike startPartition(), nothing is persisted here, the partition runs under the job instance
+	 * and execution of the partitioned step.
+	 * 
+	 * Each partition's model is still resolved on its own.  It's that partition's copy of the step, 
+	 * with #{partitionPlan[...]} substituted from its own properties, so there's no one result to 
+	 * share between them.  Job parameters and properties were substituted along with the parent job,
+	 * so this only walks the one step.
+	 */
+	public static RuntimePartitionExecution startLightweightPartition(JSLJob jobModel, Properties partitionProps, 
+			RuntimeJobExecution parentExecution, int partitionInstance, String partitionStepName, StepStatus stepStatus) {
+		logger.entering(CLASSNAME, "startLightweightPartition", new Object[]{jobModel, partitionProps ==null ? "<null>" :partitionProps, partitionInstance});
+
+		ModelNavigator<JSLJob> jobNavigator = getResolvedJobNavigator(jobModel, partitionProps, true);
+		JobContextImpl jobContext = getJobContext(jobNavigator);
+
+		RuntimePartitionExecution executionHelper = new RuntimePartitionExecution(parentExecution.getJobInstance(), 
+				parentExecution.getExecutionId(), partitionInstance, partitionStepName, stepStatus);
+		executionHelper.setJobParameters(partitionProps);
+		executionHelper.setBatchStatus(jobContext.getBatchStatus().name());
+
+		executionHelper.prepareForExecution(jobContext);
+
+		logger.exiting(CLASSNAME, "startLightweightPartition", executionHelper);
+		return executionHelper;
+	}
 	
 	public static RuntimeJobExecution restartJob(long executionId, JSLJob gennedJobModel) throws JobRestartException, JobExecutionAlreadyCompleteException, JobExecutionNotMostRecentException, NoSuchJobExecutionException {
 		return restartExecution(executionId, null, null, false, false);
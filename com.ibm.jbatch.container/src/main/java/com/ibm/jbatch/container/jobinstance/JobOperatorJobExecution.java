@@ -54,7 +54,11 @@ public class JobOperatorJobExecution implements IJobExecution, TaggedJobExecutio
 	String cachedExitStatus;
 	Properties jobProperties = null;
 	String jobName = null;
+	String tagName = null;
 	private JobContextImpl jobContext = null;
+
+	// Answer the getters from the fields above rather than the persistence service
+	private boolean snapshot = false;
 	
 	public JobOperatorJobExecution(long executionId, long instanceId) {
 		this.executionID = executionId;
@@ -97,6 +101,9 @@ public class JobOperatorJobExecution implements IJobExecution, TaggedJobExecutio
 			batchStatusEnum = this.jobContext.getBatchStatus();
 			logger.finest("Returning batch status of: " + batchStatus + " from JobContext.");
 		}
+		else if (snapshot) {
+			batchStatusEnum = batchStatus == null ? null : BatchStatus.valueOf(batchStatus);
+		}
 		else {
 			// old job, retrieve from the backend
 			batchStatusEnum = BatchStatus.valueOf(_persistenceManagementService.jobOperatorQueryJobExecutionBatchStatus(executionID));
@@ -108,7 +115,7 @@ public class JobOperatorJobExecution implements IJobExecution, TaggedJobExecutio
 	@Override
 	public Date getCreateTime() {
 
-		if (this.jobContext == null) {
+		if (this.jobContext == null && !snapshot) {
 			createTime = _persistenceManagementService.jobOperatorQueryJobExecutionTimestamp(executionID, TimestampType.CREATE);
 		}
 
@@ -122,7 +129,7 @@ public class JobOperatorJobExecution implements IJobExecution, TaggedJobExecutio
 	public Date getEndTime() {
 
 
-		if (this.jobContext == null) {
+		if (this.jobContext == null && !snapshot) {
 			endTime = _persistenceManagementService.jobOperatorQueryJobExecutionTimestamp(executionID, TimestampType.END);
 		}
 
@@ -142,6 +149,9 @@ public class JobOperatorJobExecution implements IJobExecution, TaggedJobExecutio
 		if (this.jobContext != null){
 			return this.jobContext.getExitStatus();
 		}
+		else if (snapshot) {
+			return exitStatus;
+		}
 		else {
 			exitStatus = _persistenceManagementService.jobOperatorQueryJobExecutionExitStatus(executionID);
 			return exitStatus;
@@ -152,7 +162,7 @@ public class JobOperatorJobExecution implements IJobExecution, TaggedJobExecutio
 	@Override
 	public Date getLastUpdatedTime() {
 
-		if (this.jobContext == null) {
+		if (this.jobContext == null && !snapshot) {
 			this.updateTime = _persistenceManagementService.jobOperatorQueryJobExecutionTimestamp(executionID, TimestampType.LAST_UPDATED);
 		}
 
@@ -165,7 +175,7 @@ public class JobOperatorJobExecution implements IJobExecution, TaggedJobExecutio
 	@Override
 	public Date getStartTime() {
 
-		if (this.jobContext == null) {
+		if (this.jobContext == null && !snapshot) {
 			startTime = _persistenceManagementService.jobOperatorQueryJobExecutionTimestamp(executionID, TimestampType.STARTED);
 		}
 
@@ -224,6 +234,49 @@ public class JobOperatorJobExecution implements IJobExecution, TaggedJobExecutio
 		jobProperties = jProps;
 	}
 
+	public void setTagName(String tagName) {
+		this.tagName = tagName;
+	}
+
+	/**
+	 * A snapshot answers every getter from the values set by the persistence service when it 
+	 * was read, rather than querying again for each one.  
+	 */
+	public void setSnapshot(boolean snapshot) {
+		this.snapshot = snapshot;
+	}
+
+	public boolean isSnapshot() {
+		return snapshot;
+	}
+
+	/**
+	 * @return true if the batch status set by the persistence service is one the execution 
+	 * can only leave by being abandoned
+	 */
+	public boolean isFinished() {
+		return BatchStatus.COMPLETED.name().equals(batchStatus) || BatchStatus.FAILED.name().equals(batchStatus)
+				|| BatchStatus.STOPPED.name().equals(batchStatus) || BatchStatus.ABANDONED.name().equals(batchStatus);
+	}
+
+	/**
+	 * @return a snapshot with the same values, which has its own copy of the job parameters
+	 */
+	public JobOperatorJobExecution copy() {
+		JobOperatorJobExecution copy = new JobOperatorJobExecution(executionID, instanceID);
+		copy.createTime = createTime;
+		copy.startTime = startTime;
+		copy.endTime = endTime;
+		copy.updateTime = updateTime;
+		copy.batchStatus = batchStatus;
+		copy.exitStatus = exitStatus;
+		copy.jobProperties = jobProperties == null ? null : (Properties) jobProperties.clone();
+		copy.jobName = jobName;
+		copy.tagName = tagName;
+		copy.snapshot = true;
+		return copy;
+	}
+
 	@Override
 	public String getJobName() {
 		return jobName;
@@ -231,6 +284,9 @@ public class JobOperatorJobExecution implements IJobExecution, TaggedJobExecutio
 
 	@Override
 	public String getTagName() {
+		if (snapshot) {
+			return tagName;
+		}
 		return _persistenceManagementService.getTagName(executionID);
 	}
 
@@ -25,6 +25,8 @@ import javax.batch.runtime.JobInstance;
 
 import com.ibm.jbatch.container.artifact.proxy.ListenerFactory;
 import com.ibm.jbatch.container.context.impl.JobContextImpl;
+import com.ibm.jbatch.container.impl.ElasticConcurrency;
+import com.ibm.jbatch.container.impl.WorkRangePool;
 import com.ibm.jbatch.container.navigator.ModelNavigator;
 import com.ibm.jbatch.container.services.IJobExecution;
 import com.ibm.jbatch.jsl.model.JSLJob;
@@ -39,6 +41,8 @@ public class RuntimeJobExecution {
 	private ListenerFactory listenerFactory;
 	private IJobExecution operatorJobExecution = null;
 	private Integer partitionInstance = null;
+	private WorkRangePool.PartitionQueue workRangeQueue = null;
+	private ElasticConcurrency elasticConcurrency = null;
 
 	public RuntimeJobExecution(JobInstance jobInstance, long executionId) {
 		this.jobInstance = jobInstance;
@@ -179,4 +183,26 @@ public class RuntimeJobExecution {
     public void setPartitionInstance(Integer partitionInstance) {
         this.partitionInstance = partitionInstance;
     }
+
+    /**
+     * @return the queue of work ranges of this partition, if its partitioned step has a dynamic partition plan.
+     */
+    public WorkRangePool.PartitionQueue getWorkRangeQueue() {
+        return workRangeQueue;
+    }
+
+    public void setWorkRangeQueue(WorkRangePool.PartitionQueue workRangeQueue) {
+        this.workRangeQueue = workRangeQueue;
+    }
+
+    /**
+     * @return what to report this partition's commits to, if its partitioned step is in elastic mode.
+     */
+    public ElasticConcurrency getElasticConcurrency() {
+        return elasticConcurrency;
+    }
+
+    public void setElasticConcurrency(ElasticConcurrency elasticConcurrency) {
+        this.elasticConcurrency = elasticConcurrency;
+    }
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.jobinstance;
+
+import javax.batch.runtime.JobInstance;
+
+import com.ibm.jbatch.container.status.StepStatus;
+
+/**
+ * A lightweight partition, which runs as part of the job execution of its partitioned step
+ * rather than as a "subjob".  So it has no job instance, job execution or job status of its
+ * own in the database, and its job instance and execution ids are those of the partitioned step.
+ */
+public class RuntimePartitionExecution extends RuntimeJobExecution {
+
+	private final String partitionStepName;
+
+	private volatile StepStatus stepStatus;
+
+	public RuntimePartitionExecution(JobInstance jobInstance, long executionId, int partitionInstance,
+			String partitionStepName, StepStatus stepStatus) {
+		super(jobInstance, executionId);
+		setPartitionInstance(partitionInstance);
+		this.partitionStepName = partitionStepName;
+		this.stepStatus = stepStatus;
+	}
+
+	/**
+	 * @return the step name the partition's step executions, step status and checkpoints are
+	 * stored under, distinct from the id of the step itself.
+	 */
+	public String getPartitionStepName() {
+		return partitionStepName;
+	}
+
+	/**
+	 * @return the partition's step status, which before the partition runs is the one it is
+	 * restarting from, or null if it is starting from scratch.
+	 */
+	public StepStatus getStepStatus() {
+		return stepStatus;
+	}
+
+	public void setStepStatus(StepStatus stepStatus) {
+		this.stepStatus = stepStatus;
+	}
+}
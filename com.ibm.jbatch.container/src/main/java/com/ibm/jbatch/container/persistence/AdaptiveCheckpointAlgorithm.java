@@ -0,0 +1,195 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.persistence;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Built-in algorithm behind checkpoint-policy="adaptive".
+ * 
+ * Starts from the chunk's item-count and, after each full chunk, moves the item count
+ * towards the number of items which would have taken the target time to read, process, 
+ * write and commit, based on the time per item of the chunk just completed.  The count 
+ * moves by at most a factor of two per chunk and stays between the configured minimum and 
+ * maximum.
+ * 
+ * If a maximum number of chunk bytes is configured, the serialized size of one item per chunk
+ * is sampled and the item count is also held below what would exceed that many bytes.
+ * 
+ * A time-limit on the chunk still applies as a hard limit.
+ */
+public final class AdaptiveCheckpointAlgorithm implements BatchingCheckpointAlgorithm {
+
+	private static final String className = AdaptiveCheckpointAlgorithm.class.getName();
+	private static Logger logger  = Logger.getLogger(AdaptiveCheckpointAlgorithm.class.getPackage().getName());
+
+	private static final int MAX_GROWTH_FACTOR = 2;
+
+	private final int minItemCount;
+	private final int maxItemCount;
+	private final long targetNanos;
+	private final long maxChunkBytes;
+	private final int timeLimitSeconds;
+
+	private int itemCount;
+	private long itemsRead = 0;
+	private long checkpointBeginNanos = 0;
+	private boolean fullChunk = false;
+
+	// Moving average of serialized item size, only kept if maxChunkBytes is set
+	private long bytesPerItem = 0;
+	private boolean sampledThisChunk = false;
+
+	public AdaptiveCheckpointAlgorithm(int initialItemCount, int minItemCount, int maxItemCount, 
+			long targetMillis, long maxChunkBytes, int timeLimitSeconds) {
+		if (minItemCount < 1 || maxItemCount < minItemCount) {
+			throw new IllegalArgumentException("Adaptive checkpoint policy needs 1 <= minimum item count <= maximum item count, found minimum = " 
+					+ minItemCount + ", maximum = " + maxItemCount);
+		}
+		this.minItemCount = minItemCount;
+		this.maxItemCount = maxItemCount;
+		this.itemCount = clamp(initialItemCount, minItemCount, maxItemCount);
+		this.targetNanos = TimeUnit.MILLISECONDS.toNanos(targetMillis);
+		this.maxChunkBytes = maxChunkBytes;
+		this.timeLimitSeconds = timeLimitSeconds;
+	}
+
+	/**
+	 * @return the item count the next chunk will use
+	 */
+	public int getItemCount() {
+		return itemCount;
+	}
+
+	@Override
+	public void beginCheckpoint() throws Exception {
+		itemsRead = 0;
+		fullChunk = false;
+		sampledThisChunk = false;
+		checkpointBeginNanos = System.nanoTime();
+	}
+
+	@Override
+	public boolean isReadyToCheckpoint() {
+		return isReadyToCheckpoint(1);
+	}
+
+	@Override
+	public boolean isReadyToCheckpoint(int numItems) {
+		itemsRead += numItems;
+
+		if (itemsRead >= itemCount) {
+			fullChunk = true;
+			return true;
+		}
+
+		if (timeLimitSeconds > 0 && TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - checkpointBeginNanos) >= timeLimitSeconds) {
+			logger.fine("ADAPTIVECHKPT: time checkpoint hit");
+			fullChunk = true;
+			return true;
+		}
+
+		return false;
+	}
+
+	@Override
+	public int getItemsRemaining() {
+		return (int) Math.max(itemCount - itemsRead, 1);
+	}
+
+	/**
+	 * Called after the chunk commits, so the elapsed time covers the whole transaction.
+	 */
+	@Override
+	public void endCheckpoint() throws Exception {
+		long elapsedNanos = System.nanoTime() - checkpointBeginNanos;
+
+		// A short last chunk says more about the fixed cost of a commit than the cost of an item.
+		if (!fullChunk || itemsRead == 0 || elapsedNanos <= 0) {
+			return;
+		}
+
+		double nanosPerItem = (double) elapsedNanos / itemsRead;
+		long nextItemCount = (long) (targetNanos / nanosPerItem);
+		nextItemCount = Math.max(nextItemCount, itemCount / MAX_GROWTH_FACTOR);
+		nextItemCount = Math.min(nextItemCount, (long) itemCount * MAX_GROWTH_FACTOR);
+
+		if (maxChunkBytes > 0 && bytesPerItem > 0) {
+			nextItemCount = Math.min(nextItemCount, maxChunkBytes / bytesPerItem);
+		}
+
+		int previousItemCount = itemCount;
+		itemCount = clamp(nextItemCount, minItemCount, maxItemCount);
+
+		if (logger.isLoggable(Level.FINER)) {
+			logger.finer("ADAPTIVECHKPT: " + itemsRead + " items in " + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + " ms, item count " 
+					+ previousItemCount + " -> " + itemCount + ", bytes/item = " + bytesPerItem);
+		}
+	}
+
+	/**
+	 * Sample the size of an item to be written, at most once per chunk.
+	 */
+	public void sampleItemSize(Object item) {
+		if (maxChunkBytes <= 0 || sampledThisChunk || !(item instanceof Serializable)) {
+			return;
+		}
+		sampledThisChunk = true;
+
+		CountingOutputStream counter = new CountingOutputStream();
+		try {
+			ObjectOutputStream oos = new ObjectOutputStream(counter);
+			oos.writeObject(item);
+			oos.close();
+		} catch (IOException e) {
+			logger.logp(Level.FINE, className, "sampleItemSize", "Couldn't serialize item to sample its size", e);
+			return;
+		}
+
+		bytesPerItem = (bytesPerItem == 0) ? counter.count : (3 * bytesPerItem + counter.count) / 4;
+	}
+
+	@Override
+	public int checkpointTimeout() throws Exception {
+		return 0;
+	}
+
+	private static int clamp(long value, int min, int max) {
+		return (int) Math.min(Math.max(value, min), max);
+	}
+
+	private static class CountingOutputStream extends OutputStream {
+
+		long count = 0;
+
+		@Override
+		public void write(int b) {
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len;
+		}
+	}
+}
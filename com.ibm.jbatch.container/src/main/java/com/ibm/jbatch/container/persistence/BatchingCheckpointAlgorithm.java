@@ -0,0 +1,36 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.persistence;
+
+import javax.batch.api.chunk.CheckpointAlgorithm;
+
+/**
+ * Implemented by the built-in checkpoint algorithms, which unlike a custom 
+ * CheckpointAlgorithm can be told about several items read at once.
+ */
+public interface BatchingCheckpointAlgorithm extends CheckpointAlgorithm {
+
+	/**
+	 * Same as isReadyToCheckpoint(), but accounting for several items read at once.
+	 */
+	public boolean isReadyToCheckpoint(int numItems);
+
+	/**
+	 * @return the number of items which can still be read before the item count is hit, at least 1.
+	 */
+	public int getItemsRemaining();
+}
@@ -18,6 +18,9 @@ package com.ibm.jbatch.container.persistence;
 
 import java.io.ByteArrayOutputStream;
 import java.io.ObjectOutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -27,6 +30,7 @@ import com.ibm.jbatch.container.artifact.proxy.ItemReaderProxy;
 import com.ibm.jbatch.container.artifact.proxy.ItemWriterProxy;
 import com.ibm.jbatch.container.exception.BatchContainerRuntimeException;
 import com.ibm.jbatch.container.exception.BatchContainerServiceException;
+import com.ibm.jbatch.container.impl.WorkRangePool;
 import com.ibm.jbatch.container.services.IPersistenceManagerService;
 import com.ibm.jbatch.container.servicesmanager.ServicesManager;
 import com.ibm.jbatch.container.servicesmanager.ServicesManagerImpl;
@@ -45,6 +49,7 @@ public class CheckpointManager {
 	private long executionId = 0;
 	private String stepId = null;
 	private long jobInstanceID = 0;
+	private WorkRangePool.PartitionQueue workRangeQueue = null;
 	
 
 	public CheckpointManager(ItemReaderProxy reader, ItemWriterProxy writer,CheckpointAlgorithm chkptAlg,
@@ -60,6 +65,13 @@ public class CheckpointManager {
 	}
 
 
+	/**
+	 * The work ranges of a partition with a dynamic partition plan are checkpointed along with its reader and writer. 
+	 */
+	public void setWorkRangeQueue(WorkRangePool.PartitionQueue workRangeQueue) {
+		this.workRangeQueue = workRangeQueue;
+	}
+
 	public void beginCheckpoint() {
 		try {
 			checkpointAlgorithm.beginCheckpoint();
@@ -97,6 +109,44 @@ public class CheckpointManager {
 		return checkpoint;
 	}
 	
+	/**
+	 * Same as isReadyToCheckpoint(), but accounting for several items read at once.  
+	 * Only the built-in policies can take more than one item at a time. 
+	 */
+	public boolean isReadyToCheckpoint(int numItems) {
+		if (checkpointAlgorithm instanceof BatchingCheckpointAlgorithm) {
+			boolean checkpoint = ((BatchingCheckpointAlgorithm) checkpointAlgorithm).isReadyToCheckpoint(numItems);
+			if (logger.isLoggable(Level.FINE) && checkpoint)
+				logger.fine("isReadyToCheckpoint - " + checkpoint + ", after " + numItems + " items");
+			return checkpoint;
+		} else if (numItems > 1) {
+			throw new IllegalStateException("A custom CheckpointAlgorithm must be consulted after every item, not after: " + numItems);
+		} else {
+			return isReadyToCheckpoint();
+		}
+	}
+
+	/**
+	 * @return how many more items may be read before consulting the checkpoint algorithm.  A custom
+	 * CheckpointAlgorithm must be consulted after every item.
+	 */
+	public int getItemsUntilCheckpoint() {
+		if (checkpointAlgorithm instanceof BatchingCheckpointAlgorithm) {
+			return ((BatchingCheckpointAlgorithm) checkpointAlgorithm).getItemsRemaining();
+		} else {
+			return 1;
+		}
+	}
+	
+	/**
+	 * Let the adaptive policy sample the size of the items about to be written.
+	 */
+	public void sampleItemSize(List<Object> chunkToWrite) {
+		if (checkpointAlgorithm instanceof AdaptiveCheckpointAlgorithm && !chunkToWrite.isEmpty()) {
+			((AdaptiveCheckpointAlgorithm) checkpointAlgorithm).sampleItemSize(chunkToWrite.get(0));
+		}
+	}
+	
 	public void checkpoint() {
 		String method = "checkpoint";
 		if(logger.isLoggable(Level.FINER)) { logger.entering(sourceClass, method, " [executionId " + executionId + "] "); }
@@ -116,8 +166,6 @@ public class CheckpointManager {
 			readerChkptData.setRestartToken(readerChkptBA.toByteArray());
 			readerChkptDK = new CheckpointDataKey(jobInstanceID, stepId, "READER");
 			
-			_persistenceManagerService.updateCheckpointData(readerChkptDK, readerChkptData);
-			
 			writerOOS = new ObjectOutputStream(writerChkptBA);
 			writerOOS.writeObject(writerProxy.checkpointInfo());
 			writerOOS.close();
@@ -125,7 +173,14 @@ public class CheckpointManager {
 			writerChkptData.setRestartToken(writerChkptBA.toByteArray());
 			writerChkptDK = new CheckpointDataKey(jobInstanceID, stepId, "WRITER");
 
-			_persistenceManagerService.updateCheckpointData(writerChkptDK, writerChkptData);
+			// All in one go
+			Map<CheckpointDataKey, CheckpointData> checkpoints = new LinkedHashMap<CheckpointDataKey, CheckpointData>();
+			checkpoints.put(readerChkptDK, readerChkptData);
+			checkpoints.put(writerChkptDK, writerChkptData);
+			if (workRangeQueue != null) {
+				workRangeQueue.addCheckpoint(checkpoints);
+			}
+			_persistenceManagerService.updateCheckpointData(checkpoints);
 			
 		}
 		catch (Exception ex){
@@ -16,13 +16,11 @@
 */
 package com.ibm.jbatch.container.persistence;
 
-import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import javax.batch.api.chunk.CheckpointAlgorithm;
-
-public final class ItemCheckpointAlgorithm implements CheckpointAlgorithm {
+public final class ItemCheckpointAlgorithm implements BatchingCheckpointAlgorithm {
 
 	private static final String className = ItemCheckpointAlgorithm.class.getName();
 	private static Logger logger  = Logger.getLogger(ItemCheckpointAlgorithm.class.getPackage().getName());;
@@ -30,7 +28,7 @@ public final class ItemCheckpointAlgorithm implements CheckpointAlgorithm {
     long itemsRead = 0;
     protected int itemCount;
     protected int timeLimitSeconds;
-    long checkpointBeginTime = 0;
+    long checkpointBeginNanos = 0;
     
     public void setItemCount(int itemCount) {
     	this.itemCount = itemCount;
@@ -52,7 +50,7 @@ public final class ItemCheckpointAlgorithm implements CheckpointAlgorithm {
         	logger.fine("ITEMCHKPT: item checkpoint hit");
 
         	if(logger.isLoggable(Level.FINER)) { 
-        		long millis =  Long.valueOf( (new Date().getTime()) - checkpointBeginTime );
+        		long millis =  TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - checkpointBeginNanos);
         		if ( millis>0 ) { 
         			String rate =  Integer.valueOf ( Long.valueOf( (itemsRead*1000/millis) ).intValue()).toString();
         			logger.finer(" - true [itemsReadAndProcessed/second " + rate + "]");
@@ -70,15 +68,12 @@ public final class ItemCheckpointAlgorithm implements CheckpointAlgorithm {
     	if(logger.isLoggable(Level.FINER)) { logger.entering(className, method); }
 
         boolean timeready = false;
-        java.util.Date curDate = new java.util.Date();
-        long curts = curDate.getTime();
-        long curdiff = curts - checkpointBeginTime;
-        int diff = (int)curdiff / 1000;
+        long diff = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - checkpointBeginNanos);
         
         if (diff >= timeLimitSeconds) {
         	logger.fine("ITEMTIMECHKPT: time checkpoint hit");
             timeready = true;
-            if(logger.isLoggable(Level.FINER)) { logger.finer("Num of itemsReadAndProcessed="+ itemsRead +" at a rate="+itemsRead/diff+" itemsReadAndProcessed/sec");}
+            if(logger.isLoggable(Level.FINER) && diff > 0) { logger.finer("Num of itemsReadAndProcessed="+ itemsRead +" at a rate="+itemsRead/diff+" itemsReadAndProcessed/sec");}
         }
 
         if(logger.isLoggable(Level.FINER)) { logger.exiting(className, method, timeready); }
@@ -88,8 +83,13 @@ public final class ItemCheckpointAlgorithm implements CheckpointAlgorithm {
 	
 	@Override
 	public boolean isReadyToCheckpoint() {
+		return isReadyToCheckpoint(1);
+	}
+
+	@Override
+	public boolean isReadyToCheckpoint(int numItems) {
 			
-		itemsRead++;
+		itemsRead += numItems;
 			
 		if (isReadyToCheckpointItem()){
 			return true;
@@ -102,10 +102,14 @@ public final class ItemCheckpointAlgorithm implements CheckpointAlgorithm {
 		return false;
 	}
 
+	@Override
+	public int getItemsRemaining() {
+		return (int) Math.max(itemCount - itemsRead, 1);
+	}
+
 	@Override
 	public void beginCheckpoint() throws Exception {
-		java.util.Date date = new java.util.Date();
-        checkpointBeginTime = date.getTime();
+        checkpointBeginNanos = System.nanoTime();
         itemsRead = 0;
 	}
 
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.persistence;
+
+/**
+ * How long a partition of a partitioned step has taken to run, and how many items it read, 
+ * averaged over its recent runs to completion.
+ */
+public class PartitionHistory {
+
+	// Runs are averaged evenly up to this many, after which each new run counts for this fraction
+	private static final int SMOOTHING_RUNS = 4;
+
+	private final long durationMillis;
+	private final long itemCount;
+	private final int runs;
+
+	public PartitionHistory(long durationMillis, long itemCount, int runs) {
+		this.durationMillis = durationMillis;
+		this.itemCount = itemCount;
+		this.runs = runs;
+	}
+
+	public long getDurationMillis() {
+		return durationMillis;
+	}
+
+	public long getItemCount() {
+		return itemCount;
+	}
+
+	/**
+	 * @return the number of runs recorded
+	 */
+	public int getRuns() {
+		return runs;
+	}
+
+	/**
+	 * @return the history including another run.  The first few runs are averaged evenly, after that 
+	 * a new run counts for a quarter, so the averages follow a lasting change in the input while a 
+	 * single odd run only moves them a quarter of the way towards it.
+	 */
+	public PartitionHistory add(long durationMillis, long itemCount) {
+		int weight = Math.min(runs + 1, SMOOTHING_RUNS);
+		return new PartitionHistory(this.durationMillis + (durationMillis - this.durationMillis) / weight, 
+				this.itemCount + (itemCount - this.itemCount) / weight, runs + 1);
+	}
+
+	@Override
+	public String toString() {
+		return "duration: " + durationMillis + "ms, items: " + itemCount + ", runs: " + runs;
+	}
+}
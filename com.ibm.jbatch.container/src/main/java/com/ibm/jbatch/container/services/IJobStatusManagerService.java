@@ -57,6 +57,13 @@ public interface IJobStatusManagerService extends IBatchServiceBase {
 
     public abstract void updateJobCurrentStep(long jobInstanceId, String currentStepName)  throws BatchContainerServiceException;
 
+    /**
+     * Called when an execution of the job instance has ended, to write out any status 
+     * updates still held for it and stop holding them.
+     * @param jobInstanceId
+     */
+    public void jobExecutionDone(long jobInstanceId);
+
     /**
      * Creates an entry for the step in the stepstatus table during jobsetup
      * @param stepExecutionId
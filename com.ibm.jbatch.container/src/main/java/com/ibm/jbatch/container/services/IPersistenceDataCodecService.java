@@ -0,0 +1,44 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.services;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+import com.ibm.jbatch.spi.services.IBatchServiceBase;
+
+/**
+ * Turns the runtime's own persistent objects, i.e. checkpoint data, job status and step status, 
+ * into the bytes stored in the database, and back.
+ * 
+ * Rows written by older releases hold plain Java serialization, so {@link #decode(byte[])} must
+ * still read that.
+ */
+public interface IPersistenceDataCodecService extends IBatchServiceBase {
+
+	/**
+	 * @param value the object to store, possibly null
+	 * @return the bytes to store, null for a null value
+	 */
+	public byte[] encode(Serializable value) throws IOException;
+
+	/**
+	 * @param data bytes written by {@link #encode(Serializable)}, or by Java serialization
+	 * @return the object, null for null data
+	 */
+	public Serializable decode(byte[] data) throws IOException, ClassNotFoundException;
+}
@@ -33,6 +33,7 @@ import com.ibm.jbatch.container.jobinstance.RuntimeJobExecution;
 import com.ibm.jbatch.container.jobinstance.StepExecutionImpl;
 import com.ibm.jbatch.container.persistence.CheckpointData;
 import com.ibm.jbatch.container.persistence.CheckpointDataKey;
+import com.ibm.jbatch.container.persistence.PartitionHistory;
 import com.ibm.jbatch.container.status.JobStatus;
 import com.ibm.jbatch.container.status.StepStatus;
 import com.ibm.jbatch.spi.services.IBatchServiceBase;
@@ -55,6 +56,16 @@ public interface IPersistenceManagerService extends IBatchServiceBase {
 
 	public List<Long> jobOperatorGetJobInstanceIds(String jobName, String appTag, int start, int count);
 
+	/**
+	 * Keyset alternative to paging by start and count, which stays cheap however far back
+	 * the caller pages.
+	 * 
+	 * @return up to count instance ids lower than beforeInstanceId, sorted from high to low
+	 */
+	public List<Long> jobOperatorGetJobInstanceIdsBefore(String jobName, long beforeInstanceId, int count);
+
+	public List<Long> jobOperatorGetJobInstanceIdsBefore(String jobName, String appTag, long beforeInstanceId, int count);
+
 	public Timestamp jobOperatorQueryJobExecutionTimestamp(long key, TimestampType timetype);
 
 	public String jobOperatorQueryJobExecutionBatchStatus(long key);
@@ -139,6 +150,20 @@ public interface IPersistenceManagerService extends IBatchServiceBase {
 	 */
 	public void updateWithFinalPartitionAggregateStepExecution(long rootJobExecutionId, StepContextImpl stepContext);
 
+	/**
+	 * Update a StepExecution for the "top-level" StepExecution of a partitioned step 
+	 * whose partitions ran as lightweight partitions.
+	 * 
+	 * This will aggregate the metrics from the "partition-level" StepExecution(s) of the
+	 * most recent set of partitions, which are stored under the job instance itself.
+	 * 
+	 * @param jobInstanceId the job instance id
+	 * @param firstPartitionStepExecutionId the lowest step execution id of the most recent set of partitions
+	 * @param stepContext the step context for this step execution
+	 */
+	public void updateWithFinalLightweightPartitionAggregateStepExecution(long jobInstanceId, long firstPartitionStepExecutionId, 
+			StepContextImpl stepContext);
+
 	// JOB_STATUS
 	/**
 	 * Create a JobStatus
@@ -164,6 +189,53 @@ public interface IPersistenceManagerService extends IBatchServiceBase {
 	 */
 	public void updateJobStatus(long instanceId, JobStatus jobStatus);
 
+	/**
+	 * Update the batch status of a JobStatus, leaving everything else as it is.
+	 *
+	 * @param instanceId the parent job instance id
+	 * @param batchStatus the new batch status
+	 * @return false if there is no JobStatus for the job instance
+	 */
+	public boolean updateJobStatusBatchStatus(long instanceId, BatchStatus batchStatus);
+
+	/**
+	 * Update the batch and exit status of a JobStatus, leaving everything else as it is.
+	 *
+	 * @param instanceId the parent job instance id
+	 * @param batchStatus the new batch status
+	 * @param exitStatus the new exit status
+	 * @return false if there is no JobStatus for the job instance
+	 */
+	public boolean updateJobStatusBatchAndExitStatus(long instanceId, BatchStatus batchStatus, String exitStatus);
+
+	/**
+	 * Update the current step of a JobStatus, leaving everything else as it is.
+	 *
+	 * @param instanceId the parent job instance id
+	 * @param currentStepId the id of the step now running
+	 * @return false if there is no JobStatus for the job instance
+	 */
+	public boolean updateJobStatusCurrentStep(long instanceId, String currentStepId);
+
+	/**
+	 * Point a JobStatus at a new execution of the job instance, which sets the batch 
+	 * status to STARTING and clears the restart position.
+	 *
+	 * @param instanceId the parent job instance id
+	 * @param latestExecutionId the new job execution id
+	 * @return false if there is no JobStatus for the job instance
+	 */
+	public boolean updateJobStatusWithNewExecution(long instanceId, long latestExecutionId);
+
+	/**
+	 * Update the restart position of a JobStatus, leaving everything else as it is.
+	 *
+	 * @param instanceId the parent job instance id
+	 * @param restartOn the step to restart on
+	 * @return false if there is no JobStatus for the job instance
+	 */
+	public boolean updateJobStatusRestartOn(long instanceId, String restartOn);
+
 	// STEP_STATUS
 	/**
 	 * Create a StepStatus
@@ -205,10 +277,35 @@ public interface IPersistenceManagerService extends IBatchServiceBase {
 
     public void updateCheckpointData(CheckpointDataKey key, CheckpointData value);
 
+	/**
+	 * Create or replace several checkpoints together, e.g. a step's reader and writer checkpoints.
+	 *
+	 * @param checkpoints the checkpoint data to store, by key
+	 */
+	public void updateCheckpointData(Map<CheckpointDataKey, CheckpointData> checkpoints);
+
 	CheckpointData getCheckpointData(CheckpointDataKey key);
 
 	void createCheckpointData(CheckpointDataKey key, CheckpointData value);
 
+	/**
+	 * Get the history of the partitions of a partitioned step, recorded across its job's instances.
+	 * 
+	 * @param jobName the name of the top-level job
+	 * @param stepName the id of the partitioned step
+	 * @return the history by partition number, empty if none has been recorded
+	 */
+	public Map<Integer, PartitionHistory> getPartitionHistory(String jobName, String stepName);
+
+	/**
+	 * Create or replace the history of some of the partitions of a partitioned step.
+	 * 
+	 * @param jobName the name of the top-level job
+	 * @param stepName the id of the partitioned step
+	 * @param history the history by partition number
+	 */
+	public void updatePartitionHistory(String jobName, String stepName, Map<Integer, PartitionHistory> history);
+
 	long getMostRecentExecutionId(long jobInstanceId);
 
 	JobInstance createSubJobInstance(String name, String apptag);
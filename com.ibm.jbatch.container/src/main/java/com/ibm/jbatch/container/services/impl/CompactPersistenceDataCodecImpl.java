@@ -0,0 +1,350 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.services.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.logging.Logger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import javax.batch.runtime.BatchStatus;
+
+import com.ibm.jbatch.container.exception.BatchContainerServiceException;
+import com.ibm.jbatch.container.jobinstance.JobInstanceImpl;
+import com.ibm.jbatch.container.persistence.CheckpointData;
+import com.ibm.jbatch.container.persistence.PersistentDataWrapper;
+import com.ibm.jbatch.container.services.IPersistenceDataCodecService;
+import com.ibm.jbatch.container.status.JobStatus;
+import com.ibm.jbatch.container.status.StepStatus;
+import com.ibm.jbatch.container.util.BatchContainerConstants;
+import com.ibm.jbatch.spi.services.IBatchConfig;
+
+/**
+ * Writes checkpoint data, job status and step status field by field, rather than with Java
+ * serialization.  A restart token or persistent user data, already serialized by the step, 
+ * goes in as is instead of being serialized a second time inside its holder.  
+ * 
+ * The format is:
+ * <pre>
+ * 'J' 'B' version flags body
+ * </pre>
+ * where the body starts with a type byte, and is deflated if it was longer than 
+ * PERSISTENCE_CODEC_COMPRESSION_THRESHOLD bytes (and compressing helped).  Any other 
+ * object is written with Java serialization, inside the same header.
+ * 
+ * Data which starts with the Java serialization stream header is read with Java 
+ * serialization, as written by older releases.
+ */
+public class CompactPersistenceDataCodecImpl implements IPersistenceDataCodecService {
+
+	private final static String sourceClass = CompactPersistenceDataCodecImpl.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	private static final byte MAGIC_0 = 'J';
+	private static final byte MAGIC_1 = 'B';
+	private static final byte VERSION = 1;
+	private static final int HEADER_LENGTH = 4;
+
+	private static final byte FLAG_DEFLATED = 0x01;
+
+	private static final byte TYPE_SERIALIZED = 0;
+	private static final byte TYPE_CHECKPOINT_DATA = 1;
+	private static final byte TYPE_JOB_STATUS = 2;
+	private static final byte TYPE_STEP_STATUS = 3;
+
+	private static final String DEFAULT_COMPRESSION_THRESHOLD = "1024";
+
+	private int compressionThreshold = Integer.parseInt(DEFAULT_COMPRESSION_THRESHOLD);
+
+	@Override
+	public void init(IBatchConfig batchConfig) throws BatchContainerServiceException {
+		String value = DEFAULT_COMPRESSION_THRESHOLD;
+		if (batchConfig != null && batchConfig.getConfigProperties() != null) {
+			value = batchConfig.getConfigProperties().getProperty(BatchContainerConstants.PERSISTENCE_CODEC_COMPRESSION_THRESHOLD, 
+					DEFAULT_COMPRESSION_THRESHOLD);
+		}
+		try {
+			compressionThreshold = Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			throw new BatchContainerServiceException("Value of " + BatchContainerConstants.PERSISTENCE_CODEC_COMPRESSION_THRESHOLD 
+					+ " is not an integer: " + value, e);
+		}
+		logger.config("Compressing persistent data over " + compressionThreshold + " bytes");
+	}
+
+	@Override
+	public void shutdown() throws BatchContainerServiceException {
+	}
+
+	@Override
+	public byte[] encode(Serializable value) throws IOException {
+		if (value == null) {
+			return null;
+		}
+
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(body);
+		if (value instanceof CheckpointData) {
+			out.writeByte(TYPE_CHECKPOINT_DATA);
+			writeCheckpointData(out, (CheckpointData) value);
+		} else if (value instanceof JobStatus) {
+			out.writeByte(TYPE_JOB_STATUS);
+			writeJobStatus(out, (JobStatus) value);
+		} else if (value instanceof StepStatus) {
+			out.writeByte(TYPE_STEP_STATUS);
+			writeStepStatus(out, (StepStatus) value);
+		} else {
+			out.writeByte(TYPE_SERIALIZED);
+			ObjectOutputStream oout = new ObjectOutputStream(out);
+			oout.writeObject(value);
+			oout.close();
+		}
+		out.close();
+
+		byte flags = 0;
+		byte[] bodyBytes = body.toByteArray();
+		if (compressionThreshold > 0 && bodyBytes.length > compressionThreshold) {
+			byte[] deflated = deflate(bodyBytes);
+			if (deflated.length < bodyBytes.length) {
+				bodyBytes = deflated;
+				flags |= FLAG_DEFLATED;
+			}
+		}
+
+		byte[] data = new byte[HEADER_LENGTH + bodyBytes.length];
+		data[0] = MAGIC_0;
+		data[1] = MAGIC_1;
+		data[2] = VERSION;
+		data[3] = flags;
+		System.arraycopy(bodyBytes, 0, data, HEADER_LENGTH, bodyBytes.length);
+		return data;
+	}
+
+	@Override
+	public Serializable decode(byte[] data) throws IOException, ClassNotFoundException {
+		if (data == null) {
+			return null;
+		}
+
+		if (data.length < HEADER_LENGTH || data[0] != MAGIC_0 || data[1] != MAGIC_1) {
+			// Written with Java serialization
+			ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(data));
+			try {
+				return (Serializable) objectIn.readObject();
+			} finally {
+				objectIn.close();
+			}
+		}
+
+		if (data[2] > VERSION) {
+			throw new IOException("Persistent data was written in format version " + data[2] + 
+					", but this release only reads up to version " + VERSION);
+		}
+
+		byte[] bodyBytes = new byte[data.length - HEADER_LENGTH];
+		System.arraycopy(data, HEADER_LENGTH, bodyBytes, 0, bodyBytes.length);
+		if ((data[3] & FLAG_DEFLATED) != 0) {
+			bodyBytes = inflate(bodyBytes);
+		}
+
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bodyBytes));
+		byte type = in.readByte();
+		switch (type) {
+		case TYPE_CHECKPOINT_DATA:
+			return readCheckpointData(in);
+		case TYPE_JOB_STATUS:
+			return readJobStatus(in);
+		case TYPE_STEP_STATUS:
+			return readStepStatus(in);
+		case TYPE_SERIALIZED:
+			ObjectInputStream objectIn = new ObjectInputStream(in);
+			try {
+				return (Serializable) objectIn.readObject();
+			} finally {
+				objectIn.close();
+			}
+		default:
+			throw new IOException("Unknown type of persistent data: " + type);
+		}
+	}
+
+	private void writeCheckpointData(DataOutputStream out, CheckpointData checkpointData) throws IOException {
+		out.writeLong(checkpointData.getjobInstanceId());
+		writeString(out, checkpointData.getStepName());
+		writeString(out, checkpointData.getBatchDataStreamName());
+		writeBytes(out, checkpointData.getRestartToken());
+	}
+
+	private CheckpointData readCheckpointData(DataInputStream in) throws IOException {
+		long jobInstanceId = in.readLong();
+		String stepName = readString(in);
+		String batchDataStreamName = readString(in);
+		CheckpointData checkpointData = new CheckpointData(jobInstanceId, stepName, batchDataStreamName);
+		checkpointData.setRestartToken(readBytes(in));
+		return checkpointData;
+	}
+
+	private void writeJobStatus(DataOutputStream out, JobStatus jobStatus) throws IOException {
+		out.writeLong(jobStatus.getJobInstanceId());
+		JobInstanceImpl jobInstance = jobStatus.getJobInstance();
+		out.writeBoolean(jobInstance != null);
+		if (jobInstance != null) {
+			out.writeLong(jobInstance.getInstanceId());
+			writeString(out, jobInstance.getJobName());
+			writeString(out, jobInstance.getJobXML());
+		}
+		writeString(out, jobStatus.getCurrentStepId());
+		writeBatchStatus(out, jobStatus.getBatchStatus());
+		writeString(out, jobStatus.getExitStatus());
+		out.writeLong(jobStatus.getLatestExecutionId());
+		writeString(out, jobStatus.getRestartOn());
+	}
+
+	private JobStatus readJobStatus(DataInputStream in) throws IOException {
+		JobStatus jobStatus = new JobStatus(in.readLong());
+		if (in.readBoolean()) {
+			long instanceId = in.readLong();
+			String jobName = readString(in);
+			JobInstanceImpl jobInstance = new JobInstanceImpl(instanceId, readString(in));
+			jobInstance.setJobName(jobName);
+			jobStatus.setJobInstance(jobInstance);
+		}
+		jobStatus.setCurrentStepId(readString(in));
+		jobStatus.setBatchStatus(readBatchStatus(in));
+		jobStatus.setExitStatus(readString(in));
+		jobStatus.setLatestExecutionId(in.readLong());
+		jobStatus.setRestartOn(readString(in));
+		return jobStatus;
+	}
+
+	private void writeStepStatus(DataOutputStream out, StepStatus stepStatus) throws IOException {
+		out.writeLong(stepStatus.getStepExecutionId());
+		out.writeLong(stepStatus.getLastRunStepExecutionId());
+		writeBatchStatus(out, stepStatus.getBatchStatus());
+		writeString(out, stepStatus.getExitStatus());
+		out.writeInt(stepStatus.getStartCount());
+		PersistentDataWrapper persistentUserData = stepStatus.getPersistentUserDataWrapper();
+		writeBytes(out, persistentUserData != null ? persistentUserData.getPersistentDataBytes() : null);
+		Integer numPartitions = stepStatus.getNumPartitions();
+		out.writeBoolean(numPartitions != null);
+		if (numPartitions != null) {
+			out.writeInt(numPartitions);
+		}
+	}
+
+	private StepStatus readStepStatus(DataInputStream in) throws IOException {
+		StepStatus stepStatus = new StepStatus(in.readLong());
+		stepStatus.setLastRunStepExecutionId(in.readLong());
+		stepStatus.setBatchStatus(readBatchStatus(in));
+		stepStatus.setExitStatus(readString(in));
+		stepStatus.setStartCount(in.readInt());
+		byte[] persistentUserData = readBytes(in);
+		if (persistentUserData != null) {
+			stepStatus.setPersistentUserData(new PersistentDataWrapper(persistentUserData));
+		}
+		if (in.readBoolean()) {
+			stepStatus.setNumPartitions(in.readInt());
+		}
+		return stepStatus;
+	}
+
+	private void writeBatchStatus(DataOutputStream out, BatchStatus batchStatus) throws IOException {
+		writeString(out, batchStatus != null ? batchStatus.name() : null);
+	}
+
+	private BatchStatus readBatchStatus(DataInputStream in) throws IOException {
+		String name = readString(in);
+		return name != null ? BatchStatus.valueOf(name) : null;
+	}
+
+	/**
+	 * Unlike writeUTF(), not limited to 64K, since the job XML can be longer.
+	 */
+	private void writeString(DataOutputStream out, String s) throws IOException {
+		writeBytes(out, s != null ? s.getBytes("UTF-8") : null);
+	}
+
+	private String readString(DataInputStream in) throws IOException {
+		byte[] bytes = readBytes(in);
+		return bytes != null ? new String(bytes, "UTF-8") : null;
+	}
+
+	private void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+		if (bytes == null) {
+			out.writeInt(-1);
+		} else {
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	private byte[] readBytes(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return bytes;
+	}
+
+	private byte[] deflate(byte[] bytes) {
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try {
+			deflater.setInput(bytes);
+			deflater.finish();
+			ByteArrayOutputStream deflated = new ByteArrayOutputStream(bytes.length / 2);
+			byte[] buffer = new byte[4096];
+			while (!deflater.finished()) {
+				int n = deflater.deflate(buffer);
+				deflated.write(buffer, 0, n);
+			}
+			return deflated.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	private byte[] inflate(byte[] bytes) throws IOException {
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(bytes);
+			ByteArrayOutputStream inflated = new ByteArrayOutputStream(bytes.length * 2);
+			byte[] buffer = new byte[4096];
+			while (!inflater.finished()) {
+				int n = inflater.inflate(buffer);
+				if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					throw new IOException("Compressed persistent data is truncated");
+				}
+				inflated.write(buffer, 0, n);
+			}
+			return inflated.toByteArray();
+		} catch (DataFormatException e) {
+			throw new IOException("Compressed persistent data is corrupt", e);
+		} finally {
+			inflater.end();
+		}
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.services.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.ibm.jbatch.container.jobinstance.JobOperatorJobExecution;
+
+/**
+ * Snapshots of job executions which have finished, by execution id, bounded by evicting the 
+ * least recently used.  A finished execution only changes again if it is abandoned or purged, 
+ * which must call {@link #remove(long)} or {@link #clear()} once the change is written.
+ * 
+ * The cached snapshots are never handed out, only copies of them.  
+ * 
+ * This only knows about changes made through this JVM.
+ */
+class FinishedJobExecutionCache {
+
+	private final Map<Long, JobOperatorJobExecution> jobExecutions;
+
+	// Bumped by every removal, so a snapshot read before one isn't cached after it
+	private long generation = 0;
+
+	FinishedJobExecutionCache(final int maxSize) {
+		this.jobExecutions = new LinkedHashMap<Long, JobOperatorJobExecution>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, JobOperatorJobExecution> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * @return a copy of the cached snapshot, or null
+	 */
+	synchronized JobOperatorJobExecution get(long executionId) {
+		JobOperatorJobExecution jobExecution = jobExecutions.get(executionId);
+		return jobExecution == null ? null : jobExecution.copy();
+	}
+
+	/**
+	 * Call before reading the execution from the database, and pass the result to 
+	 * {@link #put(JobOperatorJobExecution, long)}.
+	 */
+	synchronized long getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * Caches a copy of the execution if it has finished, and nothing was removed since it was read.
+	 */
+	synchronized void put(JobOperatorJobExecution jobExecution, long readGeneration) {
+		if (jobExecution.isFinished() && readGeneration == generation) {
+			jobExecutions.put(jobExecution.getExecutionId(), jobExecution.copy());
+		}
+	}
+
+	synchronized void remove(long executionId) {
+		generation++;
+		jobExecutions.remove(executionId);
+	}
+
+	synchronized void clear() {
+		generation++;
+		jobExecutions.clear();
+	}
+
+	synchronized int size() {
+		return jobExecutions.size();
+	}
+}
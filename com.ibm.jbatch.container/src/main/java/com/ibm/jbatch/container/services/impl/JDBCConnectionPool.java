@@ -0,0 +1,362 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.services.impl;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A small pool of JDBC connections for SE mode, where there's no DataSource to do the pooling.
+ * 
+ * Closing a connection handed out by {@link #getConnection()} returns it to the pool.  Each 
+ * physical connection is set up by {@link #initialize(Connection)} once, when it's opened.
+ * A connection which has sat idle for a while is validated before it's handed out again, and
+ * one idle for longer than the idle timeout is closed.  There's no background thread, idle 
+ * connections are only evicted when the pool is next used.
+ * 
+ * Each physical connection also keeps a {@link PreparedStatementCache}, so the same SQL is only
+ * prepared once per connection.
+ * 
+ * A thread which already has a connection from the pool never waits for another.  If none is 
+ * idle it gets a new one even past the max size, closed again once it's returned, so a caller
+ * that looks something up while holding a connection can't starve a full pool.
+ */
+public class JDBCConnectionPool {
+
+	private final static String sourceClass = JDBCConnectionPool.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	// Skip validation for a connection which was in use moments ago
+	private static final long VALIDATE_AFTER_IDLE_MILLIS = 5000;
+
+	private final String url;
+	private final String userId;
+	private final String pwd;
+	private final int maxSize;
+	private final long idleTimeoutMillis;
+	private final long maxWaitMillis;
+	private final int validationTimeoutSeconds;
+	private final int statementCacheSize;
+
+	// In the order they were returned, so the head has been idle the longest
+	private final LinkedList<PhysicalConnection> idle = new LinkedList<PhysicalConnection>();
+
+	// Idle and in use
+	private int openCount = 0;
+
+	private boolean closed = false;
+
+	// How many of the pool's connections each thread has
+	private final ThreadLocal<AtomicInteger> heldByThread = new ThreadLocal<AtomicInteger>() {
+		@Override
+		protected AtomicInteger initialValue() {
+			return new AtomicInteger();
+		}
+	};
+
+	public JDBCConnectionPool(String url, String userId, String pwd, int maxSize, int idleTimeoutSeconds, 
+			int maxWaitSeconds, int validationTimeoutSeconds, int statementCacheSize) {
+		this.url = url;
+		this.userId = userId;
+		this.pwd = pwd;
+		this.maxSize = maxSize;
+		this.idleTimeoutMillis = idleTimeoutSeconds * 1000L;
+		this.maxWaitMillis = maxWaitSeconds * 1000L;
+		this.validationTimeoutSeconds = validationTimeoutSeconds;
+		this.statementCacheSize = statementCacheSize;
+	}
+
+	/**
+	 * Called once for each new physical connection, before it's first handed out.
+	 */
+	protected void initialize(Connection connection) throws SQLException {
+	}
+
+	/**
+	 * @return a connection from the pool, waiting up to the max wait time if they're all in use
+	 * @throws SQLException if no connection could be opened, or none was free in time
+	 */
+	public Connection getConnection() throws SQLException {
+		long deadline = System.currentTimeMillis() + maxWaitMillis;
+		AtomicInteger held = heldByThread.get();
+		boolean nested = held.get() > 0;
+
+		while (true) {
+			PhysicalConnection candidate = null;
+			List<PhysicalConnection> expired;
+
+			synchronized (this) {
+				expired = removeExpired();
+				while (!closed && idle.isEmpty() && openCount >= maxSize && !nested) {
+					long remaining = deadline - System.currentTimeMillis();
+					if (remaining <= 0) {
+						throw new SQLException("Timed out after " + maxWaitMillis + " ms waiting for one of the " + maxSize + " pooled connections to " + url);
+					}
+					try {
+						wait(remaining);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new SQLException("Interrupted waiting for a pooled connection to " + url, e);
+					}
+				}
+				if (closed) {
+					throw new SQLException("The connection pool for " + url + " is closed");
+				}
+				if (!idle.isEmpty()) {
+					// Most recently used, the ones at the head are left to expire
+					candidate = idle.removeLast();
+				} else {
+					openCount++;
+				}
+			}
+			close(expired);
+
+			if (candidate == null) {
+				return wrap(open(), held);
+			} else if (isUsable(candidate)) {
+				return wrap(candidate, held);
+			} else {
+				discard(candidate);
+			}
+		}
+	}
+
+	/**
+	 * Close the idle connections.  Connections in use are closed as they're returned. 
+	 */
+	public void close() {
+		List<PhysicalConnection> toClose;
+		synchronized (this) {
+			closed = true;
+			toClose = new ArrayList<PhysicalConnection>(idle);
+			openCount -= idle.size();
+			idle.clear();
+			notifyAll();
+		}
+		close(toClose);
+	}
+
+	public synchronized int getOpenCount() {
+		return openCount;
+	}
+
+	public synchronized int getIdleCount() {
+		return idle.size();
+	}
+
+	/**
+	 * Opens a new physical connection, for a slot already counted in openCount.
+	 */
+	private PhysicalConnection open() throws SQLException {
+		Connection connection = null;
+		boolean opened = false;
+		try {
+			logger.finest("Opening pooled connection to " + url);
+			connection = DriverManager.getConnection(url, userId, pwd);
+			initialize(connection);
+			opened = true;
+			return new PhysicalConnection(connection, statementCacheSize > 0 ? new PreparedStatementCache(connection, statementCacheSize) : null);
+		} finally {
+			if (!opened) {
+				if (connection != null) {
+					closeQuietly(connection);
+				}
+				synchronized (this) {
+					openCount--;
+					notifyAll();
+				}
+			}
+		}
+	}
+
+	private boolean isUsable(PhysicalConnection candidate) {
+		if (System.currentTimeMillis() - candidate.idleSince < VALIDATE_AFTER_IDLE_MILLIS) {
+			return true;
+		}
+		try {
+			return candidate.connection.isValid(validationTimeoutSeconds);
+		} catch (SQLException e) {
+			logger.log(Level.FINE, "Validating pooled connection failed", e);
+			return false;
+		} catch (AbstractMethodError e) {
+			// Pre JDBC 4 driver, so there's no way to tell
+			return true;
+		}
+	}
+
+	/**
+	 * Called when the application closes its connection.
+	 */
+	private void release(PhysicalConnection physical) {
+		boolean reusable = false;
+		if (physical.statementCache != null) {
+			physical.statementCache.releaseAll();
+		}
+		try {
+			if (!physical.connection.isClosed()) {
+				if (!physical.connection.getAutoCommit()) {
+					physical.connection.rollback();
+					physical.connection.setAutoCommit(true);
+				}
+				reusable = true;
+			}
+		} catch (SQLException e) {
+			logger.log(Level.FINE, "Discarding pooled connection which couldn't be reset", e);
+		}
+
+		if (reusable) {
+			synchronized (this) {
+				// Any over the max size were opened for a nested caller, and aren't kept
+				if (!closed && openCount <= maxSize) {
+					physical.idleSince = System.currentTimeMillis();
+					idle.addLast(physical);
+					notifyAll();
+					return;
+				}
+			}
+		}
+		discard(physical);
+	}
+
+	private void discard(PhysicalConnection physical) {
+		closeQuietly(physical);
+		synchronized (this) {
+			openCount--;
+			notifyAll();
+		}
+	}
+
+	/**
+	 * Must hold the lock.
+	 * 
+	 * @return the connections idle for longer than the idle timeout, which the caller must close
+	 */
+	private List<PhysicalConnection> removeExpired() {
+		List<PhysicalConnection> expired = new ArrayList<PhysicalConnection>();
+		long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+		for (Iterator<PhysicalConnection> it = idle.iterator(); it.hasNext();) {
+			PhysicalConnection physical = it.next();
+			if (physical.idleSince >= cutoff) {
+				break;
+			}
+			it.remove();
+			expired.add(physical);
+		}
+		openCount -= expired.size();
+		return expired;
+	}
+
+	private void close(List<PhysicalConnection> connections) {
+		for (PhysicalConnection physical : connections) {
+			closeQuietly(physical);
+		}
+	}
+
+	private void closeQuietly(PhysicalConnection physical) {
+		if (physical.statementCache != null) {
+			physical.statementCache.closeAll();
+		}
+		closeQuietly(physical.connection);
+	}
+
+	private void closeQuietly(Connection connection) {
+		try {
+			connection.close();
+		} catch (SQLException e) {
+			logger.log(Level.FINE, "Closing pooled connection failed", e);
+		}
+	}
+
+	private Connection wrap(PhysicalConnection physical, AtomicInteger held) {
+		held.incrementAndGet();
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), 
+				new Class<?>[] { Connection.class }, new PooledConnectionHandler(physical, held));
+	}
+
+	private static class PhysicalConnection {
+
+		private final Connection connection;
+		private final PreparedStatementCache statementCache;
+		private long idleSince;
+
+		PhysicalConnection(Connection connection, PreparedStatementCache statementCache) {
+			this.connection = connection;
+			this.statementCache = statementCache;
+		}
+	}
+
+	/**
+	 * The connection the application sees, which goes back to the pool when closed.
+	 */
+	private class PooledConnectionHandler implements InvocationHandler {
+
+		private final PhysicalConnection physical;
+
+		// Of the thread which got the connection, even if another closes it
+		private final AtomicInteger held;
+		private boolean closed = false;
+
+		PooledConnectionHandler(PhysicalConnection physical, AtomicInteger held) {
+			this.physical = physical;
+			this.held = held;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (name.equals("equals")) {
+				return proxy == args[0];
+			} else if (name.equals("hashCode")) {
+				return System.identityHashCode(proxy);
+			} else if (name.equals("toString")) {
+				return "Pooled connection [" + physical.connection + "]";
+			} else if (name.equals("close")) {
+				// Closing twice is allowed
+				if (!closed) {
+					closed = true;
+					held.decrementAndGet();
+					release(physical);
+				}
+				return null;
+			} else if (name.equals("isClosed")) {
+				return closed || physical.connection.isClosed();
+			} else if (closed) {
+				throw new SQLException("Connection is closed");
+			} else if (name.equals("prepareStatement") && physical.statementCache != null) {
+				return physical.statementCache.prepareStatement((Connection) proxy, method, args);
+			}
+
+			try {
+				return method.invoke(physical.connection, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.services.impl;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * The SQL which differs between the databases the JDBC persistence manager supports, chosen
+ * from the database's metadata when the persistence manager starts.
+ */
+public class JDBCDialect implements JDBCPersistenceManagerSQLConstants {
+
+	private final static String sourceClass = JDBCDialect.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	/**
+	 * The escape character for {@link #escapeLike}, given in the LIKE's ESCAPE clause.  Not a backslash,
+	 * which MySQL also treats as an escape inside the string literal.
+	 */
+	public static final char LIKE_ESCAPE = '!';
+
+	private JDBCDialect() {
+	}
+
+	/**
+	 * Escapes the LIKE wildcards, and the escape character itself, so the value only matches itself.
+	 *
+	 * @param value to match literally as part of a LIKE pattern with ESCAPE {@link #LIKE_ESCAPE}
+	 * @return the escaped value
+	 */
+	public static String escapeLike(String value) {
+		StringBuilder escaped = new StringBuilder(value.length() + 8);
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '_' || c == '%' || c == LIKE_ESCAPE) {
+				escaped.append(LIKE_ESCAPE);
+			}
+			escaped.append(c);
+		}
+		return escaped.toString();
+	}
+
+	/**
+	 * Picks the statement which inserts or replaces a checkpoint in a single round trip.
+	 * ON CONFLICT and ON DUPLICATE KEY only work with a unique index on the checkpoint id,
+	 * which older copies of the DDL didn't create.
+	 *
+	 * @param dbmd the database's metadata
+	 * @param schema where the batch tables are
+	 * @return the upsert statement, or null if there isn't one we can use
+	 * @throws SQLException
+	 */
+	public static String getUpsertCheckpointDataStatement(DatabaseMetaData dbmd, String schema) throws SQLException {
+		String upsert = null;
+		String dbProductName = dbmd.getDatabaseProductName().toLowerCase();
+		int majorVersion = dbmd.getDatabaseMajorVersion();
+		int minorVersion = dbmd.getDatabaseMinorVersion();
+
+		if (dbProductName.indexOf("derby") >= 0) {
+			// MERGE is new in 10.11
+			if (majorVersion > 10 || (majorVersion == 10 && minorVersion >= 11)) {
+				upsert = MERGE_CHECKPOINTDATA_DERBY_DB2;
+			}
+		} else if (dbProductName.startsWith("db2")) {
+			upsert = MERGE_CHECKPOINTDATA_DERBY_DB2;
+		} else if (dbProductName.startsWith("oracle")) {
+			upsert = MERGE_CHECKPOINTDATA_ORACLE;
+		} else if (dbProductName.startsWith("microsoft sql server")) {
+			upsert = MERGE_CHECKPOINTDATA_SQLSERVER;
+		} else if (dbProductName.startsWith("postgresql")) {
+			// ON CONFLICT is new in 9.5
+			if (majorVersion > 9 || (majorVersion == 9 && minorVersion >= 5)) {
+				upsert = uniqueIndexRequired(dbmd, schema, "postgresql", UPSERT_CHECKPOINTDATA_POSTGRESQL);
+			}
+		} else if (dbProductName.startsWith("mysql") || dbProductName.startsWith("mariadb")) {
+			upsert = uniqueIndexRequired(dbmd, schema, "mysql", UPSERT_CHECKPOINTDATA_MYSQL);
+		}
+		return upsert;
+	}
+
+	/**
+	 * Sets the parameters of an upsert statement from {@link #getUpsertCheckpointDataStatement},
+	 * which are the id followed by the obj, repeated where the statement needs them twice.
+	 */
+	public static void setUpsertCheckpointDataParameters(PreparedStatement statement, String upsert, String key, byte[] value) throws SQLException {
+		int parameterCount = 0;
+		for (int i = 0; i < upsert.length(); i++) {
+			if (upsert.charAt(i) == '?') {
+				parameterCount++;
+			}
+		}
+		for (int param = 1; param < parameterCount; param += 2) {
+			statement.setObject(param, key);
+			statement.setBytes(param + 1, value);
+		}
+	}
+
+	/**
+	 * Picks the clause which limits a query to a page of rows.
+	 *
+	 * @param dbmd the database's metadata
+	 * @return PAGE_OFFSET_FETCH, PAGE_LIMIT_OFFSET, or null if there isn't one we can use
+	 * @throws SQLException
+	 */
+	public static String getPageClause(DatabaseMetaData dbmd) throws SQLException {
+		String clause = null;
+		String dbProductName = dbmd.getDatabaseProductName().toLowerCase();
+		int majorVersion = dbmd.getDatabaseMajorVersion();
+		int minorVersion = dbmd.getDatabaseMinorVersion();
+
+		if (dbProductName.indexOf("derby") >= 0) {
+			// Parameters in OFFSET and FETCH are new in 10.6
+			if (majorVersion > 10 || (majorVersion == 10 && minorVersion >= 6)) {
+				clause = PAGE_OFFSET_FETCH;
+			}
+		} else if (dbProductName.startsWith("db2")) {
+			if (majorVersion >= 11) {
+				clause = PAGE_OFFSET_FETCH;
+			}
+		} else if (dbProductName.startsWith("oracle")) {
+			if (majorVersion >= 12) {
+				clause = PAGE_OFFSET_FETCH;
+			}
+		} else if (dbProductName.startsWith("microsoft sql server")) {
+			// SQL Server 2012
+			if (majorVersion >= 11) {
+				clause = PAGE_OFFSET_FETCH;
+			}
+		} else if (dbProductName.startsWith("postgresql") || dbProductName.startsWith("mysql")
+				|| dbProductName.startsWith("mariadb")) {
+			clause = PAGE_LIMIT_OFFSET;
+		}
+		return clause;
+	}
+
+	/**
+	 * Runs a query for a page of ids.  The database skips the first start rows if there's a
+	 * paging clause, otherwise they are skipped here and setMaxRows() at least stops it
+	 * sending anything past the end of the page.
+	 *
+	 * @param query selects the ids in its first column
+	 * @param pageClause from {@link #getPageClause}, or null
+	 * @param start number of ids to skip
+	 * @param count maximum number of ids to return
+	 * @param parameters for the query, not including the paging clause
+	 * @return the ids in the order the query returns them
+	 * @throws SQLException
+	 */
+	public static List<Long> selectPageOfIds(Connection conn, String query, String pageClause, int start, int count,
+			Object... parameters) throws SQLException {
+		List<Long> ids = new ArrayList<Long>();
+		if (count <= 0) {
+			return ids;
+		}
+
+		PreparedStatement statement = null;
+		ResultSet rs = null;
+		try {
+			int skip = 0;
+			if (pageClause != null) {
+				statement = conn.prepareStatement(query + pageClause);
+			} else {
+				statement = conn.prepareStatement(query);
+				long maxRows = (long) start + count;
+				if (maxRows <= Integer.MAX_VALUE) {
+					statement.setMaxRows((int) maxRows);
+				}
+				skip = start;
+			}
+			int i = 1;
+			for (Object parameter : parameters) {
+				statement.setObject(i++, parameter);
+			}
+			if (PAGE_OFFSET_FETCH.equals(pageClause)) {
+				statement.setInt(i++, start);
+				statement.setInt(i++, count);
+			} else if (PAGE_LIMIT_OFFSET.equals(pageClause)) {
+				statement.setInt(i++, count);
+				statement.setInt(i++, start);
+			}
+			rs = statement.executeQuery();
+			while (rs.next()) {
+				if (skip > 0) {
+					skip--;
+				} else {
+					ids.add(rs.getLong(1));
+				}
+			}
+		} finally {
+			if (rs != null) {
+				rs.close();
+			}
+			if (statement != null) {
+				statement.close();
+			}
+		}
+		return ids;
+	}
+
+	private static String uniqueIndexRequired(DatabaseMetaData dbmd, String schema, String ddlName, String upsert) throws SQLException {
+		if (hasUniqueCheckpointDataIndex(dbmd, schema)) {
+			return upsert;
+		}
+		logger.info("No unique index on " + CHECKPOINTDATA_TABLE + "(id), so checkpoints are updated then inserted. "
+				+ "jsr352-" + ddlName + "-migrate-checkpoint.ddl adds it.");
+		return null;
+	}
+
+	/**
+	 * @return true if there's a unique index on just the id column of the checkpoint data table
+	 */
+	private static boolean hasUniqueCheckpointDataIndex(DatabaseMetaData dbmd, String schema) throws SQLException {
+		// Depending on the database, unquoted names are stored in upper or lower case
+		String[][] names = { { schema, CHECKPOINTDATA_TABLE }, { schema.toLowerCase(), CHECKPOINTDATA_TABLE.toLowerCase() } };
+		for (String[] name : names) {
+			Map<String, Integer> indexColumns = new HashMap<String, Integer>();
+			Set<String> idIndexes = new HashSet<String>();
+			ResultSet rs = dbmd.getIndexInfo(null, name[0], name[1], true, false);
+			try {
+				while (rs.next()) {
+					String indexName = rs.getString("INDEX_NAME");
+					String columnName = rs.getString("COLUMN_NAME");
+					if (indexName == null || columnName == null) {
+						continue;
+					}
+					Integer count = indexColumns.get(indexName);
+					indexColumns.put(indexName, count == null ? 1 : count + 1);
+					if ("id".equalsIgnoreCase(columnName)) {
+						idIndexes.add(indexName);
+					}
+				}
+			} finally {
+				rs.close();
+			}
+			for (String indexName : idIndexes) {
+				if (indexColumns.get(indexName) == 1) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+}
@@ -32,7 +32,9 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -65,10 +67,15 @@ import com.ibm.jbatch.container.jobinstance.RuntimeJobExecution;
 import com.ibm.jbatch.container.jobinstance.StepExecutionImpl;
 import com.ibm.jbatch.container.persistence.CheckpointData;
 import com.ibm.jbatch.container.persistence.CheckpointDataKey;
+import com.ibm.jbatch.container.persistence.PartitionHistory;
+import com.ibm.jbatch.container.persistence.PersistentDataWrapper;
 import com.ibm.jbatch.container.services.IJobExecution;
+import com.ibm.jbatch.container.services.IPersistenceDataCodecService;
 import com.ibm.jbatch.container.services.IPersistenceManagerService;
+import com.ibm.jbatch.container.servicesmanager.ServicesManagerImpl;
 import com.ibm.jbatch.container.status.JobStatus;
 import com.ibm.jbatch.container.status.StepStatus;
+import com.ibm.jbatch.container.util.BatchContainerConstants;
 import com.ibm.jbatch.container.util.TCCLObjectInputStream;
 import com.ibm.jbatch.spi.services.IBatchConfig;
 
@@ -89,6 +96,23 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 	protected String userId = "";
 	protected String pwd = "";
 
+	// SE mode only, null if pooling is turned off
+	private JDBCConnectionPool connectionPool = null;
+
+	private IPersistenceDataCodecService persistenceDataCodec = null;
+
+	// Chosen in init(), null if the database has no single statement upsert we can use
+	private String upsertCheckpointData = null;
+
+	// Chosen in init(), null if the database has no paging clause we can use
+	private String pageClause = null;
+
+	// Whether running executions are read as snapshots too, finished ones always are
+	private boolean snapshotJobExecutions = false;
+
+	// Null if JOB_EXECUTION_CACHE_SIZE is 0
+	private FinishedJobExecutionCache finishedJobExecutions = null;
+
 	/* (non-Javadoc)
 	 * @see com.ibm.jbatch.container.services.impl.AbstractPersistenceManagerImpl#init(com.ibm.jbatch.container.IBatchConfig)
 	 */
@@ -99,6 +123,19 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 
 		this.batchConfig = batchConfig;
 
+		persistenceDataCodec = ServicesManagerImpl.getInstance().getPersistenceDataCodecService();
+
+		Properties configProperties = batchConfig.getConfigProperties();
+		snapshotJobExecutions = configProperties != null 
+				&& Boolean.parseBoolean(configProperties.getProperty(BatchContainerConstants.JOB_EXECUTION_SNAPSHOT, "false"));
+		int jobExecutionCacheSize = getIntConfigProperty(BatchContainerConstants.JOB_EXECUTION_CACHE_SIZE, 
+				BatchContainerConstants.DEFAULT_JOB_EXECUTION_CACHE_SIZE);
+		if (jobExecutionCacheSize > 0) {
+			finishedJobExecutions = new FinishedJobExecutionCache(jobExecutionCacheSize);
+		}
+		logger.config("Snapshot running job executions: " + snapshotJobExecutions + ", finished job execution cache size: " 
+				+ jobExecutionCacheSize);
+
 		schema = batchConfig.getDatabaseConfigurationBean().getSchema();
 
 		if (!batchConfig.isJ2seMode()) {
@@ -137,6 +174,8 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 			pwd = batchConfig.getDatabaseConfigurationBean().getDbPassword();
 
 			logger.config("driver: " + driver + ", url: " + url);
+
+			connectionPool = createConnectionPool();
 		}
 
 		try {
@@ -147,6 +186,11 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 				}
 				checkAllTables();
 			}
+			migrateStatusTables();
+			upsertCheckpointData = getUpsertCheckpointDataStatement();
+			logger.config("Checkpoint upsert statement: " + upsertCheckpointData);
+			pageClause = getPageClause();
+			logger.config("Paging clause: " + pageClause);
 		} catch (SQLException e) {
 			logger.severe(e.getLocalizedMessage());
 			throw new BatchContainerServiceException(e);
@@ -155,6 +199,58 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		logger.config("Exiting CLASSNAME.init()");
 	}
 
+	/**
+	 * Configured in batch-config.properties with JDBC_POOL_MAX_SIZE, JDBC_POOL_IDLE_TIMEOUT (seconds),
+	 * JDBC_POOL_MAX_WAIT (seconds), JDBC_POOL_VALIDATION_TIMEOUT (seconds) and 
+	 * JDBC_POOL_STATEMENT_CACHE_SIZE (prepared statements per connection).
+	 * 
+	 * In EE mode the DataSource's own pool does this, including statement caching since
+	 * prepared statements are poolable by default.
+	 * 
+	 * @return the SE mode connection pool, or null if JDBC_POOL_MAX_SIZE is 0
+	 */
+	private JDBCConnectionPool createConnectionPool() {
+		int maxSize = getIntConfigProperty(BatchContainerConstants.JDBC_POOL_MAX_SIZE, BatchContainerConstants.DEFAULT_JDBC_POOL_MAX_SIZE);
+		int idleTimeout = getIntConfigProperty(BatchContainerConstants.JDBC_POOL_IDLE_TIMEOUT, BatchContainerConstants.DEFAULT_JDBC_POOL_IDLE_TIMEOUT);
+		int maxWait = getIntConfigProperty(BatchContainerConstants.JDBC_POOL_MAX_WAIT, BatchContainerConstants.DEFAULT_JDBC_POOL_MAX_WAIT);
+		int validationTimeout = getIntConfigProperty(BatchContainerConstants.JDBC_POOL_VALIDATION_TIMEOUT, BatchContainerConstants.DEFAULT_JDBC_POOL_VALIDATION_TIMEOUT);
+		int statementCacheSize = getIntConfigProperty(BatchContainerConstants.JDBC_POOL_STATEMENT_CACHE_SIZE, BatchContainerConstants.DEFAULT_JDBC_POOL_STATEMENT_CACHE_SIZE);
+
+		logger.config("JDBC connection pool: maxSize = " + maxSize + ", idleTimeout = " + idleTimeout + ", maxWait = " + maxWait 
+				+ ", validationTimeout = " + validationTimeout + ", statementCacheSize = " + statementCacheSize);
+
+		if (maxSize == 0) {
+			return null;
+		}
+
+		try {
+			Class.forName(driver);
+		} catch (ClassNotFoundException e) {
+			throw new PersistenceException(e);
+		}
+
+		return new JDBCConnectionPool(url, userId, pwd, maxSize, idleTimeout, maxWait, validationTimeout, statementCacheSize) {
+			@Override
+			protected void initialize(Connection connection) throws SQLException {
+				setSchemaOnConnection(connection);
+			}
+		};
+	}
+
+	private int getIntConfigProperty(String name, String defaultValue) {
+		Properties configProperties = batchConfig.getConfigProperties();
+		String value = configProperties != null ? configProperties.getProperty(name, defaultValue) : defaultValue;
+		try {
+			int intValue = Integer.parseInt(value.trim());
+			if (intValue < 0) {
+				throw new BatchContainerServiceException("Value of " + name + " must not be negative, found: " + value);
+			}
+			return intValue;
+		} catch (NumberFormatException e) {
+			throw new BatchContainerServiceException("Value of " + name + " is not an integer: " + value, e);
+		}
+	}
+
 	/**
 	 * Checks if the default schema JBATCH or the schema defined in batch-config exists.
 	 * 
@@ -187,6 +283,44 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		return derby;
 	}
 
+	/**
+	 * @return the statement which inserts or replaces a checkpoint in a single round trip, or 
+	 * null if there isn't one we can use
+	 * @throws SQLException
+	 * @see JDBCDialect#getUpsertCheckpointDataStatement(DatabaseMetaData, String)
+	 */
+	private String getUpsertCheckpointDataStatement() throws SQLException {
+		logger.entering(CLASSNAME, "getUpsertCheckpointDataStatement");
+		String upsert = null;
+		Connection conn = getConnection();
+		try {
+			upsert = JDBCDialect.getUpsertCheckpointDataStatement(conn.getMetaData(), schema);
+		} finally {
+			cleanupConnection(conn, null, null);
+		}
+		logger.exiting(CLASSNAME, "getUpsertCheckpointDataStatement", upsert);
+		return upsert;
+	}
+
+	/**
+	 * Picks the clause which limits a query to a page of rows, which depends on the database.
+	 * 
+	 * @return PAGE_OFFSET_FETCH, PAGE_LIMIT_OFFSET, or null if there isn't one we can use
+	 * @throws SQLException
+	 */
+	private String getPageClause() throws SQLException {
+		logger.entering(CLASSNAME, "getPageClause");
+		String clause = null;
+		Connection conn = getConnection();
+		try {
+			clause = JDBCDialect.getPageClause(conn.getMetaData());
+		} finally {
+			cleanupConnection(conn, null, null);
+		}
+		logger.exiting(CLASSNAME, "getPageClause", clause);
+		return clause;
+	}
+
 	/**
 	 * Creates the default schema JBATCH or the schema defined in batch-config.
 	 * 
@@ -216,6 +350,7 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		createIfNotExists(CHECKPOINTDATA_TABLE, CREATE_TAB_CHECKPOINTDATA);
 		executeStatement(CREATE_CHECKPOINTDATA_INDEX);
 		createIfNotExists(JOBINSTANCEDATA_TABLE, CREATE_TAB_JOBINSTANCEDATA);
+		executeStatement(CREATE_JOBINSTANCEDATA_INDEX);
 
 		createIfNotExists(EXECUTIONINSTANCEDATA_TABLE,
 				CREATE_TAB_EXECUTIONINSTANCEDATA);
@@ -224,10 +359,170 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 
 		createIfNotExists(JOBSTATUS_TABLE, CREATE_TAB_JOBSTATUS);
 		createIfNotExists(STEPSTATUS_TABLE, CREATE_TAB_STEPSTATUS);	
+		createIfNotExists(PARTITIONHISTORY_TABLE, CREATE_TAB_PARTITIONHISTORY);
+		createIfNotExists(SCHEMAVERSION_TABLE, CREATE_TAB_SCHEMAVERSION);
+		addColumnsIfNotExist(JOBSTATUS_TABLE, ALTER_TAB_JOBSTATUS);
+		addColumnsIfNotExist(STEPSTATUS_TABLE, ALTER_TAB_STEPSTATUS);
 
 		logger.exiting(CLASSNAME, "checkAllTables");
 	}
 
+	/**
+	 * Adds the status columns to a JOBSTATUS or STEPSTATUS table created before there were any.
+	 * 
+	 * @param tableName
+	 * @param alterTableStatements
+	 * @throws SQLException
+	 */
+	private void addColumnsIfNotExist(String tableName, String[] alterTableStatements) throws SQLException {
+		logger.entering(CLASSNAME, "addColumnsIfNotExist", tableName);
+
+		Connection conn = getConnection();
+		DatabaseMetaData dbmd = conn.getMetaData();
+		ResultSet rs = dbmd.getColumns(null, schema, tableName, "BATCHSTATUS");
+		boolean exists = rs.next();
+		cleanupConnection(conn, rs, null);
+
+		if (!exists) {
+			logger.log(Level.INFO, tableName + " table does not have the status columns. Trying to add them.");
+			for (String alterTableStatement : alterTableStatements) {
+				executeStatement(alterTableStatement);
+			}
+		}
+		logger.exiting(CLASSNAME, "addColumnsIfNotExist");
+	}
+
+	/**
+	 * Fills in the status columns of any JOBSTATUS and STEPSTATUS rows written before there were 
+	 * any, from the encoded JobStatus or StepStatus in the obj column.  The columns themselves 
+	 * are only added automatically on Derby, elsewhere the ddls/jsr352-*-migrate-status.ddl 
+	 * script must be run first.
+	 * 
+	 * @throws SQLException
+	 */
+	private void migrateStatusTables() throws SQLException {
+		logger.entering(CLASSNAME, "migrateStatusTables");
+
+		int schemaVersion;
+		try {
+			schemaVersion = getSchemaVersion();
+		} catch (SQLException e) {
+			logger.severe("Couldn't read the SCHEMAVERSION table, check it has been created with the " 
+					+ "jsr352-*-migrate-status.ddl for the database");
+			throw e;
+		}
+		// Only once: a job status which has just been created has no batch status yet either
+		if (schemaVersion >= STATUS_COLUMNS_SCHEMA_VERSION) {
+			logger.exiting(CLASSNAME, "migrateStatusTables");
+			return;
+		}
+
+		Map<Long, byte[]> jobStatuses;
+		Map<Long, byte[]> stepStatuses;
+		try {
+			jobStatuses = queryUnmigratedStatuses(SELECT_JOBSTATUS_UNMIGRATED);
+			stepStatuses = queryUnmigratedStatuses(SELECT_STEPSTATUS_UNMIGRATED);
+		} catch (SQLException e) {
+			logger.severe("Couldn't read the JOBSTATUS and STEPSTATUS status columns, check the tables have been " 
+					+ "updated with the jsr352-*-migrate-status.ddl for the database");
+			throw e;
+		}
+		if (jobStatuses.isEmpty() && stepStatuses.isEmpty()) {
+			setSchemaVersion(STATUS_COLUMNS_SCHEMA_VERSION);
+			logger.exiting(CLASSNAME, "migrateStatusTables");
+			return;
+		}
+
+		logger.info("Filling in the status columns for " + jobStatuses.size() + " JOBSTATUS and " 
+				+ stepStatuses.size() + " STEPSTATUS rows");
+		Connection conn = null;
+		PreparedStatement statement = null;
+		try {
+			conn = getConnection();
+			statement = conn.prepareStatement(UPDATE_JOBSTATUS);
+			for (Map.Entry<Long, byte[]> entry : jobStatuses.entrySet()) {
+				JobStatus jobStatus = (JobStatus) persistenceDataCodec.decode(entry.getValue());
+				setJobStatusParameters(statement, false, entry.getKey(), entry.getValue(), jobStatus);
+				statement.addBatch();
+			}
+			statement.executeBatch();
+			statement.close();
+
+			statement = conn.prepareStatement(UPDATE_STEPSTATUS);
+			for (Map.Entry<Long, byte[]> entry : stepStatuses.entrySet()) {
+				StepStatus stepStatus = (StepStatus) persistenceDataCodec.decode(entry.getValue());
+				int i = setStepStatusParameters(statement, 1, stepStatus);
+				statement.setLong(i, entry.getKey());
+				statement.addBatch();
+			}
+			statement.executeBatch();
+		} catch (IOException e) {
+			throw new PersistenceException(e);
+		} catch (ClassNotFoundException e) {
+			throw new PersistenceException(e);
+		} finally {
+			cleanupConnection(conn, null, statement);
+		}
+		setSchemaVersion(STATUS_COLUMNS_SCHEMA_VERSION);
+		logger.exiting(CLASSNAME, "migrateStatusTables");
+	}
+
+	/**
+	 * @return the version in the SCHEMAVERSION table, 0 if it has none yet
+	 * @throws SQLException
+	 */
+	private int getSchemaVersion() throws SQLException {
+		Connection conn = getConnection();
+		PreparedStatement statement = null;
+		ResultSet rs = null;
+		try {
+			statement = conn.prepareStatement(SELECT_SCHEMAVERSION);
+			rs = statement.executeQuery();
+			return rs.next() ? rs.getInt("version") : 0;
+		} finally {
+			cleanupConnection(conn, rs, statement);
+		}
+	}
+
+	private void setSchemaVersion(int version) throws SQLException {
+		Connection conn = getConnection();
+		PreparedStatement statement = null;
+		try {
+			statement = conn.prepareStatement(UPDATE_SCHEMAVERSION);
+			statement.setInt(1, version);
+			if (statement.executeUpdate() == 0) {
+				statement.close();
+				statement = conn.prepareStatement(INSERT_SCHEMAVERSION);
+				statement.setInt(1, version);
+				statement.executeUpdate();
+			}
+		} finally {
+			cleanupConnection(conn, null, statement);
+		}
+	}
+
+	/**
+	 * @param query SELECT_JOBSTATUS_UNMIGRATED or SELECT_STEPSTATUS_UNMIGRATED
+	 * @return the obj column by id
+	 * @throws SQLException
+	 */
+	private Map<Long, byte[]> queryUnmigratedStatuses(String query) throws SQLException {
+		Map<Long, byte[]> statuses = new HashMap<Long, byte[]>();
+		Connection conn = getConnection();
+		PreparedStatement statement = null;
+		ResultSet rs = null;
+		try {
+			statement = conn.prepareStatement(query);
+			rs = statement.executeQuery();
+			while (rs.next()) {
+				statuses.put(rs.getLong("id"), rs.getBytes("obj"));
+			}
+		} finally {
+			cleanupConnection(conn, rs, statement);
+		}
+		return statuses;
+	}
+
 	/**
 	 * Creates tableName using the createTableStatement DDL.
 	 * 
@@ -299,15 +594,148 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 	@Override
 	public void updateCheckpointData(CheckpointDataKey key, CheckpointData value) {
 		logger.entering(CLASSNAME, "updateCheckpointData", new Object[] {key, value});
-		CheckpointData data = queryCheckpointData(key.getCommaSeparatedKey());
-		if(data != null) {
-			updateCheckpointData(key.getCommaSeparatedKey(), value);
-		} else {
-			createCheckpointData(key, value);
+		updateCheckpointData(Collections.singletonMap(key, value));
+		logger.exiting(CLASSNAME, "updateCheckpointData");
+	}
+
+	/**
+	 * Writes all the checkpoints as one batch on one connection.  Without an upsert statement
+	 * for this database, it updates them all, then inserts any which weren't there yet.
+	 */
+	@Override
+	public void updateCheckpointData(Map<CheckpointDataKey, CheckpointData> checkpoints) {
+		logger.entering(CLASSNAME, "updateCheckpointData", checkpoints);
+		Connection conn = null;
+		PreparedStatement statement = null;
+		try {
+			List<String> keys = new ArrayList<String>(checkpoints.size());
+			List<byte[]> values = new ArrayList<byte[]>(checkpoints.size());
+			for (Map.Entry<CheckpointDataKey, CheckpointData> checkpoint : checkpoints.entrySet()) {
+				keys.add(checkpoint.getKey().getCommaSeparatedKey());
+				values.add(persistenceDataCodec.encode(checkpoint.getValue()));
+			}
+
+			conn = getConnection();
+			if (upsertCheckpointData != null) {
+				statement = conn.prepareStatement(upsertCheckpointData);
+				for (int i = 0; i < keys.size(); i++) {
+					JDBCDialect.setUpsertCheckpointDataParameters(statement, upsertCheckpointData, keys.get(i), values.get(i));
+					statement.addBatch();
+				}
+				statement.executeBatch();
+			} else {
+				statement = conn.prepareStatement(UPDATE_CHECKPOINTDATA);
+				for (int i = 0; i < keys.size(); i++) {
+					statement.setBytes(1, values.get(i));
+					statement.setObject(2, keys.get(i));
+					statement.addBatch();
+				}
+				int[] updateCounts = statement.executeBatch();
+				statement.close();
+				statement = null;
+
+				for (int i = 0; i < updateCounts.length; i++) {
+					if (updateCounts[i] == 0) {
+						if (statement == null) {
+							statement = conn.prepareStatement(INSERT_CHECKPOINTDATA);
+						}
+						statement.setObject(1, keys.get(i));
+						statement.setBytes(2, values.get(i));
+						statement.addBatch();
+					}
+				}
+				if (statement != null) {
+					statement.executeBatch();
+				}
+			}
+		} catch (SQLException e) {
+			throw new PersistenceException(e);
+		} catch (IOException e) {
+			throw new PersistenceException(e);
+		} finally {
+			cleanupConnection(conn, null, statement);
 		}
 		logger.exiting(CLASSNAME, "updateCheckpointData");
 	}
 
+	@Override
+	public Map<Integer, PartitionHistory> getPartitionHistory(String jobName, String stepName) {
+		logger.entering(CLASSNAME, "getPartitionHistory", new Object[] {jobName, stepName});
+		Map<Integer, PartitionHistory> history = new HashMap<Integer, PartitionHistory>();
+		Connection conn = null;
+		PreparedStatement statement = null;
+		ResultSet rs = null;
+		try {
+			conn = getConnection();
+			statement = conn.prepareStatement(SELECT_PARTITIONHISTORY);
+			statement.setString(1, jobName);
+			statement.setString(2, stepName);
+			rs = statement.executeQuery();
+			while (rs.next()) {
+				history.put(rs.getInt("partitionnum"), 
+						new PartitionHistory(rs.getLong("durationmillis"), rs.getLong("itemcount"), rs.getInt("runs")));
+			}
+		} catch (SQLException e) {
+			throw new PersistenceException(e);
+		} finally {
+			cleanupConnection(conn, rs, statement);
+		}
+		logger.exiting(CLASSNAME, "getPartitionHistory", history);
+		return history;
+	}
+
+	/**
+	 * Like updateCheckpointData(), updates all the partitions then inserts any which weren't there yet.
+	 */
+	@Override
+	public void updatePartitionHistory(String jobName, String stepName, Map<Integer, PartitionHistory> history) {
+		logger.entering(CLASSNAME, "updatePartitionHistory", new Object[] {jobName, stepName, history});
+		Connection conn = null;
+		PreparedStatement statement = null;
+		try {
+			List<Integer> partitions = new ArrayList<Integer>(history.keySet());
+
+			conn = getConnection();
+			statement = conn.prepareStatement(UPDATE_PARTITIONHISTORY);
+			for (Integer partition : partitions) {
+				setPartitionHistoryParameters(statement, jobName, stepName, partition, history.get(partition));
+				statement.addBatch();
+			}
+			int[] updateCounts = statement.executeBatch();
+			statement.close();
+			statement = null;
+
+			for (int i = 0; i < updateCounts.length; i++) {
+				if (updateCounts[i] == 0) {
+					if (statement == null) {
+						statement = conn.prepareStatement(INSERT_PARTITIONHISTORY);
+					}
+					setPartitionHistoryParameters(statement, jobName, stepName, partitions.get(i), history.get(partitions.get(i)));
+					statement.addBatch();
+				}
+			}
+			if (statement != null) {
+				statement.executeBatch();
+			}
+		} catch (SQLException e) {
+			throw new PersistenceException(e);
+		} finally {
+			cleanupConnection(conn, null, statement);
+		}
+		logger.exiting(CLASSNAME, "updatePartitionHistory");
+	}
+
+	// The update and insert statements take the same parameters in the same order
+	private void setPartitionHistoryParameters(PreparedStatement statement, String jobName, String stepName, 
+			int partition, PartitionHistory partitionHistory) throws SQLException {
+		statement.setLong(1, partitionHistory.getDurationMillis());
+		statement.setLong(2, partitionHistory.getItemCount());
+		statement.setInt(3, partitionHistory.getRuns());
+		statement.setString(4, jobName);
+		statement.setString(5, stepName);
+		statement.setInt(6, partition);
+	}
+
 
 	/**
 	 * @return the database connection and sets it to the default schema JBATCH or the schema defined in batch-config.
@@ -322,6 +750,12 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 			logger.finest("J2EE mode, getting connection from data source");
 			connection = dataSource.getConnection();
 			logger.finest("autocommit="+connection.getAutoCommit());
+		} else if (connectionPool != null) {
+			// Schema already set when the pool opened it
+			logger.finest("JSE mode, getting pooled connection to " + url);
+			connection = connectionPool.getConnection();
+			logger.finest("Exiting: " + CLASSNAME + ".getConnection() with conn =" + connection);
+			return connection;
 		} else {
 			try {
 				Class.forName(driver);
@@ -392,15 +826,15 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 	private void setSchemaOnConnection(Connection connection) throws SQLException {
 		logger.finest("Entering " + CLASSNAME +".setSchemaOnConnection()");
 
-		String dbProductName = connection.getMetaData().getDatabaseProductName();
-		if (!"Oracle".equals(dbProductName)) {
+		String dbProductName = connection.getMetaData().getDatabaseProductName();
+		if (!"Oracle".equals(dbProductName)) {
 			PreparedStatement ps = null;
-			if ("MySQL".equals(dbProductName)) {
-				ps = connection.prepareStatement("USE " + schema);
-			} else {
-				ps = connection.prepareStatement("SET SCHEMA ?");
-				ps.setString(1, schema);
-			}
+			if ("MySQL".equals(dbProductName)) {
+				ps = connection.prepareStatement("USE " + schema);
+			} else {
+				ps = connection.prepareStatement("SET SCHEMA ?");
+				ps.setString(1, schema);
+			}
 			ps.executeUpdate(); 
 			ps.close();
 		}
@@ -430,7 +864,7 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 			rs = statement.executeQuery();
 			if (rs.next()) {
 				byte[] buf = rs.getBytes("obj");
-				data = (CheckpointData)deserializeObject(buf);
+				data = (CheckpointData)persistenceDataCodec.decode(buf);
 			}
 		} catch (SQLException e) {
 			throw new PersistenceException(e);
@@ -461,21 +895,15 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 	 * 
 	 * Ex. insert into tablename values(?, ?)
 	 */
-	private <T> void insertCheckpointData(Object key, T value) {
+	private void insertCheckpointData(Object key, CheckpointData value) {
 		logger.entering(CLASSNAME, "insertCheckpointData", new Object[] {key, value});
 		Connection conn = null;
 		PreparedStatement statement = null;
-		ByteArrayOutputStream baos = null;
-		ObjectOutputStream oout = null;
 		byte[] b;
 		try {
 			conn = getConnection();
 			statement = conn.prepareStatement(INSERT_CHECKPOINTDATA);
-			baos = new ByteArrayOutputStream();
-			oout = new ObjectOutputStream(baos);
-			oout.writeObject(value);
-
-			b = baos.toByteArray();
+			b = persistenceDataCodec.encode(value);
 
 			statement.setObject(1, key);
 			statement.setBytes(2, b);
@@ -485,76 +913,11 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		} catch (IOException e) {
 			throw new PersistenceException(e);
 		} finally {
-			if (baos != null) {
-				try {
-					baos.close();
-				} catch (IOException e) {
-					throw new PersistenceException(e);
-				}
-			}
-			if (oout != null) {
-				try {
-					oout.close();
-				} catch (IOException e) {
-					throw new PersistenceException(e);
-				}
-			}
 			cleanupConnection(conn, null, statement);
 		}
 		logger.exiting(CLASSNAME, "insertCheckpointData");
 	}
 
-	/**
-	 * update data in DB table
-	 * 
-	 * @param value - serializable object to store 
-	 * @param key - the IPersistenceDataKey object
-	 * @param query - SQL statement to execute. 
-	 * 
-	 * Ex. update tablename set obj = ? where id = ?
-	 */
-	private void updateCheckpointData(Object key, CheckpointData value) {
-		logger.entering(CLASSNAME, "updateCheckpointData", new Object[] {key, value});
-		Connection conn = null;
-		PreparedStatement statement = null;
-		ByteArrayOutputStream baos = null;
-		ObjectOutputStream oout = null;
-		byte[] b;
-		try {
-			conn = getConnection();
-			statement = conn.prepareStatement(UPDATE_CHECKPOINTDATA);
-			baos = new ByteArrayOutputStream();
-			oout = new ObjectOutputStream(baos);
-			oout.writeObject(value);
-
-			b = baos.toByteArray();
-
-			statement.setBytes(1, b);
-			statement.setObject(2, key);
-			statement.executeUpdate();
-		} catch (SQLException e) {
-			throw new PersistenceException(e);
-		} catch (IOException e) {
-			throw new PersistenceException(e);
-		} finally {
-			if (baos != null) {
-				try {
-					baos.close();
-				} catch (IOException e) {
-					throw new PersistenceException(e);
-				}
-			}
-			if (oout != null) {
-				try {
-					oout.close();
-				} catch (IOException e) {
-					throw new PersistenceException(e);
-				}
-			}
-			cleanupConnection(conn, null, statement);
-		}
-		logger.exiting(CLASSNAME, "updateCheckpointData");
-	}
 
 
 
@@ -681,46 +1044,16 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		} catch (SQLException e) {
 			throw new PersistenceException(e);
 		}
-		finally {
-			cleanupConnection(conn, rs, statement);
-		}
-		return count;
-	}
-
-
-	@Override
-	public List<Long> jobOperatorGetJobInstanceIds(String jobName, String appTag, int start, int count) {
-		Connection conn = null;
-		PreparedStatement statement = null;
-		ResultSet rs = null;
-		List<Long> data = new ArrayList<Long>();
-
-		try {
-			conn = getConnection();
-			statement = conn.prepareStatement("select jobinstanceid from jobinstancedata where name = ? and apptag = ? order by jobinstanceid desc");
-			statement.setObject(1, jobName);
-			statement.setObject(2, appTag);
-			rs = statement.executeQuery();
-			while (rs.next()) {
-				long id = rs.getLong("jobinstanceid");
-				data.add(id);
-			}
-		} catch (SQLException e) {
-			throw new PersistenceException(e);
-		}
-		finally {
-			cleanupConnection(conn, rs, statement);
-		}
-
-		if (data.size() > 0){
-			try {
-				return data.subList(start, start+count);
-			}
-			catch (IndexOutOfBoundsException oobEx){
-				return data.subList(start, data.size());
-			}
+		finally {
+			cleanupConnection(conn, rs, statement);
 		}
-		else return data;
+		return count;
+	}
+
+
+	@Override
+	public List<Long> jobOperatorGetJobInstanceIds(String jobName, String appTag, int start, int count) {
+		return queryJobInstanceIds(SELECT_JOBINSTANCEDATA_IDS_BY_APPTAG, start, count, jobName, appTag);
 	}
 
 	@Override
@@ -728,37 +1061,39 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 	 * Returns instance ids sorted from high to low instance id 
 	 */
 	public List<Long> jobOperatorGetJobInstanceIds(String jobName, int start, int count) {
+		return queryJobInstanceIds(SELECT_JOBINSTANCEDATA_IDS, start, count, jobName);
+	}
 
-		Connection conn = null;
-		PreparedStatement statement = null;
-		ResultSet rs = null;
-		List<Long> data = new ArrayList<Long>();
+	@Override
+	public List<Long> jobOperatorGetJobInstanceIdsBefore(String jobName, long beforeInstanceId, int count) {
+		return queryJobInstanceIds(SELECT_JOBINSTANCEDATA_IDS_BEFORE, 0, count, jobName, beforeInstanceId);
+	}
+
+	@Override
+	public List<Long> jobOperatorGetJobInstanceIdsBefore(String jobName, String appTag, long beforeInstanceId, int count) {
+		return queryJobInstanceIds(SELECT_JOBINSTANCEDATA_IDS_BY_APPTAG_BEFORE, 0, count, jobName, appTag, beforeInstanceId);
+	}
 
+	/**
+	 * Runs one of the SELECT_JOBINSTANCEDATA_IDS queries for a page of ids.
+	 * 
+	 * @param query
+	 * @param start number of ids to skip
+	 * @param count maximum number of ids to return
+	 * @param parameters for the query, not including the paging clause
+	 * @return the ids in the order the query returns them
+	 */
+	private List<Long> queryJobInstanceIds(String query, int start, int count, Object... parameters) {
+		Connection conn = null;
 		try {
 			conn = getConnection();
-			statement = conn.prepareStatement(SELECT_JOBINSTANCEDATA_IDS);
-			statement.setObject(1, jobName);
-			rs = statement.executeQuery();
-			while (rs.next()) {
-				long id = rs.getLong("jobinstanceid");
-				data.add(id);
-			}
+			return JDBCDialect.selectPageOfIds(conn, query, pageClause, start, count, parameters);
 		} catch (SQLException e) {
 			throw new PersistenceException(e);
 		}
 		finally {
-			cleanupConnection(conn, rs, statement);
-		}
-
-		if (data.size() > 0){
-			try {
-				return data.subList(start, start+count);
-			}
-			catch (IndexOutOfBoundsException oobEx){
-				return data.subList(start, data.size());
-			}
+			cleanupConnection(conn, null, null);
 		}
-		else return data;
 	}
 
 	@Override
@@ -992,7 +1327,8 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 
 		try {
 			conn = getConnection();
-			statement = conn.prepareStatement("select A.* from stepexecutioninstancedata A inner join executioninstancedata B on A.jobexecid = B.jobexecid where B.jobinstanceid = ? order by A.stepexecid desc"); 
+			statement = conn.prepareStatement("select A.* from stepexecutioninstancedata A inner join executioninstancedata B on A.jobexecid = B.jobexecid where B.jobinstanceid = ? "
+					+ "and A.stepname not like '" + PartitionedStepBuilder.JOB_ID_SEPARATOR + "%' order by A.stepexecid desc"); 
 			statement.setLong(1, instanceId);
 			rs = statement.executeQuery();
 			while (rs.next()) {
@@ -1085,7 +1421,9 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 
 		try {
 			conn = getConnection();
-			statement = conn.prepareStatement("select * from stepexecutioninstancedata where jobexecid = ?"); 
+			// Filter out lightweight partition entries, whose step names start with the special character
+			statement = conn.prepareStatement("select * from stepexecutioninstancedata where jobexecid = ? and stepname not like '"
+					+ PartitionedStepBuilder.JOB_ID_SEPARATOR + "%'"); 
 			statement.setLong(1, execid);
 			rs = statement.executeQuery();
 			while (rs.next()) {
@@ -1248,6 +1586,7 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 			statement.setTimestamp(2, updatets);
 			statement.setLong(3, key);
 			statement.executeUpdate();
+			forgetJobExecution(key);
 		} catch (SQLException e) {
 			e.printStackTrace();
 			throw new PersistenceException(e);
@@ -1291,6 +1630,7 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 			statement.setLong(5, key);
 
 			statement.executeUpdate();
+			forgetJobExecution(key);
 		} catch (SQLException e) {
 			e.printStackTrace();
 			throw new PersistenceException(e);
@@ -1330,6 +1670,7 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 			statement.setLong(4, key);
 
 			statement.executeUpdate();
+			forgetJobExecution(key);
 		} catch (SQLException e) {
 			e.printStackTrace();
 			throw new PersistenceException(e);
@@ -1358,12 +1699,20 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		Connection conn = null;
 		PreparedStatement statement = null;
 		ResultSet rs = null;
-		IJobExecution jobEx = null;
-		ObjectInputStream objectIn = null;
+		JobOperatorJobExecution jobEx = null;
+		long cacheGeneration = 0;
+
+		if (finishedJobExecutions != null) {
+			jobEx = finishedJobExecutions.get(jobExecutionId);
+			if (jobEx != null) {
+				return jobEx;
+			}
+			cacheGeneration = finishedJobExecutions.getGeneration();
+		}
 
 		try {
 			conn = getConnection();
-			statement = conn.prepareStatement("select A.jobexecid, A.createtime, A.starttime, A.endtime, A.updatetime, A.parameters, A.jobinstanceid, A.batchstatus, A.exitstatus, B.name from executioninstancedata A inner join jobinstancedata B on A.jobinstanceid = B.jobinstanceid where jobexecid = ?"); 
+			statement = conn.prepareStatement("select A.jobexecid, A.createtime, A.starttime, A.endtime, A.updatetime, A.parameters, A.jobinstanceid, A.batchstatus, A.exitstatus, B.name, B.apptag from executioninstancedata A inner join jobinstancedata B on A.jobinstanceid = B.jobinstanceid where jobexecid = ?"); 
 			statement.setLong(1, jobExecutionId);
 			rs = statement.executeQuery();
 
@@ -1375,15 +1724,12 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		} catch (ClassNotFoundException e) {
 			throw new PersistenceException(e);
 		} finally {
-			if (objectIn != null) {
-				try {
-					objectIn.close();
-				} catch (IOException e) {
-					throw new PersistenceException(e);
-				}
-			}
 			cleanupConnection(conn, rs, statement);
 		}
+
+		if (jobEx != null && finishedJobExecutions != null) {
+			finishedJobExecutions.put(jobEx, cacheGeneration);
+		}
 		return jobEx;
 	}
 
@@ -1393,15 +1739,19 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		PreparedStatement statement = null;
 		ResultSet rs = null;
 		List<IJobExecution> data = new ArrayList<IJobExecution>();
-		ObjectInputStream objectIn = null;
+		long cacheGeneration = finishedJobExecutions != null ? finishedJobExecutions.getGeneration() : 0;
 
 		try {
 			conn = getConnection();
-			statement = conn.prepareStatement("select A.jobexecid, A.jobinstanceid, A.createtime, A.starttime, A.endtime, A.updatetime, A.parameters, A.batchstatus, A.exitstatus, B.name from executioninstancedata A inner join jobinstancedata B ON A.jobinstanceid = B.jobinstanceid where A.jobinstanceid = ?"); 
+			statement = conn.prepareStatement("select A.jobexecid, A.jobinstanceid, A.createtime, A.starttime, A.endtime, A.updatetime, A.parameters, A.batchstatus, A.exitstatus, B.name, B.apptag from executioninstancedata A inner join jobinstancedata B ON A.jobinstanceid = B.jobinstanceid where A.jobinstanceid = ?"); 
 			statement.setLong(1, jobInstanceId);
 			rs = statement.executeQuery();
 			while (rs.next()) {
-				data.add(readJobExecutionRecord(rs));
+				JobOperatorJobExecution jobEx = readJobExecutionRecord(rs);
+				if (finishedJobExecutions != null) {
+					finishedJobExecutions.put(jobEx, cacheGeneration);
+				}
+				data.add(jobEx);
 			}
 		} catch (SQLException e) {
 			throw new PersistenceException(e);
@@ -1410,19 +1760,16 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		} catch (ClassNotFoundException e) {
 			throw new PersistenceException(e);
 		} finally {
-			if (objectIn != null) {
-				try {
-					objectIn.close();
-				} catch (IOException e) {
-					throw new PersistenceException(e);
-				}
-			}
 			cleanupConnection(conn, rs, statement);
 		}
 		return data;
 	}
 
-	private IJobExecution readJobExecutionRecord(ResultSet rs) throws SQLException, IOException, ClassNotFoundException {
+	/**
+	 * Everything the JobExecution getters need is in the row, so the execution is a snapshot 
+	 * unless it is still running and running executions aren't to be read as snapshots.
+	 */
+	private JobOperatorJobExecution readJobExecutionRecord(ResultSet rs) throws SQLException, IOException, ClassNotFoundException {
 		if (rs == null) {
 			return null;
 		}
@@ -1440,10 +1787,21 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		retMe.setBatchStatus(rs.getString("batchstatus"));
 		retMe.setExitStatus(rs.getString("exitstatus"));
 		retMe.setJobName(rs.getString("name"));
+		retMe.setTagName(rs.getString("apptag"));
+		retMe.setSnapshot(snapshotJobExecutions || retMe.isFinished());
 
 		return retMe;
 	}
 
+	/**
+	 * Called once a change to an execution has been written.
+	 */
+	private void forgetJobExecution(long jobExecutionId) {
+		if (finishedJobExecutions != null) {
+			finishedJobExecutions.remove(jobExecutionId);
+		}
+	}
+
 	@Override
 	public Set<Long> jobOperatorGetRunningExecutions(String jobName){
 		Connection conn = null;
@@ -1532,7 +1890,9 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		} catch (SQLException e) {
 			throw new PersistenceException(e);
 		} finally {
-
+			if (finishedJobExecutions != null) {
+				finishedJobExecutions.clear();
+			}
 			cleanupConnection(conn, null, statement);
 		}
 		logger.exiting(CLASSNAME, "purge");
@@ -1541,29 +1901,9 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 
 	@Override
 	public JobStatus getJobStatusFromExecution(long executionId) {
-
-		Connection conn = null;
-		PreparedStatement statement = null;
-		ResultSet rs = null;
-		JobStatus retVal = null;
-
-		try {
-			conn = getConnection();
-			statement = conn.prepareStatement("select A.obj from jobstatus A inner join " + 
-					"executioninstancedata B on A.id = B.jobinstanceid where B.jobexecid = ?");
-			statement.setLong(1, executionId);
-			rs = statement.executeQuery();
-			byte[] buf = null;
-			if (rs.next()) {
-				buf = rs.getBytes("obj");
-			}
-			retVal = (JobStatus)deserializeObject(buf);
-		} catch (Exception e) {
-			throw new PersistenceException(e);
-		} finally {
-			cleanupConnection(conn, rs, statement);
-		}
-		logger.exiting(CLASSNAME, "executeQuery");
+		logger.entering(CLASSNAME, "getJobStatusFromExecution", executionId);
+		JobStatus retVal = queryJobStatus(SELECT_JOBSTATUS_BY_EXECUTION, executionId);
+		logger.exiting(CLASSNAME, "getJobStatusFromExecution", retVal);
 		return retVal;	
 	}
 
@@ -1756,7 +2096,7 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		StepExecutionImpl stepExecution = null;
 		String batchStatus = stepContext.getBatchStatus() == null ? BatchStatus.STARTING.name() : stepContext.getBatchStatus().name();
 		String exitStatus = stepContext.getExitStatus();
-		String stepName = stepContext.getStepName();
+		String stepName = stepContext.getPersistentStepName();
 		if (logger.isLoggable(Level.FINE)) {
 			logger.fine("batchStatus: " + batchStatus + " | stepName: " + stepName);
 		}
@@ -1989,6 +2329,11 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		long filterCount = 0;
 		long writeSkipCount = 0;
 
+		// Before taking a connection, since these each need one of their own
+		long rootJobInstanceId = getJobInstanceIdByExecutionId(rootJobExecutionId);
+		String partitionLevelJobInstanceWildCard = getPartitionLevelJobInstanceWildCard(rootJobInstanceId, stepName);
+		long zerothPartitionSubJobInstanceId = getMostRecentZerothPartitionSubJobInstanceId(rootJobInstanceId, stepName);
+
 		try {
 			conn = getConnection();
 			statement = conn.prepareStatement("select SUM(STEPEX.readcount) readcount, SUM(STEPEX.writecount) writecount, SUM(STEPEX.commitcount) commitcount,  SUM(STEPEX.rollbackcount) rollbackcount," +
@@ -1998,10 +2343,8 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 					" where JOBEX.jobinstanceid IN" +
 					" (select jobinstanceid from JOBINSTANCEDATA where name like ? and jobinstanceid >= ?)");
 
-			long rootJobInstanceId = getJobInstanceIdByExecutionId(rootJobExecutionId);
-
-			statement.setString(1, getPartitionLevelJobInstanceWildCard(rootJobInstanceId, stepName ));
-			statement.setLong(2, getMostRecentZerothPartitionSubJobInstanceId(rootJobInstanceId, stepName));
+			statement.setString(1, partitionLevelJobInstanceWildCard);
+			statement.setLong(2, zerothPartitionSubJobInstanceId);
 			rs = statement.executeQuery();
 			if(rs.next()) {
 				readCount = rs.getLong("readcount");
@@ -2024,6 +2367,65 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 				writeSkipCount);
 	}	
 
+	/**
+	 * The partition-level StepExecution(s) of lightweight partitions are stored under the job execution(s)
+	 * of the partitioned step itself, named like ":step1:0", ":step1:1", etc.
+	 */
+	@Override
+	public void updateWithFinalLightweightPartitionAggregateStepExecution(long jobInstanceId, long firstPartitionStepExecutionId, 
+			StepContextImpl stepContext) {
+
+		// A step id can contain a '_', which would otherwise match any character
+		String partitionStepNameWildCard = JDBCDialect.escapeLike(PartitionedStepBuilder.JOB_ID_SEPARATOR + stepContext.getStepName() 
+				+ PartitionedStepBuilder.JOB_ID_SEPARATOR) + "%";
+
+		Connection conn = null;
+		PreparedStatement statement = null;
+		ResultSet rs = null;
+
+		long readCount =0;
+		long writeCount = 0;
+		long commitCount = 0;
+		long rollbackCount = 0;
+		long readSkipCount = 0;
+		long processSkipCount = 0;
+		long filterCount = 0;
+		long writeSkipCount = 0;
+
+		try {
+			conn = getConnection();
+			statement = conn.prepareStatement("select SUM(STEPEX.readcount) readcount, SUM(STEPEX.writecount) writecount, SUM(STEPEX.commitcount) commitcount,  SUM(STEPEX.rollbackcount) rollbackcount," +
+					" SUM(STEPEX.readskipcount) readskipcount, SUM(STEPEX.processskipcount) processskipcount, SUM(STEPEX.filtercount) filtercount, SUM(STEPEX.writeSkipCount) writeSkipCount" + 
+					" from stepexecutioninstancedata STEPEX inner join executioninstancedata JOBEX" + 
+					" on STEPEX.jobexecid = JOBEX.jobexecid" +
+					" where JOBEX.jobinstanceid = ? and STEPEX.stepname like ? escape '" + JDBCDialect.LIKE_ESCAPE + "'" +
+					" and STEPEX.stepexecid >= ?");
+
+			statement.setLong(1, jobInstanceId);
+			statement.setString(2, partitionStepNameWildCard);
+			statement.setLong(3, firstPartitionStepExecutionId);
+			rs = statement.executeQuery();
+			if(rs.next()) {
+				readCount = rs.getLong("readcount");
+				writeCount = rs.getLong("writecount");
+				commitCount = rs.getLong("commitcount");
+				rollbackCount = rs.getLong("rollbackcount");
+				readSkipCount = rs.getLong("readskipcount");
+				processSkipCount = rs.getLong("processskipcount");
+				filterCount = rs.getLong("filtercount");
+				writeSkipCount = rs.getLong("writeSkipCount");
+			}
+		} catch (SQLException e) {
+			throw new PersistenceException(e);
+		} finally {
+			cleanupConnection(conn, rs, statement);
+		}
+
+		updateStepExecutionWithMetrics(stepContext,  readCount, 
+				writeCount, commitCount, rollbackCount, readSkipCount, processSkipCount, filterCount,
+				writeSkipCount);
+	}
+
 	private void updateStepExecutionWithMetrics(StepContextImpl stepContext, long readCount, 
 			long writeCount, long commitCount, long rollbackCount, long readSkipCount, long processSkipCount, long filterCount,
 			long writeSkipCount) {
@@ -2031,7 +2433,7 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		long stepExecutionId = stepContext.getInternalStepExecutionId();
 		String batchStatus = stepContext.getBatchStatus() == null ? BatchStatus.STARTING.name() : stepContext.getBatchStatus().name();
 		String exitStatus = stepContext.getExitStatus();
-		String stepName = stepContext.getStepName();
+		String stepName = stepContext.getPersistentStepName();
 		if (logger.isLoggable(Level.FINE)) {
 			logger.fine("batchStatus: " + batchStatus + " | stepName: " + stepName + " | stepExecID: " + stepContext.getStepExecutionId());
 		}
@@ -2087,23 +2489,8 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 	@Override
 	public JobStatus createJobStatus(long jobInstanceId) {
 		logger.entering(CLASSNAME, "createJobStatus", jobInstanceId);
-		Connection conn = null;
-		PreparedStatement statement = null;
 		JobStatus jobStatus = new JobStatus(jobInstanceId);
-		try {
-			conn = getConnection();
-			statement = conn.prepareStatement("INSERT INTO jobstatus (id, obj) VALUES(?, ?)");
-			statement.setLong(1, jobInstanceId);
-			statement.setBytes(2, serializeObject(jobStatus));
-			statement.executeUpdate();
-
-		} catch (SQLException e) {
-			throw new PersistenceException(e);
-		} catch (IOException e) {
-			throw new PersistenceException(e);
-		} finally {
-			cleanupConnection(conn, null, statement);
-		}
+		writeJobStatus(true, jobInstanceId, jobStatus);
 		logger.exiting(CLASSNAME, "createJobStatus");
 		return jobStatus;
 	}
@@ -2114,30 +2501,7 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 	@Override
 	public JobStatus getJobStatus(long instanceId) {
 		logger.entering(CLASSNAME, "getJobStatus", instanceId);
-		Connection conn = null;
-		PreparedStatement statement = null;
-		ResultSet rs = null;
-		RuntimeJobExecution jobExecution = null;
-		String query = "SELECT obj FROM jobstatus WHERE id = ?";
-		JobStatus jobStatus = null;
-
-		try {
-			conn = getConnection();
-			statement = conn.prepareStatement(query);
-			statement.setLong(1, instanceId);
-			rs = statement.executeQuery();
-			if(rs.next()) {
-				jobStatus = (JobStatus)deserializeObject(rs.getBytes(1));
-			}
-		} catch (SQLException e) {
-			throw new PersistenceException(e);
-		} catch (IOException e) {
-			throw new PersistenceException(e);
-		} catch (ClassNotFoundException e) {
-			throw new PersistenceException(e);
-		} finally {
-			cleanupConnection(conn, rs, statement);
-		}
+		JobStatus jobStatus = queryJobStatus(SELECT_JOBSTATUS, instanceId);
 		logger.exiting(CLASSNAME, "getJobStatus", jobStatus);
 		return jobStatus;
 	}
@@ -2151,13 +2515,83 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		if (logger.isLoggable(Level.FINE)) {
 			logger.fine("Updating Job Status to: " + jobStatus.getBatchStatus());
 		}
+		writeJobStatus(false, instanceId, jobStatus);
+		logger.exiting(CLASSNAME, "updateJobStatus");
+	}
+
+	@Override
+	public boolean updateJobStatusBatchStatus(long instanceId, BatchStatus batchStatus) {
+		if (logger.isLoggable(Level.FINE)) {
+			logger.fine("Updating Job Status to: " + batchStatus);
+		}
+		return updateJobStatusColumns(UPDATE_JOBSTATUS_BATCHSTATUS, instanceId, batchStatus.name());
+	}
+
+	@Override
+	public boolean updateJobStatusBatchAndExitStatus(long instanceId, BatchStatus batchStatus, String exitStatus) {
+		if (logger.isLoggable(Level.FINE)) {
+			logger.fine("Updating Job Status to: " + batchStatus + ", exit status: " + exitStatus);
+		}
+		return updateJobStatusColumns(UPDATE_JOBSTATUS_BATCHSTATUS_EXITSTATUS, instanceId, batchStatus.name(), exitStatus);
+	}
+
+	@Override
+	public boolean updateJobStatusCurrentStep(long instanceId, String currentStepId) {
+		return updateJobStatusColumns(UPDATE_JOBSTATUS_CURRENTSTEP, instanceId, currentStepId);
+	}
+
+	@Override
+	public boolean updateJobStatusWithNewExecution(long instanceId, long latestExecutionId) {
+		return updateJobStatusColumns(UPDATE_JOBSTATUS_NEW_EXECUTION, instanceId, BatchStatus.STARTING.name(), latestExecutionId);
+	}
+
+	@Override
+	public boolean updateJobStatusRestartOn(long instanceId, String restartOn) {
+		return updateJobStatusColumns(UPDATE_JOBSTATUS_RESTARTON, instanceId, restartOn);
+	}
+
+	/**
+	 * Runs one of the UPDATE_JOBSTATUS_* statements, whose last parameter is the job instance id.
+	 * 
+	 * @param values the other parameters, in order, either Strings or Longs 
+	 * @return false if there was no row to update
+	 */
+	private boolean updateJobStatusColumns(String sql, long instanceId, Object... values) {
+		Connection conn = null;
+		PreparedStatement statement = null;
+		int rows = 0;
+		try {
+			conn = getConnection();
+			statement = conn.prepareStatement(sql);
+			int i = 1;
+			for (Object value : values) {
+				if (value instanceof Long) {
+					statement.setLong(i++, (Long) value);
+				} else {
+					statement.setString(i++, (String) value);
+				}
+			}
+			statement.setLong(i, instanceId);
+			rows = statement.executeUpdate();
+		} catch (SQLException e) {
+			throw new PersistenceException(e);
+		} finally {
+			cleanupConnection(conn, null, statement);
+		}
+		return rows > 0;
+	}
+
+	/**
+	 * Writes the whole of a JobStatus.  The obj column still holds the encoded JobStatus, since 
+	 * that's where the job instance lives, but the columns are what count for everything else.
+	 */
+	private void writeJobStatus(boolean insert, long instanceId, JobStatus jobStatus) {
 		Connection conn = null;
 		PreparedStatement statement = null;
 		try {
 			conn = getConnection();
-			statement = conn.prepareStatement("UPDATE jobstatus SET obj = ? WHERE id = ?");
-			statement.setBytes(1, serializeObject(jobStatus));
-			statement.setLong(2, instanceId);
+			statement = conn.prepareStatement(insert ? INSERT_JOBSTATUS : UPDATE_JOBSTATUS);
+			setJobStatusParameters(statement, insert, instanceId, persistenceDataCodec.encode(jobStatus), jobStatus);
 			statement.executeUpdate();
 		} catch (SQLException e) {
 			throw new PersistenceException(e);
@@ -2166,8 +2600,62 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		} finally {
 			cleanupConnection(conn, null, statement);
 		}
-		logger.exiting(CLASSNAME, "updateJobStatus");
-	}	
+	}
+
+	/**
+	 * INSERT_JOBSTATUS takes the id first, UPDATE_JOBSTATUS takes it last.
+	 */
+	private void setJobStatusParameters(PreparedStatement statement, boolean insert, long instanceId, byte[] obj, JobStatus jobStatus) throws SQLException {
+		int i = 1;
+		if (insert) {
+			statement.setLong(i++, instanceId);
+		}
+		statement.setBytes(i++, obj);
+		statement.setString(i++, jobStatus.getBatchStatus() == null ? null : jobStatus.getBatchStatus().name());
+		statement.setString(i++, jobStatus.getExitStatus());
+		statement.setString(i++, jobStatus.getCurrentStepId());
+		statement.setLong(i++, jobStatus.getLatestExecutionId());
+		statement.setString(i++, jobStatus.getRestartOn());
+		if (!insert) {
+			statement.setLong(i++, instanceId);
+		}
+	}
+
+	/**
+	 * @param sql SELECT_JOBSTATUS or SELECT_JOBSTATUS_BY_EXECUTION
+	 * @return the JobStatus, or null if there isn't one
+	 */
+	private JobStatus queryJobStatus(String sql, long id) {
+		Connection conn = null;
+		PreparedStatement statement = null;
+		ResultSet rs = null;
+		JobStatus jobStatus = null;
+		try {
+			conn = getConnection();
+			statement = conn.prepareStatement(sql);
+			statement.setLong(1, id);
+			rs = statement.executeQuery();
+			if (rs.next()) {
+				byte[] obj = rs.getBytes("obj");
+				jobStatus = obj == null ? new JobStatus(rs.getLong("id")) : (JobStatus) persistenceDataCodec.decode(obj);
+				String batchStatus = rs.getString("batchstatus");
+				jobStatus.setBatchStatus(batchStatus == null ? null : BatchStatus.valueOf(batchStatus));
+				jobStatus.setExitStatus(rs.getString("exitstatus"));
+				jobStatus.setCurrentStepId(rs.getString("currentstepid"));
+				jobStatus.setLatestExecutionId(rs.getLong("latestexecid"));
+				jobStatus.setRestartOn(rs.getString("restarton"));
+			}
+		} catch (SQLException e) {
+			throw new PersistenceException(e);
+		} catch (IOException e) {
+			throw new PersistenceException(e);
+		} catch (ClassNotFoundException e) {
+			throw new PersistenceException(e);
+		} finally {
+			cleanupConnection(conn, rs, statement);
+		}
+		return jobStatus;
+	}
 
 	/* (non-Javadoc)
 	 * @see com.ibm.jbatch.container.services.IPersistenceManagerService#createStepStatus(long)
@@ -2180,14 +2668,12 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		StepStatus stepStatus = new StepStatus(stepExecId);
 		try {
 			conn = getConnection();
-			statement = conn.prepareStatement("INSERT INTO stepstatus (id, obj) VALUES(?, ?)");
+			statement = conn.prepareStatement(INSERT_STEPSTATUS);
 			statement.setLong(1, stepExecId);
-			statement.setBytes(2, serializeObject(stepStatus));
+			setStepStatusParameters(statement, 2, stepStatus);
 			statement.executeUpdate();
 		} catch (SQLException e) {
 			throw new PersistenceException(e);
-		} catch (IOException e) {
-			throw new PersistenceException(e);
 		} finally {
 			cleanupConnection(conn, null, statement);
 		}
@@ -2204,27 +2690,32 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		Connection conn = null;
 		PreparedStatement statement = null;
 		ResultSet rs = null;
-		RuntimeJobExecution jobExecution = null;
-		String query = "SELECT obj FROM stepstatus WHERE id IN ("
-				+ "SELECT B.stepexecid FROM executioninstancedata A INNER JOIN stepexecutioninstancedata B ON A.jobexecid = B.jobexecid " 
-				+ "WHERE A.jobinstanceid = ? and B.stepname = ?)";
 		StepStatus stepStatus = null;
 
 		try {
 			conn = getConnection();
-			statement = conn.prepareStatement(query);
+			statement = conn.prepareStatement(SELECT_STEPSTATUS);
 			statement.setLong(1, instanceId);
 			statement.setString(2, stepName);
 			rs = statement.executeQuery();
 			if(rs.next()) {
-				stepStatus = (StepStatus)deserializeObject(rs.getBytes(1));
+				stepStatus = new StepStatus(rs.getLong("id"));
+				String batchStatus = rs.getString("batchstatus");
+				stepStatus.setBatchStatus(batchStatus == null ? null : BatchStatus.valueOf(batchStatus));
+				stepStatus.setExitStatus(rs.getString("exitstatus"));
+				stepStatus.setStartCount(rs.getInt("startcount"));
+				int numPartitions = rs.getInt("numpartitions");
+				if (!rs.wasNull()) {
+					stepStatus.setNumPartitions(numPartitions);
+				}
+				stepStatus.setLastRunStepExecutionId(rs.getLong("laststepexecid"));
+				byte[] persistentData = rs.getBytes("persistentdata");
+				if (persistentData != null) {
+					stepStatus.setPersistentUserData(new PersistentDataWrapper(persistentData));
+				}
 			}
 		} catch (SQLException e) {
 			throw new PersistenceException(e);
-		} catch (IOException e) {
-			throw new PersistenceException(e);
-		} catch (ClassNotFoundException e) {
-			throw new PersistenceException(e);
 		} finally {
 			cleanupConnection(conn, rs, statement);
 		}
@@ -2246,20 +2737,39 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 		PreparedStatement statement = null;
 		try {
 			conn = getConnection();
-			statement = conn.prepareStatement("UPDATE stepstatus SET obj = ? WHERE id = ?");
-			statement.setBytes(1, serializeObject(stepStatus));
-			statement.setLong(2, stepExecutionId);
+			statement = conn.prepareStatement(UPDATE_STEPSTATUS);
+			int i = setStepStatusParameters(statement, 1, stepStatus);
+			statement.setLong(i, stepExecutionId);
 			statement.executeUpdate();
 		} catch (SQLException e) {
 			throw new PersistenceException(e);
-		} catch (IOException e) {
-			throw new PersistenceException(e);
 		} finally {
 			cleanupConnection(conn, null, statement);
 		}
 		logger.exiting(CLASSNAME, "updateStepStatus");
 	}
 
+	/**
+	 * Sets the StepStatus columns common to INSERT_STEPSTATUS and UPDATE_STEPSTATUS, starting at
+	 * parameter i.  The persistent user data is already serialized, so nothing is encoded here.
+	 * 
+	 * @return the index of the next parameter
+	 */
+	private int setStepStatusParameters(PreparedStatement statement, int i, StepStatus stepStatus) throws SQLException {
+		statement.setString(i++, stepStatus.getBatchStatus() == null ? null : stepStatus.getBatchStatus().name());
+		statement.setString(i++, stepStatus.getExitStatus());
+		statement.setInt(i++, stepStatus.getStartCount());
+		if (stepStatus.getNumPartitions() == null) {
+			statement.setNull(i++, Types.INTEGER);
+		} else {
+			statement.setInt(i++, stepStatus.getNumPartitions());
+		}
+		statement.setLong(i++, stepStatus.getLastRunStepExecutionId());
+		PersistentDataWrapper persistentData = stepStatus.getPersistentUserDataWrapper();
+		statement.setBytes(i++, persistentData == null ? null : persistentData.getPersistentDataBytes());
+		return i;
+	}
+
 	/* (non-Javadoc)
 	 * @see com.ibm.jbatch.container.services.IPersistenceManagerService#getTagName(long)
 	 */
@@ -2317,8 +2827,9 @@ public class JDBCPersistenceManagerImpl implements IPersistenceManagerService, J
 
 	@Override
 	public void shutdown() throws BatchContainerServiceException {
-		// TODO Auto-generated method stub
-
+		if (connectionPool != null) {
+			connectionPool.close();
+		}
 	}
 
 
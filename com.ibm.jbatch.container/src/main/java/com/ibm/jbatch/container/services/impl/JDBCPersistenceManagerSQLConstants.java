@@ -24,17 +24,53 @@ package com.ibm.jbatch.container.services.impl;
 	 final String JOBINSTANCEDATA_TABLE = "JOBINSTANCEDATA";
 	 final String EXECUTIONINSTANCEDATA_TABLE = "EXECUTIONINSTANCEDATA";
 	 final String STEPEXECUTIONINSTANCEDATA_TABLE = "STEPEXECUTIONINSTANCEDATA";
+	 final String PARTITIONHISTORY_TABLE = "PARTITIONHISTORY";
+	 final String SCHEMAVERSION_TABLE = "SCHEMAVERSION";
 	
 	 final String CREATE_TAB_JOBSTATUS = "CREATE TABLE JOBSTATUS("
 			+ "id BIGINT CONSTRAINT JOBSTATUS_PK PRIMARY KEY," 
 			+ "obj BLOB,"
+			+ "batchstatus VARCHAR(512),"
+			+ "exitstatus VARCHAR(512),"
+			+ "currentstepid VARCHAR(512),"
+			+ "latestexecid BIGINT,"
+			+ "restarton VARCHAR(512),"
 			+ "CONSTRAINT JOBSTATUS_JOBINST_FK FOREIGN KEY (id) REFERENCES JOBINSTANCEDATA (jobinstanceid) ON DELETE CASCADE)";
 	 final String CREATE_TAB_STEPSTATUS = "CREATE TABLE STEPSTATUS("
 			+ "id BIGINT CONSTRAINT STEPSTATUS_PK PRIMARY KEY," 
 			+ "obj BLOB,"
+			+ "batchstatus VARCHAR(512),"
+			+ "exitstatus VARCHAR(512),"
+			+ "startcount INTEGER,"
+			+ "numpartitions INTEGER,"
+			+ "laststepexecid BIGINT,"
+			+ "persistentdata BLOB,"
 			+ "CONSTRAINT STEPSTATUS_STEPEXEC_FK FOREIGN KEY (id) REFERENCES STEPEXECUTIONINSTANCEDATA (stepexecid) ON DELETE CASCADE)";
+	
+	// Brings JOBSTATUS and STEPSTATUS tables created before the status columns up to date
+	 final String[] ALTER_TAB_JOBSTATUS = {
+			"ALTER TABLE JOBSTATUS ADD COLUMN batchstatus VARCHAR(512)",
+			"ALTER TABLE JOBSTATUS ADD COLUMN exitstatus VARCHAR(512)",
+			"ALTER TABLE JOBSTATUS ADD COLUMN currentstepid VARCHAR(512)",
+			"ALTER TABLE JOBSTATUS ADD COLUMN latestexecid BIGINT",
+			"ALTER TABLE JOBSTATUS ADD COLUMN restarton VARCHAR(512)" };
+	 final String[] ALTER_TAB_STEPSTATUS = {
+			"ALTER TABLE STEPSTATUS ADD COLUMN batchstatus VARCHAR(512)",
+			"ALTER TABLE STEPSTATUS ADD COLUMN exitstatus VARCHAR(512)",
+			"ALTER TABLE STEPSTATUS ADD COLUMN startcount INTEGER",
+			"ALTER TABLE STEPSTATUS ADD COLUMN numpartitions INTEGER",
+			"ALTER TABLE STEPSTATUS ADD COLUMN laststepexecid BIGINT",
+			"ALTER TABLE STEPSTATUS ADD COLUMN persistentdata BLOB" };
 	 final String CREATE_TAB_CHECKPOINTDATA = "CREATE TABLE CHECKPOINTDATA("
 			+ "id VARCHAR(512),obj BLOB)";
+	 final String CREATE_TAB_SCHEMAVERSION = "CREATE TABLE SCHEMAVERSION(version INTEGER)";
+	 final String CREATE_TAB_PARTITIONHISTORY = "CREATE TABLE PARTITIONHISTORY("
+			+ "jobname VARCHAR(512),"
+			+ "stepname VARCHAR(512),"
+			+ "partitionnum INTEGER,"
+			+ "durationmillis BIGINT,"
+			+ "itemcount BIGINT,"
+			+ "runs INTEGER)";
 	 final String CREATE_TAB_JOBINSTANCEDATA = "CREATE TABLE JOBINSTANCEDATA("
 			+ "jobinstanceid BIGINT NOT NULL GENERATED ALWAYS AS IDENTITY (START WITH 1, INCREMENT BY 1) CONSTRAINT JOBINSTANCE_PK PRIMARY KEY,"
 			+ "name VARCHAR(512),"
@@ -69,22 +105,57 @@ package com.ibm.jbatch.container.services.impl;
 			+ "persistentData BLOB," 
 			+ "CONSTRAINT JOBEXEC_STEPEXEC_FK FOREIGN KEY (jobexecid) REFERENCES EXECUTIONINSTANCEDATA (jobexecid) ON DELETE CASCADE)";
 	
-	 final String INSERT_JOBSTATUS = "insert into jobstatus values(?, ?)";
+	// The obj column only holds the job instance, the columns win over anything else in it
+	 final String INSERT_JOBSTATUS = "insert into jobstatus (id, obj, batchstatus, exitstatus, currentstepid, latestexecid, restarton) "
+			+ "values(?, ?, ?, ?, ?, ?, ?)";
 	
-	 final String UPDATE_JOBSTATUS = "update jobstatus set obj = ? where id = ?";
+	 final String UPDATE_JOBSTATUS = "update jobstatus set obj = ?, batchstatus = ?, exitstatus = ?, currentstepid = ?, "
+			+ "latestexecid = ?, restarton = ? where id = ?";
 
-	 final String SELECT_JOBSTATUS = "select id, obj from jobstatus where id = ?";
+	 final String SELECT_JOBSTATUS = "select id, obj, batchstatus, exitstatus, currentstepid, latestexecid, restarton "
+			+ "from jobstatus where id = ?";
+	
+	 final String SELECT_JOBSTATUS_BY_EXECUTION = "select A.id, A.obj, A.batchstatus, A.exitstatus, A.currentstepid, A.latestexecid, A.restarton "
+			+ "from jobstatus A inner join executioninstancedata B on A.id = B.jobinstanceid where B.jobexecid = ?";
+	
+	 final String UPDATE_JOBSTATUS_BATCHSTATUS = "update jobstatus set batchstatus = ? where id = ?";
+	
+	 final String UPDATE_JOBSTATUS_BATCHSTATUS_EXITSTATUS = "update jobstatus set batchstatus = ?, exitstatus = ? where id = ?";
+	
+	 final String UPDATE_JOBSTATUS_CURRENTSTEP = "update jobstatus set currentstepid = ? where id = ?";
+	
+	 final String UPDATE_JOBSTATUS_NEW_EXECUTION = "update jobstatus set batchstatus = ?, latestexecid = ?, restarton = null where id = ?";
+	
+	 final String UPDATE_JOBSTATUS_RESTARTON = "update jobstatus set restarton = ? where id = ?";
+	
+	// Rows written before the status columns existed
+	 final String SELECT_JOBSTATUS_UNMIGRATED = "select id, obj from jobstatus where batchstatus is null and obj is not null";
 	
 	 final String DELETE_JOBSTATUS = "delete from jobstatus where id = ?";
 
-	 final String INSERT_STEPSTATUS = "insert into stepstatus values(?, ?)";
+	 final String INSERT_STEPSTATUS = "insert into stepstatus (id, batchstatus, exitstatus, startcount, numpartitions, laststepexecid, persistentdata) "
+			+ "values(?, ?, ?, ?, ?, ?, ?)";
 	
-	 final String UPDATE_STEPSTATUS = "update stepstatus set obj = ? where id = ?";
+	 final String UPDATE_STEPSTATUS = "update stepstatus set batchstatus = ?, exitstatus = ?, startcount = ?, numpartitions = ?, "
+			+ "laststepexecid = ?, persistentdata = ?, obj = null where id = ?";
 
-	 final String SELECT_STEPSTATUS = "select id, obj from stepstatus where id = ?";
+	 final String SELECT_STEPSTATUS = "select id, batchstatus, exitstatus, startcount, numpartitions, laststepexecid, persistentdata "
+			+ "from stepstatus where id in (select B.stepexecid from executioninstancedata A inner join stepexecutioninstancedata B "
+			+ "on A.jobexecid = B.jobexecid where A.jobinstanceid = ? and B.stepname = ?) order by id desc";
+	
+	 final String SELECT_STEPSTATUS_UNMIGRATED = "select id, obj from stepstatus where batchstatus is null and obj is not null";
 	
 	 final String DELETE_STEPSTATUS = "delete from stepstatus where id = ?";
 
+	// The tables are up to date with the status columns filled in, as of this version
+	 final int STATUS_COLUMNS_SCHEMA_VERSION = 1;
+
+	 final String SELECT_SCHEMAVERSION = "select version from schemaversion";
+
+	 final String UPDATE_SCHEMAVERSION = "update schemaversion set version = ?";
+
+	 final String INSERT_SCHEMAVERSION = "insert into schemaversion (version) values(?)";
+
 	 final String INSERT_CHECKPOINTDATA = "insert into checkpointdata values(?, ?)";
 
 	 final String UPDATE_CHECKPOINTDATA = "update checkpointdata set obj = ? where id = ?";
@@ -93,7 +164,36 @@ package com.ibm.jbatch.container.services.impl;
 	
 	 final String CREATE_CHECKPOINTDATA_INDEX = "create index chk_index on checkpointdata(id)";
 	
+	// Covers the instance id queries by job name and apptag
+	 final String CREATE_JOBINSTANCEDATA_INDEX = "create index jobinst_name_index on jobinstancedata(name, apptag, jobinstanceid)";
+	
 	 final String DELETE_CHECKPOINTDATA = "delete from checkpointdata where id = ?";
+
+	 final String SELECT_PARTITIONHISTORY = "select partitionnum, durationmillis, itemcount, runs from partitionhistory "
+			+ "where jobname = ? and stepname = ?";
+
+	 final String UPDATE_PARTITIONHISTORY = "update partitionhistory set durationmillis = ?, itemcount = ?, runs = ? "
+			+ "where jobname = ? and stepname = ? and partitionnum = ?";
+
+	 final String INSERT_PARTITIONHISTORY = "insert into partitionhistory (durationmillis, itemcount, runs, jobname, stepname, partitionnum) "
+			+ "values(?, ?, ?, ?, ?, ?)";
+
+	// Insert or replace a checkpoint in one statement.  Parameters are the id followed by the obj,
+	// repeated where the statement needs them twice.
+	 final String MERGE_CHECKPOINTDATA_DERBY_DB2 = "merge into checkpointdata t using sysibm.sysdummy1 on t.id = ? "
+			+ "when matched then update set obj = ? when not matched then insert (id, obj) values(?, ?)";
+	
+	 final String MERGE_CHECKPOINTDATA_ORACLE = "merge into checkpointdata t using dual on (t.id = ?) "
+			+ "when matched then update set t.obj = ? when not matched then insert (id, obj) values(?, ?)";
+	
+	 final String MERGE_CHECKPOINTDATA_SQLSERVER = "merge into checkpointdata as t using (select 1 as one) as s on t.id = ? "
+			+ "when matched then update set obj = ? when not matched then insert (id, obj) values(?, ?);";
+	
+	 final String UPSERT_CHECKPOINTDATA_POSTGRESQL = "insert into checkpointdata (id, obj) values(?, ?) "
+			+ "on conflict (id) do update set obj = excluded.obj";
+	
+	 final String UPSERT_CHECKPOINTDATA_MYSQL = "insert into checkpointdata (id, obj) values(?, ?) "
+			+ "on duplicate key update obj = values(obj)";
 	
 	// JOB OPERATOR QUERIES
 	 final String INSERT_JOBINSTANCEDATA = "insert into jobinstancedata (name, apptag) values(?, ?)";
@@ -104,6 +204,21 @@ package com.ibm.jbatch.container.services.impl;
 	
 	 final String SELECT_JOBINSTANCEDATA_IDS = "select jobinstanceid from jobinstancedata where name = ? order by jobinstanceid desc";
 	
+	 final String SELECT_JOBINSTANCEDATA_IDS_BY_APPTAG = "select jobinstanceid from jobinstancedata where name = ? and apptag = ? "
+			+ "order by jobinstanceid desc";
+	
+	 final String SELECT_JOBINSTANCEDATA_IDS_BEFORE = "select jobinstanceid from jobinstancedata where name = ? and jobinstanceid < ? "
+			+ "order by jobinstanceid desc";
+	
+	 final String SELECT_JOBINSTANCEDATA_IDS_BY_APPTAG_BEFORE = "select jobinstanceid from jobinstancedata where name = ? and apptag = ? "
+			+ "and jobinstanceid < ? order by jobinstanceid desc";
+	
+	// Appended to the queries above, the parameters are the number of rows to skip then the number to return
+	 final String PAGE_OFFSET_FETCH = " offset ? rows fetch next ? rows only";
+	
+	// As above but the parameters are the other way round
+	 final String PAGE_LIMIT_OFFSET = " limit ? offset ?";
+	
 	 final String SELECT_JOBINSTANCEDATA_NAMES = "select name from jobinstancedata where apptag = ?";
 	 final String SELECT_JOBINSTANCEDATA_APPTAG = "select apptag from jobinstancedata where jobinstanceid = ?";
 	
@@ -16,6 +16,8 @@
 */
 package com.ibm.jbatch.container.services.impl;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -29,28 +31,50 @@ import com.ibm.jbatch.container.servicesmanager.ServicesManager;
 import com.ibm.jbatch.container.servicesmanager.ServicesManagerImpl;
 import com.ibm.jbatch.container.status.JobStatus;
 import com.ibm.jbatch.container.status.StepStatus;
+import com.ibm.jbatch.container.util.BatchContainerConstants;
 import com.ibm.jbatch.spi.services.IBatchConfig;
 
+/**
+ * While an execution runs in this JVM its JobStatus belongs to the container, so unless 
+ * JOB_STATUS_CACHE is false a copy is kept here from the time the execution is created until 
+ * {@link #jobExecutionDone(long)}.  Reads are served from the cached copy.  Every change is 
+ * still written through to the store as it is made, so the store never falls behind, but a 
+ * change which wouldn't alter anything (e.g. the same batch status or current step set twice 
+ * in a row) is dropped without a write.
+ */
 public class JobStatusManagerImpl implements IJobStatusManagerService {
 
     private static final String CLASSNAME = JobStatusManagerImpl.class.getName();
     private static Logger logger = Logger.getLogger(JobStatusManagerImpl.class.getPackage().getName());
     private IPersistenceManagerService _persistenceManager;    
 
+    private boolean cacheEnabled = true;
+
+    // By job instance id, for executions running in this JVM
+    private final ConcurrentMap<Long, OwnedJobStatus> ownedJobStatuses = new ConcurrentHashMap<Long, OwnedJobStatus>();
+
     @Override
     public void shutdown() throws BatchContainerServiceException {
-        // TODO Auto-generated method stub
+        // Nothing is held back, so there's nothing to write out
+        ownedJobStatuses.clear();
     }
 
     @Override
     public JobStatus createJobStatus(long jobInstanceId) throws BatchContainerServiceException {
        JobStatus jobStatus = null;
         jobStatus = _persistenceManager.createJobStatus(jobInstanceId);
+        if (cacheEnabled) {
+            ownedJobStatuses.put(jobInstanceId, new OwnedJobStatus(jobStatus.clone()));
+        }
         return jobStatus;
     }
 
     @Override
     public JobStatus getJobStatus(long jobInstanceId) throws BatchContainerServiceException {
+        OwnedJobStatus owned = ownedJobStatuses.get(jobInstanceId);
+        if (owned != null) {
+            return owned.get();
+        }
         JobStatus jobStatus = null;
         jobStatus = _persistenceManager.getJobStatus(jobInstanceId);
         return jobStatus;
@@ -58,7 +82,12 @@ public class JobStatusManagerImpl implements IJobStatusManagerService {
     
     @Override
     public void updateJobStatus(JobStatus jobStatus) {
-        persistJobStatus(jobStatus.getJobInstanceId(), jobStatus);
+        OwnedJobStatus owned = ownedJobStatuses.get(jobStatus.getJobInstanceId());
+        if (owned != null) {
+            owned.replace(jobStatus);
+        } else {
+            persistJobStatus(jobStatus.getJobInstanceId(), jobStatus);
+        }
     }
     
     @Override
@@ -77,55 +106,80 @@ public class JobStatusManagerImpl implements IJobStatusManagerService {
 
     @Override
     public void updateJobBatchStatus(long jobInstanceId, BatchStatus batchStatus) throws BatchContainerServiceException {
-        JobStatus js = getJobStatus(jobInstanceId);
-        if (js == null) {
-            throw new IllegalStateException("Couldn't find entry to update for id = " + jobInstanceId);
+        OwnedJobStatus owned = ownedJobStatuses.get(jobInstanceId);
+        if (owned != null && !BatchStatus.ABANDONED.equals(batchStatus)) {
+            owned.setBatchStatus(batchStatus);
+            return;
         }
-        if (BatchStatus.ABANDONED.equals(js.getBatchStatus())) {
-        	logger.fine("Don't update batch status for id = " + jobInstanceId + " since it is already ABANDONED"); 
+        if (owned != null) {
+            // Nothing can still be running
+            jobExecutionDone(jobInstanceId);
+        }
+        updateBatchStatus(jobInstanceId, batchStatus);
+    }
+
+    private void updateBatchStatus(long jobInstanceId, BatchStatus batchStatus) {
+        if (!_persistenceManager.updateJobStatusBatchStatus(jobInstanceId, batchStatus)) {
+            throw new IllegalStateException("Couldn't find entry to update for id = " + jobInstanceId);
         }
-        js.setBatchStatus(batchStatus);
-        persistJobStatus(jobInstanceId, js);
     }
 
     @Override
     public void updateJobExecutionStatus(long jobInstanceId, BatchStatus batchStatus, String exitStatus) throws BatchContainerServiceException {
-        JobStatus js = getJobStatus(jobInstanceId);
-        if (js == null) {
+        OwnedJobStatus owned = ownedJobStatuses.get(jobInstanceId);
+        if (owned != null) {
+            owned.setBatchAndExitStatus(batchStatus, exitStatus);
+            return;
+        }
+        updateBatchAndExitStatus(jobInstanceId, batchStatus, exitStatus);
+    }
+
+    private void updateBatchAndExitStatus(long jobInstanceId, BatchStatus batchStatus, String exitStatus) {
+        if (!_persistenceManager.updateJobStatusBatchAndExitStatus(jobInstanceId, batchStatus, exitStatus)) {
             throw new IllegalStateException("Couldn't find entry to update for id = " + jobInstanceId);
         }
-        js.setBatchStatus(batchStatus);
-        js.setExitStatus(exitStatus);
-        persistJobStatus(jobInstanceId, js);
     }
 
     @Override
     public void updateJobCurrentStep(long jobInstanceId, String currentStepName) throws BatchContainerServiceException {
-        JobStatus js = getJobStatus(jobInstanceId);
-        if (js == null) {
+        OwnedJobStatus owned = ownedJobStatuses.get(jobInstanceId);
+        if (owned != null) {
+            owned.setCurrentStepId(currentStepName);
+            return;
+        }
+        updateCurrentStep(jobInstanceId, currentStepName);
+    }
+
+    private void updateCurrentStep(long jobInstanceId, String currentStepName) {
+        if (!_persistenceManager.updateJobStatusCurrentStep(jobInstanceId, currentStepName)) {
             throw new IllegalStateException("Couldn't find entry to update for id = " + jobInstanceId);
         }
-        js.setCurrentStepId(currentStepName);
-        persistJobStatus(jobInstanceId, js);        
     }
 
 
     @Override
     public void updateJobStatusWithNewExecution(long jobInstanceId, long newExecutionId) throws BatchContainerServiceException {
-        JobStatus js = getJobStatus(jobInstanceId);
-        if (js == null) {
+        // Written straight away, since it's the start of the restart
+        if (!_persistenceManager.updateJobStatusWithNewExecution(jobInstanceId, newExecutionId)) {
             throw new IllegalStateException("Couldn't find entry to update for id = " + jobInstanceId);
         }
-        js.setRestartOn(null);
-        js.setLatestExecutionId(newExecutionId);
-        js.setBatchStatus(BatchStatus.STARTING);
-        persistJobStatus(jobInstanceId, js);                
+        if (cacheEnabled) {
+            JobStatus jobStatus = _persistenceManager.getJobStatus(jobInstanceId);
+            if (jobStatus != null) {
+                ownedJobStatuses.put(jobInstanceId, new OwnedJobStatus(jobStatus));
+            }
+        }
     }
 
     private void persistJobStatus(long jobInstanceId, JobStatus newJobStatus) throws BatchContainerServiceException {       
         _persistenceManager.updateJobStatus(jobInstanceId, newJobStatus);
     }
 
+    @Override
+    public void jobExecutionDone(long jobInstanceId) {
+        ownedJobStatuses.remove(jobInstanceId);
+    }
+
     @Override
     public StepStatus createStepStatus(long stepExecutionId) throws BatchContainerServiceException {        
         return _persistenceManager.createStepStatus(stepExecutionId);
@@ -163,19 +217,83 @@ public class JobStatusManagerImpl implements IJobStatusManagerService {
 
         _persistenceManager = sm.getPersistenceManagerService();
 
+        if (batchConfig != null && batchConfig.getConfigProperties() != null) {
+            cacheEnabled = Boolean.parseBoolean(batchConfig.getConfigProperties().getProperty(
+                    BatchContainerConstants.JOB_STATUS_CACHE, "true"));
+        }
+        logger.config("Job status cache enabled: " + cacheEnabled);
+
         if(logger.isLoggable(Level.FINER)) { logger.exiting(CLASSNAME, method);}
     }
 
     @Override
-    /*
-     * Inefficient, since we've already updated the status to stopped.. would be better to have a single update.
-     */
     public void updateJobStatusFromJSLStop(long jobInstanceId, String restartOn) throws BatchContainerServiceException {       
-        JobStatus js = getJobStatus(jobInstanceId);        
-        if (js == null) {
+        OwnedJobStatus owned = ownedJobStatuses.get(jobInstanceId);
+        if (owned != null) {
+            owned.setRestartOn(restartOn);
+            return;
+        }
+        updateRestartOn(jobInstanceId, restartOn);
+    }
+
+    private void updateRestartOn(long jobInstanceId, String restartOn) {
+        if (!_persistenceManager.updateJobStatusRestartOn(jobInstanceId, restartOn)) {
             throw new IllegalStateException("Couldn't find entry to update for id = " + jobInstanceId);
         }
-        js.setRestartOn(restartOn);
-        persistJobStatus(jobInstanceId, js);   
+    }
+
+    private static boolean same(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    /**
+     * The JobStatus of a job instance with an execution running in this JVM, as last written.
+     * Each change is written under the lock, so the store sees them in the order they're made.
+     */
+    private class OwnedJobStatus {
+
+        private JobStatus jobStatus;
+
+        private OwnedJobStatus(JobStatus jobStatus) {
+            this.jobStatus = jobStatus;
+        }
+
+        private synchronized JobStatus get() {
+            return jobStatus.clone();
+        }
+
+        private synchronized void replace(JobStatus newJobStatus) {
+            persistJobStatus(newJobStatus.getJobInstanceId(), newJobStatus);
+            jobStatus = newJobStatus.clone();
+        }
+
+        private synchronized void setBatchStatus(BatchStatus batchStatus) {
+            if (!same(batchStatus, jobStatus.getBatchStatus())) {
+                updateBatchStatus(jobStatus.getJobInstanceId(), batchStatus);
+                jobStatus.setBatchStatus(batchStatus);
+            }
+        }
+
+        private synchronized void setBatchAndExitStatus(BatchStatus batchStatus, String exitStatus) {
+            if (!same(batchStatus, jobStatus.getBatchStatus()) || !same(exitStatus, jobStatus.getExitStatus())) {
+                updateBatchAndExitStatus(jobStatus.getJobInstanceId(), batchStatus, exitStatus);
+                jobStatus.setBatchStatus(batchStatus);
+                jobStatus.setExitStatus(exitStatus);
+            }
+        }
+
+        private synchronized void setCurrentStepId(String currentStepId) {
+            if (!same(currentStepId, jobStatus.getCurrentStepId())) {
+                updateCurrentStep(jobStatus.getJobInstanceId(), currentStepId);
+                jobStatus.setCurrentStepId(currentStepId);
+            }
+        }
+
+        private synchronized void setRestartOn(String restartOn) {
+            if (!same(restartOn, jobStatus.getRestartOn())) {
+                updateRestartOn(jobStatus.getJobInstanceId(), restartOn);
+                jobStatus.setRestartOn(restartOn);
+            }
+        }
     }
 }
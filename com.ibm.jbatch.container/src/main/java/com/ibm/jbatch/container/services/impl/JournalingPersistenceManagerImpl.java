@@ -0,0 +1,814 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.services.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.batch.operations.NoSuchJobExecutionException;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobInstance;
+import javax.batch.runtime.StepExecution;
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import com.ibm.jbatch.container.context.impl.StepContextImpl;
+import com.ibm.jbatch.container.exception.BatchContainerServiceException;
+import com.ibm.jbatch.container.exception.PersistenceException;
+import com.ibm.jbatch.container.jobinstance.RuntimeFlowInSplitExecution;
+import com.ibm.jbatch.container.jobinstance.RuntimeJobExecution;
+import com.ibm.jbatch.container.jobinstance.StepExecutionImpl;
+import com.ibm.jbatch.container.persistence.CheckpointData;
+import com.ibm.jbatch.container.persistence.CheckpointDataKey;
+import com.ibm.jbatch.container.persistence.PartitionHistory;
+import com.ibm.jbatch.container.services.IJobExecution;
+import com.ibm.jbatch.container.services.IPersistenceDataCodecService;
+import com.ibm.jbatch.container.services.IPersistenceManagerService;
+import com.ibm.jbatch.container.servicesmanager.ServicesManagerImpl;
+import com.ibm.jbatch.container.status.JobStatus;
+import com.ibm.jbatch.container.status.StepStatus;
+import com.ibm.jbatch.container.util.BatchContainerConstants;
+import com.ibm.jbatch.spi.services.IBatchConfig;
+
+/**
+ * Wraps another persistence manager, by default {@link JDBCPersistenceManagerImpl}, so that 
+ * checkpoint data and step status, which are written at every checkpoint, only have to reach
+ * a local journal file before the chunk can carry on.  A background thread copies the latest 
+ * of each into the wrapped persistence manager every JOURNAL_COMPACTION_INTERVAL milliseconds, 
+ * after which the journal can be emptied.  Anything else goes straight to the wrapped persistence 
+ * manager.
+ * 
+ * A step status other than STARTED, e.g. at the end of the step, is copied across straight away 
+ * too, so the job operator sees the step finish as soon as it does.
+ * 
+ * Anything still only in the journal when the JVM stops is copied across on the next 
+ * {@link #init(IBatchConfig)}, before a restart can read it.  So the journal file must be kept
+ * with the wrapped persistent store, and used by only one JVM.
+ * 
+ * In Java EE, an update made in a JTA transaction, i.e. the checkpoint of a chunk, is only journaled 
+ * once the transaction commits, and not at all if it rolls back, so the journal can't get ahead of 
+ * the chunk's data.  If the JVM stops in between, a restart goes back to the previous checkpoint.
+ */
+public class JournalingPersistenceManagerImpl implements IPersistenceManagerService {
+
+	private final static String sourceClass = JournalingPersistenceManagerImpl.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	private static final String DEFAULT_DELEGATE = JDBCPersistenceManagerImpl.class.getName();
+	private static final String DEFAULT_JOURNAL_FILE = "jbatch-journal.dat";
+	private static final String DEFAULT_JOURNAL_SIZE = "16777216";
+	private static final String DEFAULT_COMPACTION_INTERVAL = "1000";
+
+	private static final byte RECORD_CHECKPOINT_DATA = 1;
+	private static final byte RECORD_STEP_STATUS = 2;
+	private static final byte RECORD_PURGE = 3;
+
+	private static final String SYNCHRONIZATION_REGISTRY = "java:comp/TransactionSynchronizationRegistry";
+
+	private IPersistenceManagerService delegate = null;
+	private IPersistenceDataCodecService persistenceDataCodec = null;
+	private PersistenceJournal journal = null;
+	private ScheduledExecutorService compactor = null;
+	private TransactionSynchronizationRegistry synchronizationRegistry = null;
+
+	// Journaled but not yet copied to the delegate.  Only added to while holding the 
+	// journal's lock, so the journal can be emptied once both are empty.
+	private final ConcurrentMap<String, PendingCheckpoint> pendingCheckpoints = new ConcurrentHashMap<String, PendingCheckpoint>();
+	private final ConcurrentMap<Long, byte[]> pendingStepStatuses = new ConcurrentHashMap<Long, byte[]>();
+
+	// Held while copying to the delegate, so an older value can't overwrite a newer one.
+	private final Object compactionLock = new Object();
+	private final AtomicBoolean compactionRequested = new AtomicBoolean(false);
+
+	private final Runnable compactionTask = new Runnable() {
+		@Override
+		public void run() {
+			compactionRequested.set(false);
+			try {
+				compact();
+			} catch (RuntimeException e) {
+				// Still journaled, so try again next time
+				logger.log(Level.WARNING, "Failed to copy journaled data to persistent store, will retry", e);
+			}
+		}
+	};
+
+	@Override
+	public void init(IBatchConfig batchConfig) throws BatchContainerServiceException {
+		logger.config("Entering " + sourceClass + ".init(), batchConfig =" + batchConfig);
+
+		Properties props = batchConfig.getConfigProperties() != null ? batchConfig.getConfigProperties() : new Properties();
+
+		String delegateClassName = props.getProperty(BatchContainerConstants.JOURNAL_PERSISTENCE_DELEGATE, DEFAULT_DELEGATE).trim();
+		try {
+			Class<?> cls;
+			try {
+				cls = Class.forName(delegateClassName);
+			} catch (ClassNotFoundException cnfe) {
+				cls = Thread.currentThread().getContextClassLoader().loadClass(delegateClassName);
+			}
+			delegate = (IPersistenceManagerService) cls.newInstance();
+		} catch (Exception e) {
+			throw new BatchContainerServiceException("Could not instantiate persistence manager: " + delegateClassName, e);
+		}
+		delegate.init(batchConfig);
+
+		persistenceDataCodec = ServicesManagerImpl.getInstance().getPersistenceDataCodecService();
+
+		if (!batchConfig.isJ2seMode()) {
+			try {
+				synchronizationRegistry = (TransactionSynchronizationRegistry) new InitialContext().lookup(SYNCHRONIZATION_REGISTRY);
+			} catch (NamingException e) {
+				logger.warning("Caught exception: " + e.getMessage() + " looking up " + SYNCHRONIZATION_REGISTRY 
+						+ ", so updates will be journaled without waiting for their transaction to commit");
+			}
+		}
+
+		File journalFile = new File(props.getProperty(BatchContainerConstants.JOURNAL_FILE, DEFAULT_JOURNAL_FILE).trim());
+		int journalSize = getIntConfigProperty(props, BatchContainerConstants.JOURNAL_SIZE, DEFAULT_JOURNAL_SIZE);
+		long compactionInterval = getIntConfigProperty(props, BatchContainerConstants.JOURNAL_COMPACTION_INTERVAL, DEFAULT_COMPACTION_INTERVAL);
+		if (compactionInterval <= 0) {
+			throw new BatchContainerServiceException("Value of " + BatchContainerConstants.JOURNAL_COMPACTION_INTERVAL 
+					+ " must be greater than 0: " + compactionInterval);
+		}
+
+		try {
+			journal = new PersistenceJournal(journalFile, journalSize);
+		} catch (IOException e) {
+			throw new BatchContainerServiceException("Could not open journal: " + journalFile.getAbsolutePath(), e);
+		}
+
+		replay();
+
+		compactor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "jbatch-journal-compactor");
+				t.setDaemon(true);
+				return t;
+			}
+		});
+		compactor.scheduleWithFixedDelay(compactionTask, compactionInterval, compactionInterval, TimeUnit.MILLISECONDS);
+
+		logger.config("Journaling to: " + journalFile.getAbsolutePath() + " in front of: " + delegateClassName 
+				+ ", compacting every " + compactionInterval + " ms");
+	}
+
+	@Override
+	public void shutdown() throws BatchContainerServiceException {
+		if (compactor != null) {
+			compactor.shutdown();
+		}
+		try {
+			compact();
+		} catch (RuntimeException e) {
+			logger.log(Level.WARNING, "Failed to copy journaled data to persistent store, leaving it in the journal", e);
+		}
+		try {
+			journal.close();
+		} catch (IOException e) {
+			logger.log(Level.WARNING, "Failed to close journal", e);
+		}
+		delegate.shutdown();
+	}
+
+	/**
+	 * Copy anything left in the journal from the last time to the delegate.
+	 */
+	private void replay() {
+		int count = 0;
+		for (byte[] record : journal.readRecords()) {
+			try {
+				DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+				byte type = in.readByte();
+				if (type == RECORD_CHECKPOINT_DATA) {
+					CheckpointDataKey key = new CheckpointDataKey(in.readLong(), in.readUTF(), in.readUTF());
+					pendingCheckpoints.put(key.getCommaSeparatedKey(), new PendingCheckpoint(key, readData(in)));
+				} else if (type == RECORD_STEP_STATUS) {
+					long stepExecutionId = in.readLong();
+					pendingStepStatuses.put(stepExecutionId, readData(in));
+				} else if (type == RECORD_PURGE) {
+					Set<Long> jobInstanceIds = readIds(in);
+					Set<Long> stepExecutionIds = readIds(in);
+					dropPending(jobInstanceIds, stepExecutionIds);
+				} else {
+					throw new BatchContainerServiceException("Unknown record type: " + type + " in journal");
+				}
+				count++;
+			} catch (IOException e) {
+				throw new BatchContainerServiceException("Could not read journal", e);
+			}
+		}
+		if (count > 0) {
+			logger.info("Replaying " + count + " journaled updates");
+		}
+		compact();
+	}
+
+	/**
+	 * Copy the latest journaled data to the delegate, and empty the journal if nothing 
+	 * new was journaled in the meantime.
+	 */
+	void compact() {
+		synchronized (compactionLock) {
+			Map<CheckpointDataKey, CheckpointData> checkpoints = new LinkedHashMap<CheckpointDataKey, CheckpointData>();
+			Map<String, PendingCheckpoint> copiedCheckpoints = new LinkedHashMap<String, PendingCheckpoint>(pendingCheckpoints);
+			for (PendingCheckpoint pending : copiedCheckpoints.values()) {
+				checkpoints.put(pending.key, (CheckpointData) decode(pending.data));
+			}
+			if (!checkpoints.isEmpty()) {
+				delegate.updateCheckpointData(checkpoints);
+			}
+			for (Map.Entry<String, PendingCheckpoint> entry : copiedCheckpoints.entrySet()) {
+				pendingCheckpoints.remove(entry.getKey(), entry.getValue());
+			}
+
+			for (Map.Entry<Long, byte[]> entry : new LinkedHashMap<Long, byte[]>(pendingStepStatuses).entrySet()) {
+				delegate.updateStepStatus(entry.getKey(), (StepStatus) decode(entry.getValue()));
+				pendingStepStatuses.remove(entry.getKey(), entry.getValue());
+			}
+
+			synchronized (journal) {
+				if (pendingCheckpoints.isEmpty() && pendingStepStatuses.isEmpty()) {
+					journal.reset();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Append records to the journal, and wait for them to be on disk.  If the journal is 
+	 * full, copy what's in it to the delegate first.
+	 */
+	private void journal(List<byte[]> records, Runnable addPending) {
+		int length = PersistenceJournal.getLength(records);
+		if (length > journal.getMaxLength()) {
+			throw new PersistenceException("Update of " + length + " bytes is too big for the journal, increase " 
+					+ BatchContainerConstants.JOURNAL_SIZE);
+		}
+		long position;
+		while (true) {
+			synchronized (journal) {
+				position = journal.append(records);
+				if (position > 0) {
+					addPending.run();
+					break;
+				}
+			}
+			logger.fine("Journal is full, compacting");
+			compact();
+		}
+		journal.sync(position);
+
+		if (journal.getUsage() > 0.5f && compactionRequested.compareAndSet(false, true)) {
+			compactor.execute(compactionTask);
+		}
+	}
+
+	/**
+	 * In a JTA transaction, hold the update back until the transaction has committed, dropping it 
+	 * if it rolls back.  Otherwise make it now.
+	 */
+	private void journalWhenCommitted(final Runnable update) {
+		if (synchronizationRegistry == null || synchronizationRegistry.getTransactionStatus() != Status.STATUS_ACTIVE) {
+			update.run();
+			return;
+		}
+		synchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+			@Override
+			public void beforeCompletion() {
+			}
+
+			@Override
+			public void afterCompletion(int status) {
+				if (status == Status.STATUS_COMMITTED) {
+					try {
+						update.run();
+					} catch (RuntimeException e) {
+						logger.log(Level.SEVERE, "Failed to journal update after its transaction committed, " 
+								+ "a restart will go back to the previous checkpoint", e);
+					}
+				}
+			}
+		});
+	}
+
+	// CHECKPOINTDATA
+
+	@Override
+	public void createCheckpointData(CheckpointDataKey key, CheckpointData value) {
+		updateCheckpointData(key, value);
+	}
+
+	@Override
+	public CheckpointData getCheckpointData(CheckpointDataKey key) {
+		PendingCheckpoint pending = pendingCheckpoints.get(key.getCommaSeparatedKey());
+		if (pending != null) {
+			return (CheckpointData) decode(pending.data);
+		}
+		return delegate.getCheckpointData(key);
+	}
+
+	@Override
+	public void updateCheckpointData(CheckpointDataKey key, CheckpointData value) {
+		updateCheckpointData(Collections.singletonMap(key, value));
+	}
+
+	/**
+	 * Journals all the checkpoints together, so they share one sync.
+	 */
+	@Override
+	public void updateCheckpointData(Map<CheckpointDataKey, CheckpointData> checkpoints) {
+		final List<PendingCheckpoint> pending = new ArrayList<PendingCheckpoint>(checkpoints.size());
+		List<byte[]> records = new ArrayList<byte[]>(checkpoints.size());
+		try {
+			for (Map.Entry<CheckpointDataKey, CheckpointData> entry : checkpoints.entrySet()) {
+				CheckpointDataKey key = entry.getKey();
+				byte[] data = encode(entry.getValue());
+				pending.add(new PendingCheckpoint(key, data));
+
+				ByteArrayOutputStream baos = new ByteArrayOutputStream(data.length + 64);
+				DataOutputStream out = new DataOutputStream(baos);
+				out.writeByte(RECORD_CHECKPOINT_DATA);
+				out.writeLong(key.getJobInstanceId());
+				out.writeUTF(key.getStepName());
+				out.writeUTF(key.getBatchDataStreamName());
+				writeData(out, data);
+				out.close();
+				records.add(baos.toByteArray());
+			}
+		} catch (IOException e) {
+			throw new PersistenceException(e);
+		}
+
+		final List<byte[]> journalRecords = records;
+		journalWhenCommitted(new Runnable() {
+			@Override
+			public void run() {
+				journal(journalRecords, new Runnable() {
+					@Override
+					public void run() {
+						for (PendingCheckpoint checkpoint : pending) {
+							pendingCheckpoints.put(checkpoint.key.getCommaSeparatedKey(), checkpoint);
+						}
+					}
+				});
+			}
+		});
+	}
+
+	// STEP_STATUS
+
+	@Override
+	public StepStatus createStepStatus(long stepExecId) {
+		return delegate.createStepStatus(stepExecId);
+	}
+
+	@Override
+	public StepStatus getStepStatus(long instanceId, String stepName) {
+		StepStatus stepStatus = delegate.getStepStatus(instanceId, stepName);
+		if (stepStatus != null) {
+			byte[] pending = pendingStepStatuses.get(stepStatus.getStepExecutionId());
+			if (pending != null) {
+				return (StepStatus) decode(pending);
+			}
+		}
+		return stepStatus;
+	}
+
+	@Override
+	public void updateStepStatus(final long stepExecutionId, final StepStatus stepStatus) {
+		final byte[] data = encode(stepStatus);
+		journalWhenCommitted(new Runnable() {
+			@Override
+			public void run() {
+				journalStepStatus(stepExecutionId, stepStatus.getBatchStatus(), data);
+			}
+		});
+	}
+
+	private void journalStepStatus(final long stepExecutionId, BatchStatus batchStatus, final byte[] data) {
+		try {
+			ByteArrayOutputStream baos = new ByteArrayOutputStream(data.length + 16);
+			DataOutputStream out = new DataOutputStream(baos);
+			out.writeByte(RECORD_STEP_STATUS);
+			out.writeLong(stepExecutionId);
+			writeData(out, data);
+			out.close();
+			journal(Collections.singletonList(baos.toByteArray()), new Runnable() {
+				@Override
+				public void run() {
+					pendingStepStatuses.put(stepExecutionId, data);
+				}
+			});
+		} catch (IOException e) {
+			throw new PersistenceException(e);
+		}
+
+		if (!BatchStatus.STARTED.equals(batchStatus)) {
+			synchronized (compactionLock) {
+				byte[] latest = pendingStepStatuses.get(stepExecutionId);
+				if (latest != null) {
+					delegate.updateStepStatus(stepExecutionId, (StepStatus) decode(latest));
+					pendingStepStatuses.remove(stepExecutionId, latest);
+				}
+			}
+		}
+	}
+
+	// Everything else goes straight to the delegate
+
+	@Override
+	public int jobOperatorGetJobInstanceCount(String jobName) {
+		return delegate.jobOperatorGetJobInstanceCount(jobName);
+	}
+
+	@Override
+	public int jobOperatorGetJobInstanceCount(String jobName, String appTag) {
+		return delegate.jobOperatorGetJobInstanceCount(jobName, appTag);
+	}
+
+	@Override
+	public Map<Long, String> jobOperatorGetExternalJobInstanceData() {
+		return delegate.jobOperatorGetExternalJobInstanceData();
+	}
+
+	@Override
+	public List<Long> jobOperatorGetJobInstanceIds(String jobName, int start, int count) {
+		return delegate.jobOperatorGetJobInstanceIds(jobName, start, count);
+	}
+
+	@Override
+	public List<Long> jobOperatorGetJobInstanceIds(String jobName, String appTag, int start, int count) {
+		return delegate.jobOperatorGetJobInstanceIds(jobName, appTag, start, count);
+	}
+
+	@Override
+	public List<Long> jobOperatorGetJobInstanceIdsBefore(String jobName, long beforeInstanceId, int count) {
+		return delegate.jobOperatorGetJobInstanceIdsBefore(jobName, beforeInstanceId, count);
+	}
+
+	@Override
+	public List<Long> jobOperatorGetJobInstanceIdsBefore(String jobName, String appTag, long beforeInstanceId, int count) {
+		return delegate.jobOperatorGetJobInstanceIdsBefore(jobName, appTag, beforeInstanceId, count);
+	}
+
+	@Override
+	public Timestamp jobOperatorQueryJobExecutionTimestamp(long key, TimestampType timetype) {
+		return delegate.jobOperatorQueryJobExecutionTimestamp(key, timetype);
+	}
+
+	@Override
+	public String jobOperatorQueryJobExecutionBatchStatus(long key) {
+		return delegate.jobOperatorQueryJobExecutionBatchStatus(key);
+	}
+
+	@Override
+	public String jobOperatorQueryJobExecutionExitStatus(long key) {
+		return delegate.jobOperatorQueryJobExecutionExitStatus(key);
+	}
+
+	@Override
+	public long jobOperatorQueryJobExecutionJobInstanceId(long executionID) throws NoSuchJobExecutionException {
+		return delegate.jobOperatorQueryJobExecutionJobInstanceId(executionID);
+	}
+
+	@Override
+	public List<StepExecution> getStepExecutionsForJobExecution(long execid) {
+		return delegate.getStepExecutionsForJobExecution(execid);
+	}
+
+	@Override
+	public Map<String, StepExecution> getMostRecentStepExecutionsForJobInstance(long instanceId) {
+		return delegate.getMostRecentStepExecutionsForJobInstance(instanceId);
+	}
+
+	@Override
+	public void updateBatchStatusOnly(long executionId, BatchStatus batchStatus, Timestamp timestamp) {
+		delegate.updateBatchStatusOnly(executionId, batchStatus, timestamp);
+	}
+
+	@Override
+	public void markJobStarted(long key, Timestamp startTS) {
+		delegate.markJobStarted(key, startTS);
+	}
+
+	@Override
+	public void updateWithFinalExecutionStatusesAndTimestamps(long key, BatchStatus batchStatus, String exitStatus, Timestamp updatets) {
+		delegate.updateWithFinalExecutionStatusesAndTimestamps(key, batchStatus, exitStatus, updatets);
+	}
+
+	@Override
+	public IJobExecution jobOperatorGetJobExecution(long jobExecutionId) {
+		return delegate.jobOperatorGetJobExecution(jobExecutionId);
+	}
+
+	@Override
+	public Properties getParameters(long executionId) throws NoSuchJobExecutionException {
+		return delegate.getParameters(executionId);
+	}
+
+	@Override
+	public List<IJobExecution> jobOperatorGetJobExecutions(long jobInstanceId) {
+		return delegate.jobOperatorGetJobExecutions(jobInstanceId);
+	}
+
+	@Override
+	public Set<Long> jobOperatorGetRunningExecutions(String jobName) {
+		return delegate.jobOperatorGetRunningExecutions(jobName);
+	}
+
+	@Override
+	public String getJobCurrentTag(long jobInstanceId) {
+		return delegate.getJobCurrentTag(jobInstanceId);
+	}
+
+	/**
+	 * Also drops what's journaled for the job instances purged, and journals that it did, so a 
+	 * replay doesn't bring any of it back.
+	 */
+	@Override
+	public void purge(String apptag) {
+		synchronized (compactionLock) {
+			// Whatever was there before the purge and isn't after
+			Set<Long> jobInstanceIds = new HashSet<Long>();
+			for (PendingCheckpoint pending : pendingCheckpoints.values()) {
+				if (delegate.getJobStatus(pending.key.getJobInstanceId()) != null) {
+					jobInstanceIds.add(pending.key.getJobInstanceId());
+				}
+			}
+			Set<Long> stepExecutionIds = new HashSet<Long>();
+			for (Long stepExecutionId : pendingStepStatuses.keySet()) {
+				if (delegate.getStepExecutionByStepExecutionId(stepExecutionId) != null) {
+					stepExecutionIds.add(stepExecutionId);
+				}
+			}
+
+			delegate.purge(apptag);
+
+			for (Iterator<Long> iter = jobInstanceIds.iterator(); iter.hasNext();) {
+				if (delegate.getJobStatus(iter.next()) != null) {
+					iter.remove();
+				}
+			}
+			for (Iterator<Long> iter = stepExecutionIds.iterator(); iter.hasNext();) {
+				if (delegate.getStepExecutionByStepExecutionId(iter.next()) != null) {
+					iter.remove();
+				}
+			}
+			if (jobInstanceIds.isEmpty() && stepExecutionIds.isEmpty()) {
+				return;
+			}
+
+			final Set<Long> purgedJobInstanceIds = jobInstanceIds;
+			final Set<Long> purgedStepExecutionIds = stepExecutionIds;
+			try {
+				ByteArrayOutputStream baos = new ByteArrayOutputStream();
+				DataOutputStream out = new DataOutputStream(baos);
+				out.writeByte(RECORD_PURGE);
+				writeIds(out, purgedJobInstanceIds);
+				writeIds(out, purgedStepExecutionIds);
+				out.close();
+				journal(Collections.singletonList(baos.toByteArray()), new Runnable() {
+					@Override
+					public void run() {
+						dropPending(purgedJobInstanceIds, purgedStepExecutionIds);
+					}
+				});
+			} catch (IOException e) {
+				throw new PersistenceException(e);
+			}
+		}
+	}
+
+	private void dropPending(Set<Long> jobInstanceIds, Set<Long> stepExecutionIds) {
+		for (Iterator<PendingCheckpoint> iter = pendingCheckpoints.values().iterator(); iter.hasNext();) {
+			if (jobInstanceIds.contains(iter.next().key.getJobInstanceId())) {
+				iter.remove();
+			}
+		}
+		pendingStepStatuses.keySet().removeAll(stepExecutionIds);
+	}
+
+	@Override
+	public JobStatus getJobStatusFromExecution(long executionId) {
+		return delegate.getJobStatusFromExecution(executionId);
+	}
+
+	@Override
+	public long getJobInstanceIdByExecutionId(long executionId) throws NoSuchJobExecutionException {
+		return delegate.getJobInstanceIdByExecutionId(executionId);
+	}
+
+	@Override
+	public JobInstance createJobInstance(String name, String apptag, String jobXml) {
+		return delegate.createJobInstance(name, apptag, jobXml);
+	}
+
+	@Override
+	public RuntimeJobExecution createJobExecution(JobInstance jobInstance, Properties jobParameters, BatchStatus batchStatus) {
+		return delegate.createJobExecution(jobInstance, jobParameters, batchStatus);
+	}
+
+	@Override
+	public StepExecutionImpl createStepExecution(long jobExecId, StepContextImpl stepContext) {
+		return delegate.createStepExecution(jobExecId, stepContext);
+	}
+
+	@Override
+	public void updateStepExecution(StepContextImpl stepContext) {
+		delegate.updateStepExecution(stepContext);
+	}
+
+	@Override
+	public void updateWithFinalPartitionAggregateStepExecution(long rootJobExecutionId, StepContextImpl stepContext) {
+		delegate.updateWithFinalPartitionAggregateStepExecution(rootJobExecutionId, stepContext);
+	}
+
+	@Override
+	public Map<Integer, PartitionHistory> getPartitionHistory(String jobName, String stepName) {
+		return delegate.getPartitionHistory(jobName, stepName);
+	}
+
+	@Override
+	public void updatePartitionHistory(String jobName, String stepName, Map<Integer, PartitionHistory> history) {
+		delegate.updatePartitionHistory(jobName, stepName, history);
+	}
+
+	@Override
+	public void updateWithFinalLightweightPartitionAggregateStepExecution(long jobInstanceId, long firstPartitionStepExecutionId, 
+			StepContextImpl stepContext) {
+		delegate.updateWithFinalLightweightPartitionAggregateStepExecution(jobInstanceId, firstPartitionStepExecutionId, stepContext);
+	}
+
+	@Override
+	public JobStatus createJobStatus(long jobInstanceId) {
+		return delegate.createJobStatus(jobInstanceId);
+	}
+
+	@Override
+	public JobStatus getJobStatus(long instanceId) {
+		return delegate.getJobStatus(instanceId);
+	}
+
+	@Override
+	public void updateJobStatus(long instanceId, JobStatus jobStatus) {
+		delegate.updateJobStatus(instanceId, jobStatus);
+	}
+
+	@Override
+	public boolean updateJobStatusBatchStatus(long instanceId, BatchStatus batchStatus) {
+		return delegate.updateJobStatusBatchStatus(instanceId, batchStatus);
+	}
+
+	@Override
+	public boolean updateJobStatusBatchAndExitStatus(long instanceId, BatchStatus batchStatus, String exitStatus) {
+		return delegate.updateJobStatusBatchAndExitStatus(instanceId, batchStatus, exitStatus);
+	}
+
+	@Override
+	public boolean updateJobStatusCurrentStep(long instanceId, String currentStepId) {
+		return delegate.updateJobStatusCurrentStep(instanceId, currentStepId);
+	}
+
+	@Override
+	public boolean updateJobStatusWithNewExecution(long instanceId, long latestExecutionId) {
+		return delegate.updateJobStatusWithNewExecution(instanceId, latestExecutionId);
+	}
+
+	@Override
+	public boolean updateJobStatusRestartOn(long instanceId, String restartOn) {
+		return delegate.updateJobStatusRestartOn(instanceId, restartOn);
+	}
+
+	@Override
+	public String getTagName(long jobExecutionId) {
+		return delegate.getTagName(jobExecutionId);
+	}
+
+	@Override
+	public long getMostRecentExecutionId(long jobInstanceId) {
+		return delegate.getMostRecentExecutionId(jobInstanceId);
+	}
+
+	@Override
+	public JobInstance createSubJobInstance(String name, String apptag) {
+		return delegate.createSubJobInstance(name, apptag);
+	}
+
+	@Override
+	public RuntimeFlowInSplitExecution createFlowInSplitExecution(JobInstance jobInstance, BatchStatus batchStatus) {
+		return delegate.createFlowInSplitExecution(jobInstance, batchStatus);
+	}
+
+	@Override
+	public StepExecution getStepExecutionByStepExecutionId(long stepExecId) {
+		return delegate.getStepExecutionByStepExecutionId(stepExecId);
+	}
+
+	private int getIntConfigProperty(Properties props, String name, String defaultValue) {
+		String value = props.getProperty(name, defaultValue);
+		try {
+			return Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			throw new BatchContainerServiceException("Value of " + name + " is not an integer: " + value, e);
+		}
+	}
+
+	private static void writeData(DataOutputStream out, byte[] data) throws IOException {
+		out.writeInt(data.length);
+		out.write(data);
+	}
+
+	private static void writeIds(DataOutputStream out, Set<Long> ids) throws IOException {
+		out.writeInt(ids.size());
+		for (Long id : ids) {
+			out.writeLong(id);
+		}
+	}
+
+	private static Set<Long> readIds(DataInputStream in) throws IOException {
+		int count = in.readInt();
+		Set<Long> ids = new HashSet<Long>(count);
+		for (int i = 0; i < count; i++) {
+			ids.add(in.readLong());
+		}
+		return ids;
+	}
+
+	private static byte[] readData(DataInputStream in) throws IOException {
+		byte[] data = new byte[in.readInt()];
+		in.readFully(data);
+		return data;
+	}
+
+	private byte[] encode(Serializable value) {
+		try {
+			return persistenceDataCodec.encode(value);
+		} catch (IOException e) {
+			throw new PersistenceException(e);
+		}
+	}
+
+	private Serializable decode(byte[] data) {
+		try {
+			return persistenceDataCodec.decode(data);
+		} catch (IOException e) {
+			throw new PersistenceException(e);
+		} catch (ClassNotFoundException e) {
+			throw new PersistenceException(e);
+		}
+	}
+
+	private static class PendingCheckpoint {
+
+		private final CheckpointDataKey key;
+		private final byte[] data;
+
+		private PendingCheckpoint(CheckpointDataKey key, byte[] data) {
+			this.key = key;
+			this.data = data;
+		}
+	}
+}
@@ -0,0 +1,1179 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.services.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.batch.operations.NoSuchJobExecutionException;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobInstance;
+import javax.batch.runtime.Metric;
+import javax.batch.runtime.StepExecution;
+
+import com.ibm.jbatch.container.context.impl.MetricImpl;
+import com.ibm.jbatch.container.context.impl.StepContextImpl;
+import com.ibm.jbatch.container.exception.BatchContainerServiceException;
+import com.ibm.jbatch.container.exception.PersistenceException;
+import com.ibm.jbatch.container.impl.PartitionedStepBuilder;
+import com.ibm.jbatch.container.jobinstance.JobInstanceImpl;
+import com.ibm.jbatch.container.jobinstance.JobOperatorJobExecution;
+import com.ibm.jbatch.container.jobinstance.RuntimeFlowInSplitExecution;
+import com.ibm.jbatch.container.jobinstance.RuntimeJobExecution;
+import com.ibm.jbatch.container.jobinstance.StepExecutionImpl;
+import com.ibm.jbatch.container.persistence.CheckpointData;
+import com.ibm.jbatch.container.persistence.CheckpointDataKey;
+import com.ibm.jbatch.container.persistence.PartitionHistory;
+import com.ibm.jbatch.container.services.IJobExecution;
+import com.ibm.jbatch.container.services.IPersistenceDataCodecService;
+import com.ibm.jbatch.container.services.IPersistenceManagerService;
+import com.ibm.jbatch.container.servicesmanager.ServicesManagerImpl;
+import com.ibm.jbatch.container.status.JobStatus;
+import com.ibm.jbatch.container.status.StepStatus;
+import com.ibm.jbatch.container.util.BatchContainerConstants;
+import com.ibm.jbatch.container.util.TCCLObjectInputStream;
+import com.ibm.jbatch.spi.services.IBatchConfig;
+
+/**
+ * Keeps job instances, job executions and step executions, along with their
+ * status and checkpoint data, in memory rather than in a database.  Nothing
+ * survives a restart of the JVM, so this only suits jobs which never need to be 
+ * restarted in a new JVM, but none of the operations need a database round trip.
+ * 
+ * Job and step status, checkpoint data and persistent user data are stored encoded,
+ * the same as in the database, so each caller gets its own copy back, just as when 
+ * reading from the database.
+ * 
+ * If MEMORY_PERSISTENCE_MAX_JOB_INSTANCES is set above 0, once there are more job
+ * instances than that the oldest ones with no job execution still running are dropped,
+ * along with their partitions and split-flows, executions, status and checkpoints.  
+ * A job instance which has been dropped can no longer be restarted or looked up through 
+ * the JobOperator.
+ */
+public class MemoryPersistenceManagerImpl implements IPersistenceManagerService {
+
+	private final static String sourceClass = MemoryPersistenceManagerImpl.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	private static final String DEFAULT_MAX_JOB_INSTANCES = "0";
+
+	private static final Set<String> RUNNING_STATUSES = new HashSet<String>();
+	static {
+		RUNNING_STATUSES.add(BatchStatus.STARTING.name());
+		RUNNING_STATUSES.add(BatchStatus.STARTED.name());
+		RUNNING_STATUSES.add(BatchStatus.STOPPING.name());
+	}
+
+	private IPersistenceDataCodecService persistenceDataCodec = null;
+
+	// 0 keeps every job instance
+	private int maxJobInstances = Integer.parseInt(DEFAULT_MAX_JOB_INSTANCES);
+
+	// Whether running executions are read as snapshots too, finished ones always are
+	private boolean snapshotJobExecutions = false;
+
+	private final AtomicLong jobInstanceIds = new AtomicLong();
+	private final AtomicLong jobExecutionIds = new AtomicLong();
+	private final AtomicLong stepExecutionIds = new AtomicLong();
+
+	private final ConcurrentMap<Long, JobInstanceRecord> jobInstances = new ConcurrentHashMap<Long, JobInstanceRecord>();
+	private final ConcurrentMap<Long, JobExecutionRecord> jobExecutions = new ConcurrentHashMap<Long, JobExecutionRecord>();
+	private final ConcurrentMap<Long, StepExecutionRecord> stepExecutions = new ConcurrentHashMap<Long, StepExecutionRecord>();
+
+	private final ConcurrentMap<String, byte[]> checkpoints = new ConcurrentHashMap<String, byte[]>();
+
+	// Partition history by "<job name>,<step name>", kept regardless of job instance eviction
+	private final ConcurrentMap<String, Map<Integer, PartitionHistory>> partitionHistory = 
+			new ConcurrentHashMap<String, Map<Integer, PartitionHistory>>();
+
+	// Job instance ids by job name, highest id first
+	private final ConcurrentMap<String, NavigableSet<Long>> jobInstanceIdsByName = new ConcurrentHashMap<String, NavigableSet<Long>>();
+
+	// Top-level job instance ids, oldest first, and how many of them there are
+	private final ConcurrentLinkedQueue<Long> jobInstanceHistory = new ConcurrentLinkedQueue<Long>();
+	private final AtomicInteger jobInstanceCount = new AtomicInteger();
+	private final Object evictionLock = new Object();
+
+	@Override
+	public void init(IBatchConfig batchConfig) throws BatchContainerServiceException {
+		logger.config("Entering " + sourceClass + ".init(), batchConfig =" + batchConfig);
+
+		persistenceDataCodec = ServicesManagerImpl.getInstance().getPersistenceDataCodecService();
+
+		String value = DEFAULT_MAX_JOB_INSTANCES;
+		if (batchConfig != null && batchConfig.getConfigProperties() != null) {
+			value = batchConfig.getConfigProperties().getProperty(BatchContainerConstants.MEMORY_PERSISTENCE_MAX_JOB_INSTANCES, 
+					DEFAULT_MAX_JOB_INSTANCES);
+			snapshotJobExecutions = Boolean.parseBoolean(batchConfig.getConfigProperties().getProperty(
+					BatchContainerConstants.JOB_EXECUTION_SNAPSHOT, "false"));
+		}
+		try {
+			maxJobInstances = Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			throw new BatchContainerServiceException("Value of " + BatchContainerConstants.MEMORY_PERSISTENCE_MAX_JOB_INSTANCES 
+					+ " is not an integer: " + value, e);
+		}
+
+		logger.config("Keeping at most " + (maxJobInstances > 0 ? maxJobInstances : "unlimited") + " job instances in memory");
+	}
+
+	@Override
+	public void shutdown() throws BatchContainerServiceException {
+	}
+
+	/**
+	 * JOB OPERATOR ONLY METHODS
+	 */
+
+	@Override
+	public int jobOperatorGetJobInstanceCount(String jobName) {
+		Set<Long> ids = jobInstanceIdsByName.get(jobName);
+		return ids == null ? 0 : ids.size();
+	}
+
+	@Override
+	public int jobOperatorGetJobInstanceCount(String jobName, String appTag) {
+		int count = 0;
+		for (JobInstanceRecord jobInstance : getJobInstancesByName(jobName)) {
+			if (appTag.equals(jobInstance.apptag)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public Map<Long, String> jobOperatorGetExternalJobInstanceData() {
+		Map<Long, String> data = new HashMap<Long, String>();
+		for (JobInstanceRecord jobInstance : jobInstances.values()) {
+			if (!jobInstance.isSubJob()) {
+				data.put(jobInstance.id, jobInstance.name);
+			}
+		}
+		return data;
+	}
+
+	/**
+	 * Returns instance ids sorted from high to low instance id 
+	 */
+	@Override
+	public List<Long> jobOperatorGetJobInstanceIds(String jobName, int start, int count) {
+		return jobOperatorGetJobInstanceIds(jobName, null, start, count);
+	}
+
+	@Override
+	public List<Long> jobOperatorGetJobInstanceIds(String jobName, String appTag, int start, int count) {
+		NavigableSet<Long> ids = jobInstanceIdsByName.get(jobName);
+		if (ids == null) {
+			return new ArrayList<Long>();
+		}
+		return getJobInstanceIds(ids, appTag, start, count);
+	}
+
+	@Override
+	public List<Long> jobOperatorGetJobInstanceIdsBefore(String jobName, long beforeInstanceId, int count) {
+		return jobOperatorGetJobInstanceIdsBefore(jobName, null, beforeInstanceId, count);
+	}
+
+	@Override
+	public List<Long> jobOperatorGetJobInstanceIdsBefore(String jobName, String appTag, long beforeInstanceId, int count) {
+		NavigableSet<Long> ids = jobInstanceIdsByName.get(jobName);
+		if (ids == null) {
+			return new ArrayList<Long>();
+		}
+		// Highest id first, so the lower ids are in the tail
+		return getJobInstanceIds(ids.tailSet(beforeInstanceId, false), appTag, 0, count);
+	}
+
+	@Override
+	public Timestamp jobOperatorQueryJobExecutionTimestamp(long key, TimestampType timestampType) {
+		JobExecutionRecord jobExecution = jobExecutions.get(key);
+		if (jobExecution == null) {
+			return null;
+		}
+		synchronized (jobExecution) {
+			if (timestampType.equals(TimestampType.CREATE)) {
+				return jobExecution.createTime;
+			} else if (timestampType.equals(TimestampType.END)) {
+				return jobExecution.endTime;
+			} else if (timestampType.equals(TimestampType.LAST_UPDATED)) {
+				return jobExecution.updateTime;
+			} else if (timestampType.equals(TimestampType.STARTED)) {
+				return jobExecution.startTime;
+			} else {
+				throw new IllegalArgumentException("Unexpected enum value.");
+			}
+		}
+	}
+
+	@Override
+	public String jobOperatorQueryJobExecutionBatchStatus(long key) {
+		JobExecutionRecord jobExecution = jobExecutions.get(key);
+		if (jobExecution == null) {
+			return null;
+		}
+		synchronized (jobExecution) {
+			return jobExecution.batchStatus;
+		}
+	}
+
+	@Override
+	public String jobOperatorQueryJobExecutionExitStatus(long key) {
+		JobExecutionRecord jobExecution = jobExecutions.get(key);
+		if (jobExecution == null) {
+			return null;
+		}
+		synchronized (jobExecution) {
+			return jobExecution.exitStatus;
+		}
+	}
+
+	@Override
+	public long jobOperatorQueryJobExecutionJobInstanceId(long executionID) throws NoSuchJobExecutionException {
+		return getJobExecution(executionID).jobInstanceId;
+	}
+
+	@Override
+	public long getJobInstanceIdByExecutionId(long executionId) throws NoSuchJobExecutionException {
+		return getJobExecution(executionId).jobInstanceId;
+	}
+
+	@Override
+	public Properties getParameters(long executionId) throws NoSuchJobExecutionException {
+		return copyOf(getJobExecution(executionId).parameters);
+	}
+
+	@Override
+	public List<StepExecution> getStepExecutionsForJobExecution(long execid) {
+		List<StepExecution> data = new ArrayList<StepExecution>();
+		JobExecutionRecord jobExecution = jobExecutions.get(execid);
+		if (jobExecution != null) {
+			for (Long stepExecutionId : jobExecution.stepExecutionIds) {
+				StepExecutionRecord stepExecution = stepExecutions.get(stepExecutionId);
+				if (stepExecution != null && !isLightweightPartition(stepExecution)) {
+					data.add(stepExecution.toStepExecution());
+				}
+			}
+		}
+		return data;
+	}
+
+	@Override
+	public Map<String, StepExecution> getMostRecentStepExecutionsForJobInstance(long instanceId) {
+		Map<String, StepExecutionRecord> mostRecent = new HashMap<String, StepExecutionRecord>();
+		for (StepExecutionRecord stepExecution : getStepExecutions(jobInstances.get(instanceId))) {
+			if (isLightweightPartition(stepExecution)) {
+				continue;
+			}
+			StepExecutionRecord other = mostRecent.get(stepExecution.stepName);
+			if (other == null || other.id < stepExecution.id) {
+				mostRecent.put(stepExecution.stepName, stepExecution);
+			}
+		}
+
+		Map<String, StepExecution> data = new HashMap<String, StepExecution>();
+		for (StepExecutionRecord stepExecution : mostRecent.values()) {
+			data.put(stepExecution.stepName, stepExecution.toStepExecution());
+		}
+		return data;
+	}
+
+	@Override
+	public StepExecution getStepExecutionByStepExecutionId(long stepExecId) {
+		StepExecutionRecord stepExecution = stepExecutions.get(stepExecId);
+		return stepExecution == null ? null : stepExecution.toStepExecution();
+	}
+
+	@Override
+	public void updateBatchStatusOnly(long key, BatchStatus batchStatus, Timestamp updatets) {
+		JobExecutionRecord jobExecution = jobExecutions.get(key);
+		if (jobExecution != null) {
+			synchronized (jobExecution) {
+				jobExecution.batchStatus = batchStatus.name();
+				jobExecution.updateTime = updatets;
+			}
+		}
+	}
+
+	@Override
+	public void markJobStarted(long key, Timestamp startTS) {
+		JobExecutionRecord jobExecution = jobExecutions.get(key);
+		if (jobExecution != null) {
+			synchronized (jobExecution) {
+				jobExecution.batchStatus = BatchStatus.STARTED.name();
+				jobExecution.startTime = startTS;
+				jobExecution.updateTime = startTS;
+			}
+		}
+	}
+
+	@Override
+	public void updateWithFinalExecutionStatusesAndTimestamps(long key, BatchStatus batchStatus, String exitStatus, Timestamp updatets) {
+		JobExecutionRecord jobExecution = jobExecutions.get(key);
+		if (jobExecution != null) {
+			synchronized (jobExecution) {
+				jobExecution.batchStatus = batchStatus.name();
+				jobExecution.exitStatus = exitStatus;
+				jobExecution.endTime = updatets;
+				jobExecution.updateTime = updatets;
+			}
+		}
+	}
+
+	@Override
+	public IJobExecution jobOperatorGetJobExecution(long jobExecutionId) {
+		JobExecutionRecord jobExecution = jobExecutions.get(jobExecutionId);
+		return jobExecution == null ? null : toJobExecution(jobExecution);
+	}
+
+	@Override
+	public List<IJobExecution> jobOperatorGetJobExecutions(long jobInstanceId) {
+		List<IJobExecution> data = new ArrayList<IJobExecution>();
+		JobInstanceRecord jobInstance = jobInstances.get(jobInstanceId);
+		if (jobInstance != null) {
+			for (Long executionId : jobInstance.executionIds) {
+				JobExecutionRecord jobExecution = jobExecutions.get(executionId);
+				if (jobExecution != null) {
+					data.add(toJobExecution(jobExecution));
+				}
+			}
+		}
+		return data;
+	}
+
+	@Override
+	public Set<Long> jobOperatorGetRunningExecutions(String jobName) {
+		Set<Long> executionIds = new HashSet<Long>();
+		for (JobInstanceRecord jobInstance : getJobInstancesByName(jobName)) {
+			for (Long executionId : jobInstance.executionIds) {
+				JobExecutionRecord jobExecution = jobExecutions.get(executionId);
+				if (jobExecution != null && jobExecution.isRunning()) {
+					executionIds.add(executionId);
+				}
+			}
+		}
+		return executionIds;
+	}
+
+	@Override
+	public String getJobCurrentTag(long jobInstanceId) {
+		JobInstanceRecord jobInstance = jobInstances.get(jobInstanceId);
+		return jobInstance == null ? null : jobInstance.apptag;
+	}
+
+	@Override
+	public String getTagName(long jobExecutionId) {
+		JobExecutionRecord jobExecution = jobExecutions.get(jobExecutionId);
+		if (jobExecution == null) {
+			return null;
+		}
+		return getJobCurrentTag(jobExecution.jobInstanceId);
+	}
+
+	@Override
+	public void purge(String apptag) {
+		logger.entering(sourceClass, "purge", apptag);
+		for (JobInstanceRecord jobInstance : jobInstances.values()) {
+			if (apptag.equals(jobInstance.apptag)) {
+				removeJobInstance(jobInstance);
+			}
+		}
+		logger.exiting(sourceClass, "purge");
+	}
+
+	@Override
+	public JobStatus getJobStatusFromExecution(long executionId) {
+		JobExecutionRecord jobExecution = jobExecutions.get(executionId);
+		if (jobExecution == null) {
+			return null;
+		}
+		return getJobStatus(jobExecution.jobInstanceId);
+	}
+
+	@Override
+	public long getMostRecentExecutionId(long jobInstanceId) {
+		JobInstanceRecord jobInstance = jobInstances.get(jobInstanceId);
+		long mostRecentId = -1;
+		if (jobInstance != null) {
+			for (Long executionId : jobInstance.executionIds) {
+				mostRecentId = Math.max(mostRecentId, executionId);
+			}
+		}
+		return mostRecentId;
+	}
+
+	// JOBINSTANCEDATA
+
+	@Override
+	public JobInstance createJobInstance(String name, String apptag, String jobXml) {
+		JobInstanceRecord jobInstance = addJobInstance(name, apptag);
+
+		jobInstanceHistory.add(jobInstance.id);
+		if (jobInstanceCount.incrementAndGet() > maxJobInstances && maxJobInstances > 0) {
+			evictJobInstances();
+		}
+
+		JobInstanceImpl retVal = new JobInstanceImpl(jobInstance.id, jobXml);
+		retVal.setJobName(name);
+		return retVal;
+	}
+
+	@Override
+	public JobInstance createSubJobInstance(String name, String apptag) {
+		JobInstanceRecord jobInstance = addJobInstance(name, apptag);
+
+		// Dropped along with the top-level job instance, named like ":<id>:step1:0"
+		try {
+			int end = name.indexOf(PartitionedStepBuilder.JOB_ID_SEPARATOR, 1);
+			long topLevelId = Long.parseLong(name.substring(1, end));
+			JobInstanceRecord topLevel = jobInstances.get(topLevelId);
+			if (topLevel != null) {
+				topLevel.subJobInstanceIds.add(jobInstance.id);
+			}
+		} catch (RuntimeException e) {
+			logger.warning("Could not find top-level job instance for sub job: " + name);
+		}
+
+		JobInstanceImpl retVal = new JobInstanceImpl(jobInstance.id);
+		retVal.setJobName(name);
+		return retVal;
+	}
+
+	// EXECUTIONINSTANCEDATA
+
+	@Override
+	public RuntimeJobExecution createJobExecution(JobInstance jobInstance, Properties jobParameters, BatchStatus batchStatus) {
+		JobExecutionRecord record = addJobExecution(jobInstance, copyOf(jobParameters), batchStatus);
+		RuntimeJobExecution jobExecution = new RuntimeJobExecution(jobInstance, record.id);
+		jobExecution.setBatchStatus(batchStatus.name());
+		jobExecution.setCreateTime(record.createTime);
+		jobExecution.setLastUpdateTime(record.createTime);
+		return jobExecution;
+	}
+
+	@Override
+	public RuntimeFlowInSplitExecution createFlowInSplitExecution(JobInstance jobInstance, BatchStatus batchStatus) {
+		JobExecutionRecord record = addJobExecution(jobInstance, null, batchStatus);
+		RuntimeFlowInSplitExecution flowExecution = new RuntimeFlowInSplitExecution(jobInstance, record.id);
+		flowExecution.setBatchStatus(batchStatus.name());
+		flowExecution.setCreateTime(record.createTime);
+		flowExecution.setLastUpdateTime(record.createTime);
+		return flowExecution;
+	}
+
+	// STEPEXECUTIONINSTANCEDATA
+
+	@Override
+	public StepExecutionImpl createStepExecution(long jobExecId, StepContextImpl stepContext) {
+		StepExecutionRecord stepExecution = new StepExecutionRecord(stepExecutionIds.incrementAndGet(), jobExecId, stepContext.getPersistentStepName());
+		stepExecution.update(stepContext, stepContext.getMetrics(), serializeObject(stepContext.getPersistentUserData()));
+		stepExecutions.put(stepExecution.id, stepExecution);
+
+		JobExecutionRecord jobExecution = jobExecutions.get(jobExecId);
+		if (jobExecution != null) {
+			jobExecution.stepExecutionIds.add(stepExecution.id);
+		}
+
+		if (logger.isLoggable(Level.FINE)) {
+			logger.fine("Created step execution: " + stepExecution.id + " | stepName: " + stepExecution.stepName + " | jobExecId: " + jobExecId);
+		}
+
+		StepExecutionImpl retVal = new StepExecutionImpl(jobExecId, stepExecution.id);
+		retVal.setStepName(stepExecution.stepName);
+		return retVal;
+	}
+
+	@Override
+	public void updateStepExecution(StepContextImpl stepContext) {
+		StepExecutionRecord stepExecution = stepExecutions.get(stepContext.getInternalStepExecutionId());
+		if (stepExecution != null) {
+			stepExecution.update(stepContext, stepContext.getMetrics(), serializeObject(stepContext.getPersistentUserData()));
+		}
+	}
+
+	/**
+	 * Sums the metrics of the step executions in the most recent set of partitions, 
+	 * i.e. sub job instances named like ":<root job instance id>:<step name>:<partition>".
+	 */
+	@Override
+	public void updateWithFinalPartitionAggregateStepExecution(long rootJobExecutionId, StepContextImpl stepContext) {
+		StepExecutionRecord stepExecution = stepExecutions.get(stepContext.getInternalStepExecutionId());
+		if (stepExecution == null) {
+			return;
+		}
+
+		long rootJobInstanceId = getJobInstanceIdByExecutionId(rootJobExecutionId);
+		JobInstanceRecord rootJobInstance = jobInstances.get(rootJobInstanceId);
+
+		String partitionPrefix = PartitionedStepBuilder.JOB_ID_SEPARATOR + rootJobInstanceId + PartitionedStepBuilder.JOB_ID_SEPARATOR 
+				+ stepContext.getStepName() + PartitionedStepBuilder.JOB_ID_SEPARATOR;
+		String zerothPartition = partitionPrefix + "0";
+
+		List<JobInstanceRecord> partitions = new ArrayList<JobInstanceRecord>();
+		long zerothPartitionId = 0;
+		if (rootJobInstance != null) {
+			for (Long id : rootJobInstance.subJobInstanceIds) {
+				JobInstanceRecord partition = jobInstances.get(id);
+				if (partition != null && partition.name.startsWith(partitionPrefix)) {
+					partitions.add(partition);
+					if (partition.name.equals(zerothPartition)) {
+						zerothPartitionId = Math.max(zerothPartitionId, partition.id);
+					}
+				}
+			}
+		}
+
+		long[] totals = new long[StepExecutionRecord.METRIC_TYPES.length];
+		for (JobInstanceRecord partition : partitions) {
+			if (partition.id >= zerothPartitionId) {
+				for (StepExecutionRecord partitionStepExecution : getStepExecutions(partition)) {
+					partitionStepExecution.addMetricsTo(totals);
+				}
+			}
+		}
+
+		Metric[] metrics = new Metric[totals.length];
+		for (int i = 0; i < totals.length; i++) {
+			metrics[i] = new MetricImpl(StepExecutionRecord.METRIC_TYPES[i], totals[i]);
+		}
+		stepExecution.update(stepContext, metrics, serializeObject(stepContext.getPersistentUserData()));
+	}
+
+	/**
+	 * Sums the metrics of the lightweight partitions' step executions, named like ":<step name>:<partition>",
+	 * starting from the first partition step execution of the most recent set of partitions.
+	 */
+	@Override
+	public void updateWithFinalLightweightPartitionAggregateStepExecution(long jobInstanceId, long firstPartitionStepExecutionId, 
+			StepContextImpl stepContext) {
+		StepExecutionRecord stepExecution = stepExecutions.get(stepContext.getInternalStepExecutionId());
+		if (stepExecution == null) {
+			return;
+		}
+
+		String partitionPrefix = PartitionedStepBuilder.JOB_ID_SEPARATOR + stepContext.getStepName() + PartitionedStepBuilder.JOB_ID_SEPARATOR;
+
+		long[] totals = new long[StepExecutionRecord.METRIC_TYPES.length];
+		for (StepExecutionRecord partitionStepExecution : getStepExecutions(jobInstances.get(jobInstanceId))) {
+			if (partitionStepExecution.id >= firstPartitionStepExecutionId && partitionStepExecution.stepName.startsWith(partitionPrefix)) {
+				partitionStepExecution.addMetricsTo(totals);
+			}
+		}
+
+		Metric[] metrics = new Metric[totals.length];
+		for (int i = 0; i < totals.length; i++) {
+			metrics[i] = new MetricImpl(StepExecutionRecord.METRIC_TYPES[i], totals[i]);
+		}
+		stepExecution.update(stepContext, metrics, serializeObject(stepContext.getPersistentUserData()));
+	}
+
+	// JOB_STATUS
+
+	@Override
+	public JobStatus createJobStatus(long jobInstanceId) {
+		logger.entering(sourceClass, "createJobStatus", jobInstanceId);
+		JobStatus jobStatus = new JobStatus(jobInstanceId);
+		updateJobStatus(jobInstanceId, jobStatus);
+		logger.exiting(sourceClass, "createJobStatus");
+		return jobStatus;
+	}
+
+	@Override
+	public JobStatus getJobStatus(long instanceId) {
+		JobInstanceRecord jobInstance = jobInstances.get(instanceId);
+		return jobInstance == null ? null : (JobStatus) decode(jobInstance.jobStatus);
+	}
+
+	@Override
+	public void updateJobStatus(long instanceId, JobStatus jobStatus) {
+		if (logger.isLoggable(Level.FINE)) {
+			logger.fine("Updating Job Status to: " + jobStatus.getBatchStatus());
+		}
+		JobInstanceRecord jobInstance = getJobInstance(instanceId);
+		synchronized (jobInstance) {
+			jobInstance.jobStatus = encode(jobStatus);
+		}
+	}
+
+	@Override
+	public boolean updateJobStatusBatchStatus(long instanceId, final BatchStatus batchStatus) {
+		return updateJobStatus(instanceId, new JobStatusUpdate() {
+			void apply(JobStatus jobStatus) {
+				jobStatus.setBatchStatus(batchStatus);
+			}
+		});
+	}
+
+	@Override
+	public boolean updateJobStatusBatchAndExitStatus(long instanceId, final BatchStatus batchStatus, final String exitStatus) {
+		return updateJobStatus(instanceId, new JobStatusUpdate() {
+			void apply(JobStatus jobStatus) {
+				jobStatus.setBatchStatus(batchStatus);
+				jobStatus.setExitStatus(exitStatus);
+			}
+		});
+	}
+
+	@Override
+	public boolean updateJobStatusCurrentStep(long instanceId, final String currentStepId) {
+		return updateJobStatus(instanceId, new JobStatusUpdate() {
+			void apply(JobStatus jobStatus) {
+				jobStatus.setCurrentStepId(currentStepId);
+			}
+		});
+	}
+
+	@Override
+	public boolean updateJobStatusWithNewExecution(long instanceId, final long latestExecutionId) {
+		return updateJobStatus(instanceId, new JobStatusUpdate() {
+			void apply(JobStatus jobStatus) {
+				jobStatus.setRestartOn(null);
+				jobStatus.setLatestExecutionId(latestExecutionId);
+				jobStatus.setBatchStatus(BatchStatus.STARTING);
+			}
+		});
+	}
+
+	@Override
+	public boolean updateJobStatusRestartOn(long instanceId, final String restartOn) {
+		return updateJobStatus(instanceId, new JobStatusUpdate() {
+			void apply(JobStatus jobStatus) {
+				jobStatus.setRestartOn(restartOn);
+			}
+		});
+	}
+
+	/**
+	 * Changes a field or two of a stored JobStatus, holding the job instance's lock so that
+	 * concurrent updates of different fields don't undo each other.
+	 */
+	private boolean updateJobStatus(long instanceId, JobStatusUpdate update) {
+		JobInstanceRecord jobInstance = jobInstances.get(instanceId);
+		if (jobInstance == null) {
+			return false;
+		}
+		synchronized (jobInstance) {
+			JobStatus jobStatus = (JobStatus) decode(jobInstance.jobStatus);
+			if (jobStatus == null) {
+				return false;
+			}
+			update.apply(jobStatus);
+			jobInstance.jobStatus = encode(jobStatus);
+		}
+		return true;
+	}
+
+	private static abstract class JobStatusUpdate {
+		abstract void apply(JobStatus jobStatus);
+	}
+
+	// STEP_STATUS
+
+	@Override
+	public StepStatus createStepStatus(long stepExecId) {
+		logger.entering(sourceClass, "createStepStatus", stepExecId);
+		StepStatus stepStatus = new StepStatus(stepExecId);
+		updateStepStatus(stepExecId, stepStatus);
+
+		// Index by job instance and step name, for a restart to find.  A lightweight partition
+		// starting from scratch again replaces the step status of its previous set of partitions.
+		StepExecutionRecord stepExecution = stepExecutions.get(stepExecId);
+		JobExecutionRecord jobExecution = jobExecutions.get(stepExecution.jobExecutionId);
+		if (jobExecution != null) {
+			JobInstanceRecord jobInstance = jobInstances.get(jobExecution.jobInstanceId);
+			if (jobInstance != null) {
+				jobInstance.stepStatusIds.put(stepExecution.stepName, stepExecId);
+			}
+		}
+		logger.exiting(sourceClass, "createStepStatus");
+		return stepStatus;
+	}
+
+	@Override
+	public StepStatus getStepStatus(long instanceId, String stepName) {
+		JobInstanceRecord jobInstance = jobInstances.get(instanceId);
+		if (jobInstance == null) {
+			return null;
+		}
+		Long stepExecId = jobInstance.stepStatusIds.get(stepName);
+		if (stepExecId == null) {
+			return null;
+		}
+		StepExecutionRecord stepExecution = stepExecutions.get(stepExecId);
+		return stepExecution == null ? null : (StepStatus) decode(stepExecution.stepStatus);
+	}
+
+	@Override
+	public void updateStepStatus(long stepExecutionId, StepStatus stepStatus) {
+		if (logger.isLoggable(Level.FINE)) {
+			logger.fine("Updating StepStatus to: " + stepStatus.getBatchStatus());
+		}
+		StepExecutionRecord stepExecution = stepExecutions.get(stepExecutionId);
+		if (stepExecution == null) {
+			throw new PersistenceException("No step execution found with id: " + stepExecutionId);
+		}
+		stepExecution.stepStatus = encode(stepStatus);
+	}
+
+	// CHECKPOINTDATA
+
+	@Override
+	public void createCheckpointData(CheckpointDataKey key, CheckpointData value) {
+		updateCheckpointData(key, value);
+	}
+
+	@Override
+	public CheckpointData getCheckpointData(CheckpointDataKey key) {
+		return (CheckpointData) decode(checkpoints.get(key.getCommaSeparatedKey()));
+	}
+
+	@Override
+	public void updateCheckpointData(CheckpointDataKey key, CheckpointData value) {
+		checkpoints.put(key.getCommaSeparatedKey(), encode(value));
+
+		JobInstanceRecord jobInstance = jobInstances.get(key.getJobInstanceId());
+		if (jobInstance != null) {
+			jobInstance.checkpointKeys.add(key.getCommaSeparatedKey());
+		}
+	}
+
+	@Override
+	public void updateCheckpointData(Map<CheckpointDataKey, CheckpointData> checkpoints) {
+		for (Map.Entry<CheckpointDataKey, CheckpointData> entry : checkpoints.entrySet()) {
+			updateCheckpointData(entry.getKey(), entry.getValue());
+		}
+	}
+
+	@Override
+	public Map<Integer, PartitionHistory> getPartitionHistory(String jobName, String stepName) {
+		Map<Integer, PartitionHistory> history = partitionHistory.get(jobName + "," + stepName);
+		return history == null ? new HashMap<Integer, PartitionHistory>() : new HashMap<Integer, PartitionHistory>(history);
+	}
+
+	@Override
+	public void updatePartitionHistory(String jobName, String stepName, Map<Integer, PartitionHistory> history) {
+		String key = jobName + "," + stepName;
+		Map<Integer, PartitionHistory> stepHistory = partitionHistory.get(key);
+		if (stepHistory == null) {
+			Map<Integer, PartitionHistory> newHistory = new ConcurrentHashMap<Integer, PartitionHistory>();
+			stepHistory = partitionHistory.putIfAbsent(key, newHistory);
+			if (stepHistory == null) {
+				stepHistory = newHistory;
+			}
+		}
+		stepHistory.putAll(history);
+	}
+
+	private JobInstanceRecord addJobInstance(String name, String apptag) {
+		JobInstanceRecord jobInstance = new JobInstanceRecord(jobInstanceIds.incrementAndGet(), name, apptag);
+		jobInstances.put(jobInstance.id, jobInstance);
+
+		NavigableSet<Long> ids = jobInstanceIdsByName.get(name);
+		if (ids == null) {
+			NavigableSet<Long> newIds = new ConcurrentSkipListSet<Long>(Collections.reverseOrder());
+			ids = jobInstanceIdsByName.putIfAbsent(name, newIds);
+			if (ids == null) {
+				ids = newIds;
+			}
+		}
+		ids.add(jobInstance.id);
+		return jobInstance;
+	}
+
+	private JobExecutionRecord addJobExecution(JobInstance jobInstance, Properties jobParameters, BatchStatus batchStatus) {
+		Timestamp now = new Timestamp(System.currentTimeMillis());
+		JobExecutionRecord jobExecution = new JobExecutionRecord(jobExecutionIds.incrementAndGet(), jobInstance.getInstanceId(), 
+				jobParameters, batchStatus, now);
+		jobExecutions.put(jobExecution.id, jobExecution);
+		getJobInstance(jobInstance.getInstanceId()).executionIds.add(jobExecution.id);
+		return jobExecution;
+	}
+
+	/**
+	 * Drops the oldest job instances which have finished running, until there are 
+	 * no more than maxJobInstances, or only running ones are left.
+	 */
+	private void evictJobInstances() {
+		synchronized (evictionLock) {
+			Iterator<Long> iter = jobInstanceHistory.iterator();
+			while (jobInstanceCount.get() > maxJobInstances && iter.hasNext()) {
+				JobInstanceRecord jobInstance = jobInstances.get(iter.next());
+				if (jobInstance == null) {
+					// Already purged
+					iter.remove();
+				} else if (isFinished(jobInstance)) {
+					if (logger.isLoggable(Level.FINE)) {
+						logger.fine("Dropping job instance: " + jobInstance.id + " | name: " + jobInstance.name);
+					}
+					removeJobInstance(jobInstance);
+					iter.remove();
+				}
+			}
+		}
+	}
+
+	private boolean isFinished(JobInstanceRecord jobInstance) {
+		if (jobInstance.executionIds.isEmpty()) {
+			// About to be started
+			return false;
+		}
+		for (Long executionId : jobInstance.executionIds) {
+			JobExecutionRecord jobExecution = jobExecutions.get(executionId);
+			if (jobExecution != null && jobExecution.isRunning()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void removeJobInstance(JobInstanceRecord jobInstance) {
+		if (!jobInstances.remove(jobInstance.id, jobInstance)) {
+			return;
+		}
+
+		Set<Long> ids = jobInstanceIdsByName.get(jobInstance.name);
+		if (ids != null) {
+			ids.remove(jobInstance.id);
+		}
+		for (Long executionId : jobInstance.executionIds) {
+			JobExecutionRecord jobExecution = jobExecutions.remove(executionId);
+			if (jobExecution != null) {
+				for (Long stepExecutionId : jobExecution.stepExecutionIds) {
+					stepExecutions.remove(stepExecutionId);
+				}
+			}
+		}
+		for (String checkpointKey : jobInstance.checkpointKeys) {
+			checkpoints.remove(checkpointKey);
+		}
+		for (Long subJobInstanceId : jobInstance.subJobInstanceIds) {
+			JobInstanceRecord subJobInstance = jobInstances.get(subJobInstanceId);
+			if (subJobInstance != null) {
+				removeJobInstance(subJobInstance);
+			}
+		}
+		if (!jobInstance.isSubJob()) {
+			jobInstanceCount.decrementAndGet();
+		}
+	}
+
+	private JobInstanceRecord getJobInstance(long instanceId) {
+		JobInstanceRecord jobInstance = jobInstances.get(instanceId);
+		if (jobInstance == null) {
+			throw new PersistenceException("No job instance found with id: " + instanceId);
+		}
+		return jobInstance;
+	}
+
+	private List<JobInstanceRecord> getJobInstancesByName(String jobName) {
+		List<JobInstanceRecord> data = new ArrayList<JobInstanceRecord>();
+		Set<Long> ids = jobInstanceIdsByName.get(jobName);
+		if (ids != null) {
+			for (Long id : ids) {
+				JobInstanceRecord jobInstance = jobInstances.get(id);
+				if (jobInstance != null) {
+					data.add(jobInstance);
+				}
+			}
+		}
+		return data;
+	}
+
+	/**
+	 * Pages through ids in the order given, skipping any not matching appTag if there is one.
+	 */
+	private List<Long> getJobInstanceIds(Set<Long> ids, String appTag, int start, int count) {
+		List<Long> data = new ArrayList<Long>();
+		int skipped = 0;
+		for (Long id : ids) {
+			if (data.size() == count) {
+				break;
+			}
+			JobInstanceRecord jobInstance = jobInstances.get(id);
+			if (jobInstance == null || (appTag != null && !appTag.equals(jobInstance.apptag))) {
+				continue;
+			}
+			if (skipped < start) {
+				skipped++;
+			} else {
+				data.add(id);
+			}
+		}
+		return data;
+	}
+
+	private JobExecutionRecord getJobExecution(long executionId) throws NoSuchJobExecutionException {
+		JobExecutionRecord jobExecution = jobExecutions.get(executionId);
+		if (jobExecution == null) {
+			String msg = "Did not find job instance associated with executionID =" + executionId;
+			logger.fine(msg);
+			throw new NoSuchJobExecutionException(msg);
+		}
+		return jobExecution;
+	}
+
+	private static boolean isLightweightPartition(StepExecutionRecord stepExecution) {
+		return stepExecution.stepName.startsWith(PartitionedStepBuilder.JOB_ID_SEPARATOR);
+	}
+
+	private List<StepExecutionRecord> getStepExecutions(JobInstanceRecord jobInstance) {
+		List<StepExecutionRecord> data = new ArrayList<StepExecutionRecord>();
+		if (jobInstance != null) {
+			for (Long executionId : jobInstance.executionIds) {
+				JobExecutionRecord jobExecution = jobExecutions.get(executionId);
+				if (jobExecution != null) {
+					for (Long stepExecutionId : jobExecution.stepExecutionIds) {
+						StepExecutionRecord stepExecution = stepExecutions.get(stepExecutionId);
+						if (stepExecution != null) {
+							data.add(stepExecution);
+						}
+					}
+				}
+			}
+		}
+		return data;
+	}
+
+	private IJobExecution toJobExecution(JobExecutionRecord jobExecution) {
+		JobOperatorJobExecution retMe = new JobOperatorJobExecution(jobExecution.id, jobExecution.jobInstanceId);
+		synchronized (jobExecution) {
+			retMe.setCreateTime(jobExecution.createTime);
+			retMe.setStartTime(jobExecution.startTime);
+			retMe.setEndTime(jobExecution.endTime);
+			retMe.setLastUpdateTime(jobExecution.updateTime);
+			retMe.setBatchStatus(jobExecution.batchStatus);
+			retMe.setExitStatus(jobExecution.exitStatus);
+		}
+		retMe.setJobParameters(copyOf(jobExecution.parameters));
+		JobInstanceRecord jobInstance = jobInstances.get(jobExecution.jobInstanceId);
+		if (jobInstance != null) {
+			retMe.setJobName(jobInstance.name);
+			retMe.setTagName(jobInstance.apptag);
+		}
+		retMe.setSnapshot(snapshotJobExecutions || retMe.isFinished());
+		return retMe;
+	}
+
+	private Properties copyOf(Properties props) {
+		return props == null ? null : (Properties) props.clone();
+	}
+
+	private byte[] encode(Serializable value) {
+		try {
+			return persistenceDataCodec.encode(value);
+		} catch (IOException e) {
+			throw new PersistenceException(e);
+		}
+	}
+
+	private Serializable decode(byte[] data) {
+		if (data == null) {
+			return null;
+		}
+		try {
+			return persistenceDataCodec.decode(data);
+		} catch (IOException e) {
+			throw new PersistenceException(e);
+		} catch (ClassNotFoundException e) {
+			throw new PersistenceException(e);
+		}
+	}
+
+	private static byte[] serializeObject(Serializable theObject) {
+		if (theObject == null) {
+			return null;
+		}
+		try {
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			ObjectOutputStream oout = new ObjectOutputStream(baos);
+			oout.writeObject(theObject);
+			oout.close();
+			return baos.toByteArray();
+		} catch (IOException e) {
+			throw new PersistenceException(e);
+		}
+	}
+
+	private static Serializable deserializeObject(byte[] buffer) {
+		if (buffer == null) {
+			return null;
+		}
+		try {
+			ObjectInputStream objectIn = new TCCLObjectInputStream(new ByteArrayInputStream(buffer));
+			Serializable theObject = (Serializable) objectIn.readObject();
+			objectIn.close();
+			return theObject;
+		} catch (IOException e) {
+			throw new PersistenceException(e);
+		} catch (ClassNotFoundException e) {
+			throw new PersistenceException(e);
+		}
+	}
+
+	private static class JobInstanceRecord {
+
+		private final long id;
+		private final String name;
+		private final String apptag;
+
+		private final List<Long> executionIds = new CopyOnWriteArrayList<Long>();
+		private final List<Long> subJobInstanceIds = new CopyOnWriteArrayList<Long>();
+
+		private volatile byte[] jobStatus = null;
+
+		// Step execution id holding the step status, by step name
+		private final ConcurrentMap<String, Long> stepStatusIds = new ConcurrentHashMap<String, Long>();
+
+		private final Set<String> checkpointKeys = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+		private JobInstanceRecord(long id, String name, String apptag) {
+			this.id = id;
+			this.name = name;
+			this.apptag = apptag;
+		}
+
+		private boolean isSubJob() {
+			return name.startsWith(PartitionedStepBuilder.JOB_ID_SEPARATOR);
+		}
+	}
+
+	/**
+	 * Other than the ids, guarded by the record's lock.
+	 */
+	private static class JobExecutionRecord {
+
+		private final long id;
+		private final long jobInstanceId;
+		private final Properties parameters;
+		private final Timestamp createTime;
+
+		private final List<Long> stepExecutionIds = new CopyOnWriteArrayList<Long>();
+
+		private Timestamp startTime = null;
+		private Timestamp endTime = null;
+		private Timestamp updateTime;
+		private String batchStatus;
+		private String exitStatus = null;
+
+		private JobExecutionRecord(long id, long jobInstanceId, Properties parameters, BatchStatus batchStatus, Timestamp createTime) {
+			this.id = id;
+			this.jobInstanceId = jobInstanceId;
+			this.parameters = parameters;
+			this.batchStatus = batchStatus.name();
+			this.createTime = createTime;
+			this.updateTime = createTime;
+		}
+
+		private synchronized boolean isRunning() {
+			return RUNNING_STATUSES.contains(batchStatus);
+		}
+	}
+
+	/**
+	 * Other than the ids and step status, guarded by the record's lock.
+	 */
+	private static class StepExecutionRecord {
+
+		private static final MetricImpl.MetricType[] METRIC_TYPES = { 
+			MetricImpl.MetricType.READ_COUNT, MetricImpl.MetricType.WRITE_COUNT, MetricImpl.MetricType.COMMIT_COUNT, 
+			MetricImpl.MetricType.ROLLBACK_COUNT, MetricImpl.MetricType.READ_SKIP_COUNT, MetricImpl.MetricType.PROCESS_SKIP_COUNT, 
+			MetricImpl.MetricType.FILTER_COUNT, MetricImpl.MetricType.WRITE_SKIP_COUNT };
+
+		private final long id;
+		private final long jobExecutionId;
+		private final String stepName;
+
+		private volatile byte[] stepStatus = null;
+
+		private String batchStatus;
+		private String exitStatus;
+		private final long[] metrics = new long[METRIC_TYPES.length];
+		private Timestamp startTime;
+		private Timestamp endTime;
+		private byte[] persistentData;
+
+		private StepExecutionRecord(long id, long jobExecutionId, String stepName) {
+			this.id = id;
+			this.jobExecutionId = jobExecutionId;
+			this.stepName = stepName;
+		}
+
+		private synchronized void update(StepContextImpl stepContext, Metric[] newMetrics, byte[] newPersistentData) {
+			batchStatus = stepContext.getBatchStatus() == null ? BatchStatus.STARTING.name() : stepContext.getBatchStatus().name();
+			exitStatus = stepContext.getExitStatus();
+			startTime = stepContext.getStartTimeTS();
+			endTime = stepContext.getEndTimeTS();
+			persistentData = newPersistentData;
+			for (Metric metric : newMetrics) {
+				for (int i = 0; i < METRIC_TYPES.length; i++) {
+					if (METRIC_TYPES[i].equals(metric.getType())) {
+						metrics[i] = metric.getValue();
+					}
+				}
+			}
+		}
+
+		private synchronized void addMetricsTo(long[] totals) {
+			for (int i = 0; i < metrics.length; i++) {
+				totals[i] += metrics[i];
+			}
+		}
+
+		private synchronized StepExecutionImpl toStepExecution() {
+			StepExecutionImpl stepEx = new StepExecutionImpl(jobExecutionId, id);
+			stepEx.setBatchStatus(BatchStatus.valueOf(batchStatus));
+			stepEx.setExitStatus(exitStatus);
+			stepEx.setStepName(stepName);
+			stepEx.setReadCount(metrics[0]);
+			stepEx.setWriteCount(metrics[1]);
+			stepEx.setCommitCount(metrics[2]);
+			stepEx.setRollbackCount(metrics[3]);
+			stepEx.setReadSkipCount(metrics[4]);
+			stepEx.setProcessSkipCount(metrics[5]);
+			stepEx.setFilterCount(metrics[6]);
+			stepEx.setWriteSkipCount(metrics[7]);
+			stepEx.setStartTime(startTime);
+			stepEx.setEndTime(endTime);
+			stepEx.setPersistentUserData(deserializeObject(persistentData));
+			return stepEx;
+		}
+	}
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.services.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only journal in a memory-mapped local file.
+ * 
+ * The file starts with a header holding the current generation, followed by records of:
+ * <pre>
+ * length generation crc body
+ * </pre>
+ * Only the records of the current generation, up to the first one which is incomplete, are 
+ * read back.  {@link #reset()} starts a new generation at the front of the file, so records 
+ * left over from an older generation are never mistaken for new ones.
+ * 
+ * Appending only copies into the mapped file.  {@link #sync(long)} forces it to disk, and a
+ * thread finding its record already forced by another's sync returns without forcing again,
+ * so concurrent appends share one fsync.
+ */
+class PersistenceJournal {
+
+	private final static String sourceClass = PersistenceJournal.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	private static final int MAGIC = 0x4A424A4C; // "JBJL"
+	private static final int VERSION = 1;
+	private static final int HEADER_LENGTH = 12;
+	private static final int RECORD_HEADER_LENGTH = 12;
+
+	private final File file;
+	private final RandomAccessFile raf;
+	private final FileChannel channel;
+	private final MappedByteBuffer buffer;
+
+	// Guarded by this
+	private int generation;
+	private int writePosition;
+	private long appendedBytes = 0;
+
+	// Guarded by syncLock
+	private final Object syncLock = new Object();
+	private volatile long syncedBytes = 0;
+
+	PersistenceJournal(File file, int size) throws IOException {
+		this.file = file;
+		this.raf = new RandomAccessFile(file, "rw");
+		if (raf.length() < size) {
+			raf.setLength(size);
+		}
+		this.channel = raf.getChannel();
+		this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, raf.length());
+
+		if (buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION) {
+			generation = buffer.getInt(8);
+		} else {
+			generation = 0;
+			writeHeader(1);
+		}
+		writePosition = HEADER_LENGTH;
+
+		logger.config("Opened journal: " + file + ", size = " + buffer.capacity() + ", generation = " + generation);
+	}
+
+	/**
+	 * Read back the records of the current generation, and position the journal to 
+	 * append after them.
+	 */
+	synchronized List<byte[]> readRecords() {
+		List<byte[]> records = new ArrayList<byte[]>();
+		int position = HEADER_LENGTH;
+		while (position + RECORD_HEADER_LENGTH <= buffer.capacity()) {
+			int length = buffer.getInt(position);
+			if (length <= 0 || position + RECORD_HEADER_LENGTH + length > buffer.capacity() 
+					|| buffer.getInt(position + 4) != generation) {
+				break;
+			}
+			byte[] body = new byte[length];
+			ByteBuffer reader = buffer.duplicate();
+			reader.position(position + RECORD_HEADER_LENGTH);
+			reader.get(body);
+			if (buffer.getInt(position + 8) != checksum(body)) {
+				logger.warning("Ignoring incomplete record at offset " + position + " of journal: " + file);
+				break;
+			}
+			records.add(body);
+			position += RECORD_HEADER_LENGTH + length;
+		}
+		writePosition = position;
+		return records;
+	}
+
+	/**
+	 * @return the space taken up in the journal by records with these bodies.
+	 */
+	static int getLength(List<byte[]> bodies) {
+		int length = 0;
+		for (byte[] body : bodies) {
+			length += RECORD_HEADER_LENGTH + body.length;
+		}
+		return length;
+	}
+
+	/**
+	 * @return the most space records can take up in an empty journal.
+	 */
+	int getMaxLength() {
+		return buffer.capacity() - HEADER_LENGTH;
+	}
+
+	/**
+	 * Copy records into the journal, without forcing them to disk.  Either all of them
+	 * are appended or none are.
+	 * 
+	 * @return the position to {@link #sync(long)} up to, or -1 if there is no room left for the records.
+	 */
+	synchronized long append(List<byte[]> bodies) {
+		int length = getLength(bodies);
+		if (writePosition + length > buffer.capacity()) {
+			return -1;
+		}
+		ByteBuffer writer = buffer.duplicate();
+		writer.position(writePosition);
+		for (byte[] body : bodies) {
+			writer.putInt(body.length);
+			writer.putInt(generation);
+			writer.putInt(checksum(body));
+			writer.put(body);
+		}
+		writePosition += length;
+		appendedBytes += length;
+		return appendedBytes;
+	}
+
+	/**
+	 * Force everything appended, up to at least the given position, to disk.
+	 */
+	void sync(long position) {
+		if (syncedBytes >= position) {
+			return;
+		}
+		synchronized (syncLock) {
+			// Maybe forced while waiting for the lock
+			if (syncedBytes >= position) {
+				return;
+			}
+			long upTo;
+			synchronized (this) {
+				upTo = appendedBytes;
+			}
+			buffer.force();
+			syncedBytes = upTo;
+		}
+	}
+
+	/**
+	 * @return the fraction of the journal in use.
+	 */
+	synchronized float getUsage() {
+		return (float) writePosition / buffer.capacity();
+	}
+
+	/**
+	 * Discard every record, once they are no longer needed.
+	 */
+	synchronized void reset() {
+		writeHeader(generation + 1);
+		writePosition = HEADER_LENGTH;
+		if (logger.isLoggable(Level.FINE)) {
+			logger.fine("Reset journal: " + file + " to generation = " + generation);
+		}
+	}
+
+	void close() throws IOException {
+		synchronized (syncLock) {
+			buffer.force();
+		}
+		channel.close();
+		raf.close();
+	}
+
+	private synchronized void writeHeader(int newGeneration) {
+		generation = newGeneration;
+		buffer.putInt(0, MAGIC);
+		buffer.putInt(4, VERSION);
+		buffer.putInt(8, generation);
+		// Before any record of the new generation is written
+		buffer.force();
+	}
+
+	private static int checksum(byte[] body) {
+		CRC32 crc = new CRC32();
+		crc.update(body);
+		return (int) crc.getValue();
+	}
+}
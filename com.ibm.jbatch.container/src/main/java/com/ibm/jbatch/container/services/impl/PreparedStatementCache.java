@@ -0,0 +1,247 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.services.impl;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The prepared statements of one pooled physical connection, keyed by their SQL (along with any
+ * other prepareStatement() arguments), and bounded by evicting the least recently used.
+ * 
+ * Closing a statement handed out by {@link #prepareStatement(Connection, Method, Object[])} closes its
+ * result sets and clears its parameters, but keeps it open for the next time the same SQL is
+ * prepared on this connection.  
+ * 
+ * Only used by one thread at a time, i.e. whichever has the connection.
+ */
+class PreparedStatementCache {
+
+	private final static String sourceClass = PreparedStatementCache.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	private final Connection physicalConnection;
+	private final Map<String, CachedStatement> statements;
+
+	PreparedStatementCache(Connection physicalConnection, final int maxSize) {
+		this.physicalConnection = physicalConnection;
+		this.statements = new LinkedHashMap<String, CachedStatement>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+				if (size() > maxSize) {
+					eldest.getValue().evict();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * @param pooledConnection the connection the application sees, which the statement 
+	 * reports as its connection
+	 * @param prepareMethod one of the Connection.prepareStatement() methods
+	 * @param args its arguments, starting with the SQL
+	 */
+	PreparedStatement prepareStatement(Connection pooledConnection, Method prepareMethod, Object[] args) throws SQLException {
+		String key = Arrays.deepToString(args);
+		CachedStatement cached = statements.get(key);
+
+		if (cached != null && cached.user != null) {
+			// The same SQL prepared again before the first was closed, so this one's not cached
+			return (PreparedStatement) invoke(physicalConnection, prepareMethod, args);
+		}
+
+		if (cached == null) {
+			if (logger.isLoggable(Level.FINEST)) {
+				logger.finest("Preparing statement for cache: " + key);
+			}
+			cached = new CachedStatement((PreparedStatement) invoke(physicalConnection, prepareMethod, args));
+			statements.put(key, cached);
+		}
+
+		cached.user = new CachedStatementHandler(cached, pooledConnection);
+		return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), 
+				new Class<?>[] { PreparedStatement.class }, cached.user);
+	}
+
+	/**
+	 * Called when the connection goes back to the pool, in case the application didn't close 
+	 * all its statements.
+	 */
+	void releaseAll() {
+		for (CachedStatement cached : new ArrayList<CachedStatement>(statements.values())) {
+			if (cached.user != null) {
+				cached.user.release();
+			}
+		}
+	}
+
+	/**
+	 * Called when the connection is closed for good.  Statements the application still has
+	 * are closed too.
+	 */
+	void closeAll() {
+		for (CachedStatement cached : statements.values()) {
+			cached.user = null;
+			cached.evict();
+		}
+		statements.clear();
+	}
+
+	int size() {
+		return statements.size();
+	}
+
+	private void remove(CachedStatement cached) {
+		statements.values().remove(cached);
+		cached.evict();
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws SQLException {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			if (e.getCause() instanceof SQLException) {
+				throw (SQLException) e.getCause();
+			} else if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new SQLException(e.getCause());
+		} catch (IllegalAccessException e) {
+			throw new SQLException(e);
+		}
+	}
+
+	private static class CachedStatement {
+
+		private final PreparedStatement statement;
+
+		// Non-null while the application has it
+		private CachedStatementHandler user = null;
+
+		// No longer in the cache, so close it once the application's done with it
+		private boolean evicted = false;
+
+		CachedStatement(PreparedStatement statement) {
+			this.statement = statement;
+		}
+
+		void evict() {
+			evicted = true;
+			if (user == null) {
+				try {
+					statement.close();
+				} catch (SQLException e) {
+					logger.log(Level.FINE, "Closing evicted statement failed", e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The statement the application sees, which stays open in the cache when closed.
+	 */
+	private class CachedStatementHandler implements InvocationHandler {
+
+		private final CachedStatement cached;
+		private final Connection pooledConnection;
+		private final List<ResultSet> resultSets = new ArrayList<ResultSet>(1);
+		private boolean closed = false;
+
+		CachedStatementHandler(CachedStatement cached, Connection pooledConnection) {
+			this.cached = cached;
+			this.pooledConnection = pooledConnection;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (name.equals("equals")) {
+				return proxy == args[0];
+			} else if (name.equals("hashCode")) {
+				return System.identityHashCode(proxy);
+			} else if (name.equals("toString")) {
+				return "Cached statement [" + cached.statement + "]";
+			} else if (name.equals("close")) {
+				release();
+				return null;
+			} else if (name.equals("isClosed")) {
+				return closed || cached.statement.isClosed();
+			} else if (closed) {
+				throw new SQLException("Statement is closed");
+			} else if (name.equals("getConnection")) {
+				return pooledConnection;
+			}
+
+			Object result = PreparedStatementCache.invoke(cached.statement, method, args);
+			if (result instanceof ResultSet) {
+				resultSets.add((ResultSet) result);
+			}
+			return result;
+		}
+
+		/**
+		 * Put the statement back how it was when first prepared.
+		 */
+		void release() {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			cached.user = null;
+
+			for (ResultSet rs : resultSets) {
+				try {
+					rs.close();
+				} catch (SQLException e) {
+					logger.log(Level.FINE, "Closing result set failed", e);
+				}
+			}
+			resultSets.clear();
+
+			if (cached.evicted) {
+				cached.evict();
+				return;
+			}
+
+			try {
+				cached.statement.clearParameters();
+				cached.statement.clearBatch();
+				cached.statement.clearWarnings();
+			} catch (SQLException e) {
+				logger.log(Level.FINE, "Couldn't reset cached statement, so closing it", e);
+				remove(cached);
+			}
+		}
+	}
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.services.impl;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ibm.jbatch.container.exception.BatchContainerServiceException;
+import com.ibm.jbatch.container.util.BatchFlowInSplitWorkUnit;
+import com.ibm.jbatch.spi.services.IBatchConfig;
+import com.ibm.jbatch.spi.services.ParallelTaskResult;
+
+/**
+ * Runs top-level jobs, partitions and split flows on three separate, independently sized 
+ * thread pools.
+ * 
+ * With a single bounded pool, a partitioned step (or a split) holds its thread while it 
+ * waits for the partitions it submitted to the same pool.  Once every thread is such a
+ * waiting parent, nothing can make progress.  Here a parent only ever waits on work in 
+ * a different tier, so the partition and split flow pools always drain.  
+ * 
+ * Each tier is configured in batch-config.properties, e.g.:
+ * <pre>
+ * TIERED_THREADPOOL_JOB_MAX_POOL_SIZE=5
+ * TIERED_THREADPOOL_JOB_MAX_QUEUE_SIZE=4096
+ * TIERED_THREADPOOL_PARTITION_MAX_POOL_SIZE=10
+ * TIERED_THREADPOOL_PARTITION_MAX_QUEUE_SIZE=-1
+ * TIERED_THREADPOOL_SPLIT_FLOW_MAX_POOL_SIZE=5
+ * </pre>
+ * A queue size of -1 means unbounded.  Work submitted to a tier whose threads are all busy
+ * and whose queue is full is rejected with a RejectedExecutionException.
+ * 
+ * Note a split flow containing another split still waits within its own tier, so the split
+ * flow pool should be sized for the deepest nesting of splits.
+ */
+public class TieredThreadPoolServiceImpl extends AbstractThreadPoolServiceImpl {
+
+	private final static String sourceClass = TieredThreadPoolServiceImpl.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	public enum Tier {
+		JOB("5"), PARTITION("10"), SPLIT_FLOW("5");
+
+		private final String defaultMaxPoolSize;
+
+		private Tier(String defaultMaxPoolSize) {
+			this.defaultMaxPoolSize = defaultMaxPoolSize;
+		}
+
+		String getMaxPoolSizeProperty() {
+			return "TIERED_THREADPOOL_" + name() + "_MAX_POOL_SIZE";
+		}
+
+		String getMaxQueueSizeProperty() {
+			return "TIERED_THREADPOOL_" + name() + "_MAX_QUEUE_SIZE";
+		}
+	}
+
+	private static final String DEFAULT_MAX_QUEUE_SIZE = "4096";
+	private static final int IDLE_THREAD_TIMEOUT = 900;
+
+	private final Map<Tier, ThreadPoolExecutor> pools = new EnumMap<Tier, ThreadPoolExecutor>(Tier.class);
+	private final Map<Tier, AtomicLong> rejectedCounts = new EnumMap<Tier, AtomicLong>(Tier.class);
+
+	public TieredThreadPoolServiceImpl() {
+		super();
+	}
+
+	@Override
+	public void init(IBatchConfig batchConfig) throws BatchContainerServiceException {
+		String method = "init";
+		if(logger.isLoggable(Level.FINER)) { logger.entering(sourceClass, method);	}
+
+		Properties configProperties = batchConfig != null ? batchConfig.getConfigProperties() : null;
+		if (configProperties == null) {
+			configProperties = new Properties();
+		}
+
+		for (Tier tier : Tier.values()) {
+			int maxPoolSize = getIntProperty(configProperties, tier.getMaxPoolSizeProperty(), tier.defaultMaxPoolSize);
+			int maxQueueSize = getIntProperty(configProperties, tier.getMaxQueueSizeProperty(), DEFAULT_MAX_QUEUE_SIZE);
+			if (maxPoolSize < 1) {
+				throw new BatchContainerServiceException("Value of " + tier.getMaxPoolSizeProperty() + " must be at least 1, found: " + maxPoolSize);
+			}
+
+			if(logger.isLoggable(Level.FINE)) { 
+				logger.fine("Thread pool settings for tier " + tier + ": (" + maxPoolSize + "," + IDLE_THREAD_TIMEOUT + "," 
+						+ TimeUnit.SECONDS + "," + maxQueueSize + ")");  
+			}
+
+			BlockingQueue<Runnable> queue = null;
+			if (maxQueueSize == -1) {
+				queue = new LinkedBlockingQueue<Runnable>();
+			} else {
+				queue = new LinkedBlockingQueue<Runnable>(maxQueueSize);
+			}
+
+			AtomicLong rejectedCount = new AtomicLong();
+			rejectedCounts.put(tier, rejectedCount);
+
+			// Core size == max size, so that the pool grows to its maximum before queueing
+			// anything, with idle threads still timing out.
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(maxPoolSize, maxPoolSize, IDLE_THREAD_TIMEOUT, TimeUnit.SECONDS, queue,
+					new TierThreadFactory(tier), new CountingAbortPolicy(tier, rejectedCount));
+			pool.allowCoreThreadTimeOut(true);
+			pools.put(tier, pool);
+		}
+
+		// Anything relying on the superclass gets the top-level pool
+		executorService = pools.get(Tier.JOB);
+
+		if(logger.isLoggable(Level.FINER)) { logger.exiting(sourceClass, method);	}
+	}
+
+	@Override
+	public void shutdown() throws BatchContainerServiceException {
+		String method = "shutdown";
+		if(logger.isLoggable(Level.FINER)) { logger.entering(sourceClass, method);	}
+
+		for (ThreadPoolExecutor pool : pools.values()) {
+			pool.shutdownNow();
+		}
+		pools.clear();
+		executorService = null;
+
+		if(logger.isLoggable(Level.FINER)) { logger.exiting(sourceClass, method);	}
+	}
+
+	/**
+	 * The container submits top-level jobs (start and restart) here.
+	 */
+	@Override
+	public void executeTask(Runnable work, Object config) {
+		String method = "executeTask";
+		if(logger.isLoggable(Level.FINER)) { logger.entering(sourceClass, method);	}
+
+		pools.get(Tier.JOB).execute(work);
+
+		if(logger.isLoggable(Level.FINER)) { logger.exiting(sourceClass, method);	}
+	}
+
+	/**
+	 * The container submits partitions and split flows here.
+	 */
+	@Override
+	public ParallelTaskResult executeParallelTask(Runnable work, Object config) {
+		String method = "executeParallelTask";
+		if(logger.isLoggable(Level.FINER)) { logger.entering(sourceClass, method);	}
+
+		Tier tier = (work instanceof BatchFlowInSplitWorkUnit) ? Tier.SPLIT_FLOW : Tier.PARTITION;
+		ParallelTaskResult taskResult = new JSEResultAdapter(pools.get(tier).submit(work));
+
+		if(logger.isLoggable(Level.FINER)) { logger.exiting(sourceClass, method);	}
+
+		return taskResult;
+	}
+
+	/**
+	 * @return the approximate number of threads in the tier currently running work
+	 */
+	public int getActiveCount(Tier tier) {
+		return pools.get(tier).getActiveCount();
+	}
+
+	/**
+	 * @return the current number of threads in the tier, busy or idle
+	 */
+	public int getPoolSize(Tier tier) {
+		return pools.get(tier).getPoolSize();
+	}
+
+	/**
+	 * @return the largest number of threads the tier has ever had at once
+	 */
+	public int getLargestPoolSize(Tier tier) {
+		return pools.get(tier).getLargestPoolSize();
+	}
+
+	/**
+	 * @return the number of tasks waiting for a thread in the tier
+	 */
+	public int getQueueSize(Tier tier) {
+		return pools.get(tier).getQueue().size();
+	}
+
+	/**
+	 * @return the approximate number of tasks the tier has finished running
+	 */
+	public long getCompletedTaskCount(Tier tier) {
+		return pools.get(tier).getCompletedTaskCount();
+	}
+
+	/**
+	 * @return the number of tasks the tier turned away because its queue was full
+	 */
+	public long getRejectedTaskCount(Tier tier) {
+		return rejectedCounts.get(tier).get();
+	}
+
+	private int getIntProperty(Properties configProperties, String name, String defaultValue) {
+		String value = configProperties.getProperty(name, defaultValue).trim();
+		try {
+			return Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			throw new BatchContainerServiceException("Value of " + name + " is not an integer: " + value, e);
+		}
+	}
+
+	private static class CountingAbortPolicy implements RejectedExecutionHandler {
+
+		private final Tier tier;
+		private final AtomicLong rejectedCount;
+
+		CountingAbortPolicy(Tier tier, AtomicLong rejectedCount) {
+			this.tier = tier;
+			this.rejectedCount = rejectedCount;
+		}
+
+		@Override
+		public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+			rejectedCount.incrementAndGet();
+			throw new RejectedExecutionException("The " + tier + " thread pool is busy and its queue is full (" 
+					+ executor.getQueue().size() + " tasks)");
+		}
+	}
+
+	private static class TierThreadFactory implements ThreadFactory {
+
+		private final String namePrefix;
+		private final AtomicInteger count = new AtomicInteger();
+
+		TierThreadFactory(Tier tier) {
+			this.namePrefix = "jbatch-" + tier.name().toLowerCase().replace('_', '-') + "-";
+		}
+
+		@Override
+		public Thread newThread(Runnable r) {
+			return new Thread(r, namePrefix + count.incrementAndGet());
+		}
+	}
+}
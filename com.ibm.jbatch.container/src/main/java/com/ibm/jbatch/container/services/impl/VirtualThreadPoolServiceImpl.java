@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.container.services.impl;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ibm.jbatch.container.exception.BatchContainerServiceException;
+import com.ibm.jbatch.spi.services.IBatchConfig;
+
+/**
+ * Runs each job, partition and split flow on its own virtual thread, when running on a JVM
+ * which has them (Java 21 and later).  Since a partitioned step or a split spends most of its 
+ * time waiting on its partitions or flows, a virtual thread lets it wait without holding on 
+ * to a platform thread.
+ * 
+ * The runtime is built for older JVMs, so the virtual thread API is looked up reflectively.  
+ * Without it, this behaves just like {@link GrowableThreadPoolServiceImpl}.
+ */
+public class VirtualThreadPoolServiceImpl extends AbstractThreadPoolServiceImpl {
+
+	private final static String sourceClass = VirtualThreadPoolServiceImpl.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	private static final String THREAD_NAME_PREFIX = "jbatch-virtual-";
+
+	public VirtualThreadPoolServiceImpl() {
+		super();
+	}
+
+	public void init(IBatchConfig pgcConfig) throws BatchContainerServiceException {
+		String method = "init";
+		if(logger.isLoggable(Level.FINER)) { logger.entering(sourceClass, method);	}
+
+		executorService = newVirtualThreadPerTaskExecutor();
+
+		if (executorService == null) {
+			logger.config("Virtual threads are not available on this JVM, using a growable pool of platform threads instead");
+			executorService = Executors.newCachedThreadPool();
+		}
+
+		if(logger.isLoggable(Level.FINER)) { logger.exiting(sourceClass, method);	}
+	}
+
+	/**
+	 * Equivalent to: 
+	 * <pre>
+	 * Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(THREAD_NAME_PREFIX, 1).factory())
+	 * </pre>
+	 * 
+	 * @return the executor, or null if virtual threads aren't available
+	 */
+	static ExecutorService newVirtualThreadPerTaskExecutor() {
+		try {
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, THREAD_NAME_PREFIX, 1L);
+			ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+
+			Method newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+			return (ExecutorService) newThreadPerTaskExecutor.invoke(null, factory);
+		} catch (NoSuchMethodException e) {
+			return null;
+		} catch (ClassNotFoundException e) {
+			return null;
+		} catch (Exception e) {
+			// e.g. virtual threads are a preview feature which hasn't been enabled
+			logger.log(Level.FINE, "Couldn't create virtual thread executor", e);
+			return null;
+		}
+	}
+}
@@ -31,17 +31,20 @@ public class ServiceTypes implements ServiceRegistry.ServicePropertyNames, Servi
 	public static final String CALLBACK_SERVICE = "CALLBACK_SERVICE";
 	public static final String JOB_STATUS_MANAGEMENT_SERVICE = "JOB_STATUS_MANAGEMENT_SERVICE";
 	public static final String PERSISTENCE_MANAGEMENT_SERVICE = "PERSISTENCE_MANAGEMENT_SERVICE";
+	public static final String PERSISTENCE_DATA_CODEC_SERVICE = "PERSISTENCE_DATA_CODEC_SERVICE";
 
 	// Internal-only impls
 	private static final String DEFAULT_BATCH_KERNEL_SERVICE = "com.ibm.jbatch.container.impl.BatchKernelImpl";
 	private static final String DEFAULT_CALLBACK_SERVICE = "com.ibm.jbatch.container.callback.JobEndCallbackManagerImpl";
 	private static final String DEFAULT_PERSISTENCE_MGR_CLASS = "com.ibm.jbatch.container.services.impl.JDBCPersistenceManagerImpl";
+	private static final String DEFAULT_PERSISTENCE_DATA_CODEC_CLASS = "com.ibm.jbatch.container.services.impl.CompactPersistenceDataCodecImpl";
 	private static final String DEFAULT_JOBSTATUS_MGR_SERVICE = "com.ibm.jbatch.container.services.impl.JobStatusManagerImpl";
 
 	public enum Name {
 		JAVA_EDITION_IS_SE_DUMMY_SERVICE, 
 		TRANSACTION_SERVICE, 
 		PERSISTENCE_MANAGEMENT_SERVICE, 
+		PERSISTENCE_DATA_CODEC_SERVICE, 
 		JOB_STATUS_MANAGEMENT_SERVICE, 
 		BATCH_THREADPOOL_SERVICE, 
 		BATCH_KERNEL_SERVICE, 
@@ -65,6 +68,7 @@ public class ServiceTypes implements ServiceRegistry.ServicePropertyNames, Servi
 		servicePropertyNames.put(J2SE_MODE, Name.JAVA_EDITION_IS_SE_DUMMY_SERVICE);
 		servicePropertyNames.put(TRANSACTION_SERVICE, Name.TRANSACTION_SERVICE);
 		servicePropertyNames.put(PERSISTENCE_MANAGEMENT_SERVICE, Name.PERSISTENCE_MANAGEMENT_SERVICE);
+		servicePropertyNames.put(PERSISTENCE_DATA_CODEC_SERVICE, Name.PERSISTENCE_DATA_CODEC_SERVICE);
 		servicePropertyNames.put(JOB_STATUS_MANAGEMENT_SERVICE, Name.JOB_STATUS_MANAGEMENT_SERVICE);
 		servicePropertyNames.put(BATCH_THREADPOOL_SERVICE, Name.BATCH_THREADPOOL_SERVICE);
 		servicePropertyNames.put(BATCH_KERNEL_SERVICE, Name.BATCH_KERNEL_SERVICE);
@@ -86,6 +90,7 @@ public class ServiceTypes implements ServiceRegistry.ServicePropertyNames, Servi
 		serviceImplClassNames.put(Name.JAVA_EDITION_IS_SE_DUMMY_SERVICE, DEFAULT_JAVA_EDITION_IS_SE_DUMMY_SERVICE);
 		serviceImplClassNames.put(Name.TRANSACTION_SERVICE, TRANSACTION_DEFAULT);
 		serviceImplClassNames.put(Name.PERSISTENCE_MANAGEMENT_SERVICE, DEFAULT_PERSISTENCE_MGR_CLASS);
+		serviceImplClassNames.put(Name.PERSISTENCE_DATA_CODEC_SERVICE, DEFAULT_PERSISTENCE_DATA_CODEC_CLASS);
 		serviceImplClassNames.put(Name.JOB_STATUS_MANAGEMENT_SERVICE, DEFAULT_JOBSTATUS_MGR_SERVICE);
 		serviceImplClassNames.put(Name.BATCH_THREADPOOL_SERVICE, BATCH_THREADPOOL_GROWABLE);
 		serviceImplClassNames.put(Name.BATCH_KERNEL_SERVICE, DEFAULT_BATCH_KERNEL_SERVICE);
@@ -19,6 +19,7 @@ package com.ibm.jbatch.container.servicesmanager;
 import com.ibm.jbatch.container.callback.IJobEndCallbackService;
 import com.ibm.jbatch.container.services.IBatchKernelService;
 import com.ibm.jbatch.container.services.IJobStatusManagerService;
+import com.ibm.jbatch.container.services.IPersistenceDataCodecService;
 import com.ibm.jbatch.container.services.IPersistenceManagerService;
 import com.ibm.jbatch.spi.BatchSPIManager.PlatformMode;
 import com.ibm.jbatch.spi.services.IBatchArtifactFactory;
@@ -28,6 +29,7 @@ import com.ibm.jbatch.spi.services.ITransactionManagementService;
 
 public interface ServicesManager {
 	public IPersistenceManagerService getPersistenceManagerService();
+	public IPersistenceDataCodecService getPersistenceDataCodecService();
 	public IJobStatusManagerService getJobStatusManagerService();
 	public ITransactionManagementService getTransactionManagementService();
 	public IJobEndCallbackService getJobCallbackService();
@@ -34,6 +34,7 @@ import com.ibm.jbatch.container.exception.PersistenceException;
 import com.ibm.jbatch.container.impl.BatchConfigImpl;
 import com.ibm.jbatch.container.services.IBatchKernelService;
 import com.ibm.jbatch.container.services.IJobStatusManagerService;
+import com.ibm.jbatch.container.services.IPersistenceDataCodecService;
 import com.ibm.jbatch.container.services.IPersistenceManagerService;
 import com.ibm.jbatch.container.servicesmanager.ServiceTypes.Name;
 import com.ibm.jbatch.container.util.BatchContainerConstants;
@@ -333,6 +334,11 @@ public class ServicesManagerImpl implements BatchContainerConstants, ServicesMan
 		return (IPersistenceManagerService)getService(Name.PERSISTENCE_MANAGEMENT_SERVICE);
 	}
 
+	@Override
+	public IPersistenceDataCodecService getPersistenceDataCodecService() {
+		return (IPersistenceDataCodecService)getService(Name.PERSISTENCE_DATA_CODEC_SERVICE);
+	}
+
 	@Override
 	public IJobStatusManagerService getJobStatusManagerService() {
 		return (IJobStatusManagerService)getService(Name.JOB_STATUS_MANAGEMENT_SERVICE);
@@ -133,4 +133,13 @@ public class JobStatus implements Serializable, Cloneable{
     public void setRestartOn(String restartOn) {
         this.restartOn = restartOn;
     }
+
+    @Override
+    public JobStatus clone() {
+        try {
+            return (JobStatus) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -80,6 +80,10 @@ public class StepStatus implements Serializable {
         startCount++;
     }
 
+    public void setStartCount(int startCount) {
+        this.startCount = startCount;
+    }
+
     public void setExitStatus(String exitStatus) {
         this.exitStatus = exitStatus;
     }
@@ -92,6 +96,10 @@ public class StepStatus implements Serializable {
         this.persistentUserData = persistentUserData;
     }
 
+    public PersistentDataWrapper getPersistentUserDataWrapper() {
+        return persistentUserData;
+    }
+
     public Serializable getPersistentUserData() {
         if (this.persistentUserData != null) {
             byte[] persistentToken = this.persistentUserData.getPersistentDataBytes();
@@ -32,9 +32,41 @@ public interface BatchContainerConstants {
 	public static final String DB_USER = "DB_USER";
 	public static final String DB_PASSWORD = "DB_PWD";
 	public static final String DB_SCHEMA = "DB_SCHEMA";
+
+	// SE mode connection pool, a max size of 0 turns pooling off
+	public static final String JDBC_POOL_MAX_SIZE = "JDBC_POOL_MAX_SIZE";
+	public static final String JDBC_POOL_IDLE_TIMEOUT = "JDBC_POOL_IDLE_TIMEOUT";
+	public static final String JDBC_POOL_MAX_WAIT = "JDBC_POOL_MAX_WAIT";
+	public static final String JDBC_POOL_VALIDATION_TIMEOUT = "JDBC_POOL_VALIDATION_TIMEOUT";
+	public static final String JDBC_POOL_STATEMENT_CACHE_SIZE = "JDBC_POOL_STATEMENT_CACHE_SIZE";
+
+	// Compress persistent data longer than this many bytes, 0 never compresses
+	public static final String PERSISTENCE_CODEC_COMPRESSION_THRESHOLD = "PERSISTENCE_CODEC_COMPRESSION_THRESHOLD";
+
+	// In-memory persistence, a max of 0 keeps every job instance
+	public static final String MEMORY_PERSISTENCE_MAX_JOB_INSTANCES = "MEMORY_PERSISTENCE_MAX_JOB_INSTANCES";
+
+	// Journaling persistence, the size is in bytes and the interval in milliseconds
+	public static final String JOURNAL_PERSISTENCE_DELEGATE = "JOURNAL_PERSISTENCE_DELEGATE";
+	public static final String JOURNAL_FILE = "JOURNAL_FILE";
+	public static final String JOURNAL_SIZE = "JOURNAL_SIZE";
+	public static final String JOURNAL_COMPACTION_INTERVAL = "JOURNAL_COMPACTION_INTERVAL";
+
+	// Hold the job status of running executions in memory, true or false
+	public static final String JOB_STATUS_CACHE = "JOB_STATUS_CACHE";
+
+	// Read running job executions as snapshots too, true or false, and how many finished ones to cache
+	public static final String JOB_EXECUTION_SNAPSHOT = "JOB_EXECUTION_SNAPSHOT";
+	public static final String JOB_EXECUTION_CACHE_SIZE = "JOB_EXECUTION_CACHE_SIZE";
 	
 	public static final String DEFAULT_JDBC_JNDI_NAME = "jdbc/batch";
 	public static final String DEFAULT_JDBC_DRIVER = "org.apache.derby.jdbc.EmbeddedDriver";
 	public static final String DEFAULT_JDBC_URL = "jdbc:derby:RUNTIMEDB;create=true";
 	public static final String DEFAULT_DB_SCHEMA = "JBATCH";
+	public static final String DEFAULT_JDBC_POOL_MAX_SIZE = "20";
+	public static final String DEFAULT_JDBC_POOL_IDLE_TIMEOUT = "300";
+	public static final String DEFAULT_JDBC_POOL_MAX_WAIT = "60";
+	public static final String DEFAULT_JDBC_POOL_VALIDATION_TIMEOUT = "5";
+	public static final String DEFAULT_JDBC_POOL_STATEMENT_CACHE_SIZE = "50";
+	public static final String DEFAULT_JOB_EXECUTION_CACHE_SIZE = "0";
 }
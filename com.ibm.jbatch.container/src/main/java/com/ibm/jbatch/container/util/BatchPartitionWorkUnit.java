@@ -27,8 +27,13 @@ public class BatchPartitionWorkUnit extends BatchParallelWorkUnit {
 	public BatchPartitionWorkUnit(IBatchKernelService batchKernelService,
 			RuntimeJobExecution jobExecution,
 			PartitionsBuilderConfig config) {
-		super(batchKernelService, jobExecution, true);
+		// A lightweight partition isn't an execution in its own right, so there's nothing to notify
+		super(batchKernelService, jobExecution, !config.isLightweight());
 		this.completedThreadQueue = config.getCompletedQueue();
+		if (config.getWorkRangePool() != null) {
+			jobExecution.setWorkRangeQueue(config.getWorkRangePool().newPartitionQueue());
+		}
+		jobExecution.setElasticConcurrency(config.getElasticConcurrency());
 		this.controller = new PartitionThreadRootControllerImpl(jobExecution, config);
 	}
 
@@ -20,6 +20,10 @@ import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.BlockingQueue;
 
+import com.ibm.jbatch.container.impl.ElasticConcurrency;
+import com.ibm.jbatch.container.impl.WorkRangePool;
+import com.ibm.jbatch.container.jobinstance.RuntimeJobExecution;
+import com.ibm.jbatch.container.status.StepStatus;
 import com.ibm.jbatch.jsl.model.JSLJob;
 
 public class PartitionsBuilderConfig {
@@ -29,6 +33,15 @@ public class PartitionsBuilderConfig {
     private BlockingQueue<PartitionDataWrapper> analyzerQueue;
     private BlockingQueue<BatchPartitionWorkUnit> completedQueue;
     private long rootJobExecutionId;
+
+    // Only for lightweight partitions
+    private RuntimeJobExecution parentJobExecution;
+    private String stepId;
+    private StepStatus[] partitionStepStatuses;
+
+    // Only for a dynamic partition plan
+    private WorkRangePool workRangePool;
+    private ElasticConcurrency elasticConcurrency;
     
 	public PartitionsBuilderConfig(List<JSLJob> jobModels,
 			Properties[] partitionProperties,
@@ -47,6 +60,36 @@ public class PartitionsBuilderConfig {
 		return rootJobExecutionId;
 	}
 
+	/**
+	 * Build lightweight partitions, which run as part of the parent job execution.
+	 * 
+	 * @param parentJobExecution the job execution running the partitioned step
+	 * @param stepId the id of the partitioned step
+	 * @param partitionStepStatuses indexed by partition, the step status each partition is restarting 
+	 *        from on a normal restart, or null where there isn't one
+	 */
+	public void setLightweight(RuntimeJobExecution parentJobExecution, String stepId, StepStatus[] partitionStepStatuses) {
+		this.parentJobExecution = parentJobExecution;
+		this.stepId = stepId;
+		this.partitionStepStatuses = partitionStepStatuses;
+	}
+
+	public boolean isLightweight() {
+		return parentJobExecution != null;
+	}
+
+	public RuntimeJobExecution getParentJobExecution() {
+		return parentJobExecution;
+	}
+
+	public String getStepId() {
+		return stepId;
+	}
+
+	public StepStatus[] getPartitionStepStatuses() {
+		return partitionStepStatuses;
+	}
+
     public List<JSLJob> getJobModels() {
 		return jobModels;
 	}
@@ -72,6 +115,18 @@ public class PartitionsBuilderConfig {
 			BlockingQueue<BatchPartitionWorkUnit> completedQueue) {
 		this.completedQueue = completedQueue;
 	}
+	public WorkRangePool getWorkRangePool() {
+		return workRangePool;
+	}
+	public void setWorkRangePool(WorkRangePool workRangePool) {
+		this.workRangePool = workRangePool;
+	}
+	public ElasticConcurrency getElasticConcurrency() {
+		return elasticConcurrency;
+	}
+	public void setElasticConcurrency(ElasticConcurrency elasticConcurrency) {
+		this.elasticConcurrency = elasticConcurrency;
+	}
 
 
 	
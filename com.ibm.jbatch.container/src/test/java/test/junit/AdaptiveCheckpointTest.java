@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.batch.api.chunk.AbstractItemReader;
+import javax.batch.api.chunk.AbstractItemWriter;
+import javax.batch.operations.JobOperator;
+import javax.batch.runtime.BatchRuntime;
+import javax.batch.runtime.BatchStatus;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class AdaptiveCheckpointTest {
+
+	private static JobOperator jobOp = null;
+	private static int sleepTime = 3000;
+
+	private static final int NUM_ITEMS = 40;
+
+	static List<Object> written = new ArrayList<Object>();
+	static List<Integer> chunkSizes = new ArrayList<Integer>();
+
+	@BeforeClass
+	public static void init() {
+		jobOp = BatchRuntime.getJobOperator();
+	}
+
+	@Test
+	public void testItemCountGrowsToMaximum() throws Exception {
+		long execId = jobOp.start("adaptiveCheckpoint", null);
+		Thread.sleep(sleepTime);
+		assertEquals("Job batch status", BatchStatus.COMPLETED, jobOp.getJobExecution(execId).getBatchStatus());
+
+		List<Object> expected = new ArrayList<Object>();
+		for (int i = 1; i <= NUM_ITEMS; i++) {
+			expected.add(i);
+		}
+		assertEquals("Written items", expected, written);
+
+		// At ~10 ms per item and a 200 ms target, the item count should grow from 2 up to the maximum of 8
+		assertEquals("First chunk size", Integer.valueOf(2), chunkSizes.get(0));
+		int largest = 0;
+		for (int size : chunkSizes) {
+			assertTrue("Chunk size " + size + " over maximum", size <= 8);
+			largest = Math.max(largest, size);
+		}
+		assertEquals("Largest chunk size", 8, largest);
+	}
+
+	public static class Reader extends AbstractItemReader {
+
+		int next = 1;
+
+		@Override
+		public Object readItem() throws Exception {
+			if (next > NUM_ITEMS) {
+				return null;
+			}
+			Thread.sleep(10);
+			return next++;
+		}
+	}
+
+	public static class Writer extends AbstractItemWriter {
+		@Override
+		public void writeItems(List<Object> items) {
+			chunkSizes.add(items.size());
+			written.addAll(items);
+		}
+	}
+}
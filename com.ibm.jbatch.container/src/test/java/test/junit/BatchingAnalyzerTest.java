@@ -0,0 +1,192 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.batch.api.chunk.AbstractItemReader;
+import javax.batch.api.chunk.AbstractItemWriter;
+import javax.batch.api.partition.PartitionAnalyzer;
+import javax.batch.api.partition.PartitionCollector;
+import javax.batch.api.partition.PartitionMapper;
+import javax.batch.api.partition.PartitionPlan;
+import javax.batch.api.partition.PartitionPlanImpl;
+import javax.batch.operations.JobOperator;
+import javax.batch.runtime.BatchRuntime;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.ibm.jbatch.container.api.BatchingPartitionAnalyzer;
+
+public class BatchingAnalyzerTest {
+	static JobOperator jobOp = null;
+
+	private static int sleepTime = 3000;
+
+	private static final int PARTITIONS = 8;
+
+	// The batches of collector data the analyzer was given, and the statuses
+	static List<List<Serializable>> batches = Collections.synchronizedList(new ArrayList<List<Serializable>>());
+	static List<BatchStatus> statuses = Collections.synchronizedList(new ArrayList<BatchStatus>());
+	static volatile boolean calledOneAtATime = false;
+
+	static volatile int analyzedBeforeError = 0;
+
+	@BeforeClass
+	public static void init() {
+		jobOp = BatchRuntime.getJobOperator();
+	}
+
+	@Test
+	public void testBatches() throws Exception {
+		long execId = jobOp.start("batchingAnalyzer", new Properties());
+		Thread.sleep(sleepTime);
+		assertEquals("Didn't complete successfully", BatchStatus.COMPLETED, jobOp.getJobExecution(execId).getBatchStatus());
+
+		assertFalse("analyzer given collector data one at a time", calledOneAtATime);
+		assertEquals("statuses", PARTITIONS, statuses.size());
+
+		// Each partition's data arrives in the order it was collected, and none of it is lost
+		Map<String, Integer> next = new HashMap<String, Integer>();
+		int largestBatch = 0;
+		for (List<Serializable> batch : batches) {
+			largestBatch = Math.max(largestBatch, batch.size());
+			for (Serializable data : batch) {
+				String[] partitionAndCount = ((String) data).split(":");
+				Integer expected = next.containsKey(partitionAndCount[0]) ? next.get(partitionAndCount[0]) : 0;
+				assertEquals("data from partition " + partitionAndCount[0], expected.intValue(), Integer.parseInt(partitionAndCount[1]));
+				next.put(partitionAndCount[0], expected + 1);
+			}
+		}
+		assertEquals("partitions sending data: " + next, PARTITIONS, next.size());
+		for (Integer count : next.values()) {
+			assertTrue("collected: " + next, count > 10);
+		}
+
+		// The analyzer is slower than the partitions, so the data backs up and is handed over together
+		assertTrue("largest batch: " + largestBatch, largestBatch > 1);
+	}
+
+	@Test
+	public void testParentFailsWhileQueueFull() throws Exception {
+		long execId = jobOp.start("analyzerQueueAfterError", new Properties());
+		Thread.sleep(sleepTime);
+		assertEquals("Didn't fail", BatchStatus.FAILED, jobOp.getJobExecution(execId).getBatchStatus());
+		assertTrue("analyzed before the parent failed: " + analyzedBeforeError, analyzedBeforeError >= 3);
+
+		// The parent left its loop with the partitions still sending data, but none of them is left waiting on the queue
+		for (Map.Entry<Thread, StackTraceElement[]> thread : Thread.getAllStackTraces().entrySet()) {
+			for (StackTraceElement element : thread.getValue()) {
+				assertFalse("Blocked on the analyzer queue: " + thread.getKey(), "putOnAnalyzerQueue".equals(element.getMethodName()));
+			}
+		}
+	}
+
+	public static class Mapper implements PartitionMapper {
+		@Override
+		public PartitionPlan mapPartitions() throws Exception {
+			PartitionPlanImpl plan = new PartitionPlanImpl();
+			plan.setPartitions(PARTITIONS);
+			Properties[] props = new Properties[PARTITIONS];
+			for (int i = 0; i < PARTITIONS; i++) {
+				props[i] = new Properties();
+				props[i].setProperty("partition", String.valueOf(i));
+			}
+			plan.setPartitionProperties(props);
+			return plan;
+		}
+	}
+
+	public static class Reader extends AbstractItemReader {
+		int i = 0;
+
+		@Override
+		public Object readItem() {
+			return i < 20 ? i++ : null;
+		}
+	}
+
+	public static class Writer extends AbstractItemWriter {
+		@Override
+		public void writeItems(List<Object> items) {
+		}
+	}
+
+	public static class Collector implements PartitionCollector {
+
+		// The collector's own properties are resolved for the partitioned step rather than each partition
+		@Inject
+		StepContext stepContext;
+
+		int count = 0;
+
+		@Override
+		public Serializable collectPartitionData() {
+			return stepContext.getProperties().getProperty("partition") + ":" + count++;
+		}
+	}
+
+	public static class Analyzer implements BatchingPartitionAnalyzer {
+
+		@Override
+		public void analyzeCollectorData(List<Serializable> data) throws Exception {
+			batches.add(new ArrayList<Serializable>(data));
+			Thread.sleep(20);
+		}
+
+		@Override
+		public void analyzeCollectorData(Serializable data) {
+			calledOneAtATime = true;
+		}
+
+		@Override
+		public void analyzeStatus(BatchStatus batchStatus, String exitStatus) {
+			statuses.add(batchStatus);
+		}
+	}
+
+	// Slow, and fails the parent part way through by interrupting it
+	public static class InterruptingAnalyzer implements PartitionAnalyzer {
+
+		@Override
+		public void analyzeCollectorData(Serializable data) throws Exception {
+			if (++analyzedBeforeError == 3) {
+				Thread.currentThread().interrupt();
+			} else if (analyzedBeforeError < 3) {
+				Thread.sleep(100);
+			}
+		}
+
+		@Override
+		public void analyzeStatus(BatchStatus batchStatus, String exitStatus) {
+		}
+	}
+}
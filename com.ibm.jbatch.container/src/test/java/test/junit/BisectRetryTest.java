@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import javax.batch.api.chunk.AbstractItemReader;
+import javax.batch.api.chunk.AbstractItemWriter;
+import javax.batch.operations.JobOperator;
+import javax.batch.runtime.BatchRuntime;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.Metric;
+import javax.batch.runtime.StepExecution;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class BisectRetryTest {
+
+	private static JobOperator jobOp = null;
+	private static int sleepTime = 3000;
+
+	private static final int NUM_ITEMS = 32;
+	private static final int POISON_ITEM = 11;
+
+	static List<Object> written = new ArrayList<Object>();
+	static List<Integer> writeSizes = new ArrayList<Integer>();
+
+	@BeforeClass
+	public static void init() {
+		jobOp = BatchRuntime.getJobOperator();
+	}
+
+	@Before
+	public void reset() {
+		written.clear();
+		writeSizes.clear();
+	}
+
+	@Test
+	public void testOneByOne() throws Exception {
+		StepExecution step = runJob("oneByOne");
+		assertEquals("Written items", expectedWritten(), written);
+
+		// The failed chunk is retried as 16 single item chunks
+		List<Integer> expectedSizes = new ArrayList<Integer>();
+		expectedSizes.add(16);
+		for (int i = 0; i < 16; i++) {
+			expectedSizes.add(1);
+		}
+		expectedSizes.add(16);
+		assertEquals("Write sizes", expectedSizes, writeSizes);
+		assertEquals("Rollback count", 1, getMetricVal(step.getMetrics(), Metric.MetricType.ROLLBACK_COUNT));
+		assertEquals("Write skip count", 1, getMetricVal(step.getMetrics(), Metric.MetricType.WRITE_SKIP_COUNT));
+		assertEquals("Commit count", 18, getMetricVal(step.getMetrics(), Metric.MetricType.COMMIT_COUNT));
+	}
+
+	@Test
+	public void testBisect() throws Exception {
+		StepExecution step = runJob("bisect");
+		assertEquals("Written items", expectedWritten(), written);
+
+		// 16 -> 8 (ok), 8 -> 4 -> 2 (ok), 2 -> 1 (skipped), 1 (ok), then 4 (ok)
+		List<Integer> expectedSizes = new ArrayList<Integer>();
+		expectedSizes.add(16);
+		expectedSizes.add(8);
+		expectedSizes.add(8);
+		expectedSizes.add(4);
+		expectedSizes.add(2);
+		expectedSizes.add(2);
+		expectedSizes.add(1);
+		expectedSizes.add(1);
+		expectedSizes.add(4);
+		expectedSizes.add(16);
+		assertEquals("Write sizes", expectedSizes, writeSizes);
+		assertEquals("Rollback count", 4, getMetricVal(step.getMetrics(), Metric.MetricType.ROLLBACK_COUNT));
+		assertEquals("Write skip count", 1, getMetricVal(step.getMetrics(), Metric.MetricType.WRITE_SKIP_COUNT));
+		assertEquals("Read count", NUM_ITEMS, getMetricVal(step.getMetrics(), Metric.MetricType.READ_COUNT));
+		assertEquals("Commit count", 7, getMetricVal(step.getMetrics(), Metric.MetricType.COMMIT_COUNT));
+	}
+
+	private List<Object> expectedWritten() {
+		List<Object> expected = new ArrayList<Object>();
+		for (int i = 1; i <= NUM_ITEMS; i++) {
+			if (i != POISON_ITEM) {
+				expected.add(i);
+			}
+		}
+		return expected;
+	}
+
+	private StepExecution runJob(String retryRollbackMode) throws Exception {
+		Properties params = new Properties();
+		params.setProperty("retryRollbackMode", retryRollbackMode);
+		long execId = jobOp.start("bisectRetry", params);
+		Thread.sleep(sleepTime);
+		assertEquals("Job batch status", BatchStatus.COMPLETED, jobOp.getJobExecution(execId).getBatchStatus());
+		return jobOp.getStepExecutions(execId).get(0);
+	}
+
+	private long getMetricVal(Metric[] metrics, Metric.MetricType type) {
+		long retVal = 0L;
+		for (Metric m : metrics) {
+			if (m.getType().equals(type)) {
+				retVal = m.getValue();
+			}
+		}
+		return retVal;
+	}
+
+	public static class Reader extends AbstractItemReader {
+
+		int next = 1;
+
+		@Override
+		public void open(Serializable checkpoint) {
+			next = (checkpoint == null) ? 1 : (Integer) checkpoint;
+		}
+
+		@Override
+		public Object readItem() {
+			return next <= NUM_ITEMS ? next++ : null;
+		}
+
+		@Override
+		public Serializable checkpointInfo() {
+			return next;
+		}
+	}
+
+	public static class Writer extends AbstractItemWriter {
+		@Override
+		public void writeItems(List<Object> items) {
+			writeSizes.add(items.size());
+			if (items.contains(POISON_ITEM)) {
+				throw new IllegalStateException("Can't write item " + POISON_ITEM);
+			}
+			written.addAll(items);
+		}
+	}
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.batch.api.chunk.AbstractItemReader;
+import javax.batch.api.chunk.AbstractItemWriter;
+import javax.batch.operations.JobOperator;
+import javax.batch.runtime.BatchRuntime;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.Metric;
+import javax.batch.runtime.StepExecution;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.ibm.jbatch.container.api.BulkItemProcessor;
+import com.ibm.jbatch.container.api.BulkItemReader;
+
+public class BulkChunkTest {
+
+	private static JobOperator jobOp = null;
+	private static int sleepTime = 3000;
+
+	private static final int NUM_ITEMS = 30;
+
+	static List<Object> written = new ArrayList<Object>();
+	static List<Integer> readSizes = new ArrayList<Integer>();
+	static int singleReads = 0;
+	static int bulkProcessCalls = 0;
+	static int singleProcessCalls = 0;
+
+	// Each item FailingProcessor has acted on, as often as it did
+	static List<Object> applied = new ArrayList<Object>();
+
+	@BeforeClass
+	public static void init() {
+		jobOp = BatchRuntime.getJobOperator();
+	}
+
+	@Before
+	public void reset() {
+		written.clear();
+		readSizes.clear();
+		singleReads = 0;
+		bulkProcessCalls = 0;
+		singleProcessCalls = 0;
+		applied.clear();
+	}
+
+	@Test
+	public void testBulkReadAndProcess() throws Exception {
+		long execId = jobOp.start("bulkChunk", null);
+		Thread.sleep(sleepTime);
+		assertEquals("Job batch status", BatchStatus.COMPLETED, jobOp.getJobExecution(execId).getBatchStatus());
+
+		// Odd items filtered
+		List<Object> expected = new ArrayList<Object>();
+		for (int i = 2; i <= NUM_ITEMS; i += 2) {
+			expected.add(i);
+		}
+		assertEquals("Written items", expected, written);
+
+		// Reader hands back at most 5 per call, and the chunk holds 7.
+		List<Integer> expectedSizes = new ArrayList<Integer>();
+		for (int chunk = 0; chunk < 4; chunk++) {
+			expectedSizes.add(7);
+			expectedSizes.add(2);
+		}
+		expectedSizes.add(7);
+		expectedSizes.add(5);
+		assertEquals("Bulk read sizes requested", expectedSizes, readSizes);
+		assertEquals("Single reads", 0, singleReads);
+		assertEquals("Bulk process calls", 5, bulkProcessCalls);
+		assertEquals("Single process calls", 0, singleProcessCalls);
+
+		StepExecution step = jobOp.getStepExecutions(execId).get(0);
+		assertEquals("Read count", NUM_ITEMS, getMetricVal(step.getMetrics(), Metric.MetricType.READ_COUNT));
+		assertEquals("Filter count", NUM_ITEMS / 2, getMetricVal(step.getMetrics(), Metric.MetricType.FILTER_COUNT));
+		assertEquals("Write count", NUM_ITEMS / 2, getMetricVal(step.getMetrics(), Metric.MetricType.WRITE_COUNT));
+		assertEquals("Commit count", 5, getMetricVal(step.getMetrics(), Metric.MetricType.COMMIT_COUNT));
+	}
+
+	/*
+	 * processItems() fails part way through the second chunk, so the whole chunk is processed again
+	 * one item at a time.  The items it got through before failing are processed twice, which is
+	 * why BulkItemProcessor asks for processing to be idempotent.
+	 */
+	@Test
+	public void testBulkProcessFailure() throws Exception {
+		long execId = jobOp.start("bulkChunkFailure", null);
+		Thread.sleep(sleepTime);
+		assertEquals("Job batch status", BatchStatus.COMPLETED, jobOp.getJobExecution(execId).getBatchStatus());
+
+		List<Object> expected = new ArrayList<Object>();
+		for (int i = 1; i <= NUM_ITEMS; i++) {
+			if (i != 10) {
+				expected.add(i);
+			}
+		}
+		assertEquals("Written items", expected, written);
+
+		List<Object> expectedApplied = new ArrayList<Object>();
+		for (int i = 1; i <= NUM_ITEMS; i++) {
+			if (i != 10) {
+				expectedApplied.add(i);
+			}
+			if (i == 9) {
+				// Up to the failure in bulk, then the whole chunk again one at a time
+				expectedApplied.addAll(Arrays.<Object>asList(8, 9));
+			}
+		}
+		assertEquals("Items processed", expectedApplied, applied);
+		assertEquals("Bulk process calls", 5, bulkProcessCalls);
+		assertEquals("Single process calls, the second chunk's", 7, singleProcessCalls);
+
+		StepExecution step = jobOp.getStepExecutions(execId).get(0);
+		assertEquals("Process skip count", 1, getMetricVal(step.getMetrics(), Metric.MetricType.PROCESS_SKIP_COUNT));
+		assertEquals("Write count", NUM_ITEMS - 1, getMetricVal(step.getMetrics(), Metric.MetricType.WRITE_COUNT));
+	}
+
+	private long getMetricVal(Metric[] metrics, Metric.MetricType type) {
+		long retVal = 0L;
+		for (Metric m : metrics) {
+			if (m.getType().equals(type)) {
+				retVal = m.getValue();
+			}
+		}
+		return retVal;
+	}
+
+	public static class Reader extends AbstractItemReader implements BulkItemReader {
+
+		int next = 1;
+
+		@Override
+		public Object readItem() {
+			singleReads++;
+			return next <= NUM_ITEMS ? next++ : null;
+		}
+
+		@Override
+		public List<Object> readItems(int maxItems) {
+			readSizes.add(maxItems);
+			List<Object> items = new ArrayList<Object>();
+			while (items.size() < Math.min(maxItems, 5) && next <= NUM_ITEMS) {
+				items.add(next++);
+			}
+			return items;
+		}
+	}
+
+	public static class Processor implements BulkItemProcessor {
+
+		@Override
+		public Object processItem(Object item) {
+			singleProcessCalls++;
+			return ((Integer) item) % 2 == 0 ? item : null;
+		}
+
+		@Override
+		public List<Object> processItems(List<Object> items) {
+			bulkProcessCalls++;
+			List<Object> results = new ArrayList<Object>(items.size());
+			for (Object item : items) {
+				results.add(((Integer) item) % 2 == 0 ? item : null);
+			}
+			return results;
+		}
+	}
+
+	/**
+	 * Acts on each item as it goes, and can't process item 10.
+	 */
+	public static class FailingProcessor implements BulkItemProcessor {
+
+		@Override
+		public Object processItem(Object item) {
+			singleProcessCalls++;
+			return apply(item);
+		}
+
+		@Override
+		public List<Object> processItems(List<Object> items) {
+			bulkProcessCalls++;
+			List<Object> results = new ArrayList<Object>(items.size());
+			for (Object item : items) {
+				results.add(apply(item));
+			}
+			return results;
+		}
+
+		private Object apply(Object item) {
+			if (item.equals(10)) {
+				throw new IllegalStateException("Can't process item: " + item);
+			}
+			applied.add(item);
+			return item;
+		}
+	}
+
+	public static class Writer extends AbstractItemWriter {
+		@Override
+		public void writeItems(List<Object> items) {
+			written.addAll(items);
+		}
+	}
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.junit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ibm.jbatch.container.persistence.CheckpointData;
+import com.ibm.jbatch.container.persistence.CheckpointDataKey;
+import com.ibm.jbatch.container.services.IPersistenceManagerService;
+import com.ibm.jbatch.container.services.impl.JDBCDialect;
+import com.ibm.jbatch.container.servicesmanager.ServicesManagerImpl;
+
+public class CheckpointUpsertTest {
+
+	private IPersistenceManagerService persistence;
+	private long jobInstanceId;
+
+	@Before
+	public void setUp() {
+		persistence = ServicesManagerImpl.getInstance().getPersistenceManagerService();
+		// Not a real job instance, so it can't clash with one
+		jobInstanceId = -System.currentTimeMillis();
+	}
+
+	@After
+	public void deleteCheckpoints() throws Exception {
+		Connection conn = DriverManager.getConnection("jdbc:derby:RUNTIMEDB");
+		try {
+			PreparedStatement statement = conn.prepareStatement("delete from JBATCH.checkpointdata where id like ?");
+			statement.setString(1, jobInstanceId + ",%");
+			statement.executeUpdate();
+			statement.close();
+		} finally {
+			conn.close();
+		}
+	}
+
+	@Test
+	public void testInsertThenReplace() throws Exception {
+		persistence.updateCheckpointData(checkpoints(new byte[] { 1 }, new byte[] { 2 }));
+		assertRestartTokens(new byte[] { 1 }, new byte[] { 2 });
+
+		persistence.updateCheckpointData(checkpoints(new byte[] { 3 }, new byte[] { 4 }));
+		assertRestartTokens(new byte[] { 3 }, new byte[] { 4 });
+
+		// And one at a time
+		CheckpointData reader = new CheckpointData(jobInstanceId, "step1", "READER");
+		reader.setRestartToken(new byte[] { 5 });
+		persistence.updateCheckpointData(new CheckpointDataKey(jobInstanceId, "step1", "READER"), reader);
+		assertRestartTokens(new byte[] { 5 }, new byte[] { 4 });
+	}
+
+	/*
+	 * Only Derby 10.10 is on hand, which has no upsert, so the other databases' statements are
+	 * checked against what their metadata would say.
+	 */
+
+	@Test
+	public void testDerby() throws Exception {
+		assertNull(upsertFor("Apache Derby", 10, 10, null));
+		assertMerge(upsertFor("Apache Derby", 10, 11, null), "sysibm.sysdummy1");
+	}
+
+	@Test
+	public void testDB2() throws Exception {
+		assertMerge(upsertFor("DB2/LINUXX8664", 11, 1, null), "sysibm.sysdummy1");
+	}
+
+	@Test
+	public void testOracle() throws Exception {
+		assertMerge(upsertFor("Oracle", 12, 1, null), "dual");
+	}
+
+	@Test
+	public void testSQLServer() throws Exception {
+		assertMerge(upsertFor("Microsoft SQL Server", 13, 0, null), "select 1");
+	}
+
+	@Test
+	public void testPostgreSQL() throws Exception {
+		// Unquoted names are stored in lower case
+		List<String[]> uniqueIndex = indexRows(new String[] { "chk_index", "id" });
+		assertNull("Before ON CONFLICT", upsertFor("PostgreSQL", 9, 4, uniqueIndex));
+		assertNull("No unique index", upsertFor("PostgreSQL", 9, 6, null));
+		assertNull("Unique over more than the id", upsertFor("PostgreSQL", 9, 6,
+				indexRows(new String[] { "chk_index", "id" }, new String[] { "chk_index", "obj" })));
+
+		String upsert = upsertFor("PostgreSQL", 9, 6, uniqueIndex);
+		assertTrue(upsert, upsert.contains("on conflict (id) do update"));
+		assertParameters(upsert, 2);
+	}
+
+	@Test
+	public void testMySQL() throws Exception {
+		List<String[]> uniqueIndex = indexRows(new String[] { "CHK_INDEX", "id" });
+		assertNull("No unique index", upsertFor("MySQL", 8, 0, null));
+
+		String upsert = upsertFor("MySQL", 8, 0, uniqueIndex);
+		assertTrue(upsert, upsert.contains("on duplicate key update"));
+		assertParameters(upsert, 2);
+		assertEquals(upsert, upsertFor("MariaDB", 10, 5, uniqueIndex));
+	}
+
+	@Test
+	public void testOther() throws Exception {
+		assertNull(upsertFor("Adaptive Server Anywhere", 17, 0, null));
+	}
+
+	private void assertMerge(String upsert, String source) throws Exception {
+		assertTrue(upsert, upsert.startsWith("merge into checkpointdata"));
+		assertTrue(upsert, upsert.contains(source));
+		assertParameters(upsert, 4);
+	}
+
+	/**
+	 * The id and obj, in that order, as often as the statement needs them.
+	 */
+	private void assertParameters(String upsert, int count) throws Exception {
+		byte[] value = new byte[] { 1, 2 };
+		final Map<Integer, Object> parameters = new TreeMap<Integer, Object>();
+		PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { PreparedStatement.class }, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						parameters.put((Integer) args[0], args[1]);
+						return null;
+					}
+				});
+
+		JDBCDialect.setUpsertCheckpointDataParameters(statement, upsert, "1,step1,READER", value);
+
+		assertEquals(upsert.replaceAll("[^?]", "").length(), parameters.size());
+		assertEquals(count, parameters.size());
+		for (int param = 1; param <= count; param += 2) {
+			assertEquals("1,step1,READER", parameters.get(param));
+			assertArrayEquals(value, (byte[]) parameters.get(param + 1));
+		}
+	}
+
+	/**
+	 * @param uniqueIndexRows the unique index columns of JBATCH.CHECKPOINTDATA, in the case the
+	 * database stores them in, or null for none
+	 */
+	private String upsertFor(final String productName, final int major, final int minor,
+			final List<String[]> uniqueIndexRows) throws Exception {
+		final boolean lowerCase = productName.equals("PostgreSQL");
+		DatabaseMetaData dbmd = (DatabaseMetaData) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { DatabaseMetaData.class }, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						String name = method.getName();
+						if (name.equals("getDatabaseProductName")) {
+							return productName;
+						} else if (name.equals("getDatabaseMajorVersion")) {
+							return major;
+						} else if (name.equals("getDatabaseMinorVersion")) {
+							return minor;
+						} else if (name.equals("getIndexInfo")) {
+							String table = lowerCase ? "checkpointdata" : "CHECKPOINTDATA";
+							String schema = lowerCase ? "jbatch" : "JBATCH";
+							boolean found = uniqueIndexRows != null && table.equals(args[2]) && schema.equals(args[1]);
+							return indexInfo(found ? uniqueIndexRows : new ArrayList<String[]>());
+						}
+						throw new UnsupportedOperationException(name);
+					}
+				});
+		return JDBCDialect.getUpsertCheckpointDataStatement(dbmd, "JBATCH");
+	}
+
+	private List<String[]> indexRows(String[]... rows) {
+		return Arrays.asList(rows);
+	}
+
+	/**
+	 * Rows of index name and column name.
+	 */
+	private ResultSet indexInfo(List<String[]> rows) {
+		final Iterator<String[]> it = rows.iterator();
+		return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { ResultSet.class }, new InvocationHandler() {
+					private String[] row;
+
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						String name = method.getName();
+						if (name.equals("next")) {
+							row = it.hasNext() ? it.next() : null;
+							return row != null;
+						} else if (name.equals("getString")) {
+							return args[0].equals("INDEX_NAME") ? row[0] : row[1];
+						} else if (name.equals("close")) {
+							return null;
+						}
+						throw new UnsupportedOperationException(name);
+					}
+				});
+	}
+
+	private Map<CheckpointDataKey, CheckpointData> checkpoints(byte[] readerToken, byte[] writerToken) {
+		Map<CheckpointDataKey, CheckpointData> checkpoints = new LinkedHashMap<CheckpointDataKey, CheckpointData>();
+		CheckpointData reader = new CheckpointData(jobInstanceId, "step1", "READER");
+		reader.setRestartToken(readerToken);
+		checkpoints.put(new CheckpointDataKey(jobInstanceId, "step1", "READER"), reader);
+		CheckpointData writer = new CheckpointData(jobInstanceId, "step1", "WRITER");
+		writer.setRestartToken(writerToken);
+		checkpoints.put(new CheckpointDataKey(jobInstanceId, "step1", "WRITER"), writer);
+		return checkpoints;
+	}
+
+	private void assertRestartTokens(byte[] readerToken, byte[] writerToken) {
+		assertArrayEquals("Reader token", readerToken,
+				persistence.getCheckpointData(new CheckpointDataKey(jobInstanceId, "step1", "READER")).getRestartToken());
+		assertArrayEquals("Writer token", writerToken,
+				persistence.getCheckpointData(new CheckpointDataKey(jobInstanceId, "step1", "WRITER")).getRestartToken());
+	}
+}
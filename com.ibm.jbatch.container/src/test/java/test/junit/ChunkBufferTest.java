@@ -0,0 +1,181 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import javax.batch.api.chunk.AbstractItemReader;
+import javax.batch.api.chunk.AbstractItemWriter;
+import javax.batch.operations.JobOperator;
+import javax.batch.runtime.BatchRuntime;
+import javax.batch.runtime.BatchStatus;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ChunkBufferTest {
+
+	private static JobOperator jobOp = null;
+	private static int sleepTime = 3000;
+
+	private static final int NUM_ITEMS = 40;
+
+	static List<Object> written = new ArrayList<Object>();
+	static List<Integer> writeSizes = new ArrayList<Integer>();
+	static int maxSpillFiles = 0;
+
+	@BeforeClass
+	public static void init() {
+		jobOp = BatchRuntime.getJobOperator();
+	}
+
+	@Before
+	public void reset() {
+		written.clear();
+		writeSizes.clear();
+		maxSpillFiles = 0;
+	}
+
+	@Test
+	public void testCheckpointWhenFull() throws Exception {
+		runJob("checkpoint");
+		assertEquals("Written items", expectedWritten(), written);
+
+		// Each item is a bit over 1000 bytes serialized, so the chunk ends at 5 items instead of 20.
+		List<Integer> expectedSizes = new ArrayList<Integer>();
+		for (int i = 0; i < NUM_ITEMS / 5; i++) {
+			expectedSizes.add(5);
+		}
+		assertEquals("Write sizes", expectedSizes, writeSizes);
+		assertEquals("Spill files", 0, maxSpillFiles);
+	}
+
+	@Test
+	public void testSpillWhenFull() throws Exception {
+		runJob("spill");
+		assertEquals("Written items, including those read back from the spill file", expectedWritten(), written);
+		assertEquals("Write sizes", Arrays.asList(20, 20), writeSizes);
+		assertEquals("Spill files while writing", 1, maxSpillFiles);
+		assertEquals("Spill files left behind", 0, spillFiles().length);
+	}
+
+	/*
+	 * The writer changes the list it's given, in memory and spilled alike.
+	 */
+	@Test
+	public void testEditSpilled() throws Exception {
+		runJob("spill", EditingWriter.class.getName());
+
+		List<Object> expected = new ArrayList<Object>();
+		for (int i = 1; i <= NUM_ITEMS; i++) {
+			// The first of each chunk removed, the rest replaced
+			if (i % 20 != 1) {
+				expected.add("edited " + item(i));
+			}
+		}
+		assertEquals("Written items", expected, written);
+		assertEquals("Write sizes", Arrays.asList(19, 19), writeSizes);
+		assertEquals("Spill files left behind", 0, spillFiles().length);
+	}
+
+	private List<Object> expectedWritten() {
+		List<Object> expected = new ArrayList<Object>();
+		for (int i = 1; i <= NUM_ITEMS; i++) {
+			expected.add(item(i));
+		}
+		return expected;
+	}
+
+	private void runJob(String overflow) throws Exception {
+		runJob(overflow, Writer.class.getName());
+	}
+
+	private void runJob(String overflow, String writer) throws Exception {
+		Properties params = new Properties();
+		params.setProperty("overflow", overflow);
+		params.setProperty("writer", writer);
+		long execId = jobOp.start("chunkBuffer", params);
+		Thread.sleep(sleepTime);
+		assertEquals("Job batch status", BatchStatus.COMPLETED, jobOp.getJobExecution(execId).getBatchStatus());
+	}
+
+	static String item(int i) {
+		char[] padding = new char[1000];
+		Arrays.fill(padding, 'x');
+		return i + new String(padding);
+	}
+
+	static File[] spillFiles() {
+		return new File(System.getProperty("java.io.tmpdir")).listFiles(new FilenameFilter() {
+			@Override
+			public boolean accept(File dir, String name) {
+				return name.startsWith("jbatch-bufferStep-") && name.endsWith(".spill");
+			}
+		});
+	}
+
+	public static class Reader extends AbstractItemReader {
+
+		int next = 1;
+
+		@Override
+		public Object readItem() {
+			return next <= NUM_ITEMS ? item(next++) : null;
+		}
+	}
+
+	public static class Writer extends AbstractItemWriter {
+		@Override
+		public void writeItems(List<Object> items) {
+			writeSizes.add(items.size());
+			written.addAll(items);
+			maxSpillFiles = Math.max(maxSpillFiles, spillFiles().length);
+		}
+	}
+
+	public static class EditingWriter extends AbstractItemWriter {
+		@Override
+		public void writeItems(List<Object> items) {
+			// In memory, so the same item each time
+			assertSame(items.get(0), items.get(0));
+			// Read back from the spill file, so a new copy each time
+			Object spilled = items.get(items.size() - 1);
+			assertNotSame(spilled, items.get(items.size() - 1));
+			assertEquals(spilled, items.get(items.size() - 1));
+
+			items.remove(0);
+			for (int i = 0; i < items.size(); i++) {
+				Object previous = items.set(i, "edited " + items.get(i));
+				assertEquals(previous, ((String) items.get(i)).substring("edited ".length()));
+			}
+
+			writeSizes.add(items.size());
+			written.addAll(items);
+		}
+	}
+}
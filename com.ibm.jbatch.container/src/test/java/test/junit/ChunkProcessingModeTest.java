@@ -0,0 +1,255 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.AbstractItemReader;
+import javax.batch.api.chunk.AbstractItemWriter;
+import javax.batch.api.chunk.ItemProcessor;
+import javax.batch.operations.JobOperator;
+import javax.batch.runtime.BatchRuntime;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.Metric;
+import javax.batch.runtime.StepExecution;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ChunkProcessingModeTest {
+
+	private static JobOperator jobOp = null;
+	private static int sleepTime = 3000;
+
+	// Items 7, 14, 21, 28 are skipped, and 10 others filtered.
+	private static final List<Integer> EXPECTED_WRITTEN = Arrays.asList(2, 4, 5, 9, 10, 12, 15, 17, 19, 20, 22, 24, 25, 27, 29, 30);
+
+	static List<Object> written = Collections.synchronizedList(new ArrayList<Object>());
+	static Set<String> processorThreads = Collections.synchronizedSet(new HashSet<String>());
+
+	// For the retry tests, the items failed once already and any processed twice at the same time
+	static Set<Integer> failed = Collections.synchronizedSet(new HashSet<Integer>());
+	static ConcurrentMap<Integer, AtomicInteger> processing = new ConcurrentHashMap<Integer, AtomicInteger>();
+	static Set<Integer> overlapping = Collections.synchronizedSet(new HashSet<Integer>());
+
+	@BeforeClass
+	public static void init() {
+		jobOp = BatchRuntime.getJobOperator();
+	}
+
+	@Before
+	public void reset() {
+		written.clear();
+		processorThreads.clear();
+		failed.clear();
+		processing.clear();
+		overlapping.clear();
+	}
+
+	@Test
+	public void testSerial() throws Exception {
+		StepExecution step = runJob("serial");
+		assertEquals("Written items", EXPECTED_WRITTEN, written);
+		assertEquals("Process skip count", 4, getMetricVal(step.getMetrics(), Metric.MetricType.PROCESS_SKIP_COUNT));
+		assertFalse("Processed on step thread only", processorThreads.toString().contains("jbatch-processor-"));
+	}
+
+	@Test
+	public void testPipelined() throws Exception {
+		StepExecution step = runJob("pipelined");
+		assertEquals("Written items, in read order", EXPECTED_WRITTEN, written);
+		assertEquals("Process skip count", 4, getMetricVal(step.getMetrics(), Metric.MetricType.PROCESS_SKIP_COUNT));
+		assertEquals("Write count", 16, getMetricVal(step.getMetrics(), Metric.MetricType.WRITE_COUNT));
+		assertEquals("Read count", 30, getMetricVal(step.getMetrics(), Metric.MetricType.READ_COUNT));
+		assertFalse("Processor invoked", processorThreads.isEmpty());
+		for (String threadName : processorThreads) {
+			assertTrue("Processed on processor thread: " + threadName, threadName.startsWith("jbatch-processor-step1-"));
+		}
+	}
+
+	@Test
+	public void testParallel() throws Exception {
+		StepExecution step = runJob("parallel");
+		assertEquals("Written items, in read order", EXPECTED_WRITTEN, written);
+		assertEquals("Process skip count", 4, getMetricVal(step.getMetrics(), Metric.MetricType.PROCESS_SKIP_COUNT));
+		assertEquals("Write count", 16, getMetricVal(step.getMetrics(), Metric.MetricType.WRITE_COUNT));
+		assertEquals("Read count", 30, getMetricVal(step.getMetrics(), Metric.MetricType.READ_COUNT));
+		assertFalse("Processor invoked", processorThreads.isEmpty());
+		for (String threadName : processorThreads) {
+			assertTrue("Processed on processor thread: " + threadName, threadName.startsWith("jbatch-processor-step1-"));
+		}
+	}
+
+	@Test
+	public void testPipelinedRetry() throws Exception {
+		validateRetry("pipelined");
+	}
+
+	@Test
+	public void testParallelRetry() throws Exception {
+		validateRetry("parallel");
+	}
+
+	/*
+	 * A read and a process failure, each rolling back the chunk and retrying it one item at a time.
+	 */
+	private void validateRetry(String processingMode) throws Exception {
+		Properties params = new Properties();
+		params.setProperty("processing", processingMode);
+		long execId = jobOp.start("chunkProcessingRetry", params);
+		Thread.sleep(sleepTime);
+		assertEquals("Job batch status", BatchStatus.COMPLETED, jobOp.getJobExecution(execId).getBatchStatus());
+
+		List<Integer> expected = new ArrayList<Integer>();
+		for (int i = 1; i <= 20; i++) {
+			expected.add(i);
+		}
+		assertEquals("Written items, in read order", expected, written);
+		assertTrue("Both failures happened: " + failed, failed.contains(9) && failed.contains(14));
+		assertTrue("Processed while still being processed: " + overlapping, overlapping.isEmpty());
+		StepExecution step = jobOp.getStepExecutions(execId).get(0);
+		assertEquals("Rollback count", 2, getMetricVal(step.getMetrics(), Metric.MetricType.ROLLBACK_COUNT));
+	}
+
+	private StepExecution runJob(String processingMode) throws Exception {
+		Properties params = new Properties();
+		params.setProperty("processing", processingMode);
+		params.setProperty("numToRead", "30");
+		long execId = jobOp.start("chunkProcessingMode", params);
+		Thread.sleep(sleepTime);
+		assertEquals("Job batch status", BatchStatus.COMPLETED, jobOp.getJobExecution(execId).getBatchStatus());
+		return jobOp.getStepExecutions(execId).get(0);
+	}
+
+	private long getMetricVal(Metric[] metrics, Metric.MetricType type) {
+		long retVal = 0L;
+		for (Metric m : metrics) {
+			if (m.getType().equals(type)) {
+				retVal = m.getValue();
+			}
+		}
+		return retVal;
+	}
+
+	public static class Reader extends AbstractItemReader {
+
+		@BatchProperty
+		String numToRead;
+
+		int i = 0;
+
+		@Override
+		public Object readItem() {
+			if (i++ <= Integer.parseInt(numToRead) - 1) {
+				return i;
+			} else {
+				return null;
+			}
+		}
+	}
+
+	public static class Processor implements ItemProcessor {
+
+		@Override
+		public Object processItem(Object item) throws Exception {
+			processorThreads.add(Thread.currentThread().getName());
+			Integer i = (Integer)item;
+			// Finish out of order when run in parallel
+			Thread.sleep(30 - i);
+			if (i % 7 == 0) {
+				throw new IllegalStateException("Skip item: " + i);
+			} else if (i % 5 == 1 || i % 5 == 3) {
+				return null;
+			} else {
+				return i;
+			}
+		}
+	}
+
+	/**
+	 * Fails reading item 9 the first time, while item 8 is still being processed.
+	 */
+	public static class RetryReader extends AbstractItemReader {
+
+		int i = 0;
+
+		@Override
+		public void open(Serializable checkpoint) {
+			i = checkpoint == null ? 0 : (Integer) checkpoint;
+		}
+
+		@Override
+		public Object readItem() {
+			if (i == 8 && failed.add(9)) {
+				throw new IllegalArgumentException("Retry reading item: 9");
+			}
+			return i < 20 ? ++i : null;
+		}
+
+		@Override
+		public Serializable checkpointInfo() {
+			return i;
+		}
+	}
+
+	/**
+	 * Fails processing item 14 the first time.
+	 */
+	public static class RetryProcessor implements ItemProcessor {
+
+		@Override
+		public Object processItem(Object item) throws Exception {
+			Integer i = (Integer) item;
+			processing.putIfAbsent(i, new AtomicInteger());
+			if (processing.get(i).incrementAndGet() > 1) {
+				overlapping.add(i);
+			}
+			try {
+				Thread.sleep(i == 8 ? 500 : 10);
+				if (i == 14 && failed.add(14)) {
+					throw new IllegalArgumentException("Retry processing item: 14");
+				}
+				return i;
+			} finally {
+				processing.get(i).decrementAndGet();
+			}
+		}
+	}
+
+	public static class Writer extends AbstractItemWriter {
+		@Override
+		public void writeItems(List<Object> items) {
+			written.addAll(items);
+		}
+	}
+}
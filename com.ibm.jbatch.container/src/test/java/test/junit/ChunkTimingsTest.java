@@ -0,0 +1,154 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.batch.api.chunk.AbstractItemReader;
+import javax.batch.api.chunk.AbstractItemWriter;
+import javax.batch.operations.JobOperator;
+import javax.batch.runtime.BatchRuntime;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.ibm.jbatch.container.context.impl.ChunkTimings;
+import com.ibm.jbatch.container.context.impl.StepContextImpl;
+import com.ibm.jbatch.spi.BatchSPIManager;
+import com.ibm.jbatch.spi.ChunkMetricsSink;
+import com.ibm.jbatch.spi.ChunkPhase;
+
+public class ChunkTimingsTest {
+
+	private static JobOperator jobOp = null;
+	private static int sleepTime = 3000;
+
+	private static final int NUM_ITEMS = 12;
+
+	static ChunkTimings timings = null;
+	static List<Map<ChunkPhase, Long>> reported = Collections.synchronizedList(new ArrayList<Map<ChunkPhase, Long>>());
+
+	@BeforeClass
+	public static void init() {
+		jobOp = BatchRuntime.getJobOperator();
+	}
+
+	@Before
+	public void reset() {
+		timings = null;
+		reported.clear();
+	}
+
+	@After
+	public void unregisterSink() {
+		BatchSPIManager.getInstance().registerChunkMetricsSink(null);
+	}
+
+	@Test
+	public void testTimingsOnStepContext() throws Exception {
+		runJob("true");
+
+		assertTrue("Timings on step context", timings != null);
+		// 12 items plus the null read
+		assertEquals("Read count", NUM_ITEMS + 1, timings.getCount(ChunkPhase.READ));
+		// 3 chunks, the last one ended by the null read
+		assertEquals("Write count", 3, timings.getCount(ChunkPhase.WRITE));
+		assertEquals("Commit count", 3, timings.getCount(ChunkPhase.COMMIT));
+		assertEquals("Process count", 0, timings.getCount(ChunkPhase.PROCESS));
+		assertTrue("Write time", timings.getTotalNanos(ChunkPhase.WRITE) >= 3 * 10000000L);
+		assertTrue("Max write time", timings.getMaxNanos(ChunkPhase.WRITE) >= 10000000L);
+
+		long histogramTotal = 0;
+		for (long count : timings.getHistogram(ChunkPhase.WRITE)) {
+			histogramTotal += count;
+		}
+		assertEquals("Write histogram total", 3, histogramTotal);
+		assertEquals("No sink registered", 0, reported.size());
+	}
+
+	@Test
+	public void testTimingsOff() throws Exception {
+		runJob("false");
+		assertNull("No timings on step context", timings);
+	}
+
+	@Test
+	public void testSink() throws Exception {
+		BatchSPIManager.getInstance().registerChunkMetricsSink(new ChunkMetricsSink() {
+			@Override
+			public void chunkCompleted(long jobExecutionId, long stepExecutionId, String stepName, Map<ChunkPhase, Long> phaseNanos) {
+				reported.add(phaseNanos);
+			}
+		});
+
+		// The sink turns on timing regardless of the step property
+		runJob("false");
+
+		assertEquals("Chunks reported", 3, reported.size());
+		for (int i = 0; i < 3; i++) {
+			assertTrue("Write time for chunk " + i, reported.get(i).get(ChunkPhase.WRITE) >= 10000000L);
+			assertTrue("Commit time for chunk " + i, reported.get(i).get(ChunkPhase.COMMIT) > 0);
+			assertEquals("No process time for chunk " + i, Long.valueOf(0), reported.get(i).get(ChunkPhase.PROCESS));
+		}
+	}
+
+	private void runJob(String timingsProperty) throws Exception {
+		Properties params = new Properties();
+		params.setProperty("timings", timingsProperty);
+		long execId = jobOp.start("chunkTimings", params);
+		Thread.sleep(sleepTime);
+		assertEquals("Job batch status", BatchStatus.COMPLETED, jobOp.getJobExecution(execId).getBatchStatus());
+	}
+
+	public static class Reader extends AbstractItemReader {
+
+		int next = 1;
+
+		@Override
+		public Object readItem() {
+			return next <= NUM_ITEMS ? next++ : null;
+		}
+	}
+
+	public static class Writer extends AbstractItemWriter {
+
+		@Inject StepContext stepCtx;
+
+		@Override
+		public void writeItems(List<Object> items) throws Exception {
+			Thread.sleep(10);
+		}
+
+		@Override
+		public void close() {
+			timings = ((StepContextImpl) stepCtx).getChunkTimings();
+		}
+	}
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.junit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Properties;
+
+import javax.batch.runtime.BatchStatus;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ibm.jbatch.container.impl.BatchConfigImpl;
+import com.ibm.jbatch.container.jobinstance.JobInstanceImpl;
+import com.ibm.jbatch.container.persistence.CheckpointData;
+import com.ibm.jbatch.container.persistence.PersistentDataWrapper;
+import com.ibm.jbatch.container.services.impl.CompactPersistenceDataCodecImpl;
+import com.ibm.jbatch.container.status.JobStatus;
+import com.ibm.jbatch.container.status.StepStatus;
+
+public class CompactPersistenceDataCodecTest {
+
+	private CompactPersistenceDataCodecImpl codec;
+
+	@Before
+	public void setUp() {
+		Properties props = new Properties();
+		props.setProperty("PERSISTENCE_CODEC_COMPRESSION_THRESHOLD", "256");
+		BatchConfigImpl batchConfig = new BatchConfigImpl();
+		batchConfig.setConfigProperties(props);
+
+		codec = new CompactPersistenceDataCodecImpl();
+		codec.init(batchConfig);
+	}
+
+	@Test
+	public void testCheckpointData() throws Exception {
+		CheckpointData checkpointData = new CheckpointData(7L, "step1", "READER");
+		checkpointData.setRestartToken(serialize(Integer.valueOf(42)));
+
+		byte[] encoded = codec.encode(checkpointData);
+		assertTrue("Smaller than Java serialization", encoded.length < serialize(checkpointData).length);
+
+		CheckpointData decoded = (CheckpointData) codec.decode(encoded);
+		assertEquals("Job instance", 7L, decoded.getjobInstanceId());
+		assertEquals("Step", "step1", decoded.getStepName());
+		assertEquals("Stream", "READER", decoded.getBatchDataStreamName());
+		assertArrayEquals("Restart token", checkpointData.getRestartToken(), decoded.getRestartToken());
+	}
+
+	@Test
+	public void testJobStatusCompressed() throws Exception {
+		StringBuilder jobXML = new StringBuilder("<job id=\"big\">");
+		for (int i = 0; i < 200; i++) {
+			jobXML.append("<step id=\"step").append(i).append("\"><batchlet ref=\"b\"/></step>");
+		}
+		jobXML.append("</job>");
+
+		JobInstanceImpl jobInstance = new JobInstanceImpl(3L, jobXML.toString());
+		jobInstance.setJobName("big");
+		JobStatus jobStatus = new JobStatus(3L);
+		jobStatus.setJobInstance(jobInstance);
+		jobStatus.setBatchStatus(BatchStatus.STOPPED);
+		jobStatus.setExitStatus("STOPPED");
+		jobStatus.setCurrentStepId("step5");
+		jobStatus.setLatestExecutionId(11L);
+		jobStatus.setRestartOn("step6");
+
+		byte[] encoded = codec.encode(jobStatus);
+		assertTrue("Compressed", encoded.length < jobXML.length() / 4);
+
+		JobStatus decoded = (JobStatus) codec.decode(encoded);
+		assertEquals("Job instance", 3L, decoded.getJobInstanceId());
+		assertEquals("Job name", "big", decoded.getJobInstance().getJobName());
+		assertEquals("Job XML", jobXML.toString(), decoded.getJobInstance().getJobXML());
+		assertEquals("Batch status", BatchStatus.STOPPED, decoded.getBatchStatus());
+		assertEquals("Exit status", "STOPPED", decoded.getExitStatus());
+		assertEquals("Current step", "step5", decoded.getCurrentStepId());
+		assertEquals("Latest execution", 11L, decoded.getLatestExecutionId());
+		assertEquals("Restart on", "step6", decoded.getRestartOn());
+	}
+
+	@Test
+	public void testStepStatus() throws Exception {
+		StepStatus stepStatus = new StepStatus(5L);
+		stepStatus.incrementStartCount();
+		stepStatus.setLastRunStepExecutionId(9L);
+		stepStatus.setBatchStatus(BatchStatus.FAILED);
+		stepStatus.setPersistentUserData(new PersistentDataWrapper(serialize("user data")));
+		stepStatus.setNumPartitions(4);
+
+		StepStatus decoded = (StepStatus) codec.decode(codec.encode(stepStatus));
+		assertEquals("Step execution", 5L, decoded.getStepExecutionId());
+		assertEquals("Last run", 9L, decoded.getLastRunStepExecutionId());
+		assertEquals("Start count", 2, decoded.getStartCount());
+		assertEquals("Batch status", BatchStatus.FAILED, decoded.getBatchStatus());
+		assertNull("Exit status", decoded.getExitStatus());
+		assertEquals("Persistent user data", "user data", decoded.getPersistentUserData());
+		assertEquals("Partitions", Integer.valueOf(4), decoded.getNumPartitions());
+	}
+
+	@Test
+	public void testReadsJavaSerialization() throws Exception {
+		StepStatus stepStatus = new StepStatus(6L);
+		stepStatus.setExitStatus("done");
+
+		StepStatus decoded = (StepStatus) codec.decode(serialize(stepStatus));
+		assertEquals("Step execution", 6L, decoded.getStepExecutionId());
+		assertEquals("Exit status", "done", decoded.getExitStatus());
+	}
+
+	@Test
+	public void testOtherTypes() throws Exception {
+		Properties props = new Properties();
+		props.setProperty("a", "b");
+		assertEquals("Properties", props, codec.decode(codec.encode(props)));
+		assertNull("Null", codec.encode(null));
+		assertNull("Null", codec.decode(null));
+	}
+
+	private byte[] serialize(Serializable value) throws Exception {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		ObjectOutputStream oout = new ObjectOutputStream(baos);
+		oout.writeObject(value);
+		oout.close();
+		return baos.toByteArray();
+	}
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.AbstractItemReader;
+import javax.batch.api.chunk.AbstractItemWriter;
+import javax.batch.api.partition.PartitionMapper;
+import javax.batch.api.partition.PartitionPlan;
+import javax.batch.operations.JobOperator;
+import javax.batch.runtime.BatchRuntime;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.Metric;
+import javax.batch.runtime.StepExecution;
+import javax.inject.Inject;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.ibm.jbatch.container.api.DynamicPartitionPlanImpl;
+import com.ibm.jbatch.container.api.WorkRange;
+import com.ibm.jbatch.container.api.WorkRangeItemReader;
+import com.ibm.jbatch.container.api.WorkRangeQueue;
+import com.ibm.jbatch.container.api.WorkRangeTracker;
+import com.ibm.jbatch.container.impl.WorkRangePool;
+import com.ibm.jbatch.container.persistence.CheckpointData;
+import com.ibm.jbatch.container.persistence.CheckpointDataKey;
+import com.ibm.jbatch.container.services.IPersistenceManagerService;
+import com.ibm.jbatch.container.servicesmanager.ServicesManagerImpl;
+
+public class DynamicPartitionTest {
+	static JobOperator jobOp = null;
+
+	private static int sleepTime = 3000;
+
+	private static final int NUM_ITEMS = 100;
+
+	// Which reader read each item, and every item written, by all partitions
+	static ConcurrentMap<Long, Integer> readBy = new ConcurrentHashMap<Long, Integer>();
+	static List<Long> written = Collections.synchronizedList(new ArrayList<Long>());
+
+	@BeforeClass
+	public static void init() {
+		jobOp = BatchRuntime.getJobOperator();
+	}
+
+	@Before
+	public void reset() {
+		readBy.clear();
+		written.clear();
+	}
+
+	@Test
+	public void testSkewedRangeIsSplit() throws Exception {
+		long execId = jobOp.start("dynamicPartition", new Properties());
+		Thread.sleep(sleepTime);
+		assertEquals("Didn't complete successfully", BatchStatus.COMPLETED, jobOp.getJobExecution(execId).getBatchStatus());
+
+		assertWrittenOnce();
+		assertEquals("read count", NUM_ITEMS, getReadCount(execId));
+
+		// The other two partitions finish their short ranges long before the big one is done, then help out with it
+		Set<Integer> readers = new HashSet<Integer>();
+		for (long i = 20; i < NUM_ITEMS; i++) {
+			readers.add(readBy.get(i));
+		}
+		assertTrue("Big range wasn't split, read by: " + readers, readers.size() > 1);
+	}
+
+	@Test
+	public void testRestart() throws Exception {
+		validateRestart(false);
+	}
+
+	@Test
+	public void testLightweightRestart() throws Exception {
+		validateRestart(true);
+	}
+
+	private void validateRestart(boolean lightweight) throws Exception {
+		Properties origParams = new Properties();
+		origParams.setProperty("lightweight", String.valueOf(lightweight));
+		origParams.setProperty("failAt", "57");
+
+		long execId = jobOp.start("dynamicPartition", origParams);
+		Thread.sleep(sleepTime);
+		assertEquals("Didn't fail as expected", BatchStatus.FAILED, jobOp.getJobExecution(execId).getBatchStatus());
+
+		Properties restartParams = new Properties();
+		restartParams.setProperty("lightweight", String.valueOf(lightweight));
+		long restartExecId = jobOp.restart(execId, restartParams);
+		Thread.sleep(sleepTime);
+		assertEquals("Didn't complete successfully", BatchStatus.COMPLETED, jobOp.getJobExecution(restartExecId).getBatchStatus());
+
+		// Only the uncommitted items are read again, so between them the two executions write each item once
+		assertWrittenOnce();
+		assertTrue("item not written", written.contains(57L));
+	}
+
+	@Test
+	public void testSplitRangeRecordedWithItsCommits() throws Exception {
+		IPersistenceManagerService persistence = ServicesManagerImpl.getInstance().getPersistenceManagerService();
+		String apptag = DynamicPartitionTest.class.getName();
+		long instanceId = persistence.createJobInstance("dynamicPartition", apptag, "<job id=\"dynamicPartition\"/>").getInstanceId();
+
+		DynamicPartitionPlanImpl plan = new DynamicPartitionPlanImpl();
+		plan.setWorkRanges(Arrays.asList(new WorkRange(0, 100)));
+		plan.setMinimumSplitSize(5);
+
+		try {
+			WorkRangePool pool = new WorkRangePool(instanceId, "step1", plan, false);
+			WorkRangePool.PartitionQueue first = pool.newPartitionQueue();
+			WorkRangePool.PartitionQueue second = pool.newPartitionQueue();
+
+			WorkRangeTracker firstTracker = first.claim();
+			claim(firstTracker, 0, 20);
+			commit(persistence, first);
+			claim(firstTracker, 20, 30);
+
+			// Split at 65, but as far as a restart knows, still all part of the first range until the second partition commits
+			WorkRangeTracker secondTracker = second.claim();
+			assertEquals(65, secondTracker.getStart());
+			pool = new WorkRangePool(instanceId, "step1", plan, true);
+			assertEquals(Arrays.asList(new WorkRange(20, 100)), pool.getRemainingWorkRanges());
+
+			first = pool.newPartitionQueue();
+			second = pool.newPartitionQueue();
+			firstTracker = first.claim();
+			claim(firstTracker, 20, 30);
+			secondTracker = second.claim();
+			assertEquals(65, secondTracker.getStart());
+			claim(secondTracker, 65, 70);
+			commit(persistence, second);
+			claim(firstTracker, 30, 40);
+			commit(persistence, first);
+
+			pool = new WorkRangePool(instanceId, "step1", plan, true);
+			assertEquals(Arrays.asList(new WorkRange(40, 65), new WorkRange(70, 100)), pool.getRemainingWorkRanges());
+		} finally {
+			persistence.purge(apptag);
+			// Checkpoints aren't purged with the job instance
+			Connection conn = DriverManager.getConnection("jdbc:derby:RUNTIMEDB");
+			try {
+				PreparedStatement statement = conn.prepareStatement("delete from JBATCH.checkpointdata where id like ?");
+				statement.setString(1, instanceId + ",%");
+				statement.executeUpdate();
+				statement.close();
+			} finally {
+				conn.close();
+			}
+		}
+	}
+
+	private void claim(WorkRangeTracker tracker, long from, long to) {
+		for (long i = from; i < to; i++) {
+			assertTrue("claim " + i, tracker.tryClaim(i));
+		}
+	}
+
+	// As a chunk commits, checkpointing first
+	private void commit(IPersistenceManagerService persistence, WorkRangePool.PartitionQueue queue) {
+		Map<CheckpointDataKey, CheckpointData> checkpoints = new LinkedHashMap<CheckpointDataKey, CheckpointData>();
+		queue.addCheckpoint(checkpoints);
+		persistence.updateCheckpointData(checkpoints);
+		queue.commit();
+	}
+
+	private void assertWrittenOnce() {
+		List<Long> sorted = new ArrayList<Long>(written);
+		Collections.sort(sorted);
+		Long[] expected = new Long[NUM_ITEMS];
+		for (int i = 0; i < NUM_ITEMS; i++) {
+			expected[i] = (long) i;
+		}
+		assertEquals("items written", Arrays.asList(expected), sorted);
+	}
+
+	private long getReadCount(long execId) {
+		for (StepExecution se : jobOp.getStepExecutions(execId)) {
+			for (Metric m : se.getMetrics()) {
+				if (m.getType().equals(Metric.MetricType.READ_COUNT)) {
+					return m.getValue();
+				}
+			}
+		}
+		return -1;
+	}
+
+	public static class Mapper implements PartitionMapper {
+		@Override
+		public PartitionPlan mapPartitions() throws Exception {
+			DynamicPartitionPlanImpl plan = new DynamicPartitionPlanImpl();
+			plan.setPartitions(3);
+			plan.setWorkRanges(Arrays.asList(new WorkRange(0, 10), new WorkRange(10, 20), new WorkRange(20, NUM_ITEMS)));
+			plan.setMinimumSplitSize(5);
+			return plan;
+		}
+	}
+
+	public static class Reader extends AbstractItemReader implements WorkRangeItemReader {
+
+		WorkRangeQueue queue;
+		WorkRangeTracker tracker;
+		long position;
+
+		@Override
+		public void setWorkRangeQueue(WorkRangeQueue queue) {
+			this.queue = queue;
+		}
+
+		@Override
+		public void open(Serializable checkpoint) {
+			tracker = null;
+		}
+
+		@Override
+		public Object readItem() throws Exception {
+			while (true) {
+				if (tracker == null) {
+					tracker = queue.claim();
+					if (tracker == null) {
+						return null;
+					}
+					position = tracker.getStart();
+				}
+				if (tracker.tryClaim(position)) {
+					readBy.put(position, System.identityHashCode(this));
+					Thread.sleep(5);
+					return position++;
+				}
+				tracker = null;
+			}
+		}
+	}
+
+	public static class Writer extends AbstractItemWriter {
+
+		@Inject @BatchProperty
+		String failAt;
+
+		@Override
+		public void writeItems(List<Object> items) {
+			for (Object item : items) {
+				if (item.equals(Long.parseLong(failAt))) {
+					throw new IllegalStateException("Failing on item: " + item);
+				}
+			}
+			for (Object item : items) {
+				written.add((Long) item);
+			}
+		}
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.batch.api.chunk.AbstractItemReader;
+import javax.batch.api.chunk.AbstractItemWriter;
+import javax.batch.operations.JobOperator;
+import javax.batch.runtime.BatchRuntime;
+import javax.batch.runtime.BatchStatus;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.ibm.jbatch.container.impl.ElasticConcurrency;
+
+public class ElasticPartitionTest {
+	static JobOperator jobOp = null;
+
+	private static int sleepTime = 5000;
+
+	// How many partitions are reading at once, and the most there have been
+	static AtomicInteger running = new AtomicInteger();
+	static AtomicInteger mostRunning = new AtomicInteger();
+
+	@BeforeClass
+	public static void init() {
+		jobOp = BatchRuntime.getJobOperator();
+	}
+
+	@Test
+	public void testScalesUp() throws Exception {
+		long execId = jobOp.start("elasticPartition", new Properties());
+		Thread.sleep(sleepTime);
+		assertEquals("Didn't complete successfully", BatchStatus.COMPLETED, jobOp.getJobExecution(execId).getBatchStatus());
+
+		// The plan only has one thread, but nothing is overloaded, so more partitions are started, up to the maximum
+		assertTrue("most partitions running: " + mostRunning.get(), mostRunning.get() > 1 && mostRunning.get() <= 3);
+	}
+
+	@Test
+	public void testIncreasesWhileThroughputDoes() {
+		ElasticConcurrency elastic = new ElasticConcurrency(1, 1, 4, 100, 0.9);
+		// Not before the sample it started with
+		long now = System.currentTimeMillis();
+
+		// Not yet time to adjust
+		assertEquals(1, elastic.adjust(now, 0.1));
+
+		elastic.recordCommit(100, 10);
+		assertEquals(2, elastic.adjust(now + 100, 0.1));
+		elastic.recordCommit(200, 10);
+		assertEquals(3, elastic.adjust(now + 200, 0.1));
+
+		// The last increase made it worse, so go back and stay there
+		elastic.recordCommit(100, 10);
+		assertEquals(2, elastic.adjust(now + 300, 0.1));
+		elastic.recordCommit(200, 10);
+		assertEquals(2, elastic.adjust(now + 400, 0.1));
+	}
+
+	@Test
+	public void testBacksOffWhenOverloaded() {
+		ElasticConcurrency elastic = new ElasticConcurrency(8, 2, 8, 100, 0.9);
+		long now = System.currentTimeMillis();
+
+		// Busy processors
+		elastic.recordCommit(100, 2000000);
+		assertEquals(6, elastic.adjust(now + 100, 1.5));
+
+		// Commits taking much longer than before, say a saturated database
+		elastic.recordCommit(100, 10000000);
+		assertEquals(5, elastic.adjust(now + 200, 0.1));
+
+		// Never below the minimum
+		for (int i = 3; i < 10; i++) {
+			elastic.recordCommit(100, 2000000);
+			elastic.adjust(now + i * 100, 2.0);
+		}
+		assertEquals(2, elastic.getLimit());
+	}
+
+	@Test
+	public void testHoldsWithoutCommits() {
+		ElasticConcurrency elastic = new ElasticConcurrency(2, 1, 8, 100, 0.9);
+		long now = System.currentTimeMillis();
+
+		// Chunks longer than the interval, so there's nothing to go on
+		for (int i = 1; i <= 5; i++) {
+			assertEquals(2, elastic.adjust(now + i * 100, 0.1));
+		}
+
+		// Until one commits, measured over the whole time since the last sample
+		elastic.recordCommit(100, 10);
+		assertEquals(3, elastic.adjust(now + 600, 0.1));
+
+		// Even with nothing committed, busy processors are still backed off from
+		assertEquals(2, elastic.adjust(now + 700, 1.5));
+	}
+
+	public static class Reader extends AbstractItemReader {
+		int i = 0;
+
+		@Override
+		public void open(Serializable checkpoint) {
+			int now = running.incrementAndGet();
+			int most;
+			while ((most = mostRunning.get()) < now && !mostRunning.compareAndSet(most, now)) {
+			}
+		}
+
+		@Override
+		public Object readItem() throws Exception {
+			Thread.sleep(25);
+			return i < 20 ? i++ : null;
+		}
+
+		@Override
+		public void close() {
+			running.decrementAndGet();
+		}
+	}
+
+	public static class Writer extends AbstractItemWriter {
+		@Override
+		public void writeItems(List<Object> items) {
+		}
+	}
+}
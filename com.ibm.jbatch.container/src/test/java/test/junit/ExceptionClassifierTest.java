@@ -0,0 +1,154 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.junit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.EOFException;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.ibm.jbatch.container.impl.RetryHandler;
+import com.ibm.jbatch.container.impl.SkipHandler;
+import com.ibm.jbatch.jsl.model.Chunk;
+import com.ibm.jbatch.jsl.model.ExceptionClassFilter;
+
+/**
+ * The include/exclude exception class lists, as the skip and retry handlers classify exceptions
+ * against them.  An exception matches if it is an instance of an included class and of no
+ * excluded class.
+ */
+public class ExceptionClassifierTest {
+
+	@SuppressWarnings("serial")
+	public static class MissingFileException extends FileNotFoundException {
+	}
+
+	@Test
+	public void testIncludeOnly() {
+		SkipHandler skipHandler = skipHandler(filter(new Class<?>[] { IOException.class }, new Class<?>[0]));
+		assertTrue(skipHandler.wouldSkip(new IOException()));
+		assertTrue("Subclass", skipHandler.wouldSkip(new MissingFileException()));
+		assertFalse(skipHandler.wouldSkip(new IllegalStateException()));
+	}
+
+	@Test
+	public void testNothingIncluded() {
+		SkipHandler skipHandler = skipHandler(filter(new Class<?>[0], new Class<?>[] { IOException.class }));
+		assertFalse(skipHandler.wouldSkip(new IOException()));
+		assertFalse(skipHandler.wouldSkip(new IllegalStateException()));
+	}
+
+	@Test
+	public void testExcludeSubclass() {
+		SkipHandler skipHandler = skipHandler(filter(new Class<?>[] { IOException.class },
+				new Class<?>[] { FileNotFoundException.class }));
+		assertTrue(skipHandler.wouldSkip(new IOException()));
+		assertTrue(skipHandler.wouldSkip(new EOFException()));
+		assertFalse(skipHandler.wouldSkip(new FileNotFoundException()));
+		assertFalse(skipHandler.wouldSkip(new MissingFileException()));
+	}
+
+	@Test
+	public void testExcludeSuperclass() {
+		// The exclude wins, even though the include is nearer
+		SkipHandler skipHandler = skipHandler(filter(new Class<?>[] { FileNotFoundException.class },
+				new Class<?>[] { IOException.class }));
+		assertFalse(skipHandler.wouldSkip(new FileNotFoundException()));
+		assertFalse(skipHandler.wouldSkip(new MissingFileException()));
+		assertFalse(skipHandler.wouldSkip(new IOException()));
+	}
+
+	@Test
+	public void testExcludeWinsOverSeveralIncludes() {
+		SkipHandler skipHandler = skipHandler(filter(new Class<?>[] { Exception.class, MissingFileException.class },
+				new Class<?>[] { IOException.class }));
+		assertTrue(skipHandler.wouldSkip(new IllegalStateException()));
+		assertFalse(skipHandler.wouldSkip(new FileNotFoundException()));
+		assertFalse(skipHandler.wouldSkip(new MissingFileException()));
+	}
+
+	@Test
+	public void testBothIncludedAndExcluded() {
+		SkipHandler skipHandler = skipHandler(filter(new Class<?>[] { IOException.class }, new Class<?>[] { IOException.class }));
+		assertFalse(skipHandler.wouldSkip(new IOException()));
+		assertFalse(skipHandler.wouldSkip(new FileNotFoundException()));
+	}
+
+	@Test
+	public void testUnknownClassIgnored() {
+		ExceptionClassFilter filter = filter(new Class<?>[] { IOException.class }, new Class<?>[0]);
+		ExceptionClassFilter.Include include = new ExceptionClassFilter.Include();
+		include.setClazz("no.such.Exception");
+		filter.getIncludeList().add(include);
+		ExceptionClassFilter.Exclude exclude = new ExceptionClassFilter.Exclude();
+		exclude.setClazz("no.such.Exception");
+		filter.getExcludeList().add(exclude);
+
+		SkipHandler skipHandler = skipHandler(filter);
+		assertTrue(skipHandler.wouldSkip(new IOException()));
+		assertFalse(skipHandler.wouldSkip(new IllegalStateException()));
+	}
+
+	@Test
+	public void testSameAnswerAgain() {
+		SkipHandler skipHandler = skipHandler(filter(new Class<?>[] { FileNotFoundException.class },
+				new Class<?>[] { IOException.class }));
+		for (int i = 0; i < 3; i++) {
+			assertFalse(skipHandler.wouldSkip(new FileNotFoundException()));
+			assertFalse(skipHandler.wouldSkip(new IllegalStateException()));
+		}
+	}
+
+	@Test
+	public void testRetryHandler() {
+		Chunk chunk = new Chunk();
+		chunk.setNoRollbackExceptionClasses(filter(new Class<?>[] { FileNotFoundException.class, IllegalStateException.class },
+				new Class<?>[] { IOException.class }));
+		RetryHandler retryHandler = new RetryHandler(chunk, 1, "step1");
+
+		assertFalse(retryHandler.isRollbackException(new IllegalStateException()));
+		// The exclude wins, even though the include is nearer
+		assertTrue(retryHandler.isRollbackException(new FileNotFoundException()));
+		assertTrue(retryHandler.isRollbackException(new EOFException()));
+		assertTrue(retryHandler.isRollbackException(new IllegalArgumentException()));
+	}
+
+	private SkipHandler skipHandler(ExceptionClassFilter filter) {
+		Chunk chunk = new Chunk();
+		chunk.setSkippableExceptionClasses(filter);
+		return new SkipHandler(chunk, 1, "step1");
+	}
+
+	private ExceptionClassFilter filter(Class<?>[] includes, Class<?>[] excludes) {
+		ExceptionClassFilter filter = new ExceptionClassFilter();
+		for (Class<?> clazz : includes) {
+			ExceptionClassFilter.Include include = new ExceptionClassFilter.Include();
+			include.setClazz(clazz.getName());
+			filter.getIncludeList().add(include);
+		}
+		for (Class<?> clazz : excludes) {
+			ExceptionClassFilter.Exclude exclude = new ExceptionClassFilter.Exclude();
+			exclude.setClazz(clazz.getName());
+			filter.getExcludeList().add(exclude);
+		}
+		return filter;
+	}
+}
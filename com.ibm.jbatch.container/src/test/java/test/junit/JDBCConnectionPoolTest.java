@@ -0,0 +1,219 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ibm.jbatch.container.services.impl.JDBCConnectionPool;
+
+public class JDBCConnectionPoolTest {
+
+	private static final String URL = "jdbc:derby:memory:JDBCConnectionPoolTest;create=true";
+
+	// One second max wait
+	private static final int MAX_WAIT = 1;
+
+	private ExecutorService otherThread;
+	private JDBCConnectionPool pool;
+
+	// The physical connections the pool opened
+	private List<Connection> opened = new ArrayList<Connection>();
+
+	@Before
+	public void setUp() {
+		otherThread = Executors.newSingleThreadExecutor();
+		pool = new JDBCConnectionPool(URL, "app", "app", 2, 60, MAX_WAIT, 1, 0) {
+			@Override
+			protected void initialize(Connection connection) {
+				opened.add(connection);
+			}
+		};
+	}
+
+	@After
+	public void tearDown() {
+		pool.close();
+		otherThread.shutdownNow();
+	}
+
+	@Test
+	public void testReuse() throws Exception {
+		pool.getConnection().close();
+		pool.getConnection().close();
+
+		assertEquals("Physical connections opened", 1, opened.size());
+		assertEquals(1, pool.getOpenCount());
+		assertEquals(1, pool.getIdleCount());
+	}
+
+	@Test
+	public void testExhausted() throws Exception {
+		Connection first = pool.getConnection();
+		Connection second = pool.getConnection();
+
+		long start = System.currentTimeMillis();
+		try {
+			getConnectionOnOtherThread().get();
+			fail("Got a third connection from a pool of two");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof SQLException);
+		}
+		assertTrue("Waited the max wait time", System.currentTimeMillis() - start >= MAX_WAIT * 1000);
+
+		// Waits for one to come back instead
+		Future<Connection> waiting = getConnectionOnOtherThread();
+		try {
+			waiting.get(200, TimeUnit.MILLISECONDS);
+			fail("Got a connection while the pool was exhausted");
+		} catch (TimeoutException e) {
+			// Expected
+		}
+		first.close();
+		waiting.get(MAX_WAIT, TimeUnit.SECONDS).close();
+		second.close();
+
+		assertEquals(2, pool.getOpenCount());
+		assertEquals(2, pool.getIdleCount());
+	}
+
+	@Test
+	public void testNested() throws Exception {
+		Connection first = pool.getConnection();
+		Connection second = pool.getConnection();
+
+		// The same thread needs another while holding both, so it doesn't wait
+		long start = System.currentTimeMillis();
+		Connection nested = pool.getConnection();
+		assertTrue("Didn't wait", System.currentTimeMillis() - start < MAX_WAIT * 1000);
+		assertEquals(3, pool.getOpenCount());
+
+		// Other threads still have to wait
+		try {
+			getConnectionOnOtherThread().get();
+			fail("Another thread got past the max size");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof SQLException);
+		}
+
+		// The one over the max size isn't kept
+		nested.close();
+		first.close();
+		second.close();
+		assertEquals(2, pool.getOpenCount());
+		assertEquals(2, pool.getIdleCount());
+	}
+
+	@Test
+	public void testDiscardBroken() throws Exception {
+		Connection connection = pool.getConnection();
+		opened.get(0).close();
+		connection.close();
+
+		assertEquals("Broken connection discarded", 0, pool.getOpenCount());
+		assertEquals(0, pool.getIdleCount());
+
+		pool.getConnection().close();
+		assertEquals("Physical connections opened", 2, opened.size());
+		assertFalse(opened.get(1).isClosed());
+	}
+
+	@Test
+	public void testRolledBackWhenReturned() throws Exception {
+		Connection connection = pool.getConnection();
+		connection.setAutoCommit(false);
+		connection.createStatement().execute("create table POOLTEST (ID int)");
+		connection.close();
+
+		Connection reused = pool.getConnection();
+		assertTrue("Autocommit restored", reused.getAutoCommit());
+		assertFalse("Uncommitted table rolled back", reused.getMetaData().getTables(null, null, "POOLTEST", null).next());
+		reused.close();
+		assertEquals("Physical connections opened", 1, opened.size());
+	}
+
+	@Test
+	public void testCloseIdle() throws Exception {
+		pool.getConnection().close();
+
+		pool.close();
+
+		assertEquals(0, pool.getOpenCount());
+		assertEquals(0, pool.getIdleCount());
+		assertTrue(opened.get(0).isClosed());
+	}
+
+	@Test
+	public void testCloseInUse() throws Exception {
+		Connection inUse = pool.getConnection();
+		Connection stillInUse = pool.getConnection();
+		Future<Connection> waiting = getConnectionOnOtherThread();
+		Thread.sleep(200);
+
+		pool.close();
+
+		// Those in use are closed once they're returned
+		assertEquals(2, pool.getOpenCount());
+		assertFalse(opened.get(0).isClosed());
+		try {
+			waiting.get(MAX_WAIT, TimeUnit.SECONDS);
+			fail("Got a connection from a closed pool");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof SQLException);
+		}
+		try {
+			pool.getConnection();
+			fail("Got a connection from a closed pool");
+		} catch (SQLException e) {
+			// Expected
+		}
+
+		inUse.close();
+		stillInUse.close();
+		assertEquals(0, pool.getOpenCount());
+		assertEquals(0, pool.getIdleCount());
+		assertTrue(opened.get(0).isClosed());
+		assertTrue(opened.get(1).isClosed());
+	}
+
+	private Future<Connection> getConnectionOnOtherThread() {
+		return otherThread.submit(new Callable<Connection>() {
+			@Override
+			public Connection call() throws Exception {
+				return pool.getConnection();
+			}
+		});
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Timestamp;
+import java.util.Properties;
+
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobInstance;
+
+import org.junit.Test;
+
+import com.ibm.jbatch.container.impl.BatchConfigImpl;
+import com.ibm.jbatch.container.jobinstance.JobOperatorJobExecution;
+import com.ibm.jbatch.container.services.IPersistenceManagerService;
+import com.ibm.jbatch.container.services.impl.JDBCPersistenceManagerImpl;
+import com.ibm.jbatch.container.servicesmanager.ServicesManagerImpl;
+import com.ibm.jbatch.container.util.BatchContainerConstants;
+import com.ibm.jbatch.spi.DatabaseConfigurationBean;
+
+public class JobExecutionSnapshotTest {
+
+	// So the job instance can be purged afterwards, other tests list all job instances
+	private static final String APPTAG = JobExecutionSnapshotTest.class.getName();
+
+	@Test
+	public void testFinishedExecutionSnapshots() throws Exception {
+		IPersistenceManagerService persistence = ServicesManagerImpl.getInstance().getPersistenceManagerService();
+
+		try {
+			JobInstance jobInstance = persistence.createJobInstance("jobExecutionSnapshot", APPTAG, "<job id=\"jobExecutionSnapshot\"/>");
+			Properties jobParameters = new Properties();
+			jobParameters.setProperty("p", "1");
+			long executionId = persistence.createJobExecution(jobInstance, jobParameters, BatchStatus.STARTING).getExecutionId();
+
+			// Still running
+			JobOperatorJobExecution running = (JobOperatorJobExecution) persistence.jobOperatorGetJobExecution(executionId);
+			assertFalse(running.isSnapshot());
+			assertEquals(BatchStatus.STARTING, running.getBatchStatus());
+
+			Timestamp end = new Timestamp(System.currentTimeMillis());
+			persistence.updateWithFinalExecutionStatusesAndTimestamps(executionId, BatchStatus.COMPLETED, "DONE", end);
+			// Sees the final status without being read again
+			assertEquals(BatchStatus.COMPLETED, running.getBatchStatus());
+
+			JobOperatorJobExecution first = (JobOperatorJobExecution) persistence.jobOperatorGetJobExecution(executionId);
+			JobOperatorJobExecution second = (JobOperatorJobExecution) persistence.jobOperatorGetJobExecution(executionId);
+			assertTrue(first.isSnapshot());
+			assertNotSame(first, second);
+			assertEquals(BatchStatus.COMPLETED, second.getBatchStatus());
+			assertEquals("DONE", second.getExitStatus());
+			assertEquals(end.getTime(), second.getEndTime().getTime());
+			assertEquals("jobExecutionSnapshot", second.getJobName());
+			assertEquals(APPTAG, second.getTagName());
+			assertEquals("1", second.getJobParameters().getProperty("p"));
+
+			// Each copy has its own parameters
+			first.getJobParameters().setProperty("p", "2");
+			assertEquals("1", persistence.jobOperatorGetJobExecution(executionId).getJobParameters().getProperty("p"));
+
+			persistence.updateBatchStatusOnly(executionId, BatchStatus.ABANDONED, new Timestamp(System.currentTimeMillis()));
+			assertEquals(BatchStatus.ABANDONED, persistence.jobOperatorGetJobExecution(executionId).getBatchStatus());
+			assertEquals(BatchStatus.ABANDONED, persistence.jobOperatorGetJobExecutions(jobInstance.getInstanceId()).get(0).getBatchStatus());
+			// A snapshot read before then doesn't change
+			assertEquals(BatchStatus.COMPLETED, first.getBatchStatus());
+		} finally {
+			persistence.purge(APPTAG);
+		}
+	}
+
+	@Test
+	public void testCacheOff() throws Exception {
+		String url = "jdbc:derby:memory:JobExecutionCacheOff;create=true";
+		IPersistenceManagerService persistence = newPersistenceManager(url, null);
+		IPersistenceManagerService elsewhere = newPersistenceManager(url, null);
+
+		long executionId = createFinishedExecution(persistence);
+		assertEquals(BatchStatus.COMPLETED, persistence.jobOperatorGetJobExecution(executionId).getBatchStatus());
+
+		elsewhere.updateBatchStatusOnly(executionId, BatchStatus.ABANDONED, new Timestamp(System.currentTimeMillis()));
+		assertEquals(BatchStatus.ABANDONED, persistence.jobOperatorGetJobExecution(executionId).getBatchStatus());
+	}
+
+	@Test
+	public void testCacheOn() throws Exception {
+		String url = "jdbc:derby:memory:JobExecutionCacheOn;create=true";
+		IPersistenceManagerService persistence = newPersistenceManager(url, "10");
+		IPersistenceManagerService elsewhere = newPersistenceManager(url, null);
+
+		long executionId = createFinishedExecution(persistence);
+		assertEquals(BatchStatus.COMPLETED, persistence.jobOperatorGetJobExecution(executionId).getBatchStatus());
+
+		// Another runtime's change isn't seen
+		elsewhere.updateBatchStatusOnly(executionId, BatchStatus.ABANDONED, new Timestamp(System.currentTimeMillis()));
+		assertEquals(BatchStatus.COMPLETED, persistence.jobOperatorGetJobExecution(executionId).getBatchStatus());
+
+		// But this one's is
+		persistence.updateBatchStatusOnly(executionId, BatchStatus.ABANDONED, new Timestamp(System.currentTimeMillis()));
+		assertEquals(BatchStatus.ABANDONED, persistence.jobOperatorGetJobExecution(executionId).getBatchStatus());
+	}
+
+	private long createFinishedExecution(IPersistenceManagerService persistence) {
+		JobInstance jobInstance = persistence.createJobInstance("jobExecutionCache", APPTAG, "<job id=\"jobExecutionCache\"/>");
+		long executionId = persistence.createJobExecution(jobInstance, new Properties(), BatchStatus.STARTING).getExecutionId();
+		persistence.updateWithFinalExecutionStatusesAndTimestamps(executionId, BatchStatus.COMPLETED, "DONE", 
+				new Timestamp(System.currentTimeMillis()));
+		return executionId;
+	}
+
+	/**
+	 * @param cacheSize for JOB_EXECUTION_CACHE_SIZE, or null for the default
+	 */
+	private JDBCPersistenceManagerImpl newPersistenceManager(String url, String cacheSize) {
+		DatabaseConfigurationBean databaseConfig = new DatabaseConfigurationBean();
+		databaseConfig.setJdbcDriver("org.apache.derby.jdbc.EmbeddedDriver");
+		databaseConfig.setJdbcUrl(url);
+		databaseConfig.setSchema("JBATCH");
+		BatchConfigImpl batchConfig = new BatchConfigImpl();
+		batchConfig.setJ2seMode(true);
+		batchConfig.setDatabaseConfigurationBean(databaseConfig);
+		Properties props = new Properties();
+		if (cacheSize != null) {
+			props.setProperty(BatchContainerConstants.JOB_EXECUTION_CACHE_SIZE, cacheSize);
+		}
+		batchConfig.setConfigProperties(props);
+
+		JDBCPersistenceManagerImpl persistence = new JDBCPersistenceManagerImpl();
+		persistence.init(batchConfig);
+		return persistence;
+	}
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import com.ibm.jbatch.container.services.IPersistenceManagerService;
+import com.ibm.jbatch.container.services.impl.JDBCDialect;
+import com.ibm.jbatch.container.servicesmanager.ServicesManagerImpl;
+
+public class JobInstancePagingTest {
+
+	// So the job instances can be purged afterwards, other tests list all job instances
+	private static final String APPTAG = JobInstancePagingTest.class.getName();
+
+	private static final String JOB_NAME = "jobInstancePaging";
+
+	@Test
+	public void testPages() throws Exception {
+		IPersistenceManagerService persistence = ServicesManagerImpl.getInstance().getPersistenceManagerService();
+
+		try {
+			// Newest first
+			List<Long> ids = new ArrayList<Long>();
+			for (int i = 0; i < 5; i++) {
+				ids.add(0, persistence.createJobInstance(JOB_NAME, APPTAG, "<job id=\"" + JOB_NAME + "\"/>").getInstanceId());
+			}
+			persistence.createJobInstance(JOB_NAME, APPTAG + ".other", "<job id=\"" + JOB_NAME + "\"/>");
+
+			assertEquals(ids.subList(0, 2), persistence.jobOperatorGetJobInstanceIds(JOB_NAME, APPTAG, 0, 2));
+			assertEquals(ids.subList(2, 4), persistence.jobOperatorGetJobInstanceIds(JOB_NAME, APPTAG, 2, 2));
+			assertEquals(ids.subList(4, 5), persistence.jobOperatorGetJobInstanceIds(JOB_NAME, APPTAG, 4, 2));
+			assertTrue(persistence.jobOperatorGetJobInstanceIds(JOB_NAME, APPTAG, 5, 2).isEmpty());
+			assertEquals(ids, persistence.jobOperatorGetJobInstanceIds(JOB_NAME, APPTAG, 0, Integer.MAX_VALUE));
+			assertEquals(6, persistence.jobOperatorGetJobInstanceIds(JOB_NAME, 0, 10).size());
+
+			assertEquals(ids.subList(2, 4), persistence.jobOperatorGetJobInstanceIdsBefore(JOB_NAME, APPTAG, ids.get(1), 2));
+			assertEquals(ids.subList(4, 5), persistence.jobOperatorGetJobInstanceIdsBefore(JOB_NAME, APPTAG, ids.get(3), 2));
+			assertTrue(persistence.jobOperatorGetJobInstanceIdsBefore(JOB_NAME, APPTAG, ids.get(4), 2).isEmpty());
+			assertEquals(Arrays.asList(ids.get(3), ids.get(4)), persistence.jobOperatorGetJobInstanceIdsBefore(JOB_NAME, ids.get(2), 10));
+		} finally {
+			persistence.purge(APPTAG);
+			persistence.purge(APPTAG + ".other");
+		}
+	}
+
+	@Test
+	public void testPageClause() throws Exception {
+		assertEquals(" offset ? rows fetch next ? rows only", pageClauseFor("Apache Derby", 10, 10));
+		assertNull(pageClauseFor("Apache Derby", 10, 5));
+		assertEquals(" offset ? rows fetch next ? rows only", pageClauseFor("DB2/LINUXX8664", 11, 1));
+		assertNull(pageClauseFor("DB2/LINUXX8664", 10, 5));
+		assertEquals(" offset ? rows fetch next ? rows only", pageClauseFor("Oracle", 12, 1));
+		assertNull(pageClauseFor("Oracle", 11, 2));
+		assertEquals(" offset ? rows fetch next ? rows only", pageClauseFor("Microsoft SQL Server", 11, 0));
+		assertNull(pageClauseFor("Microsoft SQL Server", 10, 50));
+		assertEquals(" limit ? offset ?", pageClauseFor("PostgreSQL", 9, 2));
+		assertEquals(" limit ? offset ?", pageClauseFor("MySQL", 5, 7));
+		assertEquals(" limit ? offset ?", pageClauseFor("MariaDB", 10, 5));
+		assertNull(pageClauseFor("Adaptive Server Anywhere", 17, 0));
+	}
+
+	/*
+	 * Each way of paging, the ones Derby can't run against a fake connection.
+	 */
+
+	@Test
+	public void testOffsetFetch() throws Exception {
+		Connection conn = createIdTable();
+		try {
+			String clause = JDBCDialect.getPageClause(conn.getMetaData());
+			assertEquals(" offset ? rows fetch next ? rows only", clause);
+			assertEquals(Arrays.asList(4L, 3L, 2L), JDBCDialect.selectPageOfIds(conn, SELECT_IDS, clause, 1, 3, 0L));
+			assertEquals(Arrays.asList(2L, 1L), JDBCDialect.selectPageOfIds(conn, SELECT_IDS, clause, 3, 3, 0L));
+			assertTrue(JDBCDialect.selectPageOfIds(conn, SELECT_IDS, clause, 5, 3, 0L).isEmpty());
+		} finally {
+			conn.close();
+		}
+	}
+
+	@Test
+	public void testSkippedOnClient() throws Exception {
+		Connection conn = createIdTable();
+		try {
+			assertEquals(Arrays.asList(4L, 3L, 2L), JDBCDialect.selectPageOfIds(conn, SELECT_IDS, null, 1, 3, 0L));
+			assertEquals(Arrays.asList(2L, 1L), JDBCDialect.selectPageOfIds(conn, SELECT_IDS, null, 3, 3, 0L));
+			assertEquals(Arrays.asList(5L, 4L, 3L, 2L, 1L), JDBCDialect.selectPageOfIds(conn, SELECT_IDS, null, 0, Integer.MAX_VALUE, 0L));
+			assertTrue(JDBCDialect.selectPageOfIds(conn, SELECT_IDS, null, 5, 3, 0L).isEmpty());
+		} finally {
+			conn.close();
+		}
+	}
+
+	@Test
+	public void testLimitOffset() throws Exception {
+		final List<String> prepared = new ArrayList<String>();
+		final Map<Integer, Object> parameters = new TreeMap<Integer, Object>();
+		final PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { PreparedStatement.class }, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						String name = method.getName();
+						if (name.equals("setObject") || name.equals("setInt")) {
+							parameters.put((Integer) args[0], args[1]);
+							return null;
+						} else if (name.equals("executeQuery")) {
+							return resultSet(Arrays.asList(4L, 3L));
+						} else if (name.equals("close")) {
+							return null;
+						}
+						throw new UnsupportedOperationException(name);
+					}
+				});
+		Connection conn = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { Connection.class }, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						if (method.getName().equals("prepareStatement")) {
+							prepared.add((String) args[0]);
+							return statement;
+						}
+						throw new UnsupportedOperationException(method.getName());
+					}
+				});
+
+		// All the rows the database sends are on the page
+		assertEquals(Arrays.asList(4L, 3L), JDBCDialect.selectPageOfIds(conn, SELECT_IDS, " limit ? offset ?", 1, 2, 0L));
+		assertEquals(Arrays.asList(SELECT_IDS + " limit ? offset ?"), prepared);
+		Map<Integer, Object> expected = new TreeMap<Integer, Object>();
+		expected.put(1, 0L);
+		expected.put(2, 2);
+		expected.put(3, 1);
+		assertEquals(expected, parameters);
+	}
+
+	private static final String SELECT_IDS = "select id from PAGETEST where id > ? order by id desc";
+
+	/**
+	 * @return a connection to a table of the ids 1 to 5
+	 */
+	private Connection createIdTable() throws Exception {
+		Connection conn = DriverManager.getConnection("jdbc:derby:memory:JobInstancePagingTest;create=true");
+		if (!conn.getMetaData().getTables(null, null, "PAGETEST", null).next()) {
+			conn.createStatement().execute("create table PAGETEST (ID bigint)");
+			conn.createStatement().execute("insert into PAGETEST values 1, 2, 3, 4, 5");
+		}
+		return conn;
+	}
+
+	private String pageClauseFor(final String productName, final int major, final int minor) throws Exception {
+		DatabaseMetaData dbmd = (DatabaseMetaData) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { DatabaseMetaData.class }, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						String name = method.getName();
+						if (name.equals("getDatabaseProductName")) {
+							return productName;
+						} else if (name.equals("getDatabaseMajorVersion")) {
+							return major;
+						} else if (name.equals("getDatabaseMinorVersion")) {
+							return minor;
+						}
+						throw new UnsupportedOperationException(name);
+					}
+				});
+		return JDBCDialect.getPageClause(dbmd);
+	}
+
+	private ResultSet resultSet(List<Long> ids) {
+		final Iterator<Long> it = ids.iterator();
+		return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { ResultSet.class }, new InvocationHandler() {
+					private Long id;
+
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						String name = method.getName();
+						if (name.equals("next")) {
+							id = it.hasNext() ? it.next() : null;
+							return id != null;
+						} else if (name.equals("getLong")) {
+							return id;
+						} else if (name.equals("close")) {
+							return null;
+						}
+						throw new UnsupportedOperationException(name);
+					}
+				});
+	}
+}
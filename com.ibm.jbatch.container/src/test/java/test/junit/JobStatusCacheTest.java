@@ -0,0 +1,142 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Properties;
+
+import javax.batch.runtime.BatchStatus;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ibm.jbatch.container.impl.BatchConfigImpl;
+import com.ibm.jbatch.container.services.IPersistenceManagerService;
+import com.ibm.jbatch.container.services.impl.JobStatusManagerImpl;
+import com.ibm.jbatch.container.servicesmanager.ServicesManagerImpl;
+import com.ibm.jbatch.container.util.BatchContainerConstants;
+
+public class JobStatusCacheTest {
+
+	// So the job instances can be purged afterwards, other tests list all job instances
+	private static final String APPTAG = JobStatusCacheTest.class.getName();
+
+	private IPersistenceManagerService persistence;
+	private long instanceId;
+
+	@Before
+	public void createJobInstance() {
+		persistence = ServicesManagerImpl.getInstance().getPersistenceManagerService();
+		instanceId = persistence.createJobInstance("jobStatusCache", APPTAG, "<job id=\"jobStatusCache\"/>").getInstanceId();
+	}
+
+	@After
+	public void purge() {
+		persistence.purge(APPTAG);
+	}
+
+	@Test
+	public void testEachChangeWrittenThrough() {
+		JobStatusManagerImpl jobStatusManager = newJobStatusManager(true);
+		jobStatusManager.createJobStatus(instanceId);
+
+		jobStatusManager.updateJobBatchStatus(instanceId, BatchStatus.STARTED);
+		assertEquals(BatchStatus.STARTED, persistence.getJobStatus(instanceId).getBatchStatus());
+
+		jobStatusManager.updateJobCurrentStep(instanceId, "step1");
+		assertEquals("step1", persistence.getJobStatus(instanceId).getCurrentStepId());
+
+		jobStatusManager.updateJobStatusFromJSLStop(instanceId, "step2");
+		assertEquals("step2", persistence.getJobStatus(instanceId).getRestartOn());
+
+		jobStatusManager.updateJobExecutionStatus(instanceId, BatchStatus.STOPPED, "STOPPED_AT_STEP1");
+		assertEquals(BatchStatus.STOPPED, persistence.getJobStatus(instanceId).getBatchStatus());
+		assertEquals("STOPPED_AT_STEP1", persistence.getJobStatus(instanceId).getExitStatus());
+	}
+
+	@Test
+	public void testCacheOn() {
+		JobStatusManagerImpl jobStatusManager = newJobStatusManager(true);
+		jobStatusManager.createJobStatus(instanceId);
+		jobStatusManager.updateJobCurrentStep(instanceId, "step1");
+
+		// Changed behind the cache's back, which only another JVM could do for real
+		persistence.updateJobStatusCurrentStep(instanceId, "elsewhere");
+		assertEquals("read from the cache", "step1", jobStatusManager.getJobStatus(instanceId).getCurrentStepId());
+
+		// Changes nothing as far as the cache knows, so isn't written
+		jobStatusManager.updateJobCurrentStep(instanceId, "step1");
+		assertEquals("elsewhere", persistence.getJobStatus(instanceId).getCurrentStepId());
+
+		jobStatusManager.updateJobCurrentStep(instanceId, "step2");
+		assertEquals("step2", persistence.getJobStatus(instanceId).getCurrentStepId());
+	}
+
+	@Test
+	public void testCacheOff() {
+		JobStatusManagerImpl jobStatusManager = newJobStatusManager(false);
+		jobStatusManager.createJobStatus(instanceId);
+		jobStatusManager.updateJobCurrentStep(instanceId, "step1");
+
+		persistence.updateJobStatusCurrentStep(instanceId, "elsewhere");
+		assertEquals("elsewhere", jobStatusManager.getJobStatus(instanceId).getCurrentStepId());
+
+		jobStatusManager.updateJobCurrentStep(instanceId, "step1");
+		assertEquals("step1", persistence.getJobStatus(instanceId).getCurrentStepId());
+	}
+
+	@Test
+	public void testJobExecutionDoneEvicts() {
+		JobStatusManagerImpl jobStatusManager = newJobStatusManager(true);
+		jobStatusManager.createJobStatus(instanceId);
+		jobStatusManager.updateJobExecutionStatus(instanceId, BatchStatus.COMPLETED, "COMPLETED");
+
+		jobStatusManager.jobExecutionDone(instanceId);
+
+		persistence.updateJobStatusBatchStatus(instanceId, BatchStatus.ABANDONED);
+		assertEquals(BatchStatus.ABANDONED, jobStatusManager.getJobStatus(instanceId).getBatchStatus());
+	}
+
+	@Test
+	public void testShutdown() {
+		JobStatusManagerImpl jobStatusManager = newJobStatusManager(true);
+		jobStatusManager.createJobStatus(instanceId);
+		jobStatusManager.updateJobBatchStatus(instanceId, BatchStatus.STARTED);
+		jobStatusManager.updateJobCurrentStep(instanceId, "step1");
+
+		jobStatusManager.shutdown();
+
+		// Everything was already written, and nothing is served from the cache any more
+		assertEquals(BatchStatus.STARTED, persistence.getJobStatus(instanceId).getBatchStatus());
+		assertEquals("step1", persistence.getJobStatus(instanceId).getCurrentStepId());
+		persistence.updateJobStatusCurrentStep(instanceId, "elsewhere");
+		assertEquals("elsewhere", jobStatusManager.getJobStatus(instanceId).getCurrentStepId());
+	}
+
+	private JobStatusManagerImpl newJobStatusManager(boolean cacheEnabled) {
+		Properties props = new Properties();
+		props.setProperty(BatchContainerConstants.JOB_STATUS_CACHE, Boolean.toString(cacheEnabled));
+		BatchConfigImpl batchConfig = new BatchConfigImpl();
+		batchConfig.setConfigProperties(props);
+
+		JobStatusManagerImpl jobStatusManager = new JobStatusManagerImpl();
+		jobStatusManager.init(batchConfig);
+		return jobStatusManager;
+	}
+}
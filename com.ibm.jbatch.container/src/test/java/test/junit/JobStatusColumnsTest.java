@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobInstance;
+
+import org.junit.Test;
+
+import com.ibm.jbatch.container.impl.BatchConfigImpl;
+import com.ibm.jbatch.container.services.IPersistenceManagerService;
+import com.ibm.jbatch.container.services.impl.JDBCPersistenceManagerImpl;
+import com.ibm.jbatch.container.servicesmanager.ServicesManagerImpl;
+import com.ibm.jbatch.container.status.JobStatus;
+import com.ibm.jbatch.spi.DatabaseConfigurationBean;
+
+public class JobStatusColumnsTest {
+
+	// So the job instance can be purged afterwards, other tests list all job instances
+	private static final String APPTAG = JobStatusColumnsTest.class.getName();
+
+	@Test
+	public void testSingleFieldUpdates() throws Exception {
+		IPersistenceManagerService persistence = ServicesManagerImpl.getInstance().getPersistenceManagerService();
+
+		try {
+			JobInstance jobInstance = persistence.createJobInstance("jobStatusColumns", APPTAG, "<job id=\"jobStatusColumns\"/>");
+			long instanceId = jobInstance.getInstanceId();
+			JobStatus jobStatus = persistence.createJobStatus(instanceId);
+			jobStatus.setJobInstance(jobInstance);
+			persistence.updateJobStatus(instanceId, jobStatus);
+
+			assertTrue(persistence.updateJobStatusWithNewExecution(instanceId, 42L));
+			assertTrue(persistence.updateJobStatusCurrentStep(instanceId, "step1"));
+			assertTrue(persistence.updateJobStatusBatchStatus(instanceId, BatchStatus.STARTED));
+
+			jobStatus = persistence.getJobStatus(instanceId);
+			assertEquals(BatchStatus.STARTED, jobStatus.getBatchStatus());
+			assertEquals("step1", jobStatus.getCurrentStepId());
+			assertEquals(42L, jobStatus.getLatestExecutionId());
+			assertNull(jobStatus.getRestartOn());
+			// Still there after the updates that didn't touch it
+			assertEquals("jobStatusColumns", jobStatus.getJobInstance().getJobName());
+
+			assertTrue(persistence.updateJobStatusBatchAndExitStatus(instanceId, BatchStatus.STOPPED, "STOPPED_AT_STEP1"));
+			assertTrue(persistence.updateJobStatusRestartOn(instanceId, "step2"));
+
+			jobStatus = persistence.getJobStatus(instanceId);
+			assertEquals(BatchStatus.STOPPED, jobStatus.getBatchStatus());
+			assertEquals("STOPPED_AT_STEP1", jobStatus.getExitStatus());
+			assertEquals("step2", jobStatus.getRestartOn());
+			assertEquals("step1", jobStatus.getCurrentStepId());
+
+			// A restart clears the restart position
+			assertTrue(persistence.updateJobStatusWithNewExecution(instanceId, 43L));
+			jobStatus = persistence.getJobStatus(instanceId);
+			assertEquals(BatchStatus.STARTING, jobStatus.getBatchStatus());
+			assertEquals(43L, jobStatus.getLatestExecutionId());
+			assertNull(jobStatus.getRestartOn());
+		} finally {
+			persistence.purge(APPTAG);
+		}
+	}
+
+	@Test
+	public void testStatusColumnsFilledInOnce() throws Exception {
+		// A database of its own, so the schema version can be wound back
+		String url = "jdbc:derby:memory:jobStatusColumnsTest;create=true";
+		JDBCPersistenceManagerImpl persistence = newPersistenceManager(url);
+
+		JobInstance jobInstance = persistence.createJobInstance("jobStatusColumns", APPTAG, "<job id=\"jobStatusColumns\"/>");
+		long instanceId = jobInstance.getInstanceId();
+		persistence.createJobStatus(instanceId);
+
+		Connection conn = DriverManager.getConnection(url);
+		try {
+			assertEquals("schema version", 1, querySchemaVersion(conn));
+
+			// As written before there were status columns, by an older version
+			JobStatus jobStatus = new JobStatus(instanceId);
+			jobStatus.setBatchStatus(BatchStatus.COMPLETED);
+			setObjOnly(conn, instanceId, jobStatus);
+			conn.createStatement().executeUpdate("update JBATCH.schemaversion set version = 0");
+
+			newPersistenceManager(url);
+			assertEquals(BatchStatus.COMPLETED.name(), queryBatchStatus(conn, instanceId));
+			assertEquals("schema version", 1, querySchemaVersion(conn));
+
+			// Not looked at again once the tables are up to date
+			setObjOnly(conn, instanceId, jobStatus);
+			newPersistenceManager(url);
+			assertNull(queryBatchStatus(conn, instanceId));
+		} finally {
+			conn.close();
+		}
+	}
+
+	private JDBCPersistenceManagerImpl newPersistenceManager(String url) {
+		DatabaseConfigurationBean databaseConfig = new DatabaseConfigurationBean();
+		databaseConfig.setJdbcDriver("org.apache.derby.jdbc.EmbeddedDriver");
+		databaseConfig.setJdbcUrl(url);
+		databaseConfig.setSchema("JBATCH");
+		BatchConfigImpl batchConfig = new BatchConfigImpl();
+		batchConfig.setJ2seMode(true);
+		batchConfig.setDatabaseConfigurationBean(databaseConfig);
+
+		JDBCPersistenceManagerImpl persistence = new JDBCPersistenceManagerImpl();
+		persistence.init(batchConfig);
+		return persistence;
+	}
+
+	private void setObjOnly(Connection conn, long instanceId, JobStatus jobStatus) throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(jobStatus);
+		out.close();
+
+		PreparedStatement statement = conn.prepareStatement("update JBATCH.jobstatus set obj = ?, batchstatus = null where id = ?");
+		statement.setBytes(1, bytes.toByteArray());
+		statement.setLong(2, instanceId);
+		statement.executeUpdate();
+		statement.close();
+	}
+
+	private String queryBatchStatus(Connection conn, long instanceId) throws Exception {
+		PreparedStatement statement = conn.prepareStatement("select batchstatus from JBATCH.jobstatus where id = ?");
+		statement.setLong(1, instanceId);
+		ResultSet rs = statement.executeQuery();
+		rs.next();
+		String batchStatus = rs.getString(1);
+		statement.close();
+		return batchStatus;
+	}
+
+	private int querySchemaVersion(Connection conn) throws Exception {
+		ResultSet rs = conn.createStatement().executeQuery("select version from JBATCH.schemaversion");
+		return rs.next() ? rs.getInt(1) : 0;
+	}
+
+	@Test
+	public void testUnknownJobInstance() throws Exception {
+		IPersistenceManagerService persistence = ServicesManagerImpl.getInstance().getPersistenceManagerService();
+
+		assertFalse(persistence.updateJobStatusBatchStatus(-1L, BatchStatus.STARTED));
+		assertFalse(persistence.updateJobStatusRestartOn(-1L, "step1"));
+		assertNull(persistence.getJobStatus(-1L));
+	}
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobInstance;
+import javax.naming.Context;
+import javax.naming.spi.InitialContextFactory;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ibm.jbatch.container.context.impl.StepContextImpl;
+import com.ibm.jbatch.container.impl.BatchConfigImpl;
+import com.ibm.jbatch.container.persistence.CheckpointData;
+import com.ibm.jbatch.container.persistence.CheckpointDataKey;
+import com.ibm.jbatch.container.services.impl.JournalingPersistenceManagerImpl;
+import com.ibm.jbatch.container.services.impl.MemoryPersistenceManagerImpl;
+import com.ibm.jbatch.container.status.StepStatus;
+
+public class JournalingPersistenceManagerTest {
+
+	private File journalFile;
+	private JournalingPersistenceManagerImpl persistence;
+
+	@Before
+	public void setUp() throws Exception {
+		journalFile = File.createTempFile("jbatch-journal", ".dat");
+		journalFile.deleteOnExit();
+		persistence = newPersistenceManager();
+	}
+
+	@After
+	public void tearDown() {
+		persistence.shutdown();
+	}
+
+	/**
+	 * Over an in-memory persistence manager, with compaction only when the journal fills up.
+	 */
+	private JournalingPersistenceManagerImpl newPersistenceManager() {
+		return newPersistenceManager(true);
+	}
+
+	private JournalingPersistenceManagerImpl newPersistenceManager(boolean j2seMode) {
+		Properties props = new Properties();
+		props.setProperty("JOURNAL_PERSISTENCE_DELEGATE", MemoryPersistenceManagerImpl.class.getName());
+		props.setProperty("JOURNAL_FILE", journalFile.getAbsolutePath());
+		props.setProperty("JOURNAL_SIZE", "4096");
+		props.setProperty("JOURNAL_COMPACTION_INTERVAL", "3600000");
+		BatchConfigImpl batchConfig = new BatchConfigImpl();
+		batchConfig.setConfigProperties(props);
+		batchConfig.setJ2seMode(j2seMode);
+
+		JournalingPersistenceManagerImpl retVal = new JournalingPersistenceManagerImpl();
+		retVal.init(batchConfig);
+		return retVal;
+	}
+
+	@Test
+	public void testReadJournaledCheckpoints() {
+		Map<CheckpointDataKey, CheckpointData> checkpoints = new LinkedHashMap<CheckpointDataKey, CheckpointData>();
+		checkpoints.put(new CheckpointDataKey(1, "step1", "READER"), checkpoint(1, "READER", 10));
+		checkpoints.put(new CheckpointDataKey(1, "step1", "WRITER"), checkpoint(1, "WRITER", 20));
+		persistence.updateCheckpointData(checkpoints);
+
+		assertEquals(10, persistence.getCheckpointData(new CheckpointDataKey(1, "step1", "READER")).getRestartToken().length);
+		assertEquals(20, persistence.getCheckpointData(new CheckpointDataKey(1, "step1", "WRITER")).getRestartToken().length);
+	}
+
+	@Test
+	public void testReplayedOnInit() {
+		CheckpointDataKey key = new CheckpointDataKey(1, "step1", "READER");
+		persistence.updateCheckpointData(key, checkpoint(1, "READER", 10));
+		persistence.updateCheckpointData(key, checkpoint(1, "READER", 30));
+
+		// As if the JVM had stopped without compacting.  The in-memory delegate starts 
+		// empty, so anything it has came from the journal.
+		JournalingPersistenceManagerImpl restarted = newPersistenceManager();
+		assertEquals(30, restarted.getCheckpointData(key).getRestartToken().length);
+
+		// Emptied once replayed
+		assertNull(newPersistenceManager().getCheckpointData(key));
+	}
+
+	@Test
+	public void testCompactedWhenFull() {
+		for (int i = 0; i < 40; i++) {
+			persistence.updateCheckpointData(new CheckpointDataKey(i, "step1", "READER"), checkpoint(i, "READER", 200));
+		}
+		for (int i = 0; i < 40; i++) {
+			assertEquals(200, persistence.getCheckpointData(new CheckpointDataKey(i, "step1", "READER")).getRestartToken().length);
+		}
+	}
+
+	@Test
+	public void testStepStatus() {
+		JobInstance jobInstance = persistence.createJobInstance("job", "app", "<job/>");
+		long execId = persistence.createJobExecution(jobInstance, new Properties(), BatchStatus.STARTING).getExecutionId();
+		long stepExecId = persistence.createStepExecution(execId, new StepContextImpl("step1")).getStepExecutionId();
+		StepStatus stepStatus = persistence.createStepStatus(stepExecId);
+
+		stepStatus.setBatchStatus(BatchStatus.STARTED);
+		stepStatus.setExitStatus("inProgress");
+		persistence.updateStepStatus(stepExecId, stepStatus);
+		assertEquals("inProgress", persistence.getStepStatus(jobInstance.getInstanceId(), "step1").getExitStatus());
+
+		stepStatus.setBatchStatus(BatchStatus.COMPLETED);
+		stepStatus.setExitStatus("done");
+		persistence.updateStepStatus(stepExecId, stepStatus);
+		assertEquals(BatchStatus.COMPLETED, persistence.getStepStatus(jobInstance.getInstanceId(), "step1").getBatchStatus());
+	}
+
+	@Test
+	public void testJournaledOnceCommitted() {
+		persistence.shutdown();
+		System.setProperty(Context.INITIAL_CONTEXT_FACTORY, RegistryContextFactory.class.getName());
+		try {
+			persistence = newPersistenceManager(false);
+		} finally {
+			System.clearProperty(Context.INITIAL_CONTEXT_FACTORY);
+		}
+		CheckpointDataKey key = new CheckpointDataKey(1, "step1", "READER");
+
+		registry.status = Status.STATUS_ACTIVE;
+		persistence.updateCheckpointData(key, checkpoint(1, "READER", 10));
+		assertNull("journaled before the commit", persistence.getCheckpointData(key));
+		registry.complete(Status.STATUS_COMMITTED);
+		assertEquals(10, persistence.getCheckpointData(key).getRestartToken().length);
+
+		registry.status = Status.STATUS_ACTIVE;
+		persistence.updateCheckpointData(key, checkpoint(1, "READER", 30));
+		registry.complete(Status.STATUS_ROLLEDBACK);
+		assertEquals(10, persistence.getCheckpointData(key).getRestartToken().length);
+		assertEquals(10, newPersistenceManager().getCheckpointData(key).getRestartToken().length);
+
+		// Outside a transaction, straight away
+		persistence.updateCheckpointData(key, checkpoint(1, "READER", 20));
+		assertEquals(20, persistence.getCheckpointData(key).getRestartToken().length);
+	}
+
+	@Test
+	public void testPurgeDropsJournaled() {
+		JobInstance jobInstance = persistence.createJobInstance("job", "app", "<job/>");
+		persistence.createJobStatus(jobInstance.getInstanceId());
+		CheckpointDataKey purgedKey = new CheckpointDataKey(jobInstance.getInstanceId(), "step1", "READER");
+		persistence.updateCheckpointData(purgedKey, checkpoint(jobInstance.getInstanceId(), "READER", 10));
+		// Not a job instance the delegate knows of, so not one the purge can have removed
+		CheckpointDataKey keptKey = new CheckpointDataKey(jobInstance.getInstanceId() + 1000, "step1", "READER");
+		persistence.updateCheckpointData(keptKey, checkpoint(jobInstance.getInstanceId() + 1000, "READER", 20));
+
+		persistence.purge("app");
+		assertNull(persistence.getCheckpointData(purgedKey));
+
+		// The in-memory delegate starts empty, so anything it has came from the journal
+		JournalingPersistenceManagerImpl restarted = newPersistenceManager();
+		assertNull("replayed", restarted.getCheckpointData(purgedKey));
+		assertEquals(20, restarted.getCheckpointData(keptKey).getRestartToken().length);
+	}
+
+	static FakeSynchronizationRegistry registry = new FakeSynchronizationRegistry();
+
+	/**
+	 * Looks up the fake registry, whatever the name.
+	 */
+	public static class RegistryContextFactory implements InitialContextFactory {
+		@Override
+		public Context getInitialContext(Hashtable<?, ?> environment) {
+			return (Context) Proxy.newProxyInstance(Context.class.getClassLoader(), new Class<?>[] { Context.class }, new InvocationHandler() {
+				@Override
+				public Object invoke(Object proxy, Method method, Object[] args) {
+					return method.getName().equals("lookup") ? registry : null;
+				}
+			});
+		}
+	}
+
+	static class FakeSynchronizationRegistry implements TransactionSynchronizationRegistry {
+
+		int status = Status.STATUS_NO_TRANSACTION;
+		List<Synchronization> synchronizations = new ArrayList<Synchronization>();
+
+		void complete(int completionStatus) {
+			status = Status.STATUS_NO_TRANSACTION;
+			for (Synchronization synchronization : synchronizations) {
+				synchronization.afterCompletion(completionStatus);
+			}
+			synchronizations.clear();
+		}
+
+		@Override
+		public int getTransactionStatus() {
+			return status;
+		}
+
+		@Override
+		public void registerInterposedSynchronization(Synchronization synchronization) {
+			synchronizations.add(synchronization);
+		}
+
+		@Override
+		public Object getTransactionKey() {
+			return null;
+		}
+
+		@Override
+		public void putResource(Object key, Object value) {
+		}
+
+		@Override
+		public Object getResource(Object key) {
+			return null;
+		}
+
+		@Override
+		public void setRollbackOnly() {
+		}
+
+		@Override
+		public boolean getRollbackOnly() {
+			return false;
+		}
+	}
+
+	private static CheckpointData checkpoint(long jobInstanceId, String bdsName, int tokenLength) {
+		CheckpointData checkpointData = new CheckpointData(jobInstanceId, "step1", bdsName);
+		byte[] token = new byte[tokenLength];
+		for (int i = 0; i < token.length; i++) {
+			token[i] = (byte) (i * 31 + jobInstanceId);
+		}
+		checkpointData.setRestartToken(token);
+		return checkpointData;
+	}
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Properties;
+
+import javax.batch.operations.JobOperator;
+import javax.batch.runtime.BatchRuntime;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobInstance;
+import javax.batch.runtime.Metric;
+import javax.batch.runtime.Metric.MetricType;
+import javax.batch.runtime.StepExecution;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.ibm.jbatch.container.context.impl.StepContextImpl;
+import com.ibm.jbatch.container.impl.BatchConfigImpl;
+import com.ibm.jbatch.container.impl.PartitionedStepBuilder;
+import com.ibm.jbatch.container.services.IPersistenceManagerService;
+import com.ibm.jbatch.container.services.impl.JDBCPersistenceManagerImpl;
+import com.ibm.jbatch.container.servicesmanager.ServicesManagerImpl;
+import com.ibm.jbatch.spi.DatabaseConfigurationBean;
+
+/**
+ * Runs the partitionMetrics job with its partitioned steps' partitions run as lightweight partitions.
+ */
+public class LightweightPartitionTest {
+	static JobOperator jobOp = null;	
+
+	private static int sleepTime = 3000;
+
+	@BeforeClass
+	public static void init() {
+		jobOp = BatchRuntime.getJobOperator();
+	}
+
+	@Test
+	public void testMetrics() throws Exception {
+		Properties origParams = new Properties();
+		origParams.setProperty("step1Size", "15");
+		origParams.setProperty("step2Size", "20");
+
+		long execId = jobOp.start("lightweightPartition", origParams);
+		Thread.sleep(sleepTime);
+		assertEquals("Didn't complete successfully", BatchStatus.COMPLETED, jobOp.getJobExecution(execId).getBatchStatus());
+
+		// Only the partitioned steps themselves, not their partitions
+		List<StepExecution> stepExecutions = jobOp.getStepExecutions(execId);
+		assertEquals("step executions", 2, stepExecutions.size());
+
+		// 3 partitions of 15 elements - for each partition, 9 will be written and 6 will be filtered, this will be 3 chunks (item-count=5) + 1 zero-item chunk
+		Metric[] metrics = getStepExecution(execId, "step1").getMetrics();
+		assertEquals("commit count", 12, getMetricVal(metrics, Metric.MetricType.COMMIT_COUNT));
+		assertEquals("filter count", 18, getMetricVal(metrics, Metric.MetricType.FILTER_COUNT));
+		assertEquals("read count", 45, getMetricVal(metrics, Metric.MetricType.READ_COUNT));
+		assertEquals("write count", 27, getMetricVal(metrics, Metric.MetricType.WRITE_COUNT));
+
+		// 3 partitions of 20 elements - for each partition, 12 will be written and 8 will be filtered, this will be 4 chunks (item-count=5) + 1 zero-item chunk
+		Metric[] metrics2 = getStepExecution(execId, "step2").getMetrics();
+		assertEquals("commit count", 15, getMetricVal(metrics2, Metric.MetricType.COMMIT_COUNT));
+		assertEquals("filter count", 24, getMetricVal(metrics2, Metric.MetricType.FILTER_COUNT));
+		assertEquals("read count", 60, getMetricVal(metrics2, Metric.MetricType.READ_COUNT));
+		assertEquals("write count", 36, getMetricVal(metrics2, Metric.MetricType.WRITE_COUNT));
+
+		// No "subjob" job instances were created for the partitions
+		IPersistenceManagerService persistence = ServicesManagerImpl.getInstance().getPersistenceManagerService();
+		long instanceId = jobOp.getJobInstance(execId).getInstanceId();
+		for (int i = 0; i < 3; i++) {
+			String subJobName = PartitionedStepBuilder.JOB_ID_SEPARATOR + instanceId + PartitionedStepBuilder.JOB_ID_SEPARATOR
+					+ "step1" + PartitionedStepBuilder.JOB_ID_SEPARATOR + i;
+			assertTrue("subjob instance created: " + subJobName, persistence.jobOperatorGetJobInstanceIds(subJobName, 0, 10).isEmpty());
+		}
+	}
+
+	@Test
+	public void testMetricsRestartAfterComplete() throws Exception {
+		Properties origParams = new Properties();
+		origParams.setProperty("step1Size", "10");
+		origParams.setProperty("step2Size", "5");
+		origParams.setProperty("stepListener.forceFailure", "true");
+
+		long execId = jobOp.start("lightweightPartition", origParams);
+		Thread.sleep(sleepTime);
+		assertEquals("Didn't fail as expected", BatchStatus.FAILED, jobOp.getJobExecution(execId).getBatchStatus());
+
+		// Step 1 reruns from scratch, so only counts its new set of partitions
+		Properties restartParams = new Properties();
+		restartParams.setProperty("step1Size", "25");
+		restartParams.setProperty("step2Size", "6");
+		restartParams.setProperty("stepListener.forceFailure", "false");
+
+		long restartExecId = jobOp.restart(execId, restartParams);
+		Thread.sleep(sleepTime);
+		assertEquals("Didn't complete successfully", BatchStatus.COMPLETED, jobOp.getJobExecution(restartExecId).getBatchStatus());
+
+		// 3 partitions of 10 elements - for each partition, 6 will be written and 4 will be filtered, this will be 2 chunks (item-count=5) + 1 zero-item chunk
+		Metric[] metrics = getStepExecution(execId, "step1").getMetrics();
+		assertEquals("commit count", 9, getMetricVal(metrics, Metric.MetricType.COMMIT_COUNT));
+		assertEquals("read count", 30, getMetricVal(metrics, Metric.MetricType.READ_COUNT));
+
+		// 3 partitions of 25 elements - for each partition, 15 will be written and 10 will be filtered, this will be 5 chunks (item-count=5) + 1 zero-item chunk
+		Metric[] metrics2 = getStepExecution(restartExecId, "step1").getMetrics();
+		assertEquals("commit count", 18, getMetricVal(metrics2, Metric.MetricType.COMMIT_COUNT));
+		assertEquals("filter count", 30, getMetricVal(metrics2, Metric.MetricType.FILTER_COUNT));
+		assertEquals("read count", 75, getMetricVal(metrics2, Metric.MetricType.READ_COUNT));
+		assertEquals("write count", 45, getMetricVal(metrics2, Metric.MetricType.WRITE_COUNT));			
+	}
+
+	@Test
+	public void testRestartFailedPartitions() throws Exception {
+		Properties origParams = new Properties();
+		origParams.setProperty("step1Size", "15");
+		origParams.setProperty("step2Size", "20");
+		origParams.setProperty("chunkListener.forceFailure", "true");
+
+		long execId = jobOp.start("lightweightPartition", origParams);
+		Thread.sleep(sleepTime);
+		assertEquals("Didn't fail as expected", BatchStatus.FAILED, jobOp.getJobExecution(execId).getBatchStatus());
+		assertEquals("rollback count", 3, getMetricVal(getStepExecution(execId, "step1").getMetrics(), Metric.MetricType.ROLLBACK_COUNT));
+
+		origParams.setProperty("chunkListener.forceFailure", "false");
+		long restartExecId = jobOp.restart(execId, origParams);
+		Thread.sleep(sleepTime);
+		assertEquals("Didn't complete successfully", BatchStatus.COMPLETED, jobOp.getJobExecution(restartExecId).getBatchStatus());
+
+		Metric[] metrics = getStepExecution(restartExecId, "step1").getMetrics();
+		assertEquals("commit count", 12, getMetricVal(metrics, Metric.MetricType.COMMIT_COUNT));
+		assertEquals("read count", 45, getMetricVal(metrics, Metric.MetricType.READ_COUNT));
+		assertEquals("write count", 27, getMetricVal(metrics, Metric.MetricType.WRITE_COUNT));
+	}
+
+	@Test
+	public void testAggregateStepNameWithWildcard() throws Exception {
+		DatabaseConfigurationBean databaseConfig = new DatabaseConfigurationBean();
+		databaseConfig.setJdbcDriver("org.apache.derby.jdbc.EmbeddedDriver");
+		databaseConfig.setJdbcUrl("jdbc:derby:memory:LightweightPartitionAggregate;create=true");
+		databaseConfig.setSchema("JBATCH");
+		BatchConfigImpl batchConfig = new BatchConfigImpl();
+		batchConfig.setJ2seMode(true);
+		batchConfig.setDatabaseConfigurationBean(databaseConfig);
+		batchConfig.setConfigProperties(new Properties());
+		JDBCPersistenceManagerImpl persistence = new JDBCPersistenceManagerImpl();
+		persistence.init(batchConfig);
+
+		JobInstance jobInstance = persistence.createJobInstance("lightweightPartitionAggregate", null, "<job id=\"lightweightPartitionAggregate\"/>");
+		long executionId = persistence.createJobExecution(jobInstance, new Properties(), BatchStatus.STARTING).getExecutionId();
+
+		// The '_' of step_1 mustn't match the 'A' of stepA1's partitions
+		StepContextImpl stepContext = new StepContextImpl("step_1");
+		stepContext.setStepExecutionId(persistence.createStepExecution(executionId, stepContext).getStepExecutionId());
+		long firstPartitionStepExecutionId = createPartitionStepExecution(persistence, executionId, "step_1", 0, 5);
+		createPartitionStepExecution(persistence, executionId, "stepA1", 0, 7);
+		createPartitionStepExecution(persistence, executionId, "step_1", 1, 11);
+
+		persistence.updateWithFinalLightweightPartitionAggregateStepExecution(jobInstance.getInstanceId(), firstPartitionStepExecutionId, stepContext);
+		Metric[] metrics = persistence.getStepExecutionByStepExecutionId(stepContext.getStepExecutionId()).getMetrics();
+		assertEquals("read count", 16, getMetricVal(metrics, Metric.MetricType.READ_COUNT));
+	}
+
+	private long createPartitionStepExecution(IPersistenceManagerService persistence, long executionId, String stepName, int partition, long readCount) {
+		StepContextImpl partitionStepContext = new StepContextImpl(stepName);
+		partitionStepContext.setPersistentStepName(PartitionedStepBuilder.JOB_ID_SEPARATOR + stepName + PartitionedStepBuilder.JOB_ID_SEPARATOR + partition);
+		partitionStepContext.addMetric(Metric.MetricType.READ_COUNT, readCount);
+		return persistence.createStepExecution(executionId, partitionStepContext).getStepExecutionId();
+	}
+
+	private StepExecution getStepExecution(long execId, String stepName) {
+		for (StepExecution se : jobOp.getStepExecutions(execId)) {
+			if (se.getStepName().equals(stepName)) {
+				return se;
+			}
+		}
+		return null;
+	}
+
+	private long getMetricVal(Metric[] metrics, MetricType type) {
+		long retVal = 0L;
+		for (Metric m : metrics) {
+			if (m.getType().equals(type)) {
+				retVal = m.getValue();
+			}
+		}
+		return retVal;
+	}
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.batch.operations.NoSuchJobExecutionException;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobInstance;
+import javax.batch.runtime.StepExecution;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ibm.jbatch.container.context.impl.MetricImpl;
+import com.ibm.jbatch.container.context.impl.StepContextImpl;
+import com.ibm.jbatch.container.impl.BatchConfigImpl;
+import com.ibm.jbatch.container.jobinstance.RuntimeJobExecution;
+import com.ibm.jbatch.container.jobinstance.StepExecutionImpl;
+import com.ibm.jbatch.container.persistence.CheckpointData;
+import com.ibm.jbatch.container.persistence.CheckpointDataKey;
+import com.ibm.jbatch.container.services.impl.MemoryPersistenceManagerImpl;
+import com.ibm.jbatch.container.status.JobStatus;
+
+public class MemoryPersistenceManagerTest {
+
+	private MemoryPersistenceManagerImpl persistence;
+
+	@Before
+	public void setUp() {
+		Properties props = new Properties();
+		props.setProperty("MEMORY_PERSISTENCE_MAX_JOB_INSTANCES", "2");
+		BatchConfigImpl batchConfig = new BatchConfigImpl();
+		batchConfig.setConfigProperties(props);
+
+		persistence = new MemoryPersistenceManagerImpl();
+		persistence.init(batchConfig);
+	}
+
+	@Test
+	public void testJobInstanceQueries() {
+		JobInstance first = persistence.createJobInstance("job", "app1", "<job/>");
+		JobInstance second = persistence.createJobInstance("job", "app2", "<job/>");
+		persistence.createJobInstance("other", "app1", "<job/>");
+
+		assertEquals(2, persistence.jobOperatorGetJobInstanceCount("job"));
+		assertEquals(1, persistence.jobOperatorGetJobInstanceCount("job", "app1"));
+		assertEquals(0, persistence.jobOperatorGetJobInstanceCount("missing"));
+
+		// Newest first
+		assertEquals(Arrays.asList(second.getInstanceId(), first.getInstanceId()), persistence.jobOperatorGetJobInstanceIds("job", 0, 10));
+		assertEquals(Arrays.asList(first.getInstanceId()), persistence.jobOperatorGetJobInstanceIds("job", 1, 10));
+		assertEquals(Arrays.asList(first.getInstanceId()), persistence.jobOperatorGetJobInstanceIds("job", "app1", 0, 10));
+		assertEquals(Arrays.asList(first.getInstanceId()), persistence.jobOperatorGetJobInstanceIdsBefore("job", second.getInstanceId(), 10));
+		assertEquals(Arrays.asList(second.getInstanceId()), persistence.jobOperatorGetJobInstanceIdsBefore("job", "app2", Long.MAX_VALUE, 10));
+		assertEquals("app2", persistence.getJobCurrentTag(second.getInstanceId()));
+	}
+
+	@Test
+	public void testJobExecutionLifecycle() {
+		JobInstance jobInstance = persistence.createJobInstance("job", "app", "<job/>");
+		Properties params = new Properties();
+		params.setProperty("p", "v");
+		RuntimeJobExecution jobExecution = persistence.createJobExecution(jobInstance, params, BatchStatus.STARTING);
+		long execId = jobExecution.getExecutionId();
+
+		params.setProperty("p", "changed");
+		assertEquals("v", persistence.getParameters(execId).getProperty("p"));
+		assertEquals(jobInstance.getInstanceId(), persistence.getJobInstanceIdByExecutionId(execId));
+		assertEquals(execId, persistence.getMostRecentExecutionId(jobInstance.getInstanceId()));
+		assertEquals("app", persistence.getTagName(execId));
+
+		Timestamp started = new Timestamp(System.currentTimeMillis());
+		persistence.markJobStarted(execId, started);
+		assertEquals(BatchStatus.STARTED.name(), persistence.jobOperatorQueryJobExecutionBatchStatus(execId));
+		assertEquals(started, persistence.jobOperatorQueryJobExecutionTimestamp(execId, 
+				MemoryPersistenceManagerImpl.TimestampType.STARTED));
+		assertTrue(persistence.jobOperatorGetRunningExecutions("job").contains(execId));
+
+		persistence.updateWithFinalExecutionStatusesAndTimestamps(execId, BatchStatus.COMPLETED, "done", started);
+		assertEquals("done", persistence.jobOperatorQueryJobExecutionExitStatus(execId));
+		assertTrue(persistence.jobOperatorGetRunningExecutions("job").isEmpty());
+		assertEquals(1, persistence.jobOperatorGetJobExecutions(jobInstance.getInstanceId()).size());
+		assertEquals("job", persistence.jobOperatorGetJobExecution(execId).getJobName());
+	}
+
+	@Test(expected = NoSuchJobExecutionException.class)
+	public void testNoSuchJobExecution() {
+		persistence.getParameters(12345L);
+	}
+
+	@Test
+	public void testStepExecutionsAndStatus() {
+		JobInstance jobInstance = persistence.createJobInstance("job", "app", "<job/>");
+		long execId = persistence.createJobExecution(jobInstance, new Properties(), BatchStatus.STARTING).getExecutionId();
+
+		StepContextImpl stepContext = new StepContextImpl("step1");
+		StepExecutionImpl stepExecution = persistence.createStepExecution(execId, stepContext);
+		stepContext.setStepExecutionId(stepExecution.getStepExecutionId());
+		stepContext.addMetric(MetricImpl.MetricType.READ_COUNT, 10);
+		stepContext.setBatchStatus(BatchStatus.COMPLETED);
+		stepContext.setPersistentUserData("userData");
+		persistence.updateStepExecution(stepContext);
+
+		StepExecution read = persistence.getStepExecutionByStepExecutionId(stepExecution.getStepExecutionId());
+		assertEquals(BatchStatus.COMPLETED, read.getBatchStatus());
+		assertEquals("userData", read.getPersistentUserData());
+		assertEquals(1, persistence.getStepExecutionsForJobExecution(execId).size());
+
+		Map<String, StepExecution> mostRecent = persistence.getMostRecentStepExecutionsForJobInstance(jobInstance.getInstanceId());
+		assertEquals(stepExecution.getStepExecutionId(), mostRecent.get("step1").getStepExecutionId());
+
+		persistence.createStepStatus(stepExecution.getStepExecutionId());
+		assertNotNull(persistence.getStepStatus(jobInstance.getInstanceId(), "step1"));
+		assertNull(persistence.getStepStatus(jobInstance.getInstanceId(), "step2"));
+	}
+
+	@Test
+	public void testStatusAndCheckpointAreCopies() {
+		JobInstance jobInstance = persistence.createJobInstance("job", "app", "<job/>");
+		long instanceId = jobInstance.getInstanceId();
+
+		JobStatus jobStatus = persistence.createJobStatus(instanceId);
+		jobStatus.setBatchStatus(BatchStatus.FAILED);
+		assertEquals(BatchStatus.STARTING, persistence.getJobStatus(instanceId).getBatchStatus());
+		persistence.updateJobStatus(instanceId, jobStatus);
+		assertEquals(BatchStatus.FAILED, persistence.getJobStatus(instanceId).getBatchStatus());
+
+		CheckpointDataKey key = new CheckpointDataKey(instanceId, "step1", "READER");
+		CheckpointData checkpoint = new CheckpointData(instanceId, "step1", "READER");
+		checkpoint.setRestartToken(new byte[] { 1, 2, 3 });
+		persistence.createCheckpointData(key, checkpoint);
+		checkpoint.setRestartToken(new byte[] { 4 });
+		assertEquals(3, persistence.getCheckpointData(key).getRestartToken().length);
+		assertNull(persistence.getCheckpointData(new CheckpointDataKey(instanceId, "step1", "WRITER")));
+	}
+
+	@Test
+	public void testOldestFinishedJobInstancesDropped() {
+		JobInstance running = persistence.createJobInstance("job", "app", "<job/>");
+		persistence.createJobExecution(running, new Properties(), BatchStatus.STARTED);
+
+		JobInstance finished = persistence.createJobInstance("job", "app", "<job/>");
+		long finishedExecId = persistence.createJobExecution(finished, new Properties(), BatchStatus.STARTING).getExecutionId();
+		persistence.createJobStatus(finished.getInstanceId());
+		persistence.updateWithFinalExecutionStatusesAndTimestamps(finishedExecId, BatchStatus.COMPLETED, "COMPLETED", 
+				new Timestamp(System.currentTimeMillis()));
+
+		// Over the limit of 2, the running instance is kept even though it is older
+		JobInstance newest = persistence.createJobInstance("job", "app", "<job/>");
+
+		assertEquals(Arrays.asList(newest.getInstanceId(), running.getInstanceId()), persistence.jobOperatorGetJobInstanceIds("job", 0, 10));
+		assertNull(persistence.getJobStatus(finished.getInstanceId()));
+		assertNull(persistence.jobOperatorGetJobExecution(finishedExecId));
+	}
+
+	@Test
+	public void testPurge() {
+		JobInstance purged = persistence.createJobInstance("job", "purgeMe", "<job/>");
+		long execId = persistence.createJobExecution(purged, new Properties(), BatchStatus.STARTING).getExecutionId();
+		JobInstance kept = persistence.createJobInstance("job", "keepMe", "<job/>");
+
+		persistence.purge("purgeMe");
+
+		assertEquals(Arrays.asList(kept.getInstanceId()), persistence.jobOperatorGetJobInstanceIds("job", 0, 10));
+		assertNull(persistence.jobOperatorQueryJobExecutionBatchStatus(execId));
+	}
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.ibm.jbatch.container.persistence.PartitionHistory;
+
+public class PartitionHistoryTest {
+
+	@Test
+	public void testFirstRunsAveragedEvenly() {
+		PartitionHistory history = new PartitionHistory(1000, 10, 1).add(2000, 20).add(3000, 30).add(4000, 40);
+		assertEquals(2500, history.getDurationMillis());
+		assertEquals(25, history.getItemCount());
+		assertEquals(4, history.getRuns());
+	}
+
+	@Test
+	public void testOddRun() {
+		PartitionHistory history = new PartitionHistory(1000, 100, 4);
+
+		// A quarter of the way
+		PartitionHistory odd = history.add(9000, 900);
+		assertEquals(3000, odd.getDurationMillis());
+		assertEquals(300, odd.getItemCount());
+
+		// Each normal run after it takes away a quarter of what's left
+		PartitionHistory recovered = odd.add(1000, 100).add(1000, 100).add(1000, 100);
+		assertEquals(1844, recovered.getDurationMillis());
+		assertEquals(185, recovered.getItemCount());
+		assertEquals(8, recovered.getRuns());
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.batch.api.AbstractBatchlet;
+import javax.batch.api.BatchProperty;
+import javax.batch.api.partition.PartitionPlan;
+import javax.batch.api.partition.PartitionPlanImpl;
+import javax.batch.operations.JobOperator;
+import javax.batch.runtime.BatchRuntime;
+import javax.batch.runtime.BatchStatus;
+import javax.inject.Inject;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.ibm.jbatch.container.api.HistoryAwarePartitionMapper;
+import com.ibm.jbatch.container.api.PartitionStatistics;
+import com.ibm.jbatch.container.persistence.PartitionHistory;
+import com.ibm.jbatch.container.services.IPersistenceManagerService;
+import com.ibm.jbatch.container.servicesmanager.ServicesManagerImpl;
+
+public class PartitionSchedulingTest {
+	static JobOperator jobOp = null;
+
+	private static int sleepTime = 3000;
+
+	// How long each partition sleeps for
+	private static final long[] SLEEPS = {50, 400, 250, 120};
+
+	// The order the partitions started in, and what the mapper was told about them
+	static List<Integer> started = Collections.synchronizedList(new ArrayList<Integer>());
+	static PartitionStatistics statistics;
+
+	@BeforeClass
+	public static void init() {
+		jobOp = BatchRuntime.getJobOperator();
+	}
+
+	@Before
+	public void reset() {
+		started.clear();
+		statistics = null;
+	}
+
+	@Test
+	public void testLongestFirst() throws Exception {
+		validateLongestFirst(false);
+	}
+
+	@Test
+	public void testLightweightLongestFirst() throws Exception {
+		validateLongestFirst(true);
+	}
+
+	private void validateLongestFirst(boolean lightweight) throws Exception {
+		Properties params = new Properties();
+		params.setProperty("lightweight", String.valueOf(lightweight));
+
+		// The first run records the history, if an earlier test hasn't already
+		long execId = jobOp.start("partitionScheduling", params);
+		Thread.sleep(sleepTime);
+		assertEquals("Didn't complete successfully", BatchStatus.COMPLETED, jobOp.getJobExecution(execId).getBatchStatus());
+
+		IPersistenceManagerService persistence = ServicesManagerImpl.getInstance().getPersistenceManagerService();
+		Map<Integer, PartitionHistory> history = persistence.getPartitionHistory("partitionScheduling", "step1");
+		assertEquals("partitions in history: " + history, SLEEPS.length, history.size());
+		assertTrue("history: " + history, history.get(1).getDurationMillis() >= SLEEPS[1]);
+
+		started.clear();
+		long execId2 = jobOp.start("partitionScheduling", params);
+		Thread.sleep(sleepTime);
+		assertEquals("Didn't complete successfully", BatchStatus.COMPLETED, jobOp.getJobExecution(execId2).getBatchStatus());
+
+		// With one thread, the partitions run one after another, longest first
+		assertEquals("start order", Arrays.asList(1, 2, 3, 0), started);
+
+		assertNotNull("mapper wasn't given the statistics", statistics);
+		assertTrue("expected duration", statistics.getExpectedDuration(1) > statistics.getExpectedDuration(0));
+		assertEquals("expected items", 0, statistics.getExpectedItemCount(1));
+		assertEquals("no history", -1, statistics.getExpectedDuration(SLEEPS.length));
+		// Nothing is gained from more threads than it takes to run everything else alongside the longest partition
+		int threads = statistics.getSuggestedThreads(SLEEPS.length);
+		assertTrue("suggested threads: " + threads, threads >= 1 && threads <= 3);
+	}
+
+	public static class Mapper implements HistoryAwarePartitionMapper {
+		@Override
+		public void setPartitionStatistics(PartitionStatistics partitionStatistics) {
+			statistics = partitionStatistics;
+		}
+
+		@Override
+		public PartitionPlan mapPartitions() throws Exception {
+			PartitionPlanImpl plan = new PartitionPlanImpl();
+			plan.setPartitions(SLEEPS.length);
+			plan.setThreads(1);
+			Properties[] props = new Properties[SLEEPS.length];
+			for (int i = 0; i < SLEEPS.length; i++) {
+				props[i] = new Properties();
+				props[i].setProperty("partition", String.valueOf(i));
+				props[i].setProperty("sleep", String.valueOf(SLEEPS[i]));
+			}
+			plan.setPartitionProperties(props);
+			return plan;
+		}
+	}
+
+	public static class SleepyBatchlet extends AbstractBatchlet {
+
+		@Inject @BatchProperty
+		String partition;
+
+		@Inject @BatchProperty
+		String sleep;
+
+		@Override
+		public String process() throws Exception {
+			started.add(Integer.parseInt(partition));
+			Thread.sleep(Long.parseLong(sleep));
+			return null;
+		}
+	}
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ibm.jbatch.container.services.impl.JDBCConnectionPool;
+
+/**
+ * The prepared statement cache, as used by the SE mode connection pool.
+ */
+public class PreparedStatementCacheTest {
+
+	private static final String URL = "jdbc:derby:memory:PreparedStatementCacheTest;create=true";
+
+	private JDBCConnectionPool pool;
+
+	// The physical connections the pool opened
+	private List<Connection> opened = new ArrayList<Connection>();
+
+	@Before
+	public void setUp() {
+		// Two statements per connection
+		pool = new JDBCConnectionPool(URL, "app", "app", 1, 60, 1, 1, 2) {
+			@Override
+			protected void initialize(Connection connection) {
+				opened.add(connection);
+			}
+		};
+	}
+
+	@After
+	public void tearDown() {
+		pool.close();
+	}
+
+	@Test
+	public void testHit() throws Exception {
+		Connection connection = pool.getConnection();
+		PreparedStatement first = connection.prepareStatement("values 1");
+		PreparedStatement physical = first.unwrap(PreparedStatement.class);
+		first.close();
+		connection.close();
+
+		connection = pool.getConnection();
+		PreparedStatement second = connection.prepareStatement("values 1");
+		assertSame("Same statement, from the cache", physical, second.unwrap(PreparedStatement.class));
+		assertFalse(second.isClosed());
+		assertSame(connection, second.getConnection());
+		second.close();
+		connection.close();
+	}
+
+	@Test
+	public void testPreparedAgainWhileOpen() throws Exception {
+		Connection connection = pool.getConnection();
+		PreparedStatement first = connection.prepareStatement("values 1");
+		PreparedStatement second = connection.prepareStatement("values 1");
+		assertNotSame(first.unwrap(PreparedStatement.class), second.unwrap(PreparedStatement.class));
+		second.close();
+		first.close();
+		connection.close();
+	}
+
+	@Test
+	public void testReset() throws Exception {
+		Connection connection = pool.getConnection();
+		PreparedStatement statement = connection.prepareStatement("values cast(? as int)");
+		statement.setInt(1, 42);
+		ResultSet rs = statement.executeQuery();
+		statement.close();
+
+		assertTrue("Result set closed with the statement", rs.isClosed());
+		assertTrue(statement.isClosed());
+
+		statement = connection.prepareStatement("values cast(? as int)");
+		try {
+			statement.executeQuery();
+			fail("Parameter still set");
+		} catch (SQLException e) {
+			// Expected
+		}
+		statement.close();
+		connection.close();
+	}
+
+	@Test
+	public void testEviction() throws Exception {
+		Connection connection = pool.getConnection();
+		PreparedStatement evicted = prepareAndClose(connection, "values 1");
+		prepareAndClose(connection, "values 2");
+		prepareAndClose(connection, "values 3");
+
+		assertTrue("Least recently used closed", evicted.isClosed());
+		assertNotSame(evicted, prepareAndClose(connection, "values 1"));
+		connection.close();
+	}
+
+	@Test
+	public void testEvictedWhileInUse() throws Exception {
+		Connection connection = pool.getConnection();
+		PreparedStatement inUse = connection.prepareStatement("values 1");
+		PreparedStatement physical = inUse.unwrap(PreparedStatement.class);
+		prepareAndClose(connection, "values 2");
+		prepareAndClose(connection, "values 3");
+
+		// Only closed once it's released
+		assertFalse(physical.isClosed());
+		ResultSet rs = inUse.executeQuery();
+		assertTrue(rs.next());
+		inUse.close();
+		assertTrue(physical.isClosed());
+		connection.close();
+	}
+
+	@Test
+	public void testReleasedWithConnection() throws Exception {
+		Connection connection = pool.getConnection();
+		PreparedStatement leaked = connection.prepareStatement("values 1");
+		PreparedStatement physical = leaked.unwrap(PreparedStatement.class);
+		connection.close();
+
+		// Still cached for the next user of the connection
+		assertTrue(leaked.isClosed());
+		assertFalse(physical.isClosed());
+		connection = pool.getConnection();
+		assertSame(physical, prepareAndClose(connection, "values 1"));
+		connection.close();
+	}
+
+	@Test
+	public void testClosedWhenConnectionDiscarded() throws Exception {
+		Connection connection = pool.getConnection();
+		PreparedStatement cached = prepareAndClose(connection, "values 1");
+		PreparedStatement inUse = connection.prepareStatement("values 2");
+		PreparedStatement inUsePhysical = inUse.unwrap(PreparedStatement.class);
+
+		// Broken, so it's discarded when returned
+		opened.get(0).close();
+		connection.close();
+
+		assertEquals(0, pool.getOpenCount());
+		assertTrue(cached.isClosed());
+		assertTrue(inUsePhysical.isClosed());
+	}
+
+	@Test
+	public void testClosedWithPool() throws Exception {
+		Connection connection = pool.getConnection();
+		PreparedStatement cached = prepareAndClose(connection, "values 1");
+		connection.close();
+
+		pool.close();
+
+		assertTrue(cached.isClosed());
+		assertTrue(opened.get(0).isClosed());
+	}
+
+	/**
+	 * @return the physical statement, which stays in the cache
+	 */
+	private PreparedStatement prepareAndClose(Connection connection, String sql) throws Exception {
+		PreparedStatement statement = connection.prepareStatement(sql);
+		PreparedStatement physical = statement.unwrap(PreparedStatement.class);
+		statement.close();
+		return physical;
+	}
+}
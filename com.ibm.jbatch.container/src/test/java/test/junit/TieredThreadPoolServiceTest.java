@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ibm.jbatch.container.impl.BatchConfigImpl;
+import com.ibm.jbatch.container.services.impl.TieredThreadPoolServiceImpl;
+import com.ibm.jbatch.container.services.impl.TieredThreadPoolServiceImpl.Tier;
+import com.ibm.jbatch.spi.services.ParallelTaskResult;
+
+public class TieredThreadPoolServiceTest {
+
+	private TieredThreadPoolServiceImpl threadPool;
+
+	@Before
+	public void setUp() {
+		Properties props = new Properties();
+		props.setProperty("TIERED_THREADPOOL_JOB_MAX_POOL_SIZE", "1");
+		props.setProperty("TIERED_THREADPOOL_PARTITION_MAX_POOL_SIZE", "2");
+		props.setProperty("TIERED_THREADPOOL_PARTITION_MAX_QUEUE_SIZE", "2");
+		BatchConfigImpl batchConfig = new BatchConfigImpl();
+		batchConfig.setConfigProperties(props);
+
+		threadPool = new TieredThreadPoolServiceImpl();
+		threadPool.init(batchConfig);
+	}
+
+	@After
+	public void tearDown() {
+		threadPool.shutdown();
+	}
+
+	/**
+	 * A single job thread waits on partitions it submits, which with one shared pool
+	 * of size 1 would never run.
+	 */
+	@Test
+	public void testParentWaitsOnPartitions() throws Exception {
+		final int numPartitions = 4;
+		final List<String> partitionThreads = Collections.synchronizedList(new ArrayList<String>());
+		final CountDownLatch parentDone = new CountDownLatch(1);
+		final String[] parentThread = new String[1];
+
+		threadPool.executeTask(new Runnable() {
+			@Override
+			public void run() {
+				parentThread[0] = Thread.currentThread().getName();
+				List<ParallelTaskResult> results = new ArrayList<ParallelTaskResult>();
+				for (int i = 0; i < numPartitions; i++) {
+					results.add(threadPool.executeParallelTask(new Runnable() {
+						@Override
+						public void run() {
+							partitionThreads.add(Thread.currentThread().getName());
+						}
+					}, null));
+				}
+				for (ParallelTaskResult result : results) {
+					result.waitForResult();
+				}
+				parentDone.countDown();
+			}
+		}, null);
+
+		assertTrue("Parent finished", parentDone.await(10, TimeUnit.SECONDS));
+		assertTrue("Parent thread: " + parentThread[0], parentThread[0].startsWith("jbatch-job-"));
+		assertEquals("Partitions run", numPartitions, partitionThreads.size());
+		for (String name : partitionThreads) {
+			assertTrue("Partition thread: " + name, name.startsWith("jbatch-partition-"));
+		}
+		assertEquals("Largest partition pool", 2, threadPool.getLargestPoolSize(Tier.PARTITION));
+		assertEquals("Largest job pool", 1, threadPool.getLargestPoolSize(Tier.JOB));
+	}
+
+	@Test
+	public void testRejectsWhenQueueFull() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		Runnable blocked = new Runnable() {
+			@Override
+			public void run() {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+
+		// 2 threads + 2 queued
+		List<ParallelTaskResult> results = new ArrayList<ParallelTaskResult>();
+		for (int i = 0; i < 4; i++) {
+			results.add(threadPool.executeParallelTask(blocked, null));
+		}
+		assertEquals("Queued", 2, threadPool.getQueueSize(Tier.PARTITION));
+
+		try {
+			threadPool.executeParallelTask(blocked, null);
+			fail("Expected RejectedExecutionException");
+		} catch (RejectedExecutionException e) {
+			// expected
+		}
+		assertEquals("Rejected", 1, threadPool.getRejectedTaskCount(Tier.PARTITION));
+		assertEquals("Rejected job tier", 0, threadPool.getRejectedTaskCount(Tier.JOB));
+
+		release.countDown();
+		for (ParallelTaskResult result : results) {
+			result.waitForResult();
+		}
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.ibm.jbatch.container.services.impl.VirtualThreadPoolServiceImpl;
+import com.ibm.jbatch.spi.services.ParallelTaskResult;
+
+public class VirtualThreadPoolServiceTest {
+
+	@Test
+	public void testRunsTasks() throws Exception {
+		VirtualThreadPoolServiceImpl threadPool = new VirtualThreadPoolServiceImpl();
+		threadPool.init(null);
+
+		final String[] threadName = new String[1];
+		try {
+			threadPool.executeParallelTask(new Runnable() {
+				@Override
+				public void run() {
+					threadName[0] = Thread.currentThread().getName();
+				}
+			}, null).waitForResult();
+		} finally {
+			threadPool.shutdown();
+		}
+
+		if (hasVirtualThreads()) {
+			assertTrue("Ran on virtual thread: " + threadName[0], threadName[0].startsWith("jbatch-virtual-"));
+		} else {
+			assertTrue("Ran on pool thread: " + threadName[0], threadName[0].startsWith("pool-"));
+		}
+	}
+
+	@Test
+	public void testRunsTasksConcurrently() throws Exception {
+		VirtualThreadPoolServiceImpl threadPool = new VirtualThreadPoolServiceImpl();
+		threadPool.init(null);
+
+		// Like a partitioned step waiting on its partitions, each task waits on the next one.
+		final int numTasks = 50;
+		final CountDownLatch allStarted = new CountDownLatch(numTasks);
+		final AtomicInteger completed = new AtomicInteger();
+		try {
+			List<ParallelTaskResult> results = new ArrayList<ParallelTaskResult>();
+			for (int i = 0; i < numTasks; i++) {
+				results.add(threadPool.executeParallelTask(new Runnable() {
+					@Override
+					public void run() {
+						allStarted.countDown();
+						try {
+							allStarted.await();
+							completed.incrementAndGet();
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+					}
+				}, null));
+			}
+			for (ParallelTaskResult result : results) {
+				result.waitForResult();
+			}
+		} finally {
+			threadPool.shutdown();
+		}
+		assertEquals("Completed tasks", numTasks, completed.get());
+	}
+
+	private boolean hasVirtualThreads() {
+		try {
+			Thread.class.getMethod("ofVirtual");
+			return true;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+}
@@ -51,6 +51,8 @@ public final class BatchSPIManager {
 	
 	private ExecutorServiceProvider executorServiceProvider = null;
 
+	private ChunkMetricsSink chunkMetricsSink = null;
+
 	/**
 	 * @return The most recently set BatchJobUtil
 	 */
@@ -88,6 +90,13 @@ public final class BatchSPIManager {
 	public ExecutorServiceProvider getExecutorServiceProvider() {
 		return executorServiceProvider;
 	}
+
+	/**
+	 * @return The most recently set ChunkMetricsSink, or <b>null</b> if not set.
+	 */
+	public ChunkMetricsSink getChunkMetricsSink() {
+		return chunkMetricsSink;
+	}
         
 	public Properties getBatchContainerOverrideProperties() {
 		return overrideProperties;
@@ -139,6 +148,15 @@ public final class BatchSPIManager {
 	public void registerExecutorServiceProvider(ExecutorServiceProvider provider) {
 		this.executorServiceProvider = provider;
 	}
+
+	/**
+	 * Turns on chunk phase timing for every chunk step started from now on, reporting each chunk
+	 * to the given sink.  Pass <b>null</b> to stop reporting.
+	 * @param sink impl
+	 */
+	public void registerChunkMetricsSink(ChunkMetricsSink sink) {
+		this.chunkMetricsSink = sink;
+	}
         
 	/**
 	 * Override container properties read from META-INF
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.spi;
+
+import java.util.Map;
+
+/**
+ * Receives the time spent in each {@link ChunkPhase} of every chunk the batch runtime
+ * commits, e.g. to feed an external metrics library.
+ * 
+ * Called on the step's thread, so implementations should return quickly.
+ */
+public interface ChunkMetricsSink {
+
+	/**
+	 * @param jobExecutionId the top-level job execution
+	 * @param stepExecutionId the step execution (shared by the partitions of a partitioned step)
+	 * @param stepName the step id
+	 * @param phaseNanos the nanoseconds spent in each phase of the chunk just committed
+	 */
+	public void chunkCompleted(long jobExecutionId, long stepExecutionId, String stepName, Map<ChunkPhase, Long> phaseNanos);
+}
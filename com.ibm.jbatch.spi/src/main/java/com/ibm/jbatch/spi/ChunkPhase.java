@@ -0,0 +1,35 @@
+/*
+ * Copyright 2026 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.spi;
+
+/**
+ * The parts of a chunk's read-process-write loop which the batch runtime times.
+ */
+public enum ChunkPhase {
+	/** ItemReader.readItem() */
+	READ,
+	/** ItemProcessor.processItem() */
+	PROCESS,
+	/** ItemWriter.writeItems() */
+	WRITE,
+	/** Chunk and item read, process and write listeners */
+	LISTENER,
+	/** Gathering and persisting the reader/writer checkpoint and persistent user data */
+	CHECKPOINT,
+	/** Committing the chunk transaction */
+	COMMIT
+}
@@ -41,6 +41,8 @@ public class ServiceRegistry {
 		public static final String BATCH_THREADPOOL_GROWABLE = "com.ibm.jbatch.container.services.impl.GrowableThreadPoolServiceImpl";
 		public static final String BATCH_THREADPOOL_JNDI_DELEGATING = "com.ibm.jbatch.container.services.impl.JNDIDelegatingThreadPoolServiceImpl";
 		public static final String BATCH_THREADPOOL_SPI_DELEGATING = "com.ibm.jbatch.container.services.impl.SPIDelegatingThreadPoolServiceImpl";
+		public static final String BATCH_THREADPOOL_VIRTUAL = "com.ibm.jbatch.container.services.impl.VirtualThreadPoolServiceImpl";
+		public static final String BATCH_THREADPOOL_TIERED = "com.ibm.jbatch.container.services.impl.TieredThreadPoolServiceImpl";
 
 		public static final String TRANSACTION_DEFAULT = "com.ibm.jbatch.container.services.impl.BatchTransactionServiceImpl";
 	}